@@ -0,0 +1,45 @@
+package com.example.demo.cache;
+
+import com.example.demo.model.facility.Facility;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+@Component
+@RequiredArgsConstructor
+public class SecondLevelCacheEvictor {
+    private static final String FACILITY_DOCTORS_ROLE = Facility.class.getName() + ".doctors";
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    public void evictFacilityDoctors(Collection<Facility> facilities) {
+        List<Long> facilityIds = facilities.stream()
+                .map(Facility::getId)
+                .filter(Objects::nonNull)
+                .toList();
+        if (facilityIds.isEmpty()) {
+            return;
+        }
+        Runnable eviction = () -> {
+            Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+            facilityIds.forEach(facilityId -> cache.evictCollectionData(FACILITY_DOCTORS_ROLE, facilityId));
+        };
+        eviction.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eviction.run();
+                }
+            });
+        }
+    }
+}
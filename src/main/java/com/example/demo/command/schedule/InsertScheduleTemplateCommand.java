@@ -0,0 +1,19 @@
+package com.example.demo.command.schedule;
+
+import lombok.Builder;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.Set;
+
+@Builder
+public record InsertScheduleTemplateCommand(
+        Long doctorId,
+        Long facilityId,
+        Set<DayOfWeek> daysOfWeek,
+        LocalTime startTime,
+        LocalTime endTime,
+        Integer slotLengthMinutes,
+        String timeZone
+) {
+}
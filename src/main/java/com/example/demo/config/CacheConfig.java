@@ -0,0 +1,15 @@
+package com.example.demo.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration
+@EnableCaching(order = Ordered.HIGHEST_PRECEDENCE)
+public class CacheConfig {
+    public static final String PATIENTS = "patients";
+    public static final String PATIENT_IDS = "patientIds";
+    public static final String DOCTORS = "doctors";
+    public static final String DOCTOR_IDS = "doctorIds";
+    public static final String ENTRY_COUNTS = "entryCounts";
+}
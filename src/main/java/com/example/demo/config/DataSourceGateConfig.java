@@ -0,0 +1,37 @@
+package com.example.demo.config;
+
+import com.example.demo.datasource.ConcurrencyLimitingDataSource;
+import com.example.demo.datasource.ReplicaRoutingDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+@Configuration
+@ConditionalOnProperty(prefix = "medical-clinic.datasource-gate", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class DataSourceGateConfig {
+    @Bean
+    public static BeanPostProcessor dataSourceGateBeanPostProcessor(ObjectProvider<DataSourceGateProperties> dataSourceGateProperties,
+                                                                    ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ConcurrencyLimitingDataSource) && !isReplicaRouting(dataSource)) {
+                    DataSourceGateProperties properties = dataSourceGateProperties.getObject();
+                    return new ConcurrencyLimitingDataSource(dataSource, "primary", properties.maxConcurrentConnections(), properties.acquireTimeout(), meterRegistry.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+
+    private static boolean isReplicaRouting(DataSource dataSource) {
+        return dataSource instanceof ReplicaRoutingDataSource
+                || dataSource instanceof LazyConnectionDataSourceProxy proxy && proxy.getTargetDataSource() instanceof ReplicaRoutingDataSource;
+    }
+}
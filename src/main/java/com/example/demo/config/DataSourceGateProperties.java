@@ -0,0 +1,14 @@
+package com.example.demo.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "medical-clinic.datasource-gate")
+public record DataSourceGateProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("10") int maxConcurrentConnections,
+        @DefaultValue("30s") Duration acquireTimeout
+) {
+}
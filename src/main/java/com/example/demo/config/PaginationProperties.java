@@ -0,0 +1,10 @@
+package com.example.demo.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "medical-clinic.pagination")
+public record PaginationProperties(
+        @DefaultValue("false") boolean tableStatisticsEstimates
+) {
+}
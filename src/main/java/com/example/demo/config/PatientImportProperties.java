@@ -0,0 +1,14 @@
+package com.example.demo.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+@ConfigurationProperties(prefix = "medical-clinic.patient-import")
+public record PatientImportProperties(
+        @DefaultValue("1000") int chunkSize,
+        @DefaultValue("1000") int maxReportedErrors,
+        @DefaultValue("8192") int maxRecordLength,
+        @DefaultValue("1GB") DataSize maxFileSize
+) {
+}
@@ -0,0 +1,94 @@
+package com.example.demo.config;
+
+import com.example.demo.datasource.ConcurrencyLimitingDataSource;
+import com.example.demo.datasource.ReadYourWritesFilter;
+import com.example.demo.datasource.ReadYourWritesPin;
+import com.example.demo.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.IntStream;
+
+@Configuration
+@ConditionalOnProperty(prefix = "medical-clinic.datasource-replicas", name = "enabled", havingValue = "true")
+public class ReplicaRoutingConfig {
+    private static final String HIKARI_PREFIX = "spring.datasource.hikari";
+
+    @Bean
+    public ReadYourWritesPin readYourWritesPin(ReplicaRoutingProperties replicaRoutingProperties, Clock clock) {
+        return new ReadYourWritesPin(replicaRoutingProperties.readYourWritesWindow(), replicaRoutingProperties.pinCookieSecret(), clock);
+    }
+
+    @Bean
+    public ReadYourWritesFilter readYourWritesFilter(ReadYourWritesPin readYourWritesPin) {
+        return new ReadYourWritesFilter(readYourWritesPin);
+    }
+
+    @Bean(destroyMethod = "close")
+    public ReplicaRoutingDataSource replicaRoutingDataSource(DataSourceProperties dataSourceProperties, ReplicaRoutingProperties replicaRoutingProperties,
+                                                             DataSourceGateProperties dataSourceGateProperties, ReadYourWritesPin readYourWritesPin,
+                                                             Environment environment, MeterRegistry meterRegistry) {
+        HikariDataSource primaryPool = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        configurePool(primaryPool, "primary", environment, meterRegistry);
+        DataSource primary = gate(primaryPool, "primary", dataSourceGateProperties.acquireTimeout(), dataSourceGateProperties, meterRegistry);
+        Duration replicaAcquireTimeout = replicaRoutingProperties.replicaConnectionTimeout().compareTo(dataSourceGateProperties.acquireTimeout()) < 0
+                ? replicaRoutingProperties.replicaConnectionTimeout() : dataSourceGateProperties.acquireTimeout();
+        List<ReplicaRoutingProperties.Replica> replicas = replicaRoutingProperties.replicas();
+        List<DataSource> replicaPools = IntStream.range(0, replicas.size())
+                .mapToObj(i -> gate(createReplicaPool(replicas.get(i), "replica-%d".formatted(i), replicaRoutingProperties, dataSourceProperties, environment, meterRegistry),
+                        "replica-%d".formatted(i), replicaAcquireTimeout, dataSourceGateProperties, meterRegistry))
+                .toList();
+        return new ReplicaRoutingDataSource(primary, replicaPools, replicaRoutingProperties.healthCheckTimeout(), replicaRoutingProperties.maxReplicationLag(),
+                replicaRoutingProperties.replicationLagQuery(), readYourWritesPin, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    private HikariDataSource createReplicaPool(ReplicaRoutingProperties.Replica replica, String poolName, ReplicaRoutingProperties replicaRoutingProperties,
+                                               DataSourceProperties dataSourceProperties, Environment environment, MeterRegistry meterRegistry) {
+        HikariDataSource pool = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .driverClassName(dataSourceProperties.determineDriverClassName())
+                .url(replica.url())
+                .username(Objects.requireNonNullElse(replica.username(), dataSourceProperties.determineUsername()))
+                .password(Objects.requireNonNullElse(replica.password(), dataSourceProperties.determinePassword()))
+                .build();
+        configurePool(pool, poolName, environment, meterRegistry);
+        pool.setReadOnly(true);
+        pool.setConnectionTimeout(replicaRoutingProperties.replicaConnectionTimeout().toMillis());
+        return pool;
+    }
+
+    private DataSource gate(HikariDataSource pool, String poolName, Duration acquireTimeout, DataSourceGateProperties dataSourceGateProperties,
+                            MeterRegistry meterRegistry) {
+        if (!dataSourceGateProperties.enabled()) {
+            return pool;
+        }
+        return new ConcurrencyLimitingDataSource(pool, poolName, dataSourceGateProperties.maxConcurrentConnections(), acquireTimeout, meterRegistry);
+    }
+
+    private void configurePool(HikariDataSource pool, String poolName, Environment environment, MeterRegistry meterRegistry) {
+        Binder.get(environment).bind(HIKARI_PREFIX, Bindable.ofInstance(pool));
+        pool.setPoolName(poolName);
+        pool.setMetricRegistry(meterRegistry);
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.demo.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+@ConfigurationProperties(prefix = "medical-clinic.datasource-replicas")
+public record ReplicaRoutingProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue List<Replica> replicas,
+        @DefaultValue("5s") Duration healthCheckInterval,
+        @DefaultValue("2s") Duration healthCheckTimeout,
+        @DefaultValue("0s") Duration readYourWritesWindow,
+        String pinCookieSecret,
+        @DefaultValue("250ms") Duration replicaConnectionTimeout,
+        @DefaultValue("1s") Duration maxReplicationLag,
+        @DefaultValue(DEFAULT_REPLICATION_LAG_QUERY) String replicationLagQuery
+) {
+    public static final String DEFAULT_REPLICATION_LAG_QUERY = "select coalesce(case when pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() then 0 "
+            + "else extract(epoch from now() - pg_last_xact_replay_timestamp()) end, 0)";
+
+    public record Replica(
+            String url,
+            String username,
+            String password
+    ) {
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.demo.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "medical-clinic.schedule")
+public record ScheduleProperties(
+        @DefaultValue("28") int horizonDays,
+        @DefaultValue("500") int batchSize
+) {
+}
@@ -0,0 +1,15 @@
+package com.example.demo.config;
+
+import com.example.demo.model.SliceTotal;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+
+@Component
+public class SliceTotalConverter implements Converter<String, SliceTotal> {
+    @Override
+    public SliceTotal convert(String source) {
+        return SliceTotal.valueOf(source.trim().toUpperCase(Locale.ROOT));
+    }
+}
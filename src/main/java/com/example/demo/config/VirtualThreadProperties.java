@@ -0,0 +1,13 @@
+package com.example.demo.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "medical-clinic.virtual-threads")
+public record VirtualThreadProperties(
+        @DefaultValue("false") boolean pinningDiagnostics,
+        @DefaultValue("20ms") Duration pinningThreshold
+) {
+}
@@ -0,0 +1,15 @@
+package com.example.demo.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "medical-clinic.visit")
+public record VisitProperties(
+        @DefaultValue("false") boolean databaseOverlapConstraint,
+        @DefaultValue("64") int lockStripes,
+        @DefaultValue("5s") Duration lockTimeout,
+        @DefaultValue("2000") int maxCursorPageSize
+) {
+}
@@ -3,6 +3,8 @@ package com.example.demo.controller;
 import com.example.demo.command.doctor.UpdateDoctorFacilitiesCommand;
 import com.example.demo.command.doctor.UpsertDoctorCommand;
 import com.example.demo.model.PageableContentDto;
+import com.example.demo.model.SliceContentDto;
+import com.example.demo.model.SliceTotal;
 import com.example.demo.model.doctor.DoctorDTO;
 import com.example.demo.service.DoctorService;
 import lombok.RequiredArgsConstructor;
@@ -16,6 +18,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -36,6 +39,11 @@ public class DoctorController {
         return doctorService.getDoctors(pageable);
     }
 
+    @GetMapping(params = "total")
+    public SliceContentDto<DoctorDTO> getDoctors(@RequestParam("total") SliceTotal total, Pageable pageable) {
+        return doctorService.getDoctors(total, pageable);
+    }
+
     @GetMapping("/{email}")
     public DoctorDTO getDoctorByEmail(@PathVariable("email") String email) {
         return doctorService.getDoctorByEmail(email);
@@ -3,7 +3,10 @@ package com.example.demo.controller;
 import com.example.demo.command.facility.InsertFacilityCommand;
 import com.example.demo.command.facility.UpdateFacilityCommand;
 import com.example.demo.model.PageableContentDto;
+import com.example.demo.model.SliceContentDto;
+import com.example.demo.model.SliceTotal;
 import com.example.demo.model.facility.FacilityDTO;
+import com.example.demo.model.facility.FacilitySummaryDTO;
 import com.example.demo.service.FacilityService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Pageable;
@@ -15,6 +18,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -43,6 +47,16 @@ public class FacilityController {
         return facilityService.getFacilities(pageable);
     }
 
+    @GetMapping(params = "total")
+    public SliceContentDto<FacilityDTO> getFacilities(@RequestParam("total") SliceTotal total, Pageable pageable) {
+        return facilityService.getFacilities(total, pageable);
+    }
+
+    @GetMapping("/summary")
+    public PageableContentDto<FacilitySummaryDTO> getFacilitySummaries(Pageable pageable) {
+        return facilityService.getFacilitySummaries(pageable);
+    }
+
     @GetMapping("/{id}")
     public FacilityDTO getFacilityById(@PathVariable("id") Long id) {
         return facilityService.getFacilityById(id);
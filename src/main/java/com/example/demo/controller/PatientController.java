@@ -3,11 +3,16 @@ package com.example.demo.controller;
 import com.example.demo.command.patient.UpdatePatientPasswordCommand;
 import com.example.demo.command.patient.UpsertPatientCommand;
 import com.example.demo.model.PageableContentDto;
+import com.example.demo.model.SliceContentDto;
+import com.example.demo.model.SliceTotal;
 import com.example.demo.model.patient.PatientDTO;
+import com.example.demo.model.patient.PatientImportReportDTO;
+import com.example.demo.service.PatientImportService;
 import com.example.demo.service.PatientService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
@@ -16,20 +21,30 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.io.IOException;
+import java.io.InputStream;
+
 @RestController
 @RequestMapping("/patients")
 @RequiredArgsConstructor
 public class PatientController {
     private final PatientService patientService;
+    private final PatientImportService patientImportService;
 
     @GetMapping
     public PageableContentDto<PatientDTO> getPatients(Pageable pageable) {
         return patientService.getAllPatients(pageable);
     }
 
+    @GetMapping(params = "total")
+    public SliceContentDto<PatientDTO> getPatients(@RequestParam("total") SliceTotal total, Pageable pageable) {
+        return patientService.getAllPatients(total, pageable);
+    }
+
     @GetMapping("/{email}")
     public PatientDTO getPatient(@PathVariable("email") String email) {
         return patientService.getPatient(email);
@@ -41,6 +56,11 @@ public class PatientController {
         return patientService.createPatient(upsertPatientCommand);
     }
 
+    @PostMapping(value = "/import", consumes = {"text/csv", MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public PatientImportReportDTO importPatients(InputStream inputStream) throws IOException {
+        return patientImportService.importPatients(inputStream);
+    }
+
     @ResponseStatus(HttpStatus.NO_CONTENT)
     @DeleteMapping("/{email}")
     public void deletePatient(@PathVariable("email") String email) {
@@ -0,0 +1,52 @@
+package com.example.demo.controller;
+
+import com.example.demo.command.schedule.InsertScheduleTemplateCommand;
+import com.example.demo.model.PageableContentDto;
+import com.example.demo.model.schedule.ScheduleMaterializationDTO;
+import com.example.demo.model.schedule.ScheduleTemplateDTO;
+import com.example.demo.service.ScheduleTemplateService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/schedule-templates")
+@RequiredArgsConstructor
+public class ScheduleTemplateController {
+    private final ScheduleTemplateService scheduleTemplateService;
+
+    @ResponseStatus(HttpStatus.CREATED)
+    @PostMapping
+    public ScheduleTemplateDTO createScheduleTemplate(@RequestBody InsertScheduleTemplateCommand insertScheduleTemplateCommand) {
+        return scheduleTemplateService.createScheduleTemplate(insertScheduleTemplateCommand);
+    }
+
+    @GetMapping
+    public PageableContentDto<ScheduleTemplateDTO> getScheduleTemplates(Pageable pageable) {
+        return scheduleTemplateService.getScheduleTemplates(pageable);
+    }
+
+    @GetMapping("/{id}")
+    public ScheduleTemplateDTO getScheduleTemplateById(@PathVariable("id") Long id) {
+        return scheduleTemplateService.getScheduleTemplateById(id);
+    }
+
+    @PostMapping("/{id}/materialization")
+    public ScheduleMaterializationDTO materializeScheduleTemplate(@PathVariable("id") Long id) {
+        return scheduleTemplateService.materializeScheduleTemplate(id);
+    }
+
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    @DeleteMapping("/{id}")
+    public void deleteScheduleTemplate(@PathVariable("id") Long id) {
+        scheduleTemplateService.deleteScheduleTemplate(id);
+    }
+}
@@ -1,12 +1,23 @@
 package com.example.demo.controller;
 
 import com.example.demo.command.visit.InsertVisitCommand;
+import com.example.demo.exception.visit.VisitIllegalDataException;
+import com.example.demo.model.CursorContentDto;
 import com.example.demo.model.PageableContentDto;
+import com.example.demo.model.SliceContentDto;
+import com.example.demo.model.SliceTotal;
+import com.example.demo.model.visit.AvailableSlotDTO;
 import com.example.demo.model.visit.VisitDTO;
+import com.example.demo.model.visit.VisitExportFormat;
+import com.example.demo.service.VisitExportService;
 import com.example.demo.service.VisitService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
@@ -14,14 +25,22 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.Clock;
+import java.time.OffsetDateTime;
+import java.util.List;
 
 @RestController
 @RequestMapping("/visits")
 @RequiredArgsConstructor
 public class VisitController {
     private final VisitService visitService;
+    private final VisitExportService visitExportService;
+    private final Clock clock;
 
     @ResponseStatus(HttpStatus.CREATED)
     @PostMapping
@@ -29,21 +48,93 @@ public class VisitController {
         return visitService.createVisit(insertVisitCommand);
     }
 
+    @ResponseStatus(HttpStatus.CREATED)
+    @PostMapping("/bulk")
+    public List<VisitDTO> createVisits(@RequestBody List<InsertVisitCommand> insertVisitCommands) {
+        return visitService.createVisits(insertVisitCommands);
+    }
+
     @GetMapping
     public PageableContentDto<VisitDTO> getAllVisits(Pageable pageable) {
         return visitService.getAllVisits(pageable);
     }
 
+    @GetMapping(params = "total")
+    public SliceContentDto<VisitDTO> getAllVisits(@RequestParam("total") SliceTotal total, Pageable pageable) {
+        return visitService.getAllVisits(total, pageable);
+    }
+
+    @GetMapping(params = "cursor")
+    public CursorContentDto<VisitDTO> getAllVisits(@RequestParam("cursor") String cursor,
+                                                   @RequestParam(value = "size", defaultValue = "20") int size) {
+        return visitService.getAllVisits(cursor, size);
+    }
+
+    @GetMapping(value = {"", "/doctorId/{doctorId}", "/patientId/{patientId}"}, params = {"total", "cursor"})
+    public void rejectCombinedPagination() {
+        throw new VisitIllegalDataException("Cursor and total pagination cannot be combined.", OffsetDateTime.now(clock));
+    }
+
+    @GetMapping("/available")
+    public PageableContentDto<AvailableSlotDTO> getAvailableSlots(
+            @RequestParam(value = "doctorId", required = false) Long doctorId,
+            @RequestParam(value = "specialization", required = false) String specialization,
+            @RequestParam(value = "facilityId", required = false) Long facilityId,
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime to,
+            Pageable pageable) {
+        return visitService.getAvailableSlots(doctorId, specialization, facilityId, from, to, pageable);
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportVisits(
+            @RequestParam(value = "format", defaultValue = "ndjson") String format,
+            @RequestParam(value = "doctorId", required = false) Long doctorId,
+            @RequestParam(value = "patientId", required = false) Long patientId,
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime to) {
+        VisitExportFormat exportFormat = visitExportService.getExportFormat(format);
+        visitExportService.validateExportFilters(from, to);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getMediaType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=visits.%s".formatted(exportFormat.getFileExtension()))
+                .body(outputStream -> visitExportService.exportVisits(exportFormat, doctorId, patientId, from, to, outputStream));
+    }
+
     @GetMapping("/doctorId/{doctorId}")
     public PageableContentDto<VisitDTO> getDoctorVisits(@PathVariable("doctorId") Long doctorId, Pageable pageable) {
         return visitService.getDoctorVisits(doctorId, pageable);
     }
 
+    @GetMapping(value = "/doctorId/{doctorId}", params = "total")
+    public SliceContentDto<VisitDTO> getDoctorVisits(@PathVariable("doctorId") Long doctorId, @RequestParam("total") SliceTotal total, Pageable pageable) {
+        return visitService.getDoctorVisits(doctorId, total, pageable);
+    }
+
+    @GetMapping(value = "/doctorId/{doctorId}", params = "cursor")
+    public CursorContentDto<VisitDTO> getDoctorVisits(@PathVariable("doctorId") Long doctorId,
+                                                      @RequestParam("cursor") String cursor,
+                                                      @RequestParam(value = "size", defaultValue = "20") int size) {
+        return visitService.getDoctorVisits(doctorId, cursor, size);
+    }
+
     @GetMapping("/patientId/{patientId}")
     public PageableContentDto<VisitDTO> getPatientVisits(@PathVariable("patientId") Long patientId, Pageable pageable) {
         return visitService.getPatientVisits(patientId, pageable);
     }
 
+    @GetMapping(value = "/patientId/{patientId}", params = "total")
+    public SliceContentDto<VisitDTO> getPatientVisits(@PathVariable("patientId") Long patientId, @RequestParam("total") SliceTotal total, Pageable pageable) {
+        return visitService.getPatientVisits(patientId, total, pageable);
+    }
+
+    @GetMapping(value = "/patientId/{patientId}", params = "cursor")
+    public CursorContentDto<VisitDTO> getPatientVisits(@PathVariable("patientId") Long patientId,
+                                                       @RequestParam("cursor") String cursor,
+                                                       @RequestParam(value = "size", defaultValue = "20") int size) {
+        return visitService.getPatientVisits(patientId, cursor, size);
+    }
+
     @ResponseStatus(HttpStatus.NO_CONTENT)
     @PatchMapping("/{id}/patientId/{patientId}")
     public void registerPatientToVisit(@PathVariable("id") Long visitId, @PathVariable("patientId") Long patientId) {
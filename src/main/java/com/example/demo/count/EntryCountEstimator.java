@@ -0,0 +1,34 @@
+package com.example.demo.count;
+
+import com.example.demo.config.PaginationProperties;
+import com.example.demo.model.SliceTotal;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.function.LongSupplier;
+
+@Component
+@RequiredArgsConstructor
+public class EntryCountEstimator {
+    private final JdbcTemplate jdbcTemplate;
+    private final PaginationProperties paginationProperties;
+
+    public Long estimate(SliceTotal total, String tableName, LongSupplier cachedCount) {
+        if (total != SliceTotal.ESTIMATED) {
+            return null;
+        }
+        if (paginationProperties.tableStatisticsEstimates()) {
+            Long rowEstimate = jdbcTemplate.query("select reltuples::bigint from pg_class where oid = to_regclass(?)",
+                    resultSet -> resultSet.next() ? resultSet.getObject(1, Long.class) : null, tableName);
+            if (rowEstimate != null && rowEstimate > 0) {
+                return rowEstimate;
+            }
+        }
+        return cachedCount.getAsLong();
+    }
+
+    public Long estimate(SliceTotal total, LongSupplier cachedCount) {
+        return total == SliceTotal.ESTIMATED ? cachedCount.getAsLong() : null;
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.demo.datasource;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Optional;
+
+public class ReadYourWritesPin {
+    public static final String COOKIE_NAME = "primary-pin-until";
+    private static final String SIGNATURE_ALGORITHM = "HmacSHA256";
+
+    private final ThreadLocal<Instant> pinnedUntil = new ThreadLocal<>();
+    private final Duration window;
+    private final SecretKeySpec key;
+    private final Clock clock;
+
+    public ReadYourWritesPin(Duration window, String secret, Clock clock) {
+        this.window = window;
+        this.key = new SecretKeySpec(secret == null || secret.isBlank() ? randomSecret() : secret.getBytes(StandardCharsets.UTF_8), SIGNATURE_ALGORITHM);
+        this.clock = clock;
+    }
+
+    public boolean isPinned() {
+        Instant until = pinnedUntil.get();
+        return until != null && until.isAfter(clock.instant());
+    }
+
+    public void pin() {
+        if (!window.isPositive()) {
+            return;
+        }
+        Instant until = clock.instant().plus(window);
+        pinnedUntil.set(until);
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes && attributes.getResponse() != null) {
+            String value = Long.toString(until.toEpochMilli());
+            Cookie cookie = new Cookie(COOKIE_NAME, value + "." + sign(value));
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge((int) Math.max(1, window.toSeconds()));
+            attributes.getResponse().addCookie(cookie);
+        }
+    }
+
+    public void restore(HttpServletRequest request) {
+        pinnedUntil.remove();
+        if (request.getCookies() == null || !window.isPositive()) {
+            return;
+        }
+        Arrays.stream(request.getCookies())
+                .filter(cookie -> COOKIE_NAME.equals(cookie.getName()))
+                .findFirst()
+                .flatMap(cookie -> parse(cookie.getValue()))
+                .ifPresent(pinnedUntil::set);
+    }
+
+    public void clear() {
+        pinnedUntil.remove();
+    }
+
+    private Optional<Instant> parse(String cookieValue) {
+        int separator = cookieValue.indexOf('.');
+        if (separator < 0) {
+            return Optional.empty();
+        }
+        String value = cookieValue.substring(0, separator);
+        byte[] signature = cookieValue.substring(separator + 1).getBytes(StandardCharsets.US_ASCII);
+        if (!MessageDigest.isEqual(sign(value).getBytes(StandardCharsets.US_ASCII), signature)) {
+            return Optional.empty();
+        }
+        Instant until;
+        try {
+            until = Instant.ofEpochMilli(Long.parseLong(value));
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+        Instant now = clock.instant();
+        if (!until.isAfter(now)) {
+            return Optional.empty();
+        }
+        Instant latest = now.plus(window);
+        return Optional.of(until.isAfter(latest) ? latest : until);
+    }
+
+    private String sign(String value) {
+        try {
+            Mac mac = Mac.getInstance(SIGNATURE_ALGORITHM);
+            mac.init(key);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(mac.doFinal(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to sign the read-your-writes cookie.", e);
+        }
+    }
+
+    private static byte[] randomSecret() {
+        byte[] secret = new byte[32];
+        new SecureRandom().nextBytes(secret);
+        return secret;
+    }
+}
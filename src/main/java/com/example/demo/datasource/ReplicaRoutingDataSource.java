@@ -0,0 +1,176 @@
+package com.example.demo.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTransientException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource implements Closeable {
+    private static final String CONNECTIONS_METRIC = "datasource.routing.connections";
+    private static final String CONNECTION_EXCEPTION_SQL_STATE_CLASS = "08";
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final Duration healthCheckTimeout;
+    private final Duration maxReplicationLag;
+    private final String replicationLagQuery;
+    private final ReadYourWritesPin readYourWritesPin;
+    private final Counter primaryConnections;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas, Duration healthCheckTimeout, Duration maxReplicationLag,
+                                    String replicationLagQuery, ReadYourWritesPin readYourWritesPin, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replicas = IntStream.range(0, replicas.size())
+                .mapToObj(i -> new Replica("replica-%d".formatted(i), replicas.get(i), new AtomicBoolean(true),
+                        Counter.builder(CONNECTIONS_METRIC).tag("target", "replica-%d".formatted(i)).register(meterRegistry)))
+                .toList();
+        this.healthCheckTimeout = healthCheckTimeout;
+        this.maxReplicationLag = maxReplicationLag;
+        this.replicationLagQuery = replicationLagQuery;
+        this.readYourWritesPin = readYourWritesPin;
+        this.primaryConnections = Counter.builder(CONNECTIONS_METRIC).tag("target", "primary").register(meterRegistry);
+        Gauge.builder("datasource.replicas.healthy", this.replicas, list -> list.stream().filter(replica -> replica.healthy().get()).count())
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return route(DataSource::getConnection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return route(dataSource -> dataSource.getConnection(username, password));
+    }
+
+    @Scheduled(fixedDelayString = "${medical-clinic.datasource-replicas.health-check-interval:5s}")
+    public void checkReplicaHealth() {
+        replicas.forEach(replica -> {
+            boolean healthy = isHealthy(replica);
+            if (replica.healthy().getAndSet(healthy) != healthy) {
+                log.info("Replica {} is {}.", replica.name(), healthy ? "back up" : "down");
+            }
+        });
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (primary instanceof Closeable closeable) {
+            closeable.close();
+        }
+        for (Replica replica : replicas) {
+            if (replica.dataSource() instanceof Closeable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private Connection route(ConnectionFactory connectionFactory) throws SQLException {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            pinAfterCommit();
+        } else if (!readYourWritesPin.isPinned()) {
+            Connection connection = getReplicaConnection(connectionFactory);
+            if (connection != null) {
+                return connection;
+            }
+        }
+        Connection connection = connectionFactory.get(primary);
+        primaryConnections.increment();
+        return connection;
+    }
+
+    private Connection getReplicaConnection(ConnectionFactory connectionFactory) {
+        if (replicas.isEmpty()) {
+            return null;
+        }
+        int first = Math.floorMod(nextReplica.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((first + i) % replicas.size());
+            if (!replica.healthy().get()) {
+                continue;
+            }
+            try {
+                Connection connection = connectionFactory.get(replica.dataSource());
+                replica.connections().increment();
+                return connection;
+            } catch (SQLException e) {
+                if (isConnectionFailure(e)) {
+                    replica.healthy().set(false);
+                    log.warn("Replica {} is down, routing reads elsewhere.", replica.name(), e);
+                } else {
+                    log.debug("Replica {} is busy, routing read elsewhere.", replica.name(), e);
+                }
+            }
+        }
+        return null;
+    }
+
+    private void pinAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive() || !TransactionSynchronizationManager.isActualTransactionActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                readYourWritesPin.pin();
+            }
+        });
+    }
+
+    private boolean isConnectionFailure(SQLException e) {
+        return !(e instanceof SQLTransientException) || (e.getSQLState() != null && e.getSQLState().startsWith(CONNECTION_EXCEPTION_SQL_STATE_CLASS));
+    }
+
+    private boolean isHealthy(Replica replica) {
+        int timeoutSeconds = (int) Math.max(1, healthCheckTimeout.toSeconds());
+        try (Connection connection = replica.dataSource().getConnection()) {
+            if (!connection.isValid(timeoutSeconds)) {
+                return false;
+            }
+            if (replicationLagQuery == null || replicationLagQuery.isBlank()) {
+                return true;
+            }
+            try (Statement statement = connection.createStatement()) {
+                statement.setQueryTimeout(timeoutSeconds);
+                try (ResultSet resultSet = statement.executeQuery(replicationLagQuery)) {
+                    Duration lag = resultSet.next() ? Duration.ofMillis(Math.round(resultSet.getDouble(1) * 1000)) : Duration.ZERO;
+                    if (lag.compareTo(maxReplicationLag) > 0) {
+                        log.warn("Replica {} is lagging {} behind the primary.", replica.name(), lag);
+                        return false;
+                    }
+                    return true;
+                }
+            }
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private record Replica(String name, DataSource dataSource, AtomicBoolean healthy, Counter connections) {
+    }
+
+    @FunctionalInterface
+    private interface ConnectionFactory {
+        Connection get(DataSource dataSource) throws SQLException;
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.demo.diagnostics;
+
+import com.example.demo.config.VirtualThreadProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.util.stream.Collectors;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "medical-clinic.virtual-threads", name = "pinning-diagnostics", havingValue = "true")
+public class VirtualThreadPinningMonitor implements SmartLifecycle {
+    private static final String VIRTUAL_THREAD_PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    private final VirtualThreadProperties virtualThreadProperties;
+    private final Timer pinnedTimer;
+    private volatile RecordingStream recordingStream;
+
+    public VirtualThreadPinningMonitor(VirtualThreadProperties virtualThreadProperties, MeterRegistry meterRegistry) {
+        this.virtualThreadProperties = virtualThreadProperties;
+        this.pinnedTimer = Timer.builder("jvm.threads.virtual.pinned").register(meterRegistry);
+    }
+
+    @Override
+    public void start() {
+        recordingStream = new RecordingStream();
+        recordingStream.enable(VIRTUAL_THREAD_PINNED_EVENT)
+                .withThreshold(virtualThreadProperties.pinningThreshold())
+                .withStackTrace();
+        recordingStream.onEvent(VIRTUAL_THREAD_PINNED_EVENT, this::onPinned);
+        recordingStream.startAsync();
+    }
+
+    @Override
+    public void stop() {
+        recordingStream.close();
+        recordingStream = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return recordingStream != null;
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinnedTimer.record(event.getDuration());
+        String stackTrace = event.getStackTrace() == null ? "" : event.getStackTrace().getFrames().stream()
+                .map(RecordedFrame::getMethod)
+                .map(method -> "\tat %s.%s".formatted(method.getType().getName(), method.getName()))
+                .collect(Collectors.joining(System.lineSeparator()));
+        log.warn("Virtual thread was pinned for {} ms:{}{}", event.getDuration().toMillis(), System.lineSeparator(), stackTrace);
+    }
+}
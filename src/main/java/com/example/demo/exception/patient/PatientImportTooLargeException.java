@@ -0,0 +1,12 @@
+package com.example.demo.exception.patient;
+
+import com.example.demo.exception.WebException;
+import org.springframework.http.HttpStatus;
+
+import java.time.OffsetDateTime;
+
+public class PatientImportTooLargeException extends WebException {
+    public PatientImportTooLargeException(String message, OffsetDateTime date) {
+        super(message, HttpStatus.PAYLOAD_TOO_LARGE, date);
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.demo.exception.schedule;
+
+import com.example.demo.exception.WebException;
+import org.springframework.http.HttpStatus;
+
+import java.time.OffsetDateTime;
+
+public class ScheduleTemplateNotFoundException extends WebException {
+    public ScheduleTemplateNotFoundException(String message, OffsetDateTime date) {
+        super(message, HttpStatus.NOT_FOUND, date);
+    }
+}
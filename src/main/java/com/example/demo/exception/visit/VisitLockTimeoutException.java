@@ -0,0 +1,12 @@
+package com.example.demo.exception.visit;
+
+import com.example.demo.exception.WebException;
+import org.springframework.http.HttpStatus;
+
+import java.time.OffsetDateTime;
+
+public class VisitLockTimeoutException extends WebException {
+    public VisitLockTimeoutException(String message, OffsetDateTime date) {
+        super(message, HttpStatus.SERVICE_UNAVAILABLE, date);
+    }
+}
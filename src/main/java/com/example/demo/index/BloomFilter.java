@@ -0,0 +1,70 @@
+package com.example.demo.index;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class BloomFilter {
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private static final long GOLDEN_RATIO = 0x9e3779b97f4a7c15L;
+
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashFunctions;
+    private final AtomicLong insertions = new AtomicLong();
+
+    public BloomFilter(long expectedInsertions, double falsePositiveProbability) {
+        long insertionCount = Math.max(expectedInsertions, 1);
+        long optimalBitCount = (long) Math.ceil(-insertionCount * Math.log(falsePositiveProbability) / (Math.log(2) * Math.log(2)));
+        this.bits = new AtomicLongArray(Math.toIntExact(Math.max(1, (optimalBitCount + Long.SIZE - 1) / Long.SIZE)));
+        this.bitCount = (long) bits.length() * Long.SIZE;
+        this.hashFunctions = Math.max(1, (int) Math.round((double) bitCount / insertionCount * Math.log(2)));
+    }
+
+    public void put(String value) {
+        long hash = hash(value);
+        long firstHash = mix(hash);
+        long secondHash = mix(hash ^ GOLDEN_RATIO) | 1;
+        for (int i = 0; i < hashFunctions; i++) {
+            long bitIndex = Math.floorMod(firstHash + i * secondHash, bitCount);
+            bits.accumulateAndGet((int) (bitIndex / Long.SIZE), 1L << (bitIndex % Long.SIZE), (word, bit) -> word | bit);
+        }
+        insertions.incrementAndGet();
+    }
+
+    public boolean mightContain(String value) {
+        long hash = hash(value);
+        long firstHash = mix(hash);
+        long secondHash = mix(hash ^ GOLDEN_RATIO) | 1;
+        for (int i = 0; i < hashFunctions; i++) {
+            long bitIndex = Math.floorMod(firstHash + i * secondHash, bitCount);
+            if ((bits.get((int) (bitIndex / Long.SIZE)) & (1L << (bitIndex % Long.SIZE))) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public double expectedFalsePositiveProbability() {
+        return Math.pow(1 - Math.exp(-(double) hashFunctions * insertions.get() / bitCount), hashFunctions);
+    }
+
+    private static long hash(String value) {
+        long hash = FNV_OFFSET_BASIS;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
+
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.demo.index;
+
+import com.example.demo.model.visit.Visit;
+import com.example.demo.model.visit.VisitInterval;
+import com.example.demo.repository.VisitRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Consumer;
+
+@Component
+@RequiredArgsConstructor
+public class DoctorVisitIndex {
+    private static final Comparator<VisitInterval> START_TIME_ORDER = Comparator
+            .comparing(VisitInterval::startTime, OffsetDateTime.timeLineOrder())
+            .thenComparing(VisitInterval::id);
+
+    private final Object changeLock = new Object();
+    private volatile Map<Long, NavigableSet<VisitInterval>> visitsByDoctor = new ConcurrentHashMap<>();
+    private List<Consumer<Map<Long, NavigableSet<VisitInterval>>>> changesDuringRebuild;
+    private final VisitRepository visitRepository;
+    private final Clock clock;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        synchronized (changeLock) {
+            changesDuringRebuild = new ArrayList<>();
+        }
+        try {
+            Map<Long, NavigableSet<VisitInterval>> rebuilt = new ConcurrentHashMap<>();
+            visitRepository.findVisitIntervalsEndingAfter(OffsetDateTime.now(clock))
+                    .forEach(interval -> rebuilt.computeIfAbsent(interval.doctorId(), doctorId -> createVisitSet()).add(interval));
+            synchronized (changeLock) {
+                changesDuringRebuild.forEach(change -> change.accept(rebuilt));
+                visitsByDoctor = rebuilt;
+            }
+        } finally {
+            synchronized (changeLock) {
+                changesDuringRebuild = null;
+            }
+        }
+    }
+
+    public boolean overlaps(Long doctorId, OffsetDateTime startTime, OffsetDateTime endTime) {
+        NavigableSet<VisitInterval> visits = visitsByDoctor.get(doctorId);
+        if (visits == null) {
+            return false;
+        }
+        VisitInterval latestStartingBeforeEnd = visits.lower(new VisitInterval(Long.MIN_VALUE, doctorId, endTime, endTime));
+        return latestStartingBeforeEnd != null && latestStartingBeforeEnd.endTime().isAfter(startTime);
+    }
+
+    public void add(Visit visit) {
+        toInterval(visit).ifPresent(interval -> afterCommit(() -> applyChange(index -> {
+            NavigableSet<VisitInterval> visits = index.computeIfAbsent(interval.doctorId(), doctorId -> createVisitSet());
+            visits.add(interval);
+            pruneFinishedVisits(visits);
+        })));
+    }
+
+    public void remove(Visit visit) {
+        toInterval(visit).ifPresent(interval -> afterCommit(() -> applyChange(index -> {
+            NavigableSet<VisitInterval> visits = index.get(interval.doctorId());
+            if (visits != null) {
+                visits.remove(interval);
+            }
+        })));
+    }
+
+    public void removeDoctor(Long doctorId) {
+        afterCommit(() -> applyChange(index -> index.remove(doctorId)));
+    }
+
+    private void applyChange(Consumer<Map<Long, NavigableSet<VisitInterval>>> change) {
+        synchronized (changeLock) {
+            change.accept(visitsByDoctor);
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.add(change);
+            }
+        }
+    }
+
+    private void pruneFinishedVisits(NavigableSet<VisitInterval> visits) {
+        OffsetDateTime now = OffsetDateTime.now(clock);
+        for (VisitInterval visit : visits) {
+            if (visit.endTime().isAfter(now)) {
+                return;
+            }
+            visits.remove(visit);
+        }
+    }
+
+    private static Optional<VisitInterval> toInterval(Visit visit) {
+        if (Objects.isNull(visit.getId()) || Objects.isNull(visit.getDoctor())) {
+            return Optional.empty();
+        }
+        return Optional.of(new VisitInterval(visit.getId(), visit.getDoctor().getId(), visit.getStartTime(), visit.getEndTime()));
+    }
+
+    private static NavigableSet<VisitInterval> createVisitSet() {
+        return new ConcurrentSkipListSet<>(START_TIME_ORDER);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.demo.index;
+
+import com.example.demo.config.EmailIndexProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+public abstract class EmailIndex {
+    private final EmailIndexProperties emailIndexProperties;
+    private final Counter skippedLookups;
+    private final Counter confirmedLookups;
+    private final Counter falsePositiveLookups;
+    private volatile BloomFilter bloomFilter;
+    private volatile BloomFilter rebuiltBloomFilter;
+
+    protected EmailIndex(String name, EmailIndexProperties emailIndexProperties, MeterRegistry meterRegistry) {
+        this.emailIndexProperties = emailIndexProperties;
+        this.skippedLookups = lookupCounter(name, "skipped", meterRegistry);
+        this.confirmedLookups = lookupCounter(name, "confirmed", meterRegistry);
+        this.falsePositiveLookups = lookupCounter(name, "false_positive", meterRegistry);
+        Gauge.builder("email.index.false.positive.rate", this, EmailIndex::getObservedFalsePositiveRate)
+                .tag("index", name)
+                .register(meterRegistry);
+        Gauge.builder("email.index.expected.false.positive.rate", this, EmailIndex::getExpectedFalsePositiveRate)
+                .tag("index", name)
+                .register(meterRegistry);
+    }
+
+    public boolean exists(String email, Predicate<String> existsInDatabase) {
+        BloomFilter currentBloomFilter = bloomFilter;
+        if (currentBloomFilter != null && !currentBloomFilter.mightContain(email)) {
+            skippedLookups.increment();
+            return false;
+        }
+        boolean exists = existsInDatabase.test(email);
+        if (currentBloomFilter != null) {
+            (exists ? confirmedLookups : falsePositiveLookups).increment();
+        }
+        return exists;
+    }
+
+    public void add(String email) {
+        BloomFilter currentBloomFilter = bloomFilter;
+        if (currentBloomFilter != null) {
+            currentBloomFilter.put(email);
+        }
+        BloomFilter buildingBloomFilter = rebuiltBloomFilter;
+        if (buildingBloomFilter != null) {
+            buildingBloomFilter.put(email);
+        }
+    }
+
+    public void rebuild() {
+        if (!emailIndexProperties.enabled()) {
+            return;
+        }
+        BloomFilter buildingBloomFilter = new BloomFilter(Math.max(emailIndexProperties.expectedInsertions(), countEmails() * 2),
+                emailIndexProperties.falsePositiveProbability());
+        rebuiltBloomFilter = buildingBloomFilter;
+        try (Stream<String> emails = streamEmails()) {
+            emails.forEach(buildingBloomFilter::put);
+            bloomFilter = buildingBloomFilter;
+        } finally {
+            rebuiltBloomFilter = null;
+        }
+    }
+
+    protected abstract long countEmails();
+
+    protected abstract Stream<String> streamEmails();
+
+    private double getObservedFalsePositiveRate() {
+        double negativeLookups = skippedLookups.count() + falsePositiveLookups.count();
+        return negativeLookups == 0 ? 0 : falsePositiveLookups.count() / negativeLookups;
+    }
+
+    private double getExpectedFalsePositiveRate() {
+        BloomFilter currentBloomFilter = bloomFilter;
+        return currentBloomFilter == null ? 1 : currentBloomFilter.expectedFalsePositiveProbability();
+    }
+
+    private static Counter lookupCounter(String name, String result, MeterRegistry meterRegistry) {
+        return Counter.builder("email.index.lookups")
+                .tag("index", name)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
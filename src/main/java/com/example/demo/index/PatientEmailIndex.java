@@ -0,0 +1,40 @@
+package com.example.demo.index;
+
+import com.example.demo.config.EmailIndexProperties;
+import com.example.demo.repository.PatientRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.stream.Stream;
+
+@Component
+public class PatientEmailIndex extends EmailIndex {
+    private final PatientRepository patientRepository;
+
+    public PatientEmailIndex(PatientRepository patientRepository, EmailIndexProperties emailIndexProperties, MeterRegistry meterRegistry) {
+        super("patients", emailIndexProperties, meterRegistry);
+        this.patientRepository = patientRepository;
+    }
+
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${medical-clinic.email-index.rebuild-cron:0 30 2 * * *}")
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        super.rebuild();
+    }
+
+    @Override
+    protected long countEmails() {
+        return patientRepository.count();
+    }
+
+    @Override
+    protected Stream<String> streamEmails() {
+        return patientRepository.streamAllEmails();
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.demo.job;
+
+import com.example.demo.exception.WebException;
+import com.example.demo.service.ScheduleTemplateService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ScheduleTemplateMaterializationJob {
+    private final ScheduleTemplateService scheduleTemplateService;
+
+    @Scheduled(cron = "${medical-clinic.schedule.materialization-cron:0 0 2 * * *}")
+    public void materializeScheduleTemplates() {
+        scheduleTemplateService.getScheduleTemplateIds().forEach(id -> {
+            try {
+                scheduleTemplateService.materializeScheduleTemplate(id);
+            } catch (WebException ex) {
+                log.warn("Schedule template with id: {} was not materialized: {}", id, ex.getMessage());
+            } catch (RuntimeException ex) {
+                log.error("Schedule template with id: {} was not materialized.", id, ex);
+            }
+        });
+    }
+}
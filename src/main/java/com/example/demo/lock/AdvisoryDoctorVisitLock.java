@@ -0,0 +1,63 @@
+package com.example.demo.lock;
+
+import com.example.demo.config.VisitProperties;
+import com.example.demo.exception.visit.VisitLockTimeoutException;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Collection;
+
+@Component
+@ConditionalOnProperty(prefix = "medical-clinic.visit", name = "lock", havingValue = "advisory")
+public class AdvisoryDoctorVisitLock implements DoctorVisitLock {
+    private static final long MIN_RETRY_MILLIS = 5;
+    private static final long MAX_RETRY_MILLIS = 100;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration lockTimeout;
+    private final Clock clock;
+
+    public AdvisoryDoctorVisitLock(JdbcTemplate jdbcTemplate, VisitProperties visitProperties, Clock clock) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.lockTimeout = visitProperties.lockTimeout();
+        this.clock = clock;
+    }
+
+    @Override
+    public void lock(Collection<Long> doctorIds) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Doctor visit lock can only be acquired inside a transaction.");
+        }
+        long deadline = System.nanoTime() + lockTimeout.toNanos();
+        doctorIds.stream()
+                .distinct()
+                .sorted()
+                .forEach(doctorId -> lockUntilDeadline(doctorId, deadline));
+    }
+
+    private void lockUntilDeadline(Long doctorId, long deadline) {
+        long retryMillis = MIN_RETRY_MILLIS;
+        while (!Boolean.TRUE.equals(jdbcTemplate.queryForObject("select pg_try_advisory_xact_lock(?)", Boolean.class, doctorId))) {
+            long remainingMillis = Duration.ofNanos(deadline - System.nanoTime()).toMillis();
+            if (remainingMillis <= 0) {
+                throw lockTimeout();
+            }
+            try {
+                Thread.sleep(Math.min(retryMillis, remainingMillis));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw lockTimeout();
+            }
+            retryMillis = Math.min(retryMillis * 2, MAX_RETRY_MILLIS);
+        }
+    }
+
+    private VisitLockTimeoutException lockTimeout() {
+        return new VisitLockTimeoutException("The doctor's schedule is busy, please try again later.", OffsetDateTime.now(clock));
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.demo.lock;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface DoctorVisitLock {
+    void lock(Collection<Long> doctorIds);
+
+    default void lock(Long doctorId) {
+        lock(List.of(doctorId));
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.demo.lock;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+
+@Component
+@ConditionalOnProperty(prefix = "medical-clinic.visit", name = "lock", havingValue = "none")
+public class NoOpDoctorVisitLock implements DoctorVisitLock {
+    @Override
+    public void lock(Collection<Long> doctorIds) {
+    }
+}
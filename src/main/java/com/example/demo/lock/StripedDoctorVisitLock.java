@@ -0,0 +1,65 @@
+package com.example.demo.lock;
+
+import com.example.demo.config.VisitProperties;
+import com.example.demo.exception.visit.VisitLockTimeoutException;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.IntStream;
+
+@Component
+@ConditionalOnProperty(prefix = "medical-clinic.visit", name = "lock", havingValue = "striped", matchIfMissing = true)
+public class StripedDoctorVisitLock implements DoctorVisitLock {
+    private final ReentrantLock[] stripes;
+    private final Duration lockTimeout;
+    private final Clock clock;
+
+    public StripedDoctorVisitLock(VisitProperties visitProperties, Clock clock) {
+        this.stripes = IntStream.range(0, visitProperties.lockStripes())
+                .mapToObj(i -> new ReentrantLock())
+                .toArray(ReentrantLock[]::new);
+        this.lockTimeout = visitProperties.lockTimeout();
+        this.clock = clock;
+    }
+
+    @Override
+    public void lock(Collection<Long> doctorIds) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Doctor visit lock can only be acquired inside a transaction.");
+        }
+        doctorIds.stream()
+                .mapToInt(doctorId -> Math.floorMod(doctorId, stripes.length))
+                .distinct()
+                .sorted()
+                .forEach(stripe -> lockUntilCompletion(stripes[stripe]));
+    }
+
+    private void lockUntilCompletion(ReentrantLock stripe) {
+        try {
+            if (!stripe.tryLock(lockTimeout.toNanos(), TimeUnit.NANOSECONDS)) {
+                throw lockTimeout();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw lockTimeout();
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                stripe.unlock();
+            }
+        });
+    }
+
+    private VisitLockTimeoutException lockTimeout() {
+        return new VisitLockTimeoutException("The doctor's schedule is busy, please try again later.", OffsetDateTime.now(clock));
+    }
+}
@@ -3,8 +3,10 @@ package com.example.demo.mapper;
 import com.example.demo.command.doctor.UpsertDoctorCommand;
 import com.example.demo.model.doctor.Doctor;
 import com.example.demo.model.doctor.DoctorDTO;
+import com.example.demo.model.doctor.DoctorFacilityRow;
 import com.example.demo.model.doctor.SimpleDoctorDTO;
 import com.example.demo.model.facility.Facility;
+import com.example.demo.model.facility.FacilityDoctorRow;
 import com.example.demo.model.facility.SimpleFacilityDTO;
 import org.mapstruct.AfterMapping;
 import org.mapstruct.Mapper;
@@ -13,6 +15,7 @@ import org.mapstruct.MappingTarget;
 import org.mapstruct.factory.Mappers;
 
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 import static java.util.Objects.isNull;
@@ -21,8 +24,17 @@ import static java.util.Objects.isNull;
 public interface DoctorMapper {
     DoctorDTO toDTO(Doctor doctor);
 
+    @Mapping(target = "facilities", source = "facilities")
+    DoctorDTO toDTO(SimpleDoctorDTO doctor, List<SimpleFacilityDTO> facilities);
+
     SimpleDoctorDTO toSimpleDTO(Doctor doctor);
 
+    @Mapping(target = "id", source = "doctorId")
+    SimpleDoctorDTO toSimpleDTO(FacilityDoctorRow facilityDoctorRow);
+
+    @Mapping(target = "id", source = "facilityId")
+    SimpleFacilityDTO toSimpleFacilityDTO(DoctorFacilityRow doctorFacilityRow);
+
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "facilities", ignore = true)
     @Mapping(target = "visits", ignore = true)
@@ -3,6 +3,7 @@ package com.example.demo.mapper;
 import com.example.demo.command.doctor.UpsertDoctorCommand;
 import com.example.demo.command.facility.InsertFacilityCommand;
 import com.example.demo.model.doctor.Doctor;
+import com.example.demo.model.doctor.SimpleDoctorDTO;
 import com.example.demo.model.facility.Facility;
 import com.example.demo.model.facility.FacilityDTO;
 import com.example.demo.model.facility.SimpleFacilityDTO;
@@ -16,6 +17,9 @@ import java.util.List;
 public interface FacilityMapper {
     FacilityDTO toDTO(Facility facility);
 
+    @Mapping(target = "doctors", source = "doctors")
+    FacilityDTO toDTO(Facility facility, List<SimpleDoctorDTO> doctors);
+
     List<FacilityDTO> toDTOs(List<Facility> facilities);
 
     SimpleFacilityDTO toSimpleDTO(Facility facility);
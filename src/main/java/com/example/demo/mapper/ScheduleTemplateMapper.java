@@ -0,0 +1,31 @@
+package com.example.demo.mapper;
+
+import com.example.demo.command.schedule.InsertScheduleTemplateCommand;
+import com.example.demo.model.doctor.Doctor;
+import com.example.demo.model.doctor.SimpleDoctorDTO;
+import com.example.demo.model.facility.Facility;
+import com.example.demo.model.facility.SimpleFacilityDTO;
+import com.example.demo.model.schedule.ScheduleTemplate;
+import com.example.demo.model.schedule.ScheduleTemplateDTO;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.factory.Mappers;
+
+@Mapper(componentModel = "spring")
+public interface ScheduleTemplateMapper {
+    ScheduleTemplateDTO toDTO(ScheduleTemplate scheduleTemplate);
+
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "doctor", ignore = true)
+    @Mapping(target = "facility", ignore = true)
+    @Mapping(target = "materializedUntil", ignore = true)
+    ScheduleTemplate toEntity(InsertScheduleTemplateCommand insertScheduleTemplateCommand);
+
+    default SimpleDoctorDTO getSimpleDoctorDTO(Doctor doctor) {
+        return Mappers.getMapper(DoctorMapper.class).toSimpleDTO(doctor);
+    }
+
+    default SimpleFacilityDTO getSimpleFacilityDTO(Facility facility) {
+        return Mappers.getMapper(FacilityMapper.class).toSimpleDTO(facility);
+    }
+}
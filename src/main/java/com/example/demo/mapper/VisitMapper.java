@@ -1,8 +1,11 @@
 package com.example.demo.mapper;
 
 import com.example.demo.command.visit.InsertVisitCommand;
+import com.example.demo.model.doctor.SimpleDoctorDTO;
+import com.example.demo.model.patient.PatientDTO;
 import com.example.demo.model.visit.Visit;
 import com.example.demo.model.visit.VisitDTO;
+import com.example.demo.model.visit.VisitRow;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 
@@ -10,8 +13,40 @@ import org.mapstruct.Mapping;
 public interface VisitMapper {
     VisitDTO toDto(Visit visit);
 
+    @Mapping(target = "doctor", source = ".")
+    @Mapping(target = "patient", source = ".")
+    VisitDTO toDto(VisitRow visitRow);
+
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "patient", ignore = true)
     @Mapping(target = "doctor", ignore = true)
     Visit toEntity(InsertVisitCommand insertVisitCommand);
+
+    default SimpleDoctorDTO getSimpleDoctorDTO(VisitRow visitRow) {
+        if (visitRow.doctorId() == null) {
+            return null;
+        }
+        return SimpleDoctorDTO.builder()
+                .id(visitRow.doctorId())
+                .email(visitRow.doctorEmail())
+                .firstName(visitRow.doctorFirstName())
+                .lastName(visitRow.doctorLastName())
+                .specialization(visitRow.doctorSpecialization())
+                .build();
+    }
+
+    default PatientDTO getPatientDTO(VisitRow visitRow) {
+        if (visitRow.patientId() == null) {
+            return null;
+        }
+        return PatientDTO.builder()
+                .id(visitRow.patientId())
+                .email(visitRow.patientEmail())
+                .idCardNo(visitRow.patientIdCardNo())
+                .firstName(visitRow.patientFirstName())
+                .lastName(visitRow.patientLastName())
+                .phoneNumber(visitRow.patientPhoneNumber())
+                .birthday(visitRow.patientBirthday())
+                .build();
+    }
 }
@@ -0,0 +1,12 @@
+package com.example.demo.model;
+
+import lombok.Builder;
+
+import java.util.List;
+
+@Builder
+public record CursorContentDto<S>(
+        String nextCursor,
+        List<S> content
+) {
+}
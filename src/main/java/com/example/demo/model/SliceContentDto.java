@@ -0,0 +1,25 @@
+package com.example.demo.model;
+
+import lombok.Builder;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+
+@Builder
+public record SliceContentDto<S>(
+        int pageNumber,
+        boolean hasNext,
+        Long estimatedTotalEntries,
+        Integer estimatedTotalNumberOfPages,
+        List<S> content
+) {
+    public static <T, S> SliceContentDto<S> from(Slice<T> slice, Long estimatedTotalEntries, List<S> content) {
+        if (estimatedTotalEntries == null) {
+            return new SliceContentDto<>(slice.getNumber(), slice.hasNext(), null, null, content);
+        }
+        long seenEntries = (long) slice.getNumber() * slice.getSize() + slice.getNumberOfElements() + (slice.hasNext() ? 1 : 0);
+        long totalEntries = Math.max(estimatedTotalEntries, seenEntries);
+        int totalNumberOfPages = slice.getSize() == 0 ? 1 : (int) Math.max(1, (totalEntries + slice.getSize() - 1) / slice.getSize());
+        return new SliceContentDto<>(slice.getNumber(), slice.hasNext(), totalEntries, totalNumberOfPages, content);
+    }
+}
@@ -12,17 +12,21 @@ import jakarta.persistence.JoinColumn;
 import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.SequenceGenerator;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.HashSet;
 import java.util.Objects;
 import java.util.Set;
 
 @Entity(name = "DOCTORS")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "doctors")
 @Builder
 @Getter
 @Setter
@@ -30,7 +34,8 @@ import java.util.Set;
 @NoArgsConstructor
 public class Doctor {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "doctors_seq")
+    @SequenceGenerator(name = "doctors_seq", sequenceName = "doctors_seq", allocationSize = 50)
     @Column(nullable = false)
     private Long id;
     @Column(unique = true)
@@ -40,6 +45,7 @@ public class Doctor {
     private String lastName;
     private String specialization;
     @Builder.Default
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "doctorFacilities")
     @ManyToMany
     @JoinTable(
             name = "FACILITIES_DOCTORS",
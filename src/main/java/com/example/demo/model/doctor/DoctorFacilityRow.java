@@ -0,0 +1,12 @@
+package com.example.demo.model.doctor;
+
+public record DoctorFacilityRow(
+        Long doctorId,
+        Long facilityId,
+        String name,
+        String city,
+        String zipCode,
+        String street,
+        String buildingNumber
+) {
+}
@@ -10,17 +10,21 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.ManyToMany;
 import jakarta.persistence.PreRemove;
+import jakarta.persistence.SequenceGenerator;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.HashSet;
 import java.util.Objects;
 import java.util.Set;
 
 @Entity(name = "FACILITIES")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "facilities")
 @Builder
 @Getter
 @Setter
@@ -28,7 +32,8 @@ import java.util.Set;
 @AllArgsConstructor
 public class Facility {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "facilities_seq")
+    @SequenceGenerator(name = "facilities_seq", sequenceName = "facilities_seq", allocationSize = 50)
     @Column(nullable = false)
     private Long id;
     @Column(unique = true)
@@ -38,6 +43,7 @@ public class Facility {
     private String street;
     private String buildingNumber;
     @Builder.Default
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "facilityDoctors")
     @ManyToMany(mappedBy = "facilities", cascade = {CascadeType.PERSIST, CascadeType.MERGE})
     private Set<Doctor> doctors = new HashSet<>();
 
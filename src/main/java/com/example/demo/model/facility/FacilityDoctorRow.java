@@ -0,0 +1,11 @@
+package com.example.demo.model.facility;
+
+public record FacilityDoctorRow(
+        Long facilityId,
+        Long doctorId,
+        String email,
+        String firstName,
+        String lastName,
+        String specialization
+) {
+}
@@ -0,0 +1,15 @@
+package com.example.demo.model.facility;
+
+import lombok.Builder;
+
+@Builder
+public record FacilitySummaryDTO(
+        Long id,
+        String name,
+        String city,
+        String zipCode,
+        String street,
+        String buildingNumber,
+        long doctorCount
+) {
+}
@@ -0,0 +1,11 @@
+package com.example.demo.model.patient;
+
+import lombok.Builder;
+
+@Builder
+public record PatientImportErrorDTO(
+        long row,
+        String email,
+        String message
+) {
+}
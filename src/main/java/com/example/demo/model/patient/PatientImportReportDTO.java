@@ -0,0 +1,14 @@
+package com.example.demo.model.patient;
+
+import lombok.Builder;
+
+import java.util.List;
+
+@Builder
+public record PatientImportReportDTO(
+        long importedRows,
+        long rejectedRows,
+        boolean errorsTruncated,
+        List<PatientImportErrorDTO> errors
+) {
+}
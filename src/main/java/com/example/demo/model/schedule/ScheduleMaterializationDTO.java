@@ -0,0 +1,14 @@
+package com.example.demo.model.schedule;
+
+import lombok.Builder;
+
+import java.time.LocalDate;
+
+@Builder
+public record ScheduleMaterializationDTO(
+        Long scheduleTemplateId,
+        int createdVisits,
+        int skippedSlots,
+        LocalDate materializedUntil
+) {
+}
@@ -0,0 +1,63 @@
+package com.example.demo.model.schedule;
+
+import com.example.demo.model.doctor.Doctor;
+import com.example.demo.model.facility.Facility;
+import jakarta.persistence.CollectionTable;
+import jakarta.persistence.Column;
+import jakarta.persistence.ElementCollection;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.HashSet;
+import java.util.Set;
+
+@Entity(name = "SCHEDULE_TEMPLATES")
+@Builder
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScheduleTemplate {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "schedule_templates_seq")
+    @SequenceGenerator(name = "schedule_templates_seq", sequenceName = "schedule_templates_seq", allocationSize = 50)
+    @Column(nullable = false)
+    private Long id;
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Doctor doctor;
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Facility facility;
+    @Builder.Default
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "SCHEDULE_TEMPLATES_DAYS", joinColumns = @JoinColumn(name = "schedule_template_id"))
+    @Enumerated(EnumType.STRING)
+    @Column(name = "day_of_week")
+    private Set<DayOfWeek> daysOfWeek = new HashSet<>();
+    private LocalTime startTime;
+    private LocalTime endTime;
+    private int slotLengthMinutes;
+    private String timeZone;
+    private LocalDate materializedUntil;
+}
@@ -0,0 +1,24 @@
+package com.example.demo.model.schedule;
+
+import com.example.demo.model.doctor.SimpleDoctorDTO;
+import com.example.demo.model.facility.SimpleFacilityDTO;
+import lombok.Builder;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Set;
+
+@Builder
+public record ScheduleTemplateDTO(
+        Long id,
+        SimpleDoctorDTO doctor,
+        SimpleFacilityDTO facility,
+        Set<DayOfWeek> daysOfWeek,
+        LocalTime startTime,
+        LocalTime endTime,
+        int slotLengthMinutes,
+        String timeZone,
+        LocalDate materializedUntil
+) {
+}
@@ -0,0 +1,17 @@
+package com.example.demo.model.visit;
+
+import lombok.Builder;
+
+import java.time.OffsetDateTime;
+
+@Builder
+public record AvailableSlotDTO(
+        Long visitId,
+        OffsetDateTime startTime,
+        OffsetDateTime endTime,
+        Long doctorId,
+        String doctorFirstName,
+        String doctorLastName,
+        String specialization
+) {
+}
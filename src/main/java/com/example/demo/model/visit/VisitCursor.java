@@ -0,0 +1,41 @@
+package com.example.demo.model.visit;
+
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public record VisitCursor(OffsetDateTime startTime, Long id) {
+    private static final String SEPARATOR = "|";
+
+    public static VisitCursor of(VisitRow visitRow) {
+        return new VisitCursor(visitRow.startTime(), visitRow.id());
+    }
+
+    public static VisitCursor decode(String cursor) {
+        String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        int separatorIndex = decoded.lastIndexOf(SEPARATOR);
+        if (separatorIndex < 0) {
+            throw new IllegalArgumentException("Cursor does not contain separator.");
+        }
+        return new VisitCursor(
+                OffsetDateTime.parse(decoded.substring(0, separatorIndex)),
+                Long.valueOf(decoded.substring(separatorIndex + 1)));
+    }
+
+    public String encode() {
+        String raw = startTime.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public KeysetScrollPosition toScrollPosition() {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put("startTime", startTime);
+        keys.put("id", id);
+        return ScrollPosition.forward(keys);
+    }
+}
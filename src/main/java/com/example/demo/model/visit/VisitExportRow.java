@@ -0,0 +1,17 @@
+package com.example.demo.model.visit;
+
+import java.time.OffsetDateTime;
+
+public record VisitExportRow(
+        Long id,
+        OffsetDateTime startTime,
+        OffsetDateTime endTime,
+        Long doctorId,
+        String doctorFirstName,
+        String doctorLastName,
+        String doctorSpecialization,
+        Long patientId,
+        String patientFirstName,
+        String patientLastName
+) {
+}
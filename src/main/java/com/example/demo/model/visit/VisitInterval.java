@@ -0,0 +1,11 @@
+package com.example.demo.model.visit;
+
+import java.time.OffsetDateTime;
+
+public record VisitInterval(
+        Long id,
+        Long doctorId,
+        OffsetDateTime startTime,
+        OffsetDateTime endTime
+) {
+}
@@ -0,0 +1,23 @@
+package com.example.demo.model.visit;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+
+public record VisitRow(
+        Long id,
+        OffsetDateTime startTime,
+        OffsetDateTime endTime,
+        Long doctorId,
+        String doctorEmail,
+        String doctorFirstName,
+        String doctorLastName,
+        String doctorSpecialization,
+        Long patientId,
+        String patientEmail,
+        String patientIdCardNo,
+        String patientFirstName,
+        String patientLastName,
+        String patientPhoneNumber,
+        LocalDate patientBirthday
+) {
+}
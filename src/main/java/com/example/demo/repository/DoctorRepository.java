@@ -1,20 +1,67 @@
 package com.example.demo.repository;
 
+import com.example.demo.config.CacheConfig;
 import com.example.demo.model.doctor.Doctor;
+import com.example.demo.model.doctor.DoctorFacilityRow;
+import com.example.demo.model.doctor.SimpleDoctorDTO;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Stream;
 
 @Repository
 public interface DoctorRepository extends JpaRepository<Doctor, Long> {
+    String SIMPLE_DOCTORS = """
+            select new com.example.demo.model.doctor.SimpleDoctorDTO(d.id, d.email, d.firstName, d.lastName, d.specialization)
+            from DOCTORS d
+            """;
+
     Optional<Doctor> findByEmail(String email);
 
+    @Cacheable(cacheNames = CacheConfig.DOCTOR_IDS, key = "#email", unless = "#result == null")
+    @Query("select d.id from DOCTORS d where d.email = :email")
+    Optional<Long> findIdByEmail(String email);
+
     @Query("select d from DOCTORS d where d.email in :emails")
     Set<Doctor> findAllByEmails(List<String> emails);
 
+    @EntityGraph(attributePaths = "facilities")
+    List<Doctor> findAllWithFacilitiesByEmailIn(Collection<String> emails);
+
     boolean existsByEmail(String email);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select d.email from DOCTORS d where d.email is not null")
+    Stream<String> streamAllEmails();
+
+    @Query(value = SIMPLE_DOCTORS, countQuery = "select count(d) from DOCTORS d")
+    Page<SimpleDoctorDTO> findSimpleDoctors(Pageable pageable);
+
+    @Query(SIMPLE_DOCTORS)
+    Slice<SimpleDoctorDTO> findSimpleDoctorSlice(Pageable pageable);
+
+    @Cacheable(cacheNames = CacheConfig.ENTRY_COUNTS, key = "'doctors'")
+    @Query("select count(d) from DOCTORS d")
+    long countDoctors();
+
+    @Query("""
+            select new com.example.demo.model.doctor.DoctorFacilityRow(d.id, f.id, f.name, f.city, f.zipCode, f.street, f.buildingNumber)
+            from DOCTORS d join d.facilities f
+            where d.id in :doctorIds
+            order by d.id, f.id
+            """)
+    List<DoctorFacilityRow> findDoctorFacilityRows(Collection<Long> doctorIds);
 }
@@ -1,10 +1,18 @@
 package com.example.demo.repository;
 
+import com.example.demo.config.CacheConfig;
 import com.example.demo.model.facility.Facility;
+import com.example.demo.model.facility.FacilityDoctorRow;
+import com.example.demo.model.facility.FacilitySummaryDTO;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Set;
 
@@ -12,6 +20,31 @@ import java.util.Set;
 public interface FacilityRepository extends JpaRepository<Facility, Long> {
     boolean existsByName(String name);
 
+    @Query("select f.name from FACILITIES f where f.name in :names")
+    List<String> findExistingNames(Collection<String> names);
+
     @Query("select f from FACILITIES f where f.id in :ids")
     List<Facility> findFacilitiesByIds(List<Long> ids);
+
+    @Query("""
+            select new com.example.demo.model.facility.FacilityDoctorRow(f.id, d.id, d.email, d.firstName, d.lastName, d.specialization)
+            from FACILITIES f join f.doctors d
+            where f.id in :facilityIds
+            order by f.id, d.id
+            """)
+    List<FacilityDoctorRow> findFacilityDoctorRows(Collection<Long> facilityIds);
+
+    @Query(value = """
+            select new com.example.demo.model.facility.FacilitySummaryDTO(f.id, f.name, f.city, f.zipCode, f.street, f.buildingNumber, size(f.doctors))
+            from FACILITIES f
+            """,
+            countQuery = "select count(f) from FACILITIES f")
+    Page<FacilitySummaryDTO> findFacilitySummaries(Pageable pageable);
+
+    @Query("select f from FACILITIES f")
+    Slice<Facility> findFacilitySlice(Pageable pageable);
+
+    @Cacheable(cacheNames = CacheConfig.ENTRY_COUNTS, key = "'facilities'")
+    @Query("select count(f) from FACILITIES f")
+    long countFacilities();
 }
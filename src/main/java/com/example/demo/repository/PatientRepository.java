@@ -1,14 +1,53 @@
 package com.example.demo.repository;
 
+import com.example.demo.config.CacheConfig;
 import com.example.demo.model.patient.Patient;
+import com.example.demo.model.patient.PatientDTO;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface PatientRepository extends JpaRepository<Patient, Long> {
+    String PATIENT_DTOS = """
+            select new com.example.demo.model.patient.PatientDTO(p.id, p.email, p.idCardNo, p.firstName, p.lastName, p.phoneNumber, p.birthday)
+            from PATIENTS p
+            """;
+
     Optional<Patient> findByEmail(String email);
 
+    @Cacheable(cacheNames = CacheConfig.PATIENT_IDS, key = "#email", unless = "#result == null")
+    @Query("select p.id from PATIENTS p where p.email = :email")
+    Optional<Long> findIdByEmail(String email);
+
     boolean existsByEmail(String email);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select p.email from PATIENTS p where p.email is not null")
+    Stream<String> streamAllEmails();
+
+    @Query("select p.email from PATIENTS p where p.email in :emails")
+    List<String> findExistingEmails(Collection<String> emails);
+
+    @Query(value = PATIENT_DTOS, countQuery = "select count(p) from PATIENTS p")
+    Page<PatientDTO> findPatientDTOs(Pageable pageable);
+
+    @Query(PATIENT_DTOS)
+    Slice<PatientDTO> findPatientDTOSlice(Pageable pageable);
+
+    @Cacheable(cacheNames = CacheConfig.ENTRY_COUNTS, key = "'patients'")
+    @Query("select count(p) from PATIENTS p")
+    long countPatients();
 }
@@ -0,0 +1,21 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.schedule.ScheduleTemplate;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ScheduleTemplateRepository extends JpaRepository<ScheduleTemplate, Long> {
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from SCHEDULE_TEMPLATES s where s.id = :id")
+    Optional<ScheduleTemplate> findByIdForUpdate(Long id);
+
+    @Query("select s.id from SCHEDULE_TEMPLATES s")
+    List<Long> findAllIds();
+}
@@ -1,20 +1,49 @@
 package com.example.demo.repository;
 
+import com.example.demo.config.CacheConfig;
 import com.example.demo.model.doctor.Doctor;
+import com.example.demo.model.patient.Patient;
+import com.example.demo.model.visit.AvailableSlotDTO;
 import com.example.demo.model.visit.Visit;
+import com.example.demo.model.visit.VisitExportRow;
+import com.example.demo.model.visit.VisitInterval;
+import com.example.demo.model.visit.VisitRow;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface VisitRepository extends JpaRepository<Visit, Long> {
-    @Query("select count(v) > 0 from VISITS v where v.startTime <= :endTime and v.endTime >= :startTime and v.doctor = :doctor")
-    boolean existsBetweenDatesInclusive(OffsetDateTime startTime, OffsetDateTime endTime, Doctor doctor);
+    String VISIT_ROWS = """
+            select new com.example.demo.model.visit.VisitRow(v.id, v.startTime, v.endTime,
+                d.id, d.email, d.firstName, d.lastName, d.specialization,
+                p.id, p.email, p.idCardNo, p.firstName, p.lastName, p.phoneNumber, p.birthday)
+            """;
+    String DOCTOR_VISIT_ROWS = "from VISITS v join v.doctor d left join v.patient p where d.id = :doctorId";
+    String PATIENT_VISIT_ROWS = "from VISITS v join v.patient p left join v.doctor d where p.id = :patientId";
+
+    @Query("select count(v) > 0 from VISITS v where v.startTime < :endTime and v.endTime > :startTime and v.doctor = :doctor")
+    boolean existsOverlapping(OffsetDateTime startTime, OffsetDateTime endTime, Doctor doctor);
+
+    @Modifying
+    @Query("update VISITS v set v.patient = :patient where v.id = :visitId and v.patient is null and v.startTime >= :now")
+    int registerPatientIfAvailable(Long visitId, Patient patient, OffsetDateTime now);
 
     @Modifying
     @Query("update VISITS v set v.patient = null where v.patient.id = :patientId")
@@ -24,7 +53,82 @@ public interface VisitRepository extends JpaRepository<Visit, Long> {
     @Query("update VISITS v set v.doctor = null where v.doctor.id = :doctorId")
     void detachDoctorIdFromVisits(Long doctorId);
 
-    Page<Visit> findAllByDoctorId(Long doctorId, Pageable pageable);
+    @Query(value = VISIT_ROWS + "from VISITS v left join v.doctor d left join v.patient p",
+            countQuery = "select count(v) from VISITS v")
+    Page<VisitRow> findVisitRows(Pageable pageable);
+
+    @Query(VISIT_ROWS + "from VISITS v left join v.doctor d left join v.patient p")
+    Slice<VisitRow> findVisitRowSlice(Pageable pageable);
+
+    @Query(value = VISIT_ROWS + DOCTOR_VISIT_ROWS,
+            countQuery = "select count(v) from VISITS v where v.doctor.id = :doctorId")
+    Page<VisitRow> findVisitRowsByDoctorId(Long doctorId, Pageable pageable);
+
+    @Query(VISIT_ROWS + DOCTOR_VISIT_ROWS)
+    Slice<VisitRow> findVisitRowSliceByDoctorId(Long doctorId, Pageable pageable);
+
+    @Query(value = VISIT_ROWS + PATIENT_VISIT_ROWS,
+            countQuery = "select count(v) from VISITS v where v.patient.id = :patientId")
+    Page<VisitRow> findVisitRowsByPatientId(Long patientId, Pageable pageable);
+
+    @Query(VISIT_ROWS + PATIENT_VISIT_ROWS)
+    Slice<VisitRow> findVisitRowSliceByPatientId(Long patientId, Pageable pageable);
+
+    @Cacheable(cacheNames = CacheConfig.ENTRY_COUNTS, key = "'visits'")
+    @Query("select count(v) from VISITS v")
+    long countVisits();
+
+    @Cacheable(cacheNames = CacheConfig.ENTRY_COUNTS, key = "'visits:doctorId:' + #doctorId")
+    @Query("select count(v) from VISITS v where v.doctor.id = :doctorId")
+    long countVisitsByDoctorId(Long doctorId);
+
+    @Cacheable(cacheNames = CacheConfig.ENTRY_COUNTS, key = "'visits:patientId:' + #patientId")
+    @Query("select count(v) from VISITS v where v.patient.id = :patientId")
+    long countVisitsByPatientId(Long patientId);
+
+    Window<VisitRow> findVisitRowWindowBy(ScrollPosition position, Limit limit, Sort sort);
+
+    Window<VisitRow> findVisitRowWindowByDoctor(Doctor doctor, ScrollPosition position, Limit limit, Sort sort);
+
+    Window<VisitRow> findVisitRowWindowByPatient(Patient patient, ScrollPosition position, Limit limit, Sort sort);
+
+    @Query("select new com.example.demo.model.visit.VisitInterval(v.id, v.doctor.id, v.startTime, v.endTime) from VISITS v where v.doctor is not null and v.endTime > :from")
+    List<VisitInterval> findVisitIntervalsEndingAfter(OffsetDateTime from);
+
+    @Query("select new com.example.demo.model.visit.VisitInterval(v.id, v.doctor.id, v.startTime, v.endTime) from VISITS v where v.doctor.id = :doctorId and v.startTime < :endTime and v.endTime > :startTime")
+    List<VisitInterval> findOverlappingDoctorVisitIntervals(Long doctorId, OffsetDateTime startTime, OffsetDateTime endTime);
+
+    @Query(value = """
+            select new com.example.demo.model.visit.AvailableSlotDTO(v.id, v.startTime, v.endTime, d.id, d.firstName, d.lastName, d.specialization)
+            from VISITS v join v.doctor d
+            where v.patient is null
+            and v.startTime >= :from
+            and (:to is null or v.startTime <= :to)
+            and (:doctorId is null or d.id = :doctorId)
+            and (:specialization is null or d.specialization = :specialization)
+            and (:facilityId is null or exists (select 1 from DOCTORS fd join fd.facilities f where fd = d and f.id = :facilityId))
+            order by v.startTime, v.id""",
+            countQuery = """
+            select count(v) from VISITS v join v.doctor d
+            where v.patient is null
+            and v.startTime >= :from
+            and (:to is null or v.startTime <= :to)
+            and (:doctorId is null or d.id = :doctorId)
+            and (:specialization is null or d.specialization = :specialization)
+            and (:facilityId is null or exists (select 1 from DOCTORS fd join fd.facilities f where fd = d and f.id = :facilityId))""")
+    Page<AvailableSlotDTO> findAvailableSlots(Long doctorId, String specialization, Long facilityId, OffsetDateTime from, OffsetDateTime to, Pageable pageable);
 
-    Page<Visit> findAllByPatientId(Long patientId, Pageable pageable);
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            select new com.example.demo.model.visit.VisitExportRow(v.id, v.startTime, v.endTime, d.id, d.firstName, d.lastName, d.specialization, p.id, p.firstName, p.lastName)
+            from VISITS v left join v.doctor d left join v.patient p
+            where (:doctorId is null or v.doctor.id = :doctorId)
+            and (:patientId is null or v.patient.id = :patientId)
+            and (:from is null or v.startTime >= :from)
+            and (:to is null or v.startTime <= :to)
+            order by v.startTime, v.id""")
+    Stream<VisitExportRow> streamVisitExportRows(Long doctorId, Long patientId, OffsetDateTime from, OffsetDateTime to);
 }
@@ -1,93 +1,177 @@
 package com.example.demo.service;
 
+import com.example.demo.cache.SecondLevelCacheEvictor;
 import com.example.demo.command.doctor.UpsertDoctorCommand;
+import com.example.demo.config.CacheConfig;
+import com.example.demo.config.MetricsConfig;
+import com.example.demo.count.EntryCountEstimator;
+import com.example.demo.exception.doctor.DoctorAlreadyExistsException;
 import com.example.demo.exception.doctor.DoctorNotFoundException;
 import com.example.demo.exception.facility.FacilityNotFoundException;
+import com.example.demo.index.DoctorEmailIndex;
+import com.example.demo.index.DoctorVisitIndex;
 import com.example.demo.mapper.DoctorMapper;
 import com.example.demo.model.PageableContentDto;
+import com.example.demo.model.SliceContentDto;
+import com.example.demo.model.SliceTotal;
 import com.example.demo.model.doctor.Doctor;
 import com.example.demo.model.doctor.DoctorDTO;
+import com.example.demo.model.doctor.DoctorFacilityRow;
+import com.example.demo.model.doctor.SimpleDoctorDTO;
 import com.example.demo.model.facility.Facility;
+import com.example.demo.model.facility.SimpleFacilityDTO;
 import com.example.demo.repository.DoctorRepository;
 import com.example.demo.repository.FacilityRepository;
 import com.example.demo.repository.VisitRepository;
 import com.example.demo.validator.DoctorValidator;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.SQLException;
 import java.time.Clock;
 import java.time.OffsetDateTime;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
+@Timed(MetricsConfig.SERVICE_INVOCATIONS)
 @RequiredArgsConstructor
 public class DoctorService {
+    private static final String UNIQUE_VIOLATION_SQL_STATE = "23505";
+
     private final DoctorRepository doctorRepository;
     private final FacilityRepository facilityRepository;
     private final DoctorMapper doctorMapper;
     private final VisitRepository visitRepository;
+    private final DoctorVisitIndex doctorVisitIndex;
+    private final SecondLevelCacheEvictor secondLevelCacheEvictor;
+    private final DoctorEmailIndex doctorEmailIndex;
+    private final EntryCountEstimator entryCountEstimator;
     private final Clock clock;
 
     @Transactional
     public DoctorDTO createDoctor(UpsertDoctorCommand upsertDoctorCommand) {
-        DoctorValidator.validateDoctorCreation(upsertDoctorCommand, doctorRepository, clock);
-        Doctor doctor = doctorRepository.save(doctorMapper.toEntity(upsertDoctorCommand));
+        DoctorValidator.validateDoctorCreation(upsertDoctorCommand, doctorRepository, doctorEmailIndex, clock);
+        Doctor doctor = saveWithUniqueEmail(doctorMapper.toEntity(upsertDoctorCommand));
+        doctorEmailIndex.add(doctor.getEmail());
         return doctorMapper.toDTO(doctor);
     }
 
+    @Transactional(readOnly = true)
     public PageableContentDto<DoctorDTO> getDoctors(Pageable pageable) {
         return getAllDoctorsWithPageable(pageable);
     }
 
+    @Transactional(readOnly = true)
+    public SliceContentDto<DoctorDTO> getDoctors(SliceTotal total, Pageable pageable) {
+        Slice<SimpleDoctorDTO> content = doctorRepository.findSimpleDoctorSlice(pageable);
+        Map<Long, List<SimpleFacilityDTO>> facilitiesByDoctorId = getDoctorFacilities(content.getContent());
+        return SliceContentDto.from(content, entryCountEstimator.estimate(total, "doctors", doctorRepository::countDoctors), content.stream()
+                .map(doctor -> doctorMapper.toDTO(doctor, facilitiesByDoctorId.getOrDefault(doctor.id(), List.of())))
+                .toList());
+    }
+
+    @Cacheable(cacheNames = CacheConfig.DOCTORS, key = "#email")
+    @Transactional(readOnly = true)
     public DoctorDTO getDoctorByEmail(String email) {
         Doctor doctor = getDoctorWithEmail(email);
         return doctorMapper.toDTO(doctor);
     }
 
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.DOCTORS, key = "#email"),
+            @CacheEvict(cacheNames = CacheConfig.DOCTOR_IDS, key = "#email")
+    })
     @Transactional
     public DoctorDTO editDoctor(String email, UpsertDoctorCommand upsertDoctorCommand) {
         Doctor doctor = getDoctorWithEmail(email);
-        DoctorValidator.validateDoctorEdit(doctor, upsertDoctorCommand, doctorRepository, clock);
+        DoctorValidator.validateDoctorEdit(doctor, upsertDoctorCommand, doctorRepository, doctorEmailIndex, clock);
         doctor.update(upsertDoctorCommand);
-        doctorRepository.save(doctor);
+        saveWithUniqueEmail(doctor);
+        doctorEmailIndex.add(doctor.getEmail());
         return doctorMapper.toDTO(doctor);
     }
 
+    @CacheEvict(cacheNames = CacheConfig.DOCTORS, key = "#email")
     @Transactional
     public void updateFacilities(String email, List<Long> facilitiesIds) {
         Doctor doctor = getDoctorWithEmail(email);
         Set<Facility> facilities = getFacilitiesWithIds(facilitiesIds);
+        secondLevelCacheEvictor.evictFacilityDoctors(doctor.getFacilities());
+        secondLevelCacheEvictor.evictFacilityDoctors(facilities);
         doctor.setFacilities(facilities);
         doctorRepository.save(doctor);
     }
 
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.DOCTORS, key = "#email"),
+            @CacheEvict(cacheNames = CacheConfig.DOCTOR_IDS, key = "#email")
+    })
     @Transactional
     public void deleteDoctor(String email) {
         Doctor doctor = getDoctorWithEmail(email);
         visitRepository.detachDoctorIdFromVisits(doctor.getId());
+        secondLevelCacheEvictor.evictFacilityDoctors(doctor.getFacilities());
         doctorRepository.delete(doctor);
+        doctorVisitIndex.removeDoctor(doctor.getId());
+    }
+
+    private Doctor saveWithUniqueEmail(Doctor doctor) {
+        try {
+            return doctorRepository.saveAndFlush(doctor);
+        } catch (DataIntegrityViolationException e) {
+            if (NestedExceptionUtils.getMostSpecificCause(e) instanceof SQLException sqlException
+                    && UNIQUE_VIOLATION_SQL_STATE.equals(sqlException.getSQLState())) {
+                throw new DoctorAlreadyExistsException("Doctor with email: %s already exists.".formatted(doctor.getEmail()), OffsetDateTime.now(clock));
+            }
+            throw e;
+        }
     }
 
     private Doctor getDoctorWithEmail(String email) {
-        return doctorRepository.findByEmail(email)
+        return doctorRepository.findIdByEmail(email)
+                .flatMap(doctorRepository::findById)
                 .orElseThrow(() -> new DoctorNotFoundException("Doctor with email: %s does not exist.".formatted(email), OffsetDateTime.now(clock)));
     }
 
     private PageableContentDto<DoctorDTO> getAllDoctorsWithPageable(Pageable pageable) {
-        Page<Doctor> content = doctorRepository.findAll(pageable);
+        Page<SimpleDoctorDTO> content = doctorRepository.findSimpleDoctors(pageable);
+        Map<Long, List<SimpleFacilityDTO>> facilitiesByDoctorId = getDoctorFacilities(content.getContent());
         return PageableContentDto.<DoctorDTO>builder()
                 .totalEntries(content.getTotalElements())
                 .totalNumberOfPages(content.getTotalPages())
                 .pageNumber(pageable.getPageNumber())
-                .content(content.stream().map(doctorMapper::toDTO).toList())
+                .content(content.stream()
+                        .map(doctor -> doctorMapper.toDTO(doctor, facilitiesByDoctorId.getOrDefault(doctor.id(), List.of())))
+                        .toList())
                 .build();
     }
 
+    private Map<Long, List<SimpleFacilityDTO>> getDoctorFacilities(List<SimpleDoctorDTO> doctors) {
+        if (doctors.isEmpty()) {
+            return Map.of();
+        }
+        List<Long> doctorIds = doctors.stream()
+                .map(SimpleDoctorDTO::id)
+                .toList();
+        return doctorRepository.findDoctorFacilityRows(doctorIds).stream()
+                .collect(Collectors.groupingBy(DoctorFacilityRow::doctorId,
+                        Collectors.mapping(doctorMapper::toSimpleFacilityDTO, Collectors.toList())));
+    }
+
     private Set<Facility> getFacilitiesWithIds(List<Long> facilitiesIds) {
         Set<Facility> facilities = new HashSet<>(facilityRepository.findFacilitiesByIds(facilitiesIds));
         if (facilities.size() != facilitiesIds.size()) {
@@ -3,64 +3,107 @@ package com.example.demo.service;
 import com.example.demo.command.doctor.UpsertDoctorCommand;
 import com.example.demo.command.facility.InsertFacilityCommand;
 import com.example.demo.command.facility.UpdateFacilityCommand;
+import com.example.demo.config.CacheConfig;
+import com.example.demo.config.MetricsConfig;
+import com.example.demo.count.EntryCountEstimator;
 import com.example.demo.exception.facility.FacilityNotFoundException;
+import com.example.demo.index.DoctorEmailIndex;
 import com.example.demo.mapper.DoctorMapper;
 import com.example.demo.mapper.FacilityMapper;
 import com.example.demo.model.PageableContentDto;
+import com.example.demo.model.SliceContentDto;
+import com.example.demo.model.SliceTotal;
 import com.example.demo.model.doctor.Doctor;
+import com.example.demo.model.doctor.SimpleDoctorDTO;
 import com.example.demo.model.facility.Facility;
 import com.example.demo.model.facility.FacilityDTO;
+import com.example.demo.model.facility.FacilityDoctorRow;
+import com.example.demo.model.facility.FacilitySummaryDTO;
 import com.example.demo.repository.DoctorRepository;
 import com.example.demo.repository.FacilityRepository;
 import com.example.demo.validator.FacilityValidator;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Clock;
 import java.time.OffsetDateTime;
 import java.util.HashSet;
-import java.util.LinkedList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
+@Timed(MetricsConfig.SERVICE_INVOCATIONS)
 @RequiredArgsConstructor
 public class FacilityService {
     private final FacilityRepository facilityRepository;
     private final DoctorRepository doctorRepository;
     private final FacilityMapper facilityMapper;
     private final DoctorMapper doctorMapper;
+    private final DoctorEmailIndex doctorEmailIndex;
+    private final EntryCountEstimator entryCountEstimator;
     private final Clock clock;
 
+    @CacheEvict(cacheNames = CacheConfig.DOCTORS, allEntries = true)
     @Transactional
     public FacilityDTO createFacility(InsertFacilityCommand insertFacilityCommand) {
         Facility facility = saveFacilityToDatabase(insertFacilityCommand);
         return facilityMapper.toDTO(facility);
     }
 
+    @CacheEvict(cacheNames = CacheConfig.DOCTORS, allEntries = true)
     @Transactional
     public List<FacilityDTO> createFacilities(List<InsertFacilityCommand> insertFacilityCommands) {
-        List<Facility> facilities = new LinkedList<>();
-        insertFacilityCommands.forEach(upsertFacilityCommand -> {
-            Facility facility = saveFacilityToDatabase(upsertFacilityCommand);
-            facilities.add(facility);
-        });
-        return facilityMapper.toDTOs(facilities);
+        FacilityValidator.validateFacilitiesBulkCreation(insertFacilityCommands, facilityRepository, clock);
+        Map<String, Doctor> doctorsByEmail = getDoctorsByEmail(insertFacilityCommands);
+        List<Facility> facilities = insertFacilityCommands.stream()
+                .map(insertFacilityCommand -> buildFacility(insertFacilityCommand, doctorsByEmail))
+                .toList();
+        doctorsByEmail.keySet().forEach(doctorEmailIndex::add);
+        return facilityMapper.toDTOs(facilityRepository.saveAll(facilities));
     }
 
+    @Transactional(readOnly = true)
     public PageableContentDto<FacilityDTO> getFacilities(Pageable pageable) {
         return getAllFacilitiesWithPageable(pageable);
     }
 
+    @Transactional(readOnly = true)
+    public SliceContentDto<FacilityDTO> getFacilities(SliceTotal total, Pageable pageable) {
+        Slice<Facility> content = facilityRepository.findFacilitySlice(pageable);
+        Map<Long, List<SimpleDoctorDTO>> doctorsByFacilityId = getFacilityDoctors(content.getContent());
+        return SliceContentDto.from(content, entryCountEstimator.estimate(total, "facilities", facilityRepository::countFacilities), content.stream()
+                .map(facility -> facilityMapper.toDTO(facility, doctorsByFacilityId.getOrDefault(facility.getId(), List.of())))
+                .toList());
+    }
+
+    @Transactional(readOnly = true)
+    public PageableContentDto<FacilitySummaryDTO> getFacilitySummaries(Pageable pageable) {
+        Page<FacilitySummaryDTO> content = facilityRepository.findFacilitySummaries(pageable);
+        return PageableContentDto.<FacilitySummaryDTO>builder()
+                .totalEntries(content.getTotalElements())
+                .totalNumberOfPages(content.getTotalPages())
+                .pageNumber(pageable.getPageNumber())
+                .content(content.getContent())
+                .build();
+    }
+
+    @Transactional(readOnly = true)
     public FacilityDTO getFacilityById(Long id) {
         Facility facility = getFacilityWithId(id);
         return facilityMapper.toDTO(facility);
     }
 
+    @CacheEvict(cacheNames = CacheConfig.DOCTORS, allEntries = true)
     @Transactional
     public FacilityDTO editFacility(Long id, UpdateFacilityCommand updateFacilityCommand) {
         Facility facility = getFacilityWithId(id);
@@ -70,6 +113,7 @@ public class FacilityService {
         return facilityMapper.toDTO(facility);
     }
 
+    @CacheEvict(cacheNames = CacheConfig.DOCTORS, allEntries = true)
     @Transactional
     public void deleteFacility(Long id) {
         Facility facility = getFacilityWithId(id);
@@ -83,14 +127,29 @@ public class FacilityService {
 
     private PageableContentDto<FacilityDTO> getAllFacilitiesWithPageable(Pageable pageable) {
         Page<Facility> content = facilityRepository.findAll(pageable);
+        Map<Long, List<SimpleDoctorDTO>> doctorsByFacilityId = getFacilityDoctors(content.getContent());
         return PageableContentDto.<FacilityDTO>builder()
                 .totalEntries(content.getTotalElements())
                 .totalNumberOfPages(content.getTotalPages())
                 .pageNumber(pageable.getPageNumber())
-                .content(content.stream().map(facilityMapper::toDTO).toList())
+                .content(content.stream()
+                        .map(facility -> facilityMapper.toDTO(facility, doctorsByFacilityId.getOrDefault(facility.getId(), List.of())))
+                        .toList())
                 .build();
     }
 
+    private Map<Long, List<SimpleDoctorDTO>> getFacilityDoctors(List<Facility> facilities) {
+        if (facilities.isEmpty()) {
+            return Map.of();
+        }
+        List<Long> facilityIds = facilities.stream()
+                .map(Facility::getId)
+                .toList();
+        return facilityRepository.findFacilityDoctorRows(facilityIds).stream()
+                .collect(Collectors.groupingBy(FacilityDoctorRow::facilityId,
+                        Collectors.mapping(doctorMapper::toSimpleDTO, Collectors.toList())));
+    }
+
     private Facility saveFacilityToDatabase(InsertFacilityCommand insertFacilityCommand) {
         FacilityValidator.validateFacilityCreation(insertFacilityCommand, facilityRepository, clock);
         Set<Doctor> allDoctors = getExistingDoctors(insertFacilityCommand);
@@ -98,9 +157,33 @@ public class FacilityService {
         Facility facility = facilityMapper.toEntity(insertFacilityCommand);
         allDoctors.forEach((doctor -> doctor.addFacility(facility)));
         facility.setDoctors(allDoctors);
+        allDoctors.forEach(doctor -> doctorEmailIndex.add(doctor.getEmail()));
         return facilityRepository.save(facility);
     }
 
+    private Map<String, Doctor> getDoctorsByEmail(List<InsertFacilityCommand> insertFacilityCommands) {
+        Map<String, UpsertDoctorCommand> doctorCommandsByEmail = insertFacilityCommands.stream()
+                .flatMap(insertFacilityCommand -> insertFacilityCommand.doctors().stream())
+                .collect(Collectors.toMap(UpsertDoctorCommand::email, Function.identity(), (first, duplicate) -> first, LinkedHashMap::new));
+        if (doctorCommandsByEmail.isEmpty()) {
+            return Map.of();
+        }
+        Map<String, Doctor> doctorsByEmail = doctorRepository.findAllWithFacilitiesByEmailIn(doctorCommandsByEmail.keySet()).stream()
+                .collect(Collectors.toMap(Doctor::getEmail, Function.identity()));
+        doctorCommandsByEmail.forEach((email, upsertDoctorCommand) -> doctorsByEmail.computeIfAbsent(email, missingEmail -> doctorMapper.toEntity(upsertDoctorCommand)));
+        return doctorsByEmail;
+    }
+
+    private Facility buildFacility(InsertFacilityCommand insertFacilityCommand, Map<String, Doctor> doctorsByEmail) {
+        Facility facility = facilityMapper.toEntity(insertFacilityCommand);
+        Set<Doctor> doctors = insertFacilityCommand.doctors().stream()
+                .map(upsertDoctorCommand -> doctorsByEmail.get(upsertDoctorCommand.email()))
+                .collect(Collectors.toSet());
+        doctors.forEach(doctor -> doctor.addFacility(facility));
+        facility.setDoctors(doctors);
+        return facility;
+    }
+
     private Set<Doctor> getExistingDoctors(InsertFacilityCommand insertFacilityCommand) {
         List<String> requestDoctorEmails = insertFacilityCommand.doctors().stream()
                 .map(UpsertDoctorCommand::email)
@@ -114,9 +197,9 @@ public class FacilityService {
     }
 
     private Set<UpsertDoctorCommand> getMissingDoctors(Set<Doctor> existingDoctors, List<UpsertDoctorCommand> upsertDoctorCommands) {
-        List<String> existingDoctorEmails = existingDoctors.stream()
+        Set<String> existingDoctorEmails = existingDoctors.stream()
                 .map(Doctor::getEmail)
-                .toList();
+                .collect(Collectors.toSet());
         return upsertDoctorCommands.stream()
                 .filter(doctorData -> !existingDoctorEmails.contains(doctorData.email()))
                 .collect(Collectors.toSet());
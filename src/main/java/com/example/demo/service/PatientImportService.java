@@ -0,0 +1,322 @@
+package com.example.demo.service;
+
+import com.example.demo.command.patient.UpsertPatientCommand;
+import com.example.demo.config.PatientImportProperties;
+import com.example.demo.exception.patient.PatientIllegalDataException;
+import com.example.demo.exception.patient.PatientImportTooLargeException;
+import com.example.demo.index.PatientEmailIndex;
+import com.example.demo.mapper.PatientMapper;
+import com.example.demo.model.patient.Patient;
+import com.example.demo.model.patient.PatientImportErrorDTO;
+import com.example.demo.model.patient.PatientImportReportDTO;
+import com.example.demo.repository.PatientRepository;
+import com.example.demo.validator.PatientValidator;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Service
+@RequiredArgsConstructor
+public class PatientImportService {
+    private static final List<String> COLUMNS = List.of("email", "password", "idCardNo", "firstName", "lastName", "phoneNumber", "birthday");
+
+    private final PatientRepository patientRepository;
+    private final PatientMapper patientMapper;
+    private final PatientImportProperties patientImportProperties;
+    private final PatientEmailIndex patientEmailIndex;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final Clock clock;
+
+    public PatientImportReportDTO importPatients(InputStream inputStream) throws IOException {
+        InputStream limitedInputStream = new SizeLimitedInputStream(inputStream, patientImportProperties.maxFileSize().toBytes(), clock);
+        CsvRecordReader csvRecordReader = new CsvRecordReader(new InputStreamReader(limitedInputStream, StandardCharsets.UTF_8), patientImportProperties.maxRecordLength());
+        Map<String, Integer> columnIndexes = getColumnIndexes(csvRecordReader.next());
+        ImportReport importReport = new ImportReport(patientImportProperties.maxReportedErrors());
+        List<ImportRow> chunk = new ArrayList<>(patientImportProperties.chunkSize());
+        long rowNumber = 0;
+        for (CsvRecord csvRecord = csvRecordReader.next(); csvRecord != null; csvRecord = csvRecordReader.next()) {
+            if (csvRecord.isBlank()) {
+                continue;
+            }
+            rowNumber++;
+            if (csvRecord.tooLong()) {
+                importReport.reject(rowNumber, null, "The row exceeds the maximum length of %d characters.".formatted(patientImportProperties.maxRecordLength()));
+                continue;
+            }
+            ImportRow importRow = toImportRow(rowNumber, csvRecord.values(), columnIndexes, importReport);
+            if (importRow == null) {
+                continue;
+            }
+            chunk.add(importRow);
+            if (chunk.size() == patientImportProperties.chunkSize()) {
+                importChunk(chunk, importReport);
+            }
+        }
+        importChunk(chunk, importReport);
+        return importReport.toDTO();
+    }
+
+    private Map<String, Integer> getColumnIndexes(CsvRecord headerRecord) {
+        if (headerRecord == null) {
+            throw new PatientIllegalDataException("The import file is empty.", OffsetDateTime.now(clock));
+        }
+        if (headerRecord.tooLong()) {
+            throw new PatientIllegalDataException("The import file header exceeds the maximum length of %d characters.".formatted(patientImportProperties.maxRecordLength()), OffsetDateTime.now(clock));
+        }
+        List<String> header = headerRecord.values();
+        Map<String, Integer> columnIndexes = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columnIndexes.put(header.get(i).strip(), i);
+        }
+        COLUMNS.stream()
+                .filter(column -> !columnIndexes.containsKey(column))
+                .findFirst()
+                .ifPresent(column -> {
+                    throw new PatientIllegalDataException("The import file is missing column: %s.".formatted(column), OffsetDateTime.now(clock));
+                });
+        return columnIndexes;
+    }
+
+    private ImportRow toImportRow(long rowNumber, List<String> values, Map<String, Integer> columnIndexes, ImportReport importReport) {
+        String email = getValue(values, columnIndexes, "email");
+        String birthday = getValue(values, columnIndexes, "birthday");
+        try {
+            UpsertPatientCommand upsertPatientCommand = UpsertPatientCommand.builder()
+                    .email(email)
+                    .password(getValue(values, columnIndexes, "password"))
+                    .idCardNo(getValue(values, columnIndexes, "idCardNo"))
+                    .firstName(getValue(values, columnIndexes, "firstName"))
+                    .lastName(getValue(values, columnIndexes, "lastName"))
+                    .phoneNumber(getValue(values, columnIndexes, "phoneNumber"))
+                    .birthday(birthday == null ? null : LocalDate.parse(birthday))
+                    .build();
+            PatientValidator.validatePatientImportData(upsertPatientCommand, clock);
+            return new ImportRow(rowNumber, upsertPatientCommand);
+        } catch (DateTimeParseException e) {
+            importReport.reject(rowNumber, email, "Birthday: %s is not a valid date.".formatted(birthday));
+        } catch (PatientIllegalDataException e) {
+            importReport.reject(rowNumber, email, e.getMessage());
+        }
+        return null;
+    }
+
+    private String getValue(List<String> values, Map<String, Integer> columnIndexes, String column) {
+        int index = columnIndexes.get(column);
+        if (index >= values.size() || values.get(index).isEmpty()) {
+            return null;
+        }
+        return values.get(index);
+    }
+
+    private void importChunk(List<ImportRow> chunk, ImportReport importReport) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        Map<String, ImportRow> rowsByEmail = new LinkedHashMap<>();
+        chunk.forEach(importRow -> {
+            if (rowsByEmail.putIfAbsent(importRow.email(), importRow) != null) {
+                importReport.reject(importRow.rowNumber(), importRow.email(), "Patient with email: %s is duplicated in the import.".formatted(importRow.email()));
+            }
+        });
+        chunk.clear();
+        try {
+            saveRows(rowsByEmail.values(), importReport);
+        } catch (DataIntegrityViolationException e) {
+            rowsByEmail.values().forEach(importRow -> {
+                try {
+                    saveRows(List.of(importRow), importReport);
+                } catch (DataIntegrityViolationException rowException) {
+                    rejectExistingPatient(importRow, importReport);
+                }
+            });
+        }
+    }
+
+    private void saveRows(Collection<ImportRow> importRows, ImportReport importReport) {
+        List<ImportRow> existingRows = new ArrayList<>();
+        List<Patient> patients = transactionTemplate.execute(status -> {
+            Set<String> existingEmails = new HashSet<>(patientRepository.findExistingEmails(importRows.stream().map(ImportRow::email).toList()));
+            List<Patient> newPatients = new ArrayList<>(importRows.size());
+            importRows.forEach(importRow -> {
+                if (existingEmails.contains(importRow.email())) {
+                    existingRows.add(importRow);
+                } else {
+                    newPatients.add(patientMapper.toEntity(importRow.upsertPatientCommand()));
+                }
+            });
+            patientRepository.saveAll(newPatients);
+            patientRepository.flush();
+            entityManager.clear();
+            return newPatients;
+        });
+        patients.forEach(patient -> patientEmailIndex.add(patient.getEmail()));
+        existingRows.forEach(importRow -> rejectExistingPatient(importRow, importReport));
+        importReport.imported(patients.size());
+    }
+
+    private void rejectExistingPatient(ImportRow importRow, ImportReport importReport) {
+        importReport.reject(importRow.rowNumber(), importRow.email(), "Patient with email: %s already exists.".formatted(importRow.email()));
+    }
+
+    private record ImportRow(long rowNumber, UpsertPatientCommand upsertPatientCommand) {
+        private String email() {
+            return upsertPatientCommand.email();
+        }
+    }
+
+    private static class ImportReport {
+        private final int maxReportedErrors;
+        private final List<PatientImportErrorDTO> errors = new ArrayList<>();
+        private long importedRows;
+        private long rejectedRows;
+
+        private ImportReport(int maxReportedErrors) {
+            this.maxReportedErrors = maxReportedErrors;
+        }
+
+        private void imported(int rows) {
+            importedRows += rows;
+        }
+
+        private void reject(long rowNumber, String email, String message) {
+            rejectedRows++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new PatientImportErrorDTO(rowNumber, email, message));
+            }
+        }
+
+        private PatientImportReportDTO toDTO() {
+            return PatientImportReportDTO.builder()
+                    .importedRows(importedRows)
+                    .rejectedRows(rejectedRows)
+                    .errorsTruncated(rejectedRows > errors.size())
+                    .errors(errors)
+                    .build();
+        }
+    }
+
+    private record CsvRecord(List<String> values, boolean tooLong) {
+        private boolean isBlank() {
+            return !tooLong && values.size() == 1 && values.getFirst().isEmpty();
+        }
+    }
+
+    private static class SizeLimitedInputStream extends FilterInputStream {
+        private final long maxBytes;
+        private final Clock clock;
+        private long readBytes;
+
+        private SizeLimitedInputStream(InputStream inputStream, long maxBytes, Clock clock) {
+            super(inputStream);
+            this.maxBytes = maxBytes;
+            this.clock = clock;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int character = super.read();
+            if (character != -1) {
+                count(1);
+            }
+            return character;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = super.read(buffer, offset, length);
+            if (read > 0) {
+                count(read);
+            }
+            return read;
+        }
+
+        private void count(int bytes) {
+            readBytes += bytes;
+            if (readBytes > maxBytes) {
+                throw new PatientImportTooLargeException("The import file exceeds the maximum size of %d bytes.".formatted(maxBytes), OffsetDateTime.now(clock));
+            }
+        }
+    }
+
+    private static class CsvRecordReader {
+        private final Reader reader;
+        private final int maxRecordLength;
+
+        private CsvRecordReader(Reader reader, int maxRecordLength) {
+            this.reader = new BufferedReader(reader);
+            this.maxRecordLength = maxRecordLength;
+        }
+
+        private CsvRecord next() throws IOException {
+            int character = reader.read();
+            if (character == -1) {
+                return null;
+            }
+            List<String> values = new ArrayList<>();
+            StringBuilder value = new StringBuilder();
+            boolean quoted = false;
+            int recordLength = 0;
+            while (character != -1) {
+                if (++recordLength > maxRecordLength) {
+                    skipLine();
+                    return new CsvRecord(List.of(), true);
+                }
+                if (quoted) {
+                    if (character == '"') {
+                        reader.mark(1);
+                        if (reader.read() == '"') {
+                            value.append('"');
+                        } else {
+                            reader.reset();
+                            quoted = false;
+                        }
+                    } else {
+                        value.append((char) character);
+                    }
+                } else if (character == '"') {
+                    quoted = true;
+                } else if (character == ',') {
+                    values.add(value.toString());
+                    value.setLength(0);
+                } else if (character == '\n') {
+                    break;
+                } else if (character != '\r') {
+                    value.append((char) character);
+                }
+                character = reader.read();
+            }
+            values.add(value.toString());
+            return new CsvRecord(values, false);
+        }
+
+        private void skipLine() throws IOException {
+            int character = reader.read();
+            while (character != -1 && character != '\n') {
+                character = reader.read();
+            }
+        }
+    }
+}
@@ -1,56 +1,92 @@
 package com.example.demo.service;
 
 import com.example.demo.command.patient.UpsertPatientCommand;
+import com.example.demo.config.CacheConfig;
+import com.example.demo.config.MetricsConfig;
+import com.example.demo.count.EntryCountEstimator;
+import com.example.demo.exception.patient.PatientAlreadyExistsException;
 import com.example.demo.exception.patient.PatientNotFoundException;
+import com.example.demo.index.PatientEmailIndex;
 import com.example.demo.mapper.PatientMapper;
 import com.example.demo.model.PageableContentDto;
+import com.example.demo.model.SliceContentDto;
+import com.example.demo.model.SliceTotal;
 import com.example.demo.model.patient.Patient;
 import com.example.demo.model.patient.PatientDTO;
 import com.example.demo.repository.PatientRepository;
 import com.example.demo.repository.VisitRepository;
 import com.example.demo.validator.PatientValidator;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.SQLException;
 import java.time.Clock;
 import java.time.OffsetDateTime;
 
 @Service
+@Timed(MetricsConfig.SERVICE_INVOCATIONS)
 @RequiredArgsConstructor
 public class PatientService {
+    private static final String UNIQUE_VIOLATION_SQL_STATE = "23505";
+
     private final PatientRepository patientRepository;
     private final PatientMapper patientMapper;
     private final VisitRepository visitRepository;
+    private final PatientEmailIndex patientEmailIndex;
+    private final EntryCountEstimator entryCountEstimator;
     private final Clock clock;
 
     @Transactional
     public PatientDTO createPatient(UpsertPatientCommand upsertPatientCommand) {
-        PatientValidator.validatePatientCreation(upsertPatientCommand, patientRepository, clock);
-        Patient patient = patientRepository.save(patientMapper.toEntity(upsertPatientCommand));
+        PatientValidator.validatePatientCreation(upsertPatientCommand, patientRepository, patientEmailIndex, clock);
+        Patient patient = saveWithUniqueEmail(patientMapper.toEntity(upsertPatientCommand));
+        patientEmailIndex.add(patient.getEmail());
         return patientMapper.toDTO(patient);
     }
 
+    @Transactional(readOnly = true)
     public PageableContentDto<PatientDTO> getAllPatients(Pageable pageable) {
         return getAllPatientsWithPageable(pageable);
     }
 
+    @Transactional(readOnly = true)
+    public SliceContentDto<PatientDTO> getAllPatients(SliceTotal total, Pageable pageable) {
+        Slice<PatientDTO> content = patientRepository.findPatientDTOSlice(pageable);
+        return SliceContentDto.from(content, entryCountEstimator.estimate(total, "patients", patientRepository::countPatients), content.getContent());
+    }
+
+    @Cacheable(cacheNames = CacheConfig.PATIENTS, key = "#email")
+    @Transactional(readOnly = true)
     public PatientDTO getPatient(String email) {
         Patient patient = getPatientByEmail(email);
         return patientMapper.toDTO(patient);
     }
 
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.PATIENTS, key = "#email"),
+            @CacheEvict(cacheNames = CacheConfig.PATIENT_IDS, key = "#email")
+    })
     @Transactional
     public PatientDTO editPatient(String email, UpsertPatientCommand upsertPatientCommand) {
         Patient patient = getPatientByEmail(email);
-        PatientValidator.validatePatientEdit(patient, upsertPatientCommand, patientRepository, clock);
+        PatientValidator.validatePatientEdit(patient, upsertPatientCommand, patientRepository, patientEmailIndex, clock);
         patient.update(upsertPatientCommand);
-        patientRepository.save(patient);
+        saveWithUniqueEmail(patient);
+        patientEmailIndex.add(patient.getEmail());
         return patientMapper.toDTO(patient);
     }
 
+    @CacheEvict(cacheNames = CacheConfig.PATIENTS, key = "#email")
     @Transactional
     public void editPatientPassword(String email, String password) {
         PatientValidator.validatePatientPasswordEdit(password, clock);
@@ -59,6 +95,10 @@ public class PatientService {
         patientRepository.save(patient);
     }
 
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.PATIENTS, key = "#email"),
+            @CacheEvict(cacheNames = CacheConfig.PATIENT_IDS, key = "#email")
+    })
     @Transactional
     public void deletePatient(String email) {
         Patient patient = getPatientByEmail(email);
@@ -66,18 +106,31 @@ public class PatientService {
         patientRepository.delete(patient);
     }
 
+    private Patient saveWithUniqueEmail(Patient patient) {
+        try {
+            return patientRepository.saveAndFlush(patient);
+        } catch (DataIntegrityViolationException e) {
+            if (NestedExceptionUtils.getMostSpecificCause(e) instanceof SQLException sqlException
+                    && UNIQUE_VIOLATION_SQL_STATE.equals(sqlException.getSQLState())) {
+                throw new PatientAlreadyExistsException("Patient with email: %s already exists.".formatted(patient.getEmail()), OffsetDateTime.now(clock));
+            }
+            throw e;
+        }
+    }
+
     private PageableContentDto<PatientDTO> getAllPatientsWithPageable(Pageable pageable) {
-        Page<Patient> content = patientRepository.findAll(pageable);
+        Page<PatientDTO> content = patientRepository.findPatientDTOs(pageable);
         return PageableContentDto.<PatientDTO>builder()
                 .totalEntries(content.getTotalElements())
                 .totalNumberOfPages(content.getTotalPages())
                 .pageNumber(pageable.getPageNumber())
-                .content(content.stream().map(patientMapper::toDTO).toList())
+                .content(content.getContent())
                 .build();
     }
 
     private Patient getPatientByEmail(String email) {
-        return patientRepository.findByEmail(email)
+        return patientRepository.findIdByEmail(email)
+                .flatMap(patientRepository::findById)
                 .orElseThrow(() -> new PatientNotFoundException("Patient with email: %s does not exist.".formatted(email), OffsetDateTime.now(clock)));
     }
 }
@@ -0,0 +1,219 @@
+package com.example.demo.service;
+
+import com.example.demo.command.schedule.InsertScheduleTemplateCommand;
+import com.example.demo.config.ScheduleProperties;
+import com.example.demo.exception.doctor.DoctorNotFoundException;
+import com.example.demo.exception.facility.FacilityNotFoundException;
+import com.example.demo.exception.schedule.ScheduleTemplateNotFoundException;
+import com.example.demo.index.DoctorVisitIndex;
+import com.example.demo.lock.DoctorVisitLock;
+import com.example.demo.mapper.ScheduleTemplateMapper;
+import com.example.demo.model.PageableContentDto;
+import com.example.demo.model.doctor.Doctor;
+import com.example.demo.model.facility.Facility;
+import com.example.demo.model.schedule.ScheduleMaterializationDTO;
+import com.example.demo.model.schedule.ScheduleTemplate;
+import com.example.demo.model.schedule.ScheduleTemplateDTO;
+import com.example.demo.model.visit.Visit;
+import com.example.demo.model.visit.VisitInterval;
+import com.example.demo.repository.DoctorRepository;
+import com.example.demo.repository.FacilityRepository;
+import com.example.demo.repository.ScheduleTemplateRepository;
+import com.example.demo.repository.VisitRepository;
+import com.example.demo.validator.ScheduleTemplateValidator;
+import com.example.demo.validator.VisitValidator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class ScheduleTemplateService {
+    private final ScheduleTemplateRepository scheduleTemplateRepository;
+    private final DoctorRepository doctorRepository;
+    private final FacilityRepository facilityRepository;
+    private final VisitRepository visitRepository;
+    private final ScheduleTemplateMapper scheduleTemplateMapper;
+    private final DoctorVisitIndex doctorVisitIndex;
+    private final DoctorVisitLock doctorVisitLock;
+    private final ScheduleProperties scheduleProperties;
+    private final Clock clock;
+
+    @Transactional
+    public ScheduleTemplateDTO createScheduleTemplate(InsertScheduleTemplateCommand insertScheduleTemplateCommand) {
+        ScheduleTemplateValidator.validateScheduleTemplateData(insertScheduleTemplateCommand, clock);
+        Doctor doctor = getDoctorWithId(insertScheduleTemplateCommand.doctorId());
+        Facility facility = getFacilityWithId(insertScheduleTemplateCommand.facilityId());
+        ScheduleTemplateValidator.validateDoctorFacilityContract(doctor, facility, clock);
+        ScheduleTemplate scheduleTemplate = scheduleTemplateMapper.toEntity(insertScheduleTemplateCommand);
+        scheduleTemplate.setDoctor(doctor);
+        scheduleTemplate.setFacility(facility);
+        return scheduleTemplateMapper.toDTO(scheduleTemplateRepository.save(scheduleTemplate));
+    }
+
+    @Transactional(readOnly = true)
+    public PageableContentDto<ScheduleTemplateDTO> getScheduleTemplates(Pageable pageable) {
+        Page<ScheduleTemplate> content = scheduleTemplateRepository.findAll(pageable);
+        return PageableContentDto.<ScheduleTemplateDTO>builder()
+                .totalEntries(content.getTotalElements())
+                .totalNumberOfPages(content.getTotalPages())
+                .pageNumber(pageable.getPageNumber())
+                .content(content.stream().map(scheduleTemplateMapper::toDTO).toList())
+                .build();
+    }
+
+    @Transactional(readOnly = true)
+    public ScheduleTemplateDTO getScheduleTemplateById(Long id) {
+        return scheduleTemplateMapper.toDTO(getScheduleTemplateWithId(id));
+    }
+
+    @Transactional(readOnly = true)
+    public List<Long> getScheduleTemplateIds() {
+        return scheduleTemplateRepository.findAllIds();
+    }
+
+    @Transactional
+    public void deleteScheduleTemplate(Long id) {
+        scheduleTemplateRepository.delete(getScheduleTemplateWithId(id));
+    }
+
+    @Transactional
+    public ScheduleMaterializationDTO materializeScheduleTemplate(Long id) {
+        ScheduleTemplate scheduleTemplate = scheduleTemplateRepository.findByIdForUpdate(id)
+                .orElseThrow(() -> scheduleTemplateNotFound(id));
+        ScheduleTemplateValidator.validateDoctorFacilityContract(scheduleTemplate.getDoctor(), scheduleTemplate.getFacility(), clock);
+        ZoneId zone = ZoneId.of(scheduleTemplate.getTimeZone());
+        LocalDate today = LocalDate.now(clock.withZone(zone));
+        LocalDate horizonEnd = today.plusDays(scheduleProperties.horizonDays());
+        LocalDate firstDay = getFirstDayToMaterialize(scheduleTemplate, today);
+        if (firstDay.isAfter(horizonEnd)) {
+            return buildMaterializationDTO(scheduleTemplate, 0, 0);
+        }
+        doctorVisitLock.lock(scheduleTemplate.getDoctor().getId());
+        ExistingVisits existingVisits = new ExistingVisits(visitRepository.findOverlappingDoctorVisitIntervals(
+                scheduleTemplate.getDoctor().getId(),
+                toOffsetDateTime(firstDay, scheduleTemplate.getStartTime(), zone),
+                toOffsetDateTime(horizonEnd, scheduleTemplate.getEndTime(), zone)));
+        OffsetDateTime now = OffsetDateTime.now(clock);
+        List<Visit> batch = new ArrayList<>(scheduleProperties.batchSize());
+        int createdVisits = 0;
+        int skippedSlots = 0;
+        for (LocalDate day = firstDay; !day.isAfter(horizonEnd); day = day.plusDays(1)) {
+            if (!scheduleTemplate.getDaysOfWeek().contains(day.getDayOfWeek())) {
+                continue;
+            }
+            LocalDateTime dayEnd = day.atTime(scheduleTemplate.getEndTime());
+            for (LocalDateTime slotStart = day.atTime(scheduleTemplate.getStartTime());
+                 !slotStart.plusMinutes(scheduleTemplate.getSlotLengthMinutes()).isAfter(dayEnd);
+                 slotStart = slotStart.plusMinutes(scheduleTemplate.getSlotLengthMinutes())) {
+                OffsetDateTime startTime = toOffsetDateTime(slotStart, zone);
+                OffsetDateTime endTime = toOffsetDateTime(slotStart.plusMinutes(scheduleTemplate.getSlotLengthMinutes()), zone);
+                if (startTime.isBefore(now) || existingVisits.overlaps(startTime, endTime)) {
+                    skippedSlots++;
+                    continue;
+                }
+                batch.add(Visit.builder()
+                        .startTime(startTime)
+                        .endTime(endTime)
+                        .doctor(scheduleTemplate.getDoctor())
+                        .build());
+                if (batch.size() == scheduleProperties.batchSize()) {
+                    createdVisits += saveVisits(batch);
+                }
+            }
+        }
+        createdVisits += saveVisits(batch);
+        scheduleTemplate.setMaterializedUntil(horizonEnd);
+        return buildMaterializationDTO(scheduleTemplate, createdVisits, skippedSlots);
+    }
+
+    private int saveVisits(List<Visit> batch) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        VisitValidator.translateOverlapViolation(() -> visitRepository.saveAllAndFlush(batch), clock).forEach(doctorVisitIndex::add);
+        int saved = batch.size();
+        batch.clear();
+        return saved;
+    }
+
+    private LocalDate getFirstDayToMaterialize(ScheduleTemplate scheduleTemplate, LocalDate today) {
+        LocalDate materializedUntil = scheduleTemplate.getMaterializedUntil();
+        if (materializedUntil == null || materializedUntil.isBefore(today)) {
+            return today;
+        }
+        return materializedUntil.plusDays(1);
+    }
+
+    private ScheduleMaterializationDTO buildMaterializationDTO(ScheduleTemplate scheduleTemplate, int createdVisits, int skippedSlots) {
+        return ScheduleMaterializationDTO.builder()
+                .scheduleTemplateId(scheduleTemplate.getId())
+                .createdVisits(createdVisits)
+                .skippedSlots(skippedSlots)
+                .materializedUntil(scheduleTemplate.getMaterializedUntil())
+                .build();
+    }
+
+    private OffsetDateTime toOffsetDateTime(LocalDate day, LocalTime time, ZoneId zone) {
+        return toOffsetDateTime(day.atTime(time), zone);
+    }
+
+    private OffsetDateTime toOffsetDateTime(LocalDateTime dateTime, ZoneId zone) {
+        return dateTime.atZone(zone).toOffsetDateTime();
+    }
+
+    private ScheduleTemplate getScheduleTemplateWithId(Long id) {
+        return scheduleTemplateRepository.findById(id)
+                .orElseThrow(() -> scheduleTemplateNotFound(id));
+    }
+
+    private ScheduleTemplateNotFoundException scheduleTemplateNotFound(Long id) {
+        return new ScheduleTemplateNotFoundException("Schedule template with id: %d does not exist.".formatted(id), OffsetDateTime.now(clock));
+    }
+
+    private Doctor getDoctorWithId(Long doctorId) {
+        return doctorRepository.findById(doctorId)
+                .orElseThrow(() -> new DoctorNotFoundException("Doctor with id: %d does not exist.".formatted(doctorId), OffsetDateTime.now(clock)));
+    }
+
+    private Facility getFacilityWithId(Long facilityId) {
+        return facilityRepository.findById(facilityId)
+                .orElseThrow(() -> new FacilityNotFoundException("Facility with id: %d does not exist.".formatted(facilityId), OffsetDateTime.now(clock)));
+    }
+
+    private static class ExistingVisits {
+        private final List<VisitInterval> visits;
+        private final OffsetDateTime[] latestEndUpTo;
+        private int lastStartedIndex = -1;
+
+        private ExistingVisits(List<VisitInterval> visits) {
+            this.visits = visits.stream()
+                    .sorted(Comparator.comparing(VisitInterval::startTime, OffsetDateTime.timeLineOrder()))
+                    .toList();
+            this.latestEndUpTo = new OffsetDateTime[this.visits.size()];
+            for (int i = 0; i < this.visits.size(); i++) {
+                OffsetDateTime endTime = this.visits.get(i).endTime();
+                latestEndUpTo[i] = i > 0 && latestEndUpTo[i - 1].isAfter(endTime) ? latestEndUpTo[i - 1] : endTime;
+            }
+        }
+
+        private boolean overlaps(OffsetDateTime startTime, OffsetDateTime endTime) {
+            while (lastStartedIndex + 1 < visits.size() && visits.get(lastStartedIndex + 1).startTime().isBefore(endTime)) {
+                lastStartedIndex++;
+            }
+            return lastStartedIndex >= 0 && latestEndUpTo[lastStartedIndex].isAfter(startTime);
+        }
+    }
+}
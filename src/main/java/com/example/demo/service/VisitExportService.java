@@ -0,0 +1,94 @@
+package com.example.demo.service;
+
+import com.example.demo.exception.visit.VisitIllegalDataException;
+import com.example.demo.model.visit.VisitExportFormat;
+import com.example.demo.model.visit.VisitExportRow;
+import com.example.demo.repository.VisitRepository;
+import com.example.demo.validator.VisitValidator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.OffsetDateTime;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Service
+@RequiredArgsConstructor
+public class VisitExportService {
+    private static final String CSV_HEADER = "id,startTime,endTime,doctorId,doctorFirstName,doctorLastName,doctorSpecialization,patientId,patientFirstName,patientLastName";
+
+    private final VisitRepository visitRepository;
+    private final ObjectMapper objectMapper;
+    private final Clock clock;
+
+    public VisitExportFormat getExportFormat(String format) {
+        return Arrays.stream(VisitExportFormat.values())
+                .filter(exportFormat -> exportFormat.getFileExtension().equalsIgnoreCase(format))
+                .findFirst()
+                .orElseThrow(() -> new VisitIllegalDataException("Export format: %s is not supported.".formatted(format), OffsetDateTime.now(clock)));
+    }
+
+    public void validateExportFilters(OffsetDateTime from, OffsetDateTime to) {
+        if (from != null) {
+            VisitValidator.validateSearchWindow(from, to, clock);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public void exportVisits(VisitExportFormat format, Long doctorId, Long patientId, OffsetDateTime from, OffsetDateTime to, OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        try (Stream<VisitExportRow> rows = visitRepository.streamVisitExportRows(doctorId, patientId, from, to)) {
+            switch (format) {
+                case NDJSON -> writeNdjson(rows.iterator(), writer);
+                case CSV -> writeCsv(rows.iterator(), writer);
+            }
+        }
+        writer.flush();
+    }
+
+    private void writeNdjson(Iterator<VisitExportRow> rows, Writer writer) throws IOException {
+        while (rows.hasNext()) {
+            writer.write(objectMapper.writeValueAsString(rows.next()));
+            writer.write("\n");
+        }
+    }
+
+    private void writeCsv(Iterator<VisitExportRow> rows, Writer writer) throws IOException {
+        writer.write(CSV_HEADER);
+        writer.write("\n");
+        while (rows.hasNext()) {
+            writer.write(toCsvLine(rows.next()));
+            writer.write("\n");
+        }
+    }
+
+    private static String toCsvLine(VisitExportRow row) {
+        return Stream.of(row.id(), row.startTime(), row.endTime(), row.doctorId(), row.doctorFirstName(), row.doctorLastName(),
+                        row.doctorSpecialization(), row.patientId(), row.patientFirstName(), row.patientLastName())
+                .map(VisitExportService::toCsvValue)
+                .collect(Collectors.joining(","));
+    }
+
+    private static String toCsvValue(Object value) {
+        if (Objects.isNull(value)) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.contains(",") || text.contains("\"") || text.contains("\n") || text.contains("\r")) {
+            return "\"" + text.replace("\"", "\"\"") + "\"";
+        }
+        return text;
+    }
+}
@@ -1,80 +1,222 @@
 package com.example.demo.service;
 
 import com.example.demo.command.visit.InsertVisitCommand;
+import com.example.demo.config.MetricsConfig;
+import com.example.demo.config.VisitProperties;
+import com.example.demo.count.EntryCountEstimator;
 import com.example.demo.exception.doctor.DoctorNotFoundException;
 import com.example.demo.exception.patient.PatientNotFoundException;
+import com.example.demo.exception.visit.VisitIllegalDataException;
 import com.example.demo.exception.visit.VisitNotFoundException;
+import com.example.demo.index.DoctorVisitIndex;
+import com.example.demo.lock.DoctorVisitLock;
 import com.example.demo.mapper.VisitMapper;
+import com.example.demo.model.CursorContentDto;
 import com.example.demo.model.PageableContentDto;
+import com.example.demo.model.SliceContentDto;
+import com.example.demo.model.SliceTotal;
 import com.example.demo.model.doctor.Doctor;
 import com.example.demo.model.patient.Patient;
+import com.example.demo.model.visit.AvailableSlotDTO;
 import com.example.demo.model.visit.Visit;
+import com.example.demo.model.visit.VisitCursor;
 import com.example.demo.model.visit.VisitDTO;
+import com.example.demo.model.visit.VisitInterval;
+import com.example.demo.model.visit.VisitRow;
 import com.example.demo.repository.DoctorRepository;
 import com.example.demo.repository.PatientRepository;
 import com.example.demo.repository.VisitRepository;
 import com.example.demo.validator.VisitValidator;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Clock;
 import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
+@Timed(MetricsConfig.SERVICE_INVOCATIONS)
 @RequiredArgsConstructor
 public class VisitService {
+    private static final Sort CURSOR_SORT = Sort.by("startTime", "id");
+
     private final VisitRepository visitRepository;
     private final VisitMapper visitMapper;
     private final DoctorRepository doctorRepository;
     private final PatientRepository patientRepository;
+    private final DoctorVisitIndex doctorVisitIndex;
+    private final DoctorVisitLock doctorVisitLock;
+    private final VisitProperties visitProperties;
+    private final EntryCountEstimator entryCountEstimator;
     private final Clock clock;
 
+    @Timed(value = MetricsConfig.VISIT_CREATION, histogram = true)
     @Transactional
     public VisitDTO createVisit(InsertVisitCommand insertVisitCommand) {
-        VisitValidator.validateVisitData(insertVisitCommand, visitRepository, doctorRepository, clock);
+        Doctor doctor = VisitValidator.validateVisitData(insertVisitCommand, doctorRepository, clock);
+        doctorVisitLock.lock(doctor.getId());
         Visit visit = visitMapper.toEntity(insertVisitCommand);
-        Doctor doctor = getDoctorWithId(insertVisitCommand.doctorId());
         visit.setDoctor(doctor);
-        visit = visitRepository.save(visit);
-        return visitMapper.toDto(visit);
+        Visit savedVisit;
+        if (visitProperties.databaseOverlapConstraint()) {
+            VisitValidator.validateIndexedVisitOverlap(insertVisitCommand, doctorVisitIndex, doctor, clock);
+            savedVisit = VisitValidator.translateOverlapViolation(() -> visitRepository.saveAndFlush(visit), clock);
+        } else {
+            VisitValidator.validateVisitOverlap(insertVisitCommand, visitRepository, doctorVisitIndex, doctor, clock);
+            savedVisit = visitRepository.save(visit);
+        }
+        doctorVisitIndex.add(savedVisit);
+        return visitMapper.toDto(savedVisit);
+    }
+
+    @Transactional
+    public List<VisitDTO> createVisits(List<InsertVisitCommand> insertVisitCommands) {
+        VisitValidator.validateVisitsBulkData(insertVisitCommands, clock);
+        Map<Long, List<InsertVisitCommand>> commandsByDoctorId = insertVisitCommands.stream()
+                .collect(Collectors.groupingBy(InsertVisitCommand::doctorId));
+        Map<Long, Doctor> doctorsById = getDoctorsWithIds(commandsByDoctorId.keySet());
+        doctorVisitLock.lock(doctorsById.keySet());
+        commandsByDoctorId.forEach((doctorId, doctorVisitCommands) ->
+                VisitValidator.validateVisitsBulkOverlap(doctorVisitCommands, getExistingDoctorVisits(doctorId, doctorVisitCommands), clock));
+        List<Visit> visits = insertVisitCommands.stream()
+                .map(insertVisitCommand -> {
+                    Visit visit = visitMapper.toEntity(insertVisitCommand);
+                    visit.setDoctor(doctorsById.get(insertVisitCommand.doctorId()));
+                    return visit;
+                })
+                .toList();
+        List<Visit> savedVisits = visitProperties.databaseOverlapConstraint()
+                ? VisitValidator.translateOverlapViolation(() -> visitRepository.saveAllAndFlush(visits), clock)
+                : visitRepository.saveAll(visits);
+        savedVisits.forEach(doctorVisitIndex::add);
+        return savedVisits.stream().map(visitMapper::toDto).toList();
     }
 
+    @Transactional(readOnly = true)
     public PageableContentDto<VisitDTO> getAllVisits(Pageable pageable) {
-        Page<Visit> visits = visitRepository.findAll(pageable);
+        Page<VisitRow> visits = visitRepository.findVisitRows(pageable);
         return createPageableContentDto(visits, pageable);
     }
 
+    @Transactional(readOnly = true)
+    public SliceContentDto<VisitDTO> getAllVisits(SliceTotal total, Pageable pageable) {
+        Slice<VisitRow> visits = visitRepository.findVisitRowSlice(pageable);
+        return createSliceContentDto(visits, entryCountEstimator.estimate(total, "visits", visitRepository::countVisits));
+    }
+
+    @Transactional(readOnly = true)
     public PageableContentDto<VisitDTO> getDoctorVisits(Long doctorId, Pageable pageable) {
-        Page<Visit> visits = visitRepository.findAllByDoctorId(doctorId, pageable);
+        Page<VisitRow> visits = visitRepository.findVisitRowsByDoctorId(doctorId, pageable);
         return createPageableContentDto(visits, pageable);
     }
 
+    @Transactional(readOnly = true)
+    public SliceContentDto<VisitDTO> getDoctorVisits(Long doctorId, SliceTotal total, Pageable pageable) {
+        Slice<VisitRow> visits = visitRepository.findVisitRowSliceByDoctorId(doctorId, pageable);
+        return createSliceContentDto(visits, entryCountEstimator.estimate(total, () -> visitRepository.countVisitsByDoctorId(doctorId)));
+    }
+
+    @Transactional(readOnly = true)
     public PageableContentDto<VisitDTO> getPatientVisits(Long patientId, Pageable pageable) {
-        Page<Visit> visits = visitRepository.findAllByPatientId(patientId, pageable);
+        Page<VisitRow> visits = visitRepository.findVisitRowsByPatientId(patientId, pageable);
         return createPageableContentDto(visits, pageable);
     }
 
+    @Transactional(readOnly = true)
+    public SliceContentDto<VisitDTO> getPatientVisits(Long patientId, SliceTotal total, Pageable pageable) {
+        Slice<VisitRow> visits = visitRepository.findVisitRowSliceByPatientId(patientId, pageable);
+        return createSliceContentDto(visits, entryCountEstimator.estimate(total, () -> visitRepository.countVisitsByPatientId(patientId)));
+    }
+
+    @Transactional(readOnly = true)
+    public CursorContentDto<VisitDTO> getAllVisits(String cursor, int size) {
+        VisitValidator.validateCursorPageSize(size, visitProperties.maxCursorPageSize(), clock);
+        Window<VisitRow> visits = visitRepository.findVisitRowWindowBy(toScrollPosition(cursor), Limit.of(size), CURSOR_SORT);
+        return createCursorContentDto(visits);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorContentDto<VisitDTO> getDoctorVisits(Long doctorId, String cursor, int size) {
+        VisitValidator.validateCursorPageSize(size, visitProperties.maxCursorPageSize(), clock);
+        Window<VisitRow> visits = visitRepository.findVisitRowWindowByDoctor(doctorRepository.getReferenceById(doctorId), toScrollPosition(cursor), Limit.of(size), CURSOR_SORT);
+        return createCursorContentDto(visits);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorContentDto<VisitDTO> getPatientVisits(Long patientId, String cursor, int size) {
+        VisitValidator.validateCursorPageSize(size, visitProperties.maxCursorPageSize(), clock);
+        Window<VisitRow> visits = visitRepository.findVisitRowWindowByPatient(patientRepository.getReferenceById(patientId), toScrollPosition(cursor), Limit.of(size), CURSOR_SORT);
+        return createCursorContentDto(visits);
+    }
+
+    @Transactional(readOnly = true)
+    public PageableContentDto<AvailableSlotDTO> getAvailableSlots(Long doctorId, String specialization, Long facilityId, OffsetDateTime from, OffsetDateTime to, Pageable pageable) {
+        OffsetDateTime now = OffsetDateTime.now(clock);
+        OffsetDateTime searchFrom = from == null || from.isBefore(now) ? now : from;
+        VisitValidator.validateSearchWindow(searchFrom, to, clock);
+        Pageable unsortedPageable = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+        Page<AvailableSlotDTO> availableSlots = visitRepository.findAvailableSlots(doctorId, specialization, facilityId, searchFrom, to, unsortedPageable);
+        return PageableContentDto.<AvailableSlotDTO>builder()
+                .totalEntries(availableSlots.getTotalElements())
+                .totalNumberOfPages(availableSlots.getTotalPages())
+                .pageNumber(pageable.getPageNumber())
+                .content(availableSlots.getContent())
+                .build();
+    }
+
+    @Timed(value = MetricsConfig.VISIT_REGISTRATION, histogram = true)
     @Transactional
     public void registerPatientToVisit(Long visitId, Long patientId) {
-        Visit visit = getVisitWithId(visitId);
         Patient patient = getPatientWithId(patientId);
-        VisitValidator.validateVisitAvailability(visit, clock);
-        visit.setPatient(patient);
-        visitRepository.save(visit);
+        if (visitRepository.registerPatientIfAvailable(visitId, patient, OffsetDateTime.now(clock)) == 0) {
+            throw VisitValidator.visitNotAvailable(getVisitWithId(visitId), clock);
+        }
     }
 
     @Transactional
     public void deleteVisit(Long visitId) {
         Visit visit = getVisitWithId(visitId);
         visitRepository.delete(visit);
+        doctorVisitIndex.remove(visit);
+    }
+
+    private Map<Long, Doctor> getDoctorsWithIds(Set<Long> doctorIds) {
+        Map<Long, Doctor> doctorsById = doctorRepository.findAllById(doctorIds).stream()
+                .collect(Collectors.toMap(Doctor::getId, Function.identity()));
+        if (doctorsById.size() != doctorIds.size()) {
+            throw new DoctorNotFoundException("List of doctors ids contained invalid values.", OffsetDateTime.now(clock));
+        }
+        return doctorsById;
     }
 
-    private Doctor getDoctorWithId(Long doctorId) {
-        return doctorRepository.findById(doctorId)
-                .orElseThrow(() -> new DoctorNotFoundException("Doctor with id: %d does not exist.".formatted(doctorId), OffsetDateTime.now(clock)));
+    private List<VisitInterval> getExistingDoctorVisits(Long doctorId, List<InsertVisitCommand> doctorVisitCommands) {
+        if (visitProperties.databaseOverlapConstraint()) {
+            return List.of();
+        }
+        OffsetDateTime earliestStart = doctorVisitCommands.stream()
+                .map(InsertVisitCommand::startTime)
+                .min(OffsetDateTime.timeLineOrder())
+                .orElseThrow();
+        OffsetDateTime latestEnd = doctorVisitCommands.stream()
+                .map(InsertVisitCommand::endTime)
+                .max(OffsetDateTime.timeLineOrder())
+                .orElseThrow();
+        return visitRepository.findOverlappingDoctorVisitIntervals(doctorId, earliestStart, latestEnd);
     }
 
     private Visit getVisitWithId(Long visitId) {
@@ -87,7 +229,7 @@ public class VisitService {
                 .orElseThrow(() -> new PatientNotFoundException("Patient with id: %d does not exist.".formatted(patientId), OffsetDateTime.now(clock)));
     }
 
-    private PageableContentDto<VisitDTO> createPageableContentDto(Page<Visit> visits, Pageable pageable) {
+    private PageableContentDto<VisitDTO> createPageableContentDto(Page<VisitRow> visits, Pageable pageable) {
         return PageableContentDto.<VisitDTO>builder()
                 .totalEntries(visits.getTotalElements())
                 .totalNumberOfPages(visits.getTotalPages())
@@ -95,4 +237,29 @@ public class VisitService {
                 .content(visits.get().map(visitMapper::toDto).toList())
                 .build();
     }
+
+    private SliceContentDto<VisitDTO> createSliceContentDto(Slice<VisitRow> visits, Long estimatedTotalEntries) {
+        return SliceContentDto.from(visits, estimatedTotalEntries, visits.get().map(visitMapper::toDto).toList());
+    }
+
+    private ScrollPosition toScrollPosition(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+        try {
+            return VisitCursor.decode(cursor).toScrollPosition();
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new VisitIllegalDataException("Cursor: %s is not valid.".formatted(cursor), OffsetDateTime.now(clock));
+        }
+    }
+
+    private CursorContentDto<VisitDTO> createCursorContentDto(Window<VisitRow> visits) {
+        String nextCursor = visits.hasNext() && !visits.isEmpty()
+                ? VisitCursor.of(visits.getContent().getLast()).encode()
+                : null;
+        return CursorContentDto.<VisitDTO>builder()
+                .nextCursor(nextCursor)
+                .content(visits.stream().map(visitMapper::toDto).toList())
+                .build();
+    }
 }
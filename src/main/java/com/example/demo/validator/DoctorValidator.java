@@ -3,6 +3,7 @@ package com.example.demo.validator;
 import com.example.demo.command.doctor.UpsertDoctorCommand;
 import com.example.demo.exception.doctor.DoctorAlreadyExistsException;
 import com.example.demo.exception.doctor.DoctorIllegalDataException;
+import com.example.demo.index.DoctorEmailIndex;
 import com.example.demo.model.doctor.Doctor;
 import com.example.demo.repository.DoctorRepository;
 
@@ -12,18 +13,18 @@ import java.util.List;
 import java.util.Objects;
 
 public class DoctorValidator {
-    public static void validateDoctorCreation(UpsertDoctorCommand upsertDoctorCommand, DoctorRepository doctorRepository, Clock clock) {
+    public static void validateDoctorCreation(UpsertDoctorCommand upsertDoctorCommand, DoctorRepository doctorRepository, DoctorEmailIndex doctorEmailIndex, Clock clock) {
         validateDoctorData(upsertDoctorCommand, clock);
-        validateEmailAvailability(upsertDoctorCommand.email(), doctorRepository, clock);
+        validateEmailAvailability(upsertDoctorCommand.email(), doctorRepository, doctorEmailIndex, clock);
     }
 
     public static void validateDoctorBulkCreation(List<UpsertDoctorCommand> upsertDoctorCommands, Clock clock) {
         upsertDoctorCommands.forEach(upsertDoctorCommand -> validateDoctorData(upsertDoctorCommand, clock));
     }
 
-    public static void validateDoctorEdit(Doctor doctor, UpsertDoctorCommand upsertDoctorCommand, DoctorRepository doctorRepository, Clock clock) {
+    public static void validateDoctorEdit(Doctor doctor, UpsertDoctorCommand upsertDoctorCommand, DoctorRepository doctorRepository, DoctorEmailIndex doctorEmailIndex, Clock clock) {
         validateDoctorData(upsertDoctorCommand, clock);
-        if (doctorRepository.existsByEmail(upsertDoctorCommand.email()) && !Objects.equals(upsertDoctorCommand.email(), doctor.getEmail())) {
+        if (!Objects.equals(upsertDoctorCommand.email(), doctor.getEmail()) && doctorEmailIndex.exists(upsertDoctorCommand.email(), doctorRepository::existsByEmail)) {
             throw new DoctorAlreadyExistsException("Doctor with email: %s already exists.".formatted(upsertDoctorCommand.email()), OffsetDateTime.now(clock));
         }
     }
@@ -38,8 +39,8 @@ public class DoctorValidator {
         }
     }
 
-    private static void validateEmailAvailability(String email, DoctorRepository doctorRepository, Clock clock) {
-        if (doctorRepository.existsByEmail(email)) {
+    private static void validateEmailAvailability(String email, DoctorRepository doctorRepository, DoctorEmailIndex doctorEmailIndex, Clock clock) {
+        if (doctorEmailIndex.exists(email, doctorRepository::existsByEmail)) {
             throw new DoctorAlreadyExistsException("Doctor with email: %s already exists.".formatted(email), OffsetDateTime.now(clock));
         }
     }
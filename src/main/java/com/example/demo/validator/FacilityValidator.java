@@ -9,7 +9,10 @@ import com.example.demo.repository.FacilityRepository;
 
 import java.time.Clock;
 import java.time.OffsetDateTime;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 
 public class FacilityValidator {
     public static void validateFacilityCreation(InsertFacilityCommand insertFacilityCommand, FacilityRepository facilityRepository, Clock clock) {
@@ -18,6 +21,25 @@ public class FacilityValidator {
         DoctorValidator.validateDoctorBulkCreation(insertFacilityCommand.doctors(), clock);
     }
 
+    public static void validateFacilitiesBulkCreation(List<InsertFacilityCommand> insertFacilityCommands, FacilityRepository facilityRepository, Clock clock) {
+        Set<String> names = new LinkedHashSet<>();
+        insertFacilityCommands.forEach(insertFacilityCommand -> {
+            validateInsertFacilityCommand(insertFacilityCommand, clock);
+            DoctorValidator.validateDoctorBulkCreation(insertFacilityCommand.doctors(), clock);
+            if (!names.add(insertFacilityCommand.name())) {
+                throw new FacilityIllegalDataException("Facility with name: %s is duplicated in the request.".formatted(insertFacilityCommand.name()), OffsetDateTime.now(clock));
+            }
+        });
+        if (names.isEmpty()) {
+            return;
+        }
+        facilityRepository.findExistingNames(names).stream()
+                .findFirst()
+                .ifPresent(name -> {
+                    throw new FacilityAlreadyExistsException("Facility with name: %s already exists.".formatted(name), OffsetDateTime.now(clock));
+                });
+    }
+
     public static void validateFacilityEdit(Facility facility, UpdateFacilityCommand updateFacilityCommand, FacilityRepository facilityRepository, Clock clock) {
         validateUpdateFacilityCommand(updateFacilityCommand, clock);
         if (facilityRepository.existsByName(updateFacilityCommand.name()) && !Objects.equals(facility.getName(), updateFacilityCommand.name())) {
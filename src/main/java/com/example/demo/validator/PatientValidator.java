@@ -3,6 +3,7 @@ package com.example.demo.validator;
 import com.example.demo.command.patient.UpsertPatientCommand;
 import com.example.demo.exception.patient.PatientAlreadyExistsException;
 import com.example.demo.exception.patient.PatientIllegalDataException;
+import com.example.demo.index.PatientEmailIndex;
 import com.example.demo.model.patient.Patient;
 import com.example.demo.repository.PatientRepository;
 
@@ -11,14 +12,18 @@ import java.time.OffsetDateTime;
 import java.util.Objects;
 
 public class PatientValidator {
-    public static void validatePatientCreation(UpsertPatientCommand upsertPatientCommand, PatientRepository patientRepository, Clock clock) {
+    public static void validatePatientCreation(UpsertPatientCommand upsertPatientCommand, PatientRepository patientRepository, PatientEmailIndex patientEmailIndex, Clock clock) {
         validateFullPatientDataDTO(upsertPatientCommand, clock);
-        validateEmailAvailability(upsertPatientCommand.email(), patientRepository, clock);
+        validateEmailAvailability(upsertPatientCommand.email(), patientRepository, patientEmailIndex, clock);
     }
 
-    public static void validatePatientEdit(Patient patient, UpsertPatientCommand upsertPatientCommand, PatientRepository patientRepository, Clock clock) {
+    public static void validatePatientImportData(UpsertPatientCommand upsertPatientCommand, Clock clock) {
         validateFullPatientDataDTO(upsertPatientCommand, clock);
-        if (patientRepository.existsByEmail(upsertPatientCommand.email()) && !Objects.equals(patient.getEmail(), upsertPatientCommand.email())) {
+    }
+
+    public static void validatePatientEdit(Patient patient, UpsertPatientCommand upsertPatientCommand, PatientRepository patientRepository, PatientEmailIndex patientEmailIndex, Clock clock) {
+        validateFullPatientDataDTO(upsertPatientCommand, clock);
+        if (!Objects.equals(patient.getEmail(), upsertPatientCommand.email()) && patientEmailIndex.exists(upsertPatientCommand.email(), patientRepository::existsByEmail)) {
             throw new PatientAlreadyExistsException("Patient with email: %s already exists.".formatted(upsertPatientCommand.email()), OffsetDateTime.now(clock));
         }
         if (!patient.getIdCardNo().equals(upsertPatientCommand.idCardNo())) {
@@ -44,8 +49,8 @@ public class PatientValidator {
         }
     }
 
-    private static void validateEmailAvailability(String email, PatientRepository patientRepository, Clock clock) {
-        if (patientRepository.existsByEmail(email)) {
+    private static void validateEmailAvailability(String email, PatientRepository patientRepository, PatientEmailIndex patientEmailIndex, Clock clock) {
+        if (patientEmailIndex.exists(email, patientRepository::existsByEmail)) {
             throw new PatientAlreadyExistsException("Patient with email: %s already exists.".formatted(email), OffsetDateTime.now(clock));
         }
     }
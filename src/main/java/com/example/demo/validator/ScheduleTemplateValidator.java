@@ -0,0 +1,68 @@
+package com.example.demo.validator;
+
+import com.example.demo.command.schedule.InsertScheduleTemplateCommand;
+import com.example.demo.exception.doctor.DoctorFacilityContractViolationException;
+import com.example.demo.exception.schedule.ScheduleTemplateIllegalDataException;
+import com.example.demo.model.doctor.Doctor;
+import com.example.demo.model.facility.Facility;
+
+import java.time.Clock;
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.Objects;
+
+public class ScheduleTemplateValidator {
+    public static void validateScheduleTemplateData(InsertScheduleTemplateCommand insertScheduleTemplateCommand, Clock clock) {
+        validateScheduleTemplateNulls(insertScheduleTemplateCommand, clock);
+        validateTimeZone(insertScheduleTemplateCommand.timeZone(), clock);
+        validateScheduleTimes(insertScheduleTemplateCommand.startTime(), insertScheduleTemplateCommand.endTime(), insertScheduleTemplateCommand.slotLengthMinutes(), clock);
+    }
+
+    public static void validateDoctorFacilityContract(Doctor doctor, Facility facility, Clock clock) {
+        if (!doctor.getFacilities().contains(facility)) {
+            throw new DoctorFacilityContractViolationException("Doctor with id: %d does not work in facility with id: %d.".formatted(doctor.getId(), facility.getId()), OffsetDateTime.now(clock));
+        }
+    }
+
+    private static void validateScheduleTemplateNulls(InsertScheduleTemplateCommand insertScheduleTemplateCommand, Clock clock) {
+        if (Objects.isNull(insertScheduleTemplateCommand.doctorId())
+                || Objects.isNull(insertScheduleTemplateCommand.facilityId())
+                || Objects.isNull(insertScheduleTemplateCommand.daysOfWeek())
+                || Objects.isNull(insertScheduleTemplateCommand.startTime())
+                || Objects.isNull(insertScheduleTemplateCommand.endTime())
+                || Objects.isNull(insertScheduleTemplateCommand.slotLengthMinutes())
+                || Objects.isNull(insertScheduleTemplateCommand.timeZone())) {
+            throw new ScheduleTemplateIllegalDataException("There cannot be null fields in schedule template.", OffsetDateTime.now(clock));
+        }
+        if (insertScheduleTemplateCommand.daysOfWeek().isEmpty()) {
+            throw new ScheduleTemplateIllegalDataException("Schedule template has to contain at least one day of week.", OffsetDateTime.now(clock));
+        }
+    }
+
+    private static void validateTimeZone(String timeZone, Clock clock) {
+        try {
+            ZoneId.of(timeZone);
+        } catch (DateTimeException ex) {
+            throw new ScheduleTemplateIllegalDataException("Time zone: %s is not valid.".formatted(timeZone), OffsetDateTime.now(clock));
+        }
+    }
+
+    private static void validateScheduleTimes(LocalTime startTime, LocalTime endTime, int slotLengthMinutes, Clock clock) {
+        if (!endTime.isAfter(startTime)) {
+            throw new ScheduleTemplateIllegalDataException("The schedule end time has to be later than start time on the same day.", OffsetDateTime.now(clock));
+        }
+        if (!isQuarterHour(startTime) || !isQuarterHour(endTime)) {
+            throw new ScheduleTemplateIllegalDataException("The schedule time must be set to a full quarter-hour increment e.g. 13:15.", OffsetDateTime.now(clock));
+        }
+        if (slotLengthMinutes <= 0 || slotLengthMinutes % 15 != 0 || slotLengthMinutes > Duration.between(startTime, endTime).toMinutes()) {
+            throw new ScheduleTemplateIllegalDataException("The slot length must be a multiple of 15 minutes that fits between start and end time.", OffsetDateTime.now(clock));
+        }
+    }
+
+    private static boolean isQuarterHour(LocalTime time) {
+        return time.getMinute() % 15 == 0 && time.getSecond() == 0 && time.getNano() == 0;
+    }
+}
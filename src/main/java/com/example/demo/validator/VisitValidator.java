@@ -4,32 +4,117 @@ import com.example.demo.command.visit.InsertVisitCommand;
 import com.example.demo.exception.doctor.DoctorNotFoundException;
 import com.example.demo.exception.visit.VisitIllegalDataException;
 import com.example.demo.exception.visit.VisitNotAvailableException;
+import com.example.demo.index.DoctorVisitIndex;
 import com.example.demo.model.doctor.Doctor;
 import com.example.demo.model.visit.Visit;
+import com.example.demo.model.visit.VisitInterval;
 import com.example.demo.repository.DoctorRepository;
 import com.example.demo.repository.VisitRepository;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataIntegrityViolationException;
 
+import java.sql.SQLException;
 import java.time.Clock;
 import java.time.OffsetDateTime;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Objects;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 public class VisitValidator {
-    public static void validateVisitData(InsertVisitCommand insertVisitCommand, VisitRepository visitRepository, DoctorRepository doctorRepository, Clock clock) {
+    private static final String EXCLUSION_VIOLATION_SQL_STATE = "23P01";
+
+    public static Doctor validateVisitData(InsertVisitCommand insertVisitCommand, DoctorRepository doctorRepository, Clock clock) {
         validateVisitData(insertVisitCommand, clock);
         Doctor doctor = validateExistenceAndRetrieveDoctor(insertVisitCommand.doctorId(), doctorRepository, clock);
-        validateVisitDates(insertVisitCommand.startTime(), insertVisitCommand.endTime(), visitRepository, doctor, clock);
+        validateVisitDates(insertVisitCommand.startTime(), insertVisitCommand.endTime(), clock);
+        return doctor;
+    }
+
+    public static void validateVisitOverlap(InsertVisitCommand insertVisitCommand, VisitRepository visitRepository, DoctorVisitIndex doctorVisitIndex, Doctor doctor, Clock clock) {
+        validateIndexedVisitOverlap(insertVisitCommand, doctorVisitIndex, doctor, clock);
+        if (visitRepository.existsOverlapping(insertVisitCommand.startTime(), insertVisitCommand.endTime(), doctor)) {
+            throw visitAlreadyScheduled(clock);
+        }
+    }
+
+    public static void validateIndexedVisitOverlap(InsertVisitCommand insertVisitCommand, DoctorVisitIndex doctorVisitIndex, Doctor doctor, Clock clock) {
+        if (doctorVisitIndex.overlaps(doctor.getId(), insertVisitCommand.startTime(), insertVisitCommand.endTime())) {
+            throw visitAlreadyScheduled(clock);
+        }
+    }
+
+    public static VisitIllegalDataException visitAlreadyScheduled(Clock clock) {
+        return new VisitIllegalDataException("There is a visit already scheduled at that time.", OffsetDateTime.now(clock));
+    }
+
+    public static <T> T translateOverlapViolation(Supplier<T> save, Clock clock) {
+        try {
+            return save.get();
+        } catch (DataIntegrityViolationException e) {
+            if (NestedExceptionUtils.getMostSpecificCause(e) instanceof SQLException sqlException
+                    && EXCLUSION_VIOLATION_SQL_STATE.equals(sqlException.getSQLState())) {
+                throw visitAlreadyScheduled(clock);
+            }
+            throw e;
+        }
+    }
+
+    public static void validateVisitsBulkData(List<InsertVisitCommand> insertVisitCommands, Clock clock) {
+        insertVisitCommands.forEach(insertVisitCommand -> {
+            validateVisitData(insertVisitCommand, clock);
+            validateVisitDates(insertVisitCommand.startTime(), insertVisitCommand.endTime(), clock);
+        });
+    }
+
+    public static void validateVisitsBulkOverlap(List<InsertVisitCommand> doctorVisitCommands, List<VisitInterval> existingDoctorVisits, Clock clock) {
+        List<ScheduledInterval> intervals = Stream.concat(
+                        doctorVisitCommands.stream().map(command -> new ScheduledInterval(command.startTime(), command.endTime(), true)),
+                        existingDoctorVisits.stream().map(visit -> new ScheduledInterval(visit.startTime(), visit.endTime(), false)))
+                .sorted(Comparator.comparing(ScheduledInterval::startTime, OffsetDateTime.timeLineOrder()))
+                .toList();
+        OffsetDateTime latestRequestedEnd = null;
+        OffsetDateTime latestExistingEnd = null;
+        for (ScheduledInterval interval : intervals) {
+            if (interval.requested() && endsAfter(latestRequestedEnd, interval.startTime())) {
+                throw new VisitIllegalDataException("Visits in the request overlap each other.", OffsetDateTime.now(clock));
+            }
+            if (interval.requested() && endsAfter(latestExistingEnd, interval.startTime())
+                    || !interval.requested() && endsAfter(latestRequestedEnd, interval.startTime())) {
+                throw visitAlreadyScheduled(clock);
+            }
+            if (interval.requested()) {
+                latestRequestedEnd = later(latestRequestedEnd, interval.endTime());
+            } else {
+                latestExistingEnd = later(latestExistingEnd, interval.endTime());
+            }
+        }
     }
 
-    public static void validateVisitAvailability(Visit visit, Clock clock) {
+    public static VisitNotAvailableException visitNotAvailable(Visit visit, Clock clock) {
         if (visit.getStartTime().isBefore(OffsetDateTime.now(clock))) {
-            throw new VisitNotAvailableException("Patient cannot register to the past visits.", OffsetDateTime.now(clock));
+            return new VisitNotAvailableException("Patient cannot register to the past visits.", OffsetDateTime.now(clock));
+        }
+        return new VisitNotAvailableException("Patient is already registered to that visit.", OffsetDateTime.now(clock));
+    }
+
+    public static void validateCursorPageSize(int size, int maxSize, Clock clock) {
+        if (size < 1) {
+            throw new VisitIllegalDataException("The page size has to be greater than zero.", OffsetDateTime.now(clock));
+        }
+        if (size > maxSize) {
+            throw new VisitIllegalDataException("The page size cannot be greater than %d.".formatted(maxSize), OffsetDateTime.now(clock));
         }
-        if (visit.getPatient() != null) {
-            throw new VisitNotAvailableException("Patient is already registered to that visit.", OffsetDateTime.now(clock));
+    }
+
+    public static void validateSearchWindow(OffsetDateTime from, OffsetDateTime to, Clock clock) {
+        if (to != null && to.isBefore(from)) {
+            throw new VisitIllegalDataException("The search end date cannot be earlier than start date.", OffsetDateTime.now(clock));
         }
     }
 
-    private static void validateVisitDates(OffsetDateTime startTime, OffsetDateTime endTime, VisitRepository visitRepository, Doctor doctor, Clock clock) {
+    private static void validateVisitDates(OffsetDateTime startTime, OffsetDateTime endTime, Clock clock) {
         if (startTime.isBefore(OffsetDateTime.now(clock))) {
             throw new VisitIllegalDataException("The visit cannot be set in the past.", OffsetDateTime.now(clock));
         }
@@ -39,9 +124,6 @@ public class VisitValidator {
         if (startTime.getMinute() % 15 != 0 || endTime.getMinute() % 15 != 0) {
             throw new VisitIllegalDataException("The visit time must be set to a full quarter-hour increment e.g. 13:15.", OffsetDateTime.now(clock));
         }
-        if (visitRepository.existsBetweenDatesInclusive(startTime, endTime, doctor)) {
-            throw new VisitIllegalDataException("There is a visit already scheduled at that time.", OffsetDateTime.now(clock));
-        }
     }
 
     private static Doctor validateExistenceAndRetrieveDoctor(Long doctorId, DoctorRepository doctorRepository, Clock clock) {
@@ -56,4 +138,15 @@ public class VisitValidator {
             throw new VisitIllegalDataException("There cannot be nulls in visit data.", OffsetDateTime.now(clock));
         }
     }
+
+    private static boolean endsAfter(OffsetDateTime endTime, OffsetDateTime startTime) {
+        return endTime != null && endTime.isAfter(startTime);
+    }
+
+    private static OffsetDateTime later(OffsetDateTime current, OffsetDateTime candidate) {
+        return current == null || candidate.isAfter(current) ? candidate : current;
+    }
+
+    private record ScheduledInterval(OffsetDateTime startTime, OffsetDateTime endTime, boolean requested) {
+    }
 }
@@ -0,0 +1,172 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.command.doctor.UpsertDoctorCommand;
+import com.example.demo.command.facility.InsertFacilityCommand;
+import com.example.demo.command.visit.InsertVisitCommand;
+import com.example.demo.index.DoctorVisitIndex;
+import com.example.demo.model.doctor.Doctor;
+import com.example.demo.repository.DoctorRepository;
+import com.example.demo.repository.FacilityRepository;
+import com.example.demo.repository.VisitRepository;
+import com.example.demo.service.FacilityService;
+import com.example.demo.service.VisitService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("benchmark")
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+public class BulkInsertBenchmarkTest {
+    private static final int WARM_UP_ROWS = 200;
+    private static final int FACILITIES = 5_000;
+    private static final int DOCTORS = 100;
+    private static final int VISITS_PER_DOCTOR = 100;
+    private static final int ROW_BY_ROW = 1;
+
+    @Autowired
+    private FacilityService facilityService;
+    @Autowired
+    private VisitService visitService;
+    @Autowired
+    private DoctorRepository doctorRepository;
+    @Autowired
+    private FacilityRepository facilityRepository;
+    @Autowired
+    private VisitRepository visitRepository;
+    @Autowired
+    private DoctorVisitIndex doctorVisitIndex;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @AfterEach
+    void tearDown() {
+        visitRepository.deleteAllInBatch();
+        doctorRepository.deleteAll();
+        facilityRepository.deleteAll();
+        doctorVisitIndex.rebuild();
+    }
+
+    @Test
+    void createFacilities_BatchedInserts_OutperformRowByRowInserts() {
+        measure(ROW_BY_ROW, () -> facilityService.createFacilities(buildInsertFacilityCommands("warm-up-row", WARM_UP_ROWS)));
+        measure(null, () -> facilityService.createFacilities(buildInsertFacilityCommands("warm-up-batch", WARM_UP_ROWS)));
+        tearDown();
+
+        BenchmarkResult rowByRow = measure(ROW_BY_ROW, () -> facilityService.createFacilities(buildInsertFacilityCommands("row", FACILITIES)));
+        tearDown();
+        BenchmarkResult batched = measure(null, () -> facilityService.createFacilities(buildInsertFacilityCommands("batch", FACILITIES)));
+
+        report("POST /facilities/bulk", FACILITIES, rowByRow, batched);
+        assertTrue(batched.statements() < rowByRow.statements());
+    }
+
+    @Test
+    void createVisits_BatchedInserts_OutperformRowByRowInserts() {
+        OffsetDateTime firstVisitStart = OffsetDateTime.now(ZoneOffset.UTC).plusDays(1).truncatedTo(ChronoUnit.DAYS);
+        List<Long> doctorIds = saveDoctors();
+        measure(ROW_BY_ROW, () -> visitService.createVisits(buildInsertVisitCommands(doctorIds.subList(0, 1), WARM_UP_ROWS, firstVisitStart)));
+        measure(null, () -> visitService.createVisits(buildInsertVisitCommands(doctorIds.subList(1, 2), WARM_UP_ROWS, firstVisitStart)));
+        visitRepository.deleteAllInBatch();
+        doctorVisitIndex.rebuild();
+
+        BenchmarkResult rowByRow = measure(ROW_BY_ROW, () -> visitService.createVisits(buildInsertVisitCommands(doctorIds, VISITS_PER_DOCTOR, firstVisitStart)));
+        visitRepository.deleteAllInBatch();
+        doctorVisitIndex.rebuild();
+        BenchmarkResult batched = measure(null, () -> visitService.createVisits(buildInsertVisitCommands(doctorIds, VISITS_PER_DOCTOR, firstVisitStart)));
+
+        report("POST /visits/bulk", DOCTORS * VISITS_PER_DOCTOR, rowByRow, batched);
+        assertTrue(batched.statements() < rowByRow.statements());
+    }
+
+    private BenchmarkResult measure(Integer jdbcBatchSize, Supplier<?> bulkLoad) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        long start = System.nanoTime();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            entityManager.unwrap(Session.class).setJdbcBatchSize(jdbcBatchSize);
+            bulkLoad.get();
+        });
+        return new BenchmarkResult((System.nanoTime() - start) / 1_000_000, statistics.getPrepareStatementCount());
+    }
+
+    private void report(String operation, int rows, BenchmarkResult rowByRow, BenchmarkResult batched) {
+        System.out.printf("%s, %d rows: row-by-row %d ms (%.0f rows/s, %d statements), batched %d ms (%.0f rows/s, %d statements)%n",
+                operation, rows,
+                rowByRow.millis(), rowByRow.throughput(rows), rowByRow.statements(),
+                batched.millis(), batched.throughput(rows), batched.statements());
+    }
+
+    private List<Long> saveDoctors() {
+        return doctorRepository.saveAll(IntStream.range(0, DOCTORS)
+                        .mapToObj(i -> Doctor.builder().email("doctor%d@benchmark.com".formatted(i)).build())
+                        .toList())
+                .stream()
+                .map(Doctor::getId)
+                .toList();
+    }
+
+    private List<InsertFacilityCommand> buildInsertFacilityCommands(String prefix, int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> InsertFacilityCommand.builder()
+                        .name("%s-facility%d".formatted(prefix, i))
+                        .city("city")
+                        .zipCode("zipCode")
+                        .street("street")
+                        .buildingNumber("buildingNumber")
+                        .doctors(List.of(
+                                buildUpsertDoctorCommand("%s-doctor%d@benchmark.com".formatted(prefix, i)),
+                                buildUpsertDoctorCommand("%s-doctor%d@benchmark.com".formatted(prefix, i % DOCTORS + count))))
+                        .build())
+                .toList();
+    }
+
+    private UpsertDoctorCommand buildUpsertDoctorCommand(String email) {
+        return UpsertDoctorCommand.builder()
+                .email(email)
+                .password("password")
+                .firstName("firstName")
+                .lastName("lastName")
+                .specialization("specialization")
+                .build();
+    }
+
+    private List<InsertVisitCommand> buildInsertVisitCommands(List<Long> doctorIds, int visitsPerDoctor, OffsetDateTime firstVisitStart) {
+        return doctorIds.stream()
+                .flatMap(doctorId -> IntStream.range(0, visitsPerDoctor)
+                        .mapToObj(i -> InsertVisitCommand.builder()
+                                .doctorId(doctorId)
+                                .startTime(firstVisitStart.plusHours(i))
+                                .endTime(firstVisitStart.plusHours(i).plusMinutes(45))
+                                .build()))
+                .toList();
+    }
+
+    private record BenchmarkResult(long millis, long statements) {
+        private double throughput(int rows) {
+            return rows * 1000.0 / Math.max(millis, 1);
+        }
+    }
+}
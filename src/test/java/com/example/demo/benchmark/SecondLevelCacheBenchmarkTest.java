@@ -0,0 +1,95 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.model.doctor.Doctor;
+import com.example.demo.model.facility.Facility;
+import com.example.demo.repository.DoctorRepository;
+import com.example.demo.repository.FacilityRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+public class SecondLevelCacheBenchmarkTest {
+    private static final int FACILITIES = 20;
+    private static final int DOCTORS = 500;
+    private static final int ROUNDS = 20;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+    @Autowired
+    private FacilityRepository facilityRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @AfterEach
+    void tearDown() {
+        getCache().evictAllRegions();
+        doctorRepository.deleteAll();
+        facilityRepository.deleteAll();
+    }
+
+    @Test
+    void findById_SecondLevelCacheEnabled_OutperformsDatabaseReads() {
+        List<Facility> facilities = facilityRepository.saveAll(IntStream.range(0, FACILITIES)
+                .mapToObj(i -> Facility.builder().name("facility%d".formatted(i)).build())
+                .toList());
+        List<Long> doctorIds = doctorRepository.saveAll(IntStream.range(0, DOCTORS)
+                        .mapToObj(i -> Doctor.builder()
+                                .email("doctor%d@benchmark.com".formatted(i))
+                                .facilities(Set.of(facilities.get(i % FACILITIES)))
+                                .build())
+                        .toList())
+                .stream()
+                .map(Doctor::getId)
+                .toList();
+        measure(doctorIds, false);
+        measure(doctorIds, true);
+
+        BenchmarkResult uncached = measure(doctorIds, false);
+        BenchmarkResult cached = measure(doctorIds, true);
+
+        System.out.printf("Doctor with facilities by id, %d reads: database %d ms (%d statements), second-level cache %d ms (%d statements)%n",
+                DOCTORS * ROUNDS, uncached.millis(), uncached.statements(), cached.millis(), cached.statements());
+        assertTrue(cached.statements() < uncached.statements());
+    }
+
+    private BenchmarkResult measure(List<Long> doctorIds, boolean cacheWarm) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        long start = System.nanoTime();
+        for (int round = 0; round < ROUNDS; round++) {
+            if (!cacheWarm) {
+                getCache().evictAllRegions();
+            }
+            transactionTemplate.executeWithoutResult(status -> doctorIds.forEach(doctorId ->
+                    doctorRepository.findById(doctorId).orElseThrow().getFacilities().forEach(Facility::getName)));
+        }
+        return new BenchmarkResult((System.nanoTime() - start) / 1_000_000, statistics.getPrepareStatementCount());
+    }
+
+    private Cache getCache() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getCache();
+    }
+
+    private record BenchmarkResult(long millis, long statements) {
+    }
+}
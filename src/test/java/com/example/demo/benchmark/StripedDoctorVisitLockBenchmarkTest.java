@@ -0,0 +1,87 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.config.VisitProperties;
+import com.example.demo.lock.StripedDoctorVisitLock;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("benchmark")
+public class StripedDoctorVisitLockBenchmarkTest {
+    private static final int THREADS = 16;
+    private static final int WRITES = 320;
+    private static final long WRITE_MILLIS = 2;
+
+    private final StripedDoctorVisitLock stripedDoctorVisitLock = new StripedDoctorVisitLock(
+            new VisitProperties(false, 64, Duration.ofSeconds(30), 2000), Clock.systemUTC());
+
+    @Test
+    public void lock_WritesAreSpreadAcrossDoctors_ThroughputScalesWithDoctorCount() throws Exception {
+        //given
+        Runnable write = () -> sleep(WRITE_MILLIS);
+        runWrites(THREADS, write);
+        //when
+        long singleDoctorNanos = runWrites(1, write);
+        long manyDoctorsNanos = runWrites(THREADS, write);
+        //then
+        double speedup = (double) singleDoctorNanos / manyDoctorsNanos;
+        assertTrue(speedup > 4, "Expected writes for %d doctors to be at least 4x faster than for one doctor, was %.2fx".formatted(THREADS, speedup));
+    }
+
+    private long runWrites(int doctors, Runnable write) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> results = new ArrayList<>();
+        long startNanos;
+        try (ExecutorService executor = Executors.newFixedThreadPool(THREADS)) {
+            for (int i = 0; i < WRITES; i++) {
+                long doctorId = i % doctors;
+                results.add(executor.submit(() -> {
+                    start.await();
+                    runInTransaction(() -> {
+                        stripedDoctorVisitLock.lock(doctorId);
+                        write.run();
+                    });
+                    return null;
+                }));
+            }
+            startNanos = System.nanoTime();
+            start.countDown();
+            for (Future<?> result : results) {
+                result.get(60, TimeUnit.SECONDS);
+            }
+        }
+        return System.nanoTime() - startNanos;
+    }
+
+    private static void runInTransaction(Runnable action) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            action.run();
+        } finally {
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            TransactionSynchronizationManager.clearSynchronization();
+            synchronizations.forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
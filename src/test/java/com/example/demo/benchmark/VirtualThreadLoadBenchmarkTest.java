@@ -0,0 +1,128 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.model.doctor.Doctor;
+import com.example.demo.model.facility.Facility;
+import com.example.demo.repository.DoctorRepository;
+import com.example.demo.repository.FacilityRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.NestedTestConfiguration;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("benchmark")
+public class VirtualThreadLoadBenchmarkTest {
+    private static final int DOCTORS = 200;
+    private static final int CLIENTS = 1_000;
+    private static final int REQUESTS_PER_CLIENT = 5;
+    private static final int WARM_UP_REQUESTS = 1_000;
+
+    @Nested
+    @NestedTestConfiguration(NestedTestConfiguration.EnclosingConfiguration.OVERRIDE)
+    @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {"spring.threads.virtual.enabled=false", "spring.jpa.show-sql=false"})
+    class PlatformThreads extends LoadScenario {
+        @Test
+        void getDoctors_ThousandConcurrentClients_ReportsLatencyAndThroughput() throws Exception {
+            run("platform threads");
+        }
+    }
+
+    @Nested
+    @NestedTestConfiguration(NestedTestConfiguration.EnclosingConfiguration.OVERRIDE)
+    @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {"spring.threads.virtual.enabled=true", "spring.jpa.show-sql=false"})
+    class VirtualThreads extends LoadScenario {
+        @Test
+        void getDoctors_ThousandConcurrentClients_ReportsLatencyAndThroughput() throws Exception {
+            run("virtual threads");
+        }
+    }
+
+    abstract static class LoadScenario {
+        @LocalServerPort
+        private int port;
+        @Autowired
+        private DoctorRepository doctorRepository;
+        @Autowired
+        private FacilityRepository facilityRepository;
+
+        @BeforeEach
+        void setUp() {
+            List<Facility> facilities = facilityRepository.saveAll(IntStream.range(0, 10)
+                    .mapToObj(i -> Facility.builder().name("facility%d".formatted(i)).build())
+                    .toList());
+            doctorRepository.saveAll(IntStream.range(0, DOCTORS)
+                    .mapToObj(i -> Doctor.builder()
+                            .email("doctor%d@load.com".formatted(i))
+                            .facilities(Set.of(facilities.get(i % 10)))
+                            .build())
+                    .toList());
+        }
+
+        @AfterEach
+        void tearDown() {
+            doctorRepository.deleteAll();
+            facilityRepository.deleteAll();
+        }
+
+        void run(String mode) throws Exception {
+            try (HttpClient httpClient = HttpClient.newBuilder().executor(Executors.newVirtualThreadPerTaskExecutor()).build();
+                 ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+                load(httpClient, clients, 100, WARM_UP_REQUESTS / 100);
+                long start = System.nanoTime();
+                List<Long> latencies = load(httpClient, clients, CLIENTS, REQUESTS_PER_CLIENT);
+                long millis = (System.nanoTime() - start) / 1_000_000;
+                Collections.sort(latencies);
+                System.out.printf("GET /doctors, %s, %d clients x %d requests: %d ms (%.0f req/s), p50 %.1f ms, p99 %.1f ms, max %.1f ms%n",
+                        mode, CLIENTS, REQUESTS_PER_CLIENT, millis, latencies.size() * 1000.0 / Math.max(millis, 1),
+                        percentile(latencies, 0.50), percentile(latencies, 0.99), latencies.getLast() / 1_000_000.0);
+                assertEquals(CLIENTS * REQUESTS_PER_CLIENT, latencies.size());
+            }
+        }
+
+        private List<Long> load(HttpClient httpClient, ExecutorService clients, int clientCount, int requestsPerClient) throws Exception {
+            List<Future<List<Long>>> futures = new ArrayList<>();
+            for (int client = 0; client < clientCount; client++) {
+                int page = client % (DOCTORS / 10);
+                futures.add(clients.submit(() -> {
+                    List<Long> latencies = new ArrayList<>(requestsPerClient);
+                    HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:%d/doctors?page=%d&size=10".formatted(port, page))).build();
+                    for (int i = 0; i < requestsPerClient; i++) {
+                        long start = System.nanoTime();
+                        HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                        latencies.add(System.nanoTime() - start);
+                        assertEquals(200, response.statusCode());
+                    }
+                    return latencies;
+                }));
+            }
+            List<Long> latencies = new ArrayList<>();
+            for (Future<List<Long>> future : futures) {
+                latencies.addAll(future.get());
+            }
+            return latencies;
+        }
+
+        private static double percentile(List<Long> sortedLatencies, double percentile) {
+            return sortedLatencies.get((int) Math.ceil(percentile * sortedLatencies.size()) - 1) / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.demo.benchmark.jmh;
+
+import com.example.demo.command.doctor.UpsertDoctorCommand;
+import com.example.demo.command.facility.InsertFacilityCommand;
+import com.example.demo.command.patient.UpsertPatientCommand;
+import com.example.demo.command.schedule.InsertScheduleTemplateCommand;
+import com.example.demo.command.visit.InsertVisitCommand;
+import com.example.demo.model.doctor.Doctor;
+import com.example.demo.model.facility.Facility;
+import com.example.demo.model.patient.Patient;
+import com.example.demo.model.visit.Visit;
+import com.example.demo.model.visit.VisitInterval;
+
+import java.time.Clock;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.stream.IntStream;
+
+final class BenchmarkFixtures {
+    static final Clock CLOCK = Clock.fixed(Instant.parse("2012-12-12T12:00:00Z"), ZoneOffset.UTC);
+    static final OffsetDateTime FIRST_VISIT_START = OffsetDateTime.of(2012, 12, 13, 8, 0, 0, 0, ZoneOffset.UTC);
+
+    private BenchmarkFixtures() {
+    }
+
+    static List<Facility> buildFacilities(int facilities, int doctorsPerFacility) {
+        List<Facility> result = IntStream.range(0, facilities)
+                .mapToObj(i -> buildFacility((long) i))
+                .toList();
+        IntStream.range(0, facilities * doctorsPerFacility).forEach(i -> {
+            Doctor doctor = buildDoctor((long) i);
+            result.get(i % facilities).getDoctors().add(doctor);
+            doctor.getFacilities().add(result.get(i % facilities));
+        });
+        return result;
+    }
+
+    static Doctor buildDoctorWithFacilities(int facilities) {
+        Doctor doctor = buildDoctor(1L);
+        IntStream.range(0, facilities).forEach(i -> {
+            Facility facility = buildFacility((long) i);
+            doctor.getFacilities().add(facility);
+            facility.getDoctors().add(doctor);
+        });
+        return doctor;
+    }
+
+    static List<Visit> buildVisits(int visits) {
+        Doctor doctor = buildDoctorWithFacilities(3);
+        return IntStream.range(0, visits)
+                .mapToObj(i -> Visit.builder()
+                        .id((long) i)
+                        .startTime(FIRST_VISIT_START.plusMinutes(30L * i))
+                        .endTime(FIRST_VISIT_START.plusMinutes(30L * i + 30))
+                        .doctor(doctor)
+                        .patient(buildPatient((long) i))
+                        .build())
+                .toList();
+    }
+
+    static Doctor buildDoctor(Long id) {
+        return Doctor.builder()
+                .id(id)
+                .email("doctor%d@clinic.com".formatted(id))
+                .password("password")
+                .firstName("firstName%d".formatted(id))
+                .lastName("lastName%d".formatted(id))
+                .specialization("specialization")
+                .build();
+    }
+
+    static Facility buildFacility(Long id) {
+        return Facility.builder()
+                .id(id)
+                .name("facility%d".formatted(id))
+                .city("city")
+                .zipCode("00-000")
+                .street("street")
+                .buildingNumber("%d".formatted(id))
+                .build();
+    }
+
+    static Patient buildPatient(Long id) {
+        return Patient.builder()
+                .id(id)
+                .email("patient%d@clinic.com".formatted(id))
+                .password("password")
+                .idCardNo("idCardNo%d".formatted(id))
+                .firstName("firstName%d".formatted(id))
+                .lastName("lastName%d".formatted(id))
+                .phoneNumber("123456789")
+                .birthday(LocalDate.of(1990, 1, 1).plusDays(id))
+                .build();
+    }
+
+    static UpsertPatientCommand buildUpsertPatientCommand(String email) {
+        return UpsertPatientCommand.builder()
+                .email(email)
+                .password("password")
+                .idCardNo("idCardNo")
+                .firstName("firstName")
+                .lastName("lastName")
+                .phoneNumber("123456789")
+                .birthday(LocalDate.of(1990, 1, 1))
+                .build();
+    }
+
+    static UpsertDoctorCommand buildUpsertDoctorCommand(String email) {
+        return UpsertDoctorCommand.builder()
+                .email(email)
+                .password("password")
+                .firstName("firstName")
+                .lastName("lastName")
+                .specialization("specialization")
+                .build();
+    }
+
+    static List<InsertFacilityCommand> buildInsertFacilityCommands(int facilities, int doctorsPerFacility) {
+        return IntStream.range(0, facilities)
+                .mapToObj(i -> InsertFacilityCommand.builder()
+                        .name("facility%d".formatted(i))
+                        .city("city")
+                        .zipCode("00-000")
+                        .street("street")
+                        .buildingNumber("%d".formatted(i))
+                        .doctors(IntStream.range(0, doctorsPerFacility)
+                                .mapToObj(j -> buildUpsertDoctorCommand("doctor%d-%d@clinic.com".formatted(i, j)))
+                                .toList())
+                        .build())
+                .toList();
+    }
+
+    static List<InsertVisitCommand> buildInsertVisitCommands(int visits, OffsetDateTime firstVisitStart) {
+        return IntStream.range(0, visits)
+                .mapToObj(i -> InsertVisitCommand.builder()
+                        .doctorId(1L)
+                        .startTime(firstVisitStart.plusHours(i))
+                        .endTime(firstVisitStart.plusHours(i).plusMinutes(30))
+                        .build())
+                .toList();
+    }
+
+    static List<VisitInterval> buildVisitIntervals(int visits) {
+        return IntStream.range(0, visits)
+                .mapToObj(i -> new VisitInterval((long) i, 1L, FIRST_VISIT_START.plusHours(i).plusMinutes(40), FIRST_VISIT_START.plusHours(i).plusMinutes(50)))
+                .toList();
+    }
+
+    static InsertScheduleTemplateCommand buildInsertScheduleTemplateCommand() {
+        return InsertScheduleTemplateCommand.builder()
+                .doctorId(1L)
+                .facilityId(1L)
+                .daysOfWeek(EnumSet.range(DayOfWeek.MONDAY, DayOfWeek.FRIDAY))
+                .startTime(LocalTime.of(8, 0))
+                .endTime(LocalTime.of(16, 0))
+                .slotLengthMinutes(30)
+                .timeZone("Europe/Warsaw")
+                .build();
+    }
+}
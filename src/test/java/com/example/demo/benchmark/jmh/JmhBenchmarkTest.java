@@ -0,0 +1,33 @@
+package com.example.demo.benchmark.jmh;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("benchmark")
+public class JmhBenchmarkTest {
+    @Test
+    void runBenchmarks_ResultsAreWrittenAsJson() throws Exception {
+        Path result = Path.of(System.getProperty("jmh.result", "target/jmh-result.json"));
+        Files.createDirectories(result.toAbsolutePath().getParent());
+        Options options = new OptionsBuilder()
+                .include(System.getProperty("jmh.include", JmhBenchmarkTest.class.getPackageName() + ".*Benchmark"))
+                .resultFormat(ResultFormatType.JSON)
+                .result(result.toString())
+                .shouldFailOnError(true)
+                .build();
+        Collection<RunResult> runResults = new Runner(options).run();
+        assertFalse(runResults.isEmpty());
+        assertTrue(Files.size(result) > 0);
+    }
+}
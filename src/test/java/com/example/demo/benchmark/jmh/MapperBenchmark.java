@@ -0,0 +1,67 @@
+package com.example.demo.benchmark.jmh;
+
+import com.example.demo.mapper.DoctorMapper;
+import com.example.demo.mapper.FacilityMapper;
+import com.example.demo.mapper.VisitMapper;
+import com.example.demo.model.doctor.Doctor;
+import com.example.demo.model.doctor.DoctorDTO;
+import com.example.demo.model.facility.Facility;
+import com.example.demo.model.facility.FacilityDTO;
+import com.example.demo.model.visit.Visit;
+import com.example.demo.model.visit.VisitDTO;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+    @Param({"3", "20"})
+    private int associationsPerEntity;
+
+    private final DoctorMapper doctorMapper = Mappers.getMapper(DoctorMapper.class);
+    private final FacilityMapper facilityMapper = Mappers.getMapper(FacilityMapper.class);
+    private final VisitMapper visitMapper = Mappers.getMapper(VisitMapper.class);
+
+    private Doctor doctor;
+    private List<Facility> facilities;
+    private Visit visit;
+
+    @Setup
+    public void setUp() {
+        doctor = BenchmarkFixtures.buildDoctorWithFacilities(associationsPerEntity);
+        facilities = BenchmarkFixtures.buildFacilities(20, associationsPerEntity);
+        visit = BenchmarkFixtures.buildVisits(1).getFirst();
+    }
+
+    @Benchmark
+    public DoctorDTO doctorToDTO() {
+        return doctorMapper.toDTO(doctor);
+    }
+
+    @Benchmark
+    public List<FacilityDTO> facilitiesToDTOs() {
+        return facilityMapper.toDTOs(facilities);
+    }
+
+    @Benchmark
+    public VisitDTO visitToDto() {
+        return visitMapper.toDto(visit);
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.demo.benchmark.jmh;
+
+import com.example.demo.mapper.DoctorMapper;
+import com.example.demo.mapper.VisitMapper;
+import com.example.demo.model.PageableContentDto;
+import com.example.demo.model.doctor.Doctor;
+import com.example.demo.model.doctor.DoctorDTO;
+import com.example.demo.model.visit.Visit;
+import com.example.demo.model.visit.VisitDTO;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PageableContentDtoBenchmark {
+    private static final long TOTAL_ENTRIES = 10_000;
+
+    @Param({"20", "100"})
+    private int pageSize;
+
+    private final DoctorMapper doctorMapper = Mappers.getMapper(DoctorMapper.class);
+    private final VisitMapper visitMapper = Mappers.getMapper(VisitMapper.class);
+
+    private Pageable pageable;
+    private Page<Visit> visits;
+    private Page<Long> doctorIds;
+    private Map<Long, Doctor> doctorsById;
+
+    @Setup
+    public void setUp() {
+        pageable = PageRequest.of(3, pageSize);
+        visits = new PageImpl<>(BenchmarkFixtures.buildVisits(pageSize), pageable, TOTAL_ENTRIES);
+        doctorsById = BenchmarkFixtures.buildFacilities(pageSize / 4, 4).stream()
+                .flatMap(facility -> facility.getDoctors().stream())
+                .collect(Collectors.toMap(Doctor::getId, Function.identity()));
+        doctorIds = new PageImpl<>(doctorsById.keySet().stream().sorted().toList(), pageable, TOTAL_ENTRIES);
+    }
+
+    @Benchmark
+    public PageableContentDto<VisitDTO> visitPage() {
+        return PageableContentDto.<VisitDTO>builder()
+                .totalEntries(visits.getTotalElements())
+                .totalNumberOfPages(visits.getTotalPages())
+                .pageNumber(pageable.getPageNumber())
+                .content(visits.get().map(visitMapper::toDto).toList())
+                .build();
+    }
+
+    @Benchmark
+    public PageableContentDto<DoctorDTO> doctorPage() {
+        return PageableContentDto.<DoctorDTO>builder()
+                .totalEntries(doctorIds.getTotalElements())
+                .totalNumberOfPages(doctorIds.getTotalPages())
+                .pageNumber(pageable.getPageNumber())
+                .content(doctorIds.stream().map(doctorsById::get).map(doctorMapper::toDTO).toList())
+                .build();
+    }
+}
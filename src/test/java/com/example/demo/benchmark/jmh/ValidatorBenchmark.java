@@ -0,0 +1,123 @@
+package com.example.demo.benchmark.jmh;
+
+import com.example.demo.command.doctor.UpsertDoctorCommand;
+import com.example.demo.command.facility.InsertFacilityCommand;
+import com.example.demo.command.patient.UpsertPatientCommand;
+import com.example.demo.command.schedule.InsertScheduleTemplateCommand;
+import com.example.demo.command.visit.InsertVisitCommand;
+import com.example.demo.config.EmailIndexProperties;
+import com.example.demo.index.DoctorEmailIndex;
+import com.example.demo.index.PatientEmailIndex;
+import com.example.demo.model.doctor.Doctor;
+import com.example.demo.model.facility.Facility;
+import com.example.demo.model.visit.VisitInterval;
+import com.example.demo.repository.DoctorRepository;
+import com.example.demo.repository.FacilityRepository;
+import com.example.demo.repository.PatientRepository;
+import com.example.demo.validator.DoctorValidator;
+import com.example.demo.validator.FacilityValidator;
+import com.example.demo.validator.PatientValidator;
+import com.example.demo.validator.ScheduleTemplateValidator;
+import com.example.demo.validator.VisitValidator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.mockito.Mockito.*;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidatorBenchmark {
+    private static final int REGISTERED_EMAILS = 10_000;
+
+    private PatientRepository patientRepository;
+    private DoctorRepository doctorRepository;
+    private FacilityRepository facilityRepository;
+    private PatientEmailIndex patientEmailIndex;
+    private DoctorEmailIndex doctorEmailIndex;
+    private UpsertPatientCommand upsertPatientCommand;
+    private UpsertDoctorCommand upsertDoctorCommand;
+    private List<InsertFacilityCommand> insertFacilityCommands;
+    private List<InsertVisitCommand> insertVisitCommands;
+    private List<VisitInterval> existingVisits;
+    private InsertScheduleTemplateCommand insertScheduleTemplateCommand;
+    private Doctor doctor;
+    private Facility facility;
+
+    @Setup
+    public void setUp() {
+        EmailIndexProperties emailIndexProperties = new EmailIndexProperties(true, REGISTERED_EMAILS, 0.01);
+        patientRepository = mock(PatientRepository.class);
+        when(patientRepository.count()).thenReturn((long) REGISTERED_EMAILS);
+        when(patientRepository.streamAllEmails()).thenAnswer(invocation -> IntStream.range(0, REGISTERED_EMAILS).mapToObj("patient%d@clinic.com"::formatted));
+        patientEmailIndex = new PatientEmailIndex(patientRepository, emailIndexProperties, new SimpleMeterRegistry());
+        patientEmailIndex.rebuild();
+        doctorRepository = mock(DoctorRepository.class);
+        when(doctorRepository.count()).thenReturn((long) REGISTERED_EMAILS);
+        when(doctorRepository.streamAllEmails()).thenAnswer(invocation -> IntStream.range(0, REGISTERED_EMAILS).mapToObj("doctor%d@clinic.com"::formatted));
+        doctorEmailIndex = new DoctorEmailIndex(doctorRepository, emailIndexProperties, new SimpleMeterRegistry());
+        doctorEmailIndex.rebuild();
+        facilityRepository = mock(FacilityRepository.class);
+        when(facilityRepository.findExistingNames(anyCollection())).thenReturn(List.of());
+
+        upsertPatientCommand = BenchmarkFixtures.buildUpsertPatientCommand("new-patient@clinic.com");
+        upsertDoctorCommand = BenchmarkFixtures.buildUpsertDoctorCommand("new-doctor@clinic.com");
+        insertFacilityCommands = BenchmarkFixtures.buildInsertFacilityCommands(50, 5);
+        insertVisitCommands = BenchmarkFixtures.buildInsertVisitCommands(100, BenchmarkFixtures.FIRST_VISIT_START);
+        existingVisits = BenchmarkFixtures.buildVisitIntervals(500);
+        insertScheduleTemplateCommand = BenchmarkFixtures.buildInsertScheduleTemplateCommand();
+        doctor = BenchmarkFixtures.buildDoctorWithFacilities(10);
+        facility = doctor.getFacilities().iterator().next();
+    }
+
+    @Benchmark
+    public void validatePatientCreation() {
+        PatientValidator.validatePatientCreation(upsertPatientCommand, patientRepository, patientEmailIndex, BenchmarkFixtures.CLOCK);
+    }
+
+    @Benchmark
+    public void validateDoctorCreation() {
+        DoctorValidator.validateDoctorCreation(upsertDoctorCommand, doctorRepository, doctorEmailIndex, BenchmarkFixtures.CLOCK);
+    }
+
+    @Benchmark
+    public void validateFacilitiesBulkCreation() {
+        FacilityValidator.validateFacilitiesBulkCreation(insertFacilityCommands, facilityRepository, BenchmarkFixtures.CLOCK);
+    }
+
+    @Benchmark
+    public void validateVisitsBulkData() {
+        VisitValidator.validateVisitsBulkData(insertVisitCommands, BenchmarkFixtures.CLOCK);
+    }
+
+    @Benchmark
+    public void validateVisitsBulkOverlap() {
+        VisitValidator.validateVisitsBulkOverlap(insertVisitCommands, existingVisits, BenchmarkFixtures.CLOCK);
+    }
+
+    @Benchmark
+    public void validateScheduleTemplateData() {
+        ScheduleTemplateValidator.validateScheduleTemplateData(insertScheduleTemplateCommand, BenchmarkFixtures.CLOCK);
+    }
+
+    @Benchmark
+    public void validateDoctorFacilityContract() {
+        ScheduleTemplateValidator.validateDoctorFacilityContract(doctor, facility, BenchmarkFixtures.CLOCK);
+    }
+}
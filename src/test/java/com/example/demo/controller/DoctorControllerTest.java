@@ -3,6 +3,8 @@ package com.example.demo.controller;
 import com.example.demo.command.doctor.UpdateDoctorFacilitiesCommand;
 import com.example.demo.command.doctor.UpsertDoctorCommand;
 import com.example.demo.model.PageableContentDto;
+import com.example.demo.model.SliceContentDto;
+import com.example.demo.model.SliceTotal;
 import com.example.demo.model.doctor.DoctorDTO;
 import com.example.demo.service.DoctorService;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -68,6 +70,28 @@ public class DoctorControllerTest {
                 .andExpect(jsonPath("$.content").isEmpty());
     }
 
+    @Test
+    public void getDoctors_TotalIsPresent_ReturnsSliceContentDtoWithStatus200() throws Exception {
+        SliceContentDto<DoctorDTO> sliceContentDto = SliceContentDto.<DoctorDTO>builder()
+                .pageNumber(0)
+                .hasNext(true)
+                .content(List.of(buildDoctorDto()))
+                .build();
+        Pageable pageable = PageRequest.of(0, 10);
+        when(doctorService.getDoctors(SliceTotal.NONE, pageable)).thenReturn(sliceContentDto);
+        mockMvc.perform(get("/doctors")
+                        .param("total", "none")
+                        .param("page", "0")
+                        .param("size", "10"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.pageNumber").value(0))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andExpect(jsonPath("$.estimatedTotalEntries").isEmpty())
+                .andExpect(jsonPath("$.totalEntries").doesNotExist())
+                .andExpect(jsonPath("$.content[0].id").value(1));
+    }
+
     @Test
     public void getDoctors_ReturnsPageableContentDtoWithStatus200() throws Exception {
         PageableContentDto<DoctorDTO> pageableContentDto = buildFullPageableContentDto();
@@ -4,6 +4,7 @@ import com.example.demo.command.facility.InsertFacilityCommand;
 import com.example.demo.command.facility.UpdateFacilityCommand;
 import com.example.demo.model.PageableContentDto;
 import com.example.demo.model.facility.FacilityDTO;
+import com.example.demo.model.facility.FacilitySummaryDTO;
 import com.example.demo.service.FacilityService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
@@ -125,6 +126,30 @@ public class FacilityControllerTest {
                 .andExpect(jsonPath("$.content[1].doctors").isEmpty());
     }
 
+    @Test
+    public void getFacilitySummaries_ReturnsCorrectPageableContentDtoWithStatus200() throws Exception {
+        PageableContentDto<FacilitySummaryDTO> pageableContentDto = PageableContentDto.<FacilitySummaryDTO>builder()
+                .totalEntries(1L)
+                .totalNumberOfPages(1)
+                .pageNumber(0)
+                .content(List.of(new FacilitySummaryDTO(1L, "name", "city", "zipCode", "street", "buildingNumber", 250L)))
+                .build();
+        Pageable pageable = PageRequest.of(0, 10);
+        when(facilityService.getFacilitySummaries(pageable)).thenReturn(pageableContentDto);
+        mockMvc.perform(get("/facilities/summary")
+                        .param("page", "0")
+                        .param("size", "10"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalEntries").value(1))
+                .andExpect(jsonPath("$.totalNumberOfPages").value(1))
+                .andExpect(jsonPath("$.pageNumber").value(0))
+                .andExpect(jsonPath("$.content[0].id").value(1))
+                .andExpect(jsonPath("$.content[0].name").value("name"))
+                .andExpect(jsonPath("$.content[0].doctorCount").value(250))
+                .andExpect(jsonPath("$.content[0].doctors").doesNotExist());
+    }
+
     @Test
     public void getFacilityById_ReturnsFacilityDtoWithStatus200() throws Exception {
         long facilityId = 1;
@@ -4,6 +4,9 @@ import com.example.demo.command.patient.UpdatePatientPasswordCommand;
 import com.example.demo.command.patient.UpsertPatientCommand;
 import com.example.demo.model.PageableContentDto;
 import com.example.demo.model.patient.PatientDTO;
+import com.example.demo.model.patient.PatientImportErrorDTO;
+import com.example.demo.model.patient.PatientImportReportDTO;
+import com.example.demo.service.PatientImportService;
 import com.example.demo.service.PatientService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
@@ -16,6 +19,7 @@ import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.List;
 
@@ -34,6 +38,28 @@ public class PatientControllerTest {
     private ObjectMapper objectMapper;
     @MockitoBean
     private PatientService patientService;
+    @MockitoBean
+    private PatientImportService patientImportService;
+
+    @Test
+    public void importPatients_ReturnsImportReportWithStatus200() throws Exception {
+        PatientImportReportDTO patientImportReportDTO = PatientImportReportDTO.builder()
+                .importedRows(1)
+                .rejectedRows(1)
+                .errorsTruncated(false)
+                .errors(List.of(new PatientImportErrorDTO(2, "email", "Patient with email: email already exists.")))
+                .build();
+        when(patientImportService.importPatients(any())).thenReturn(patientImportReportDTO);
+        mockMvc.perform(post("/patients/import").contentType("text/csv").content("email\n".getBytes(StandardCharsets.UTF_8)))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.importedRows").value(1))
+                .andExpect(jsonPath("$.rejectedRows").value(1))
+                .andExpect(jsonPath("$.errorsTruncated").value(false))
+                .andExpect(jsonPath("$.errors[0].row").value(2))
+                .andExpect(jsonPath("$.errors[0].email").value("email"))
+                .andExpect(jsonPath("$.errors[0].message").value("Patient with email: email already exists."));
+    }
 
     @Test
     public void getPatients_ThereAreNoPatients_ReturnsEmptyPageableContentDtoWithStatus200() throws Exception {
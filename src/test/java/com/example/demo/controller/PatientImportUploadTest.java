@@ -0,0 +1,61 @@
+package com.example.demo.controller;
+
+import com.example.demo.model.patient.PatientImportReportDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.jpa.show-sql=false",
+        "medical-clinic.patient-import.max-file-size=2MB"
+})
+public class PatientImportUploadTest {
+    private static final String HEADER = "email,password,idCardNo,firstName,lastName,phoneNumber,birthday\n";
+
+    @Autowired
+    private TestRestTemplate testRestTemplate;
+
+    @Test
+    void importPatients_FileExceedsDefaultMultipartLimit_IsStreamedToImport() {
+        //given
+        HttpEntity<byte[]> request = createUpload(1_500_000);
+        //when
+        ResponseEntity<PatientImportReportDTO> response = testRestTemplate.postForEntity("/patients/import", request, PatientImportReportDTO.class);
+        //then
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(0, response.getBody().importedRows());
+        assertTrue(response.getBody().rejectedRows() > 0);
+    }
+
+    @Test
+    void importPatients_FileExceedsImportLimit_ReturnsPayloadTooLarge() {
+        //given
+        HttpEntity<byte[]> request = createUpload(2_500_000);
+        //when
+        ResponseEntity<String> response = testRestTemplate.postForEntity("/patients/import", request, String.class);
+        //then
+        assertEquals(HttpStatus.PAYLOAD_TOO_LARGE, response.getStatusCode());
+    }
+
+    private HttpEntity<byte[]> createUpload(int minimumBytes) {
+        String row = "upload%d@clinic.com,password,idCardNo,,lastName,phoneNumber,2000-01-01\n";
+        String csv = IntStream.range(0, minimumBytes / row.length() + 1)
+                .mapToObj(row::formatted)
+                .collect(Collectors.joining("", HEADER, ""));
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType("text/csv"));
+        return new HttpEntity<>(csv.getBytes(StandardCharsets.UTF_8), headers);
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.demo.controller;
+
+import com.example.demo.command.schedule.InsertScheduleTemplateCommand;
+import com.example.demo.model.PageableContentDto;
+import com.example.demo.model.doctor.SimpleDoctorDTO;
+import com.example.demo.model.facility.SimpleFacilityDTO;
+import com.example.demo.model.schedule.ScheduleMaterializationDTO;
+import com.example.demo.model.schedule.ScheduleTemplateDTO;
+import com.example.demo.service.ScheduleTemplateService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class ScheduleTemplateControllerTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @MockitoBean
+    private ScheduleTemplateService scheduleTemplateService;
+
+    @Test
+    public void createScheduleTemplate_DataIsCorrect_ReturnsScheduleTemplateDtoWithStatus201() throws Exception {
+        InsertScheduleTemplateCommand insertScheduleTemplateCommand = buildInsertScheduleTemplateCommand();
+        when(scheduleTemplateService.createScheduleTemplate(insertScheduleTemplateCommand)).thenReturn(buildScheduleTemplateDto());
+        mockMvc.perform(post("/schedule-templates")
+                        .content(objectMapper.writeValueAsString(insertScheduleTemplateCommand))
+                        .contentType(MediaType.APPLICATION_JSON)
+                ).andDo(print())
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id").value(1))
+                .andExpect(jsonPath("$.doctor.id").value(1))
+                .andExpect(jsonPath("$.facility.id").value(1))
+                .andExpect(jsonPath("$.daysOfWeek[0]").value("MONDAY"))
+                .andExpect(jsonPath("$.startTime").value("08:00:00"))
+                .andExpect(jsonPath("$.endTime").value("14:00:00"))
+                .andExpect(jsonPath("$.slotLengthMinutes").value(15))
+                .andExpect(jsonPath("$.timeZone").value("Europe/Warsaw"));
+    }
+
+    @Test
+    public void getScheduleTemplates_ThereAreScheduleTemplates_ReturnsPageableContentDtoWithStatus200() throws Exception {
+        Pageable pageable = PageRequest.of(0, 10);
+        PageableContentDto<ScheduleTemplateDTO> pageableContentDto = PageableContentDto.<ScheduleTemplateDTO>builder()
+                .totalEntries(1)
+                .totalNumberOfPages(1)
+                .pageNumber(0)
+                .content(List.of(buildScheduleTemplateDto()))
+                .build();
+        when(scheduleTemplateService.getScheduleTemplates(pageable)).thenReturn(pageableContentDto);
+        mockMvc.perform(get("/schedule-templates")
+                        .param("page", "0")
+                        .param("size", "10"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalEntries").value(1))
+                .andExpect(jsonPath("$.content[0].id").value(1));
+    }
+
+    @Test
+    public void materializeScheduleTemplate_ScheduleTemplateExists_ReturnsMaterializationDtoWithStatus200() throws Exception {
+        ScheduleMaterializationDTO scheduleMaterializationDTO = new ScheduleMaterializationDTO(1L, 96, 4, LocalDate.of(2012, 12, 31));
+        when(scheduleTemplateService.materializeScheduleTemplate(1L)).thenReturn(scheduleMaterializationDTO);
+        mockMvc.perform(post("/schedule-templates/1/materialization"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.scheduleTemplateId").value(1))
+                .andExpect(jsonPath("$.createdVisits").value(96))
+                .andExpect(jsonPath("$.skippedSlots").value(4))
+                .andExpect(jsonPath("$.materializedUntil").value("2012-12-31"));
+    }
+
+    @Test
+    public void deleteScheduleTemplate_ScheduleTemplateExists_ReturnsStatus204() throws Exception {
+        mockMvc.perform(delete("/schedule-templates/1"))
+                .andDo(print())
+                .andExpect(status().isNoContent());
+        verify(scheduleTemplateService, times(1)).deleteScheduleTemplate(1L);
+    }
+
+    private InsertScheduleTemplateCommand buildInsertScheduleTemplateCommand() {
+        return InsertScheduleTemplateCommand.builder()
+                .doctorId(1L)
+                .facilityId(1L)
+                .daysOfWeek(Set.of(DayOfWeek.MONDAY))
+                .startTime(LocalTime.of(8, 0))
+                .endTime(LocalTime.of(14, 0))
+                .slotLengthMinutes(15)
+                .timeZone("Europe/Warsaw")
+                .build();
+    }
+
+    private ScheduleTemplateDTO buildScheduleTemplateDto() {
+        return ScheduleTemplateDTO.builder()
+                .id(1L)
+                .doctor(new SimpleDoctorDTO(1L, "email", "firstName", "lastName", "specialization"))
+                .facility(new SimpleFacilityDTO(1L, "name", "city", "zipCode", "street", "buildingNumber"))
+                .daysOfWeek(Set.of(DayOfWeek.MONDAY))
+                .startTime(LocalTime.of(8, 0))
+                .endTime(LocalTime.of(14, 0))
+                .slotLengthMinutes(15)
+                .timeZone("Europe/Warsaw")
+                .build();
+    }
+}
@@ -1,10 +1,16 @@
 package com.example.demo.controller;
 
 import com.example.demo.command.visit.InsertVisitCommand;
+import com.example.demo.model.CursorContentDto;
 import com.example.demo.model.PageableContentDto;
+import com.example.demo.model.SliceContentDto;
+import com.example.demo.model.SliceTotal;
 import com.example.demo.model.doctor.SimpleDoctorDTO;
 import com.example.demo.model.patient.PatientDTO;
+import com.example.demo.model.visit.AvailableSlotDTO;
 import com.example.demo.model.visit.VisitDTO;
+import com.example.demo.model.visit.VisitExportFormat;
+import com.example.demo.service.VisitExportService;
 import com.example.demo.service.VisitService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
@@ -16,17 +22,25 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
 import java.util.List;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
@@ -38,6 +52,8 @@ public class VisitControllerTest {
     private ObjectMapper objectMapper;
     @MockitoBean
     private VisitService visitService;
+    @MockitoBean
+    private VisitExportService visitExportService;
 
     @Test
     public void createVisit_DataIsCorrect_ReturnsVisitDtoWithStatus201() throws Exception {
@@ -66,6 +82,24 @@ public class VisitControllerTest {
                 .andExpect(jsonPath("$.patient.birthday").value("2012-12-12"));
     }
 
+    @Test
+    public void createVisits_DataIsCorrect_ReturnsVisitDtosWithStatus201() throws Exception {
+        List<InsertVisitCommand> insertVisitCommands = List.of(buildInsertVisitCommand(), buildInsertVisitCommand());
+        when(visitService.createVisits(insertVisitCommands)).thenReturn(List.of(buildVisitDto(), buildVisitDto()));
+        mockMvc.perform(post("/visits/bulk")
+                        .content(objectMapper.writeValueAsString(insertVisitCommands))
+                        .contentType(MediaType.APPLICATION_JSON)
+                ).andDo(print())
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$").isArray())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].id").value(1))
+                .andExpect(jsonPath("$[0].startTime").value("2012-12-13T12:00:00Z"))
+                .andExpect(jsonPath("$[0].endTime").value("2012-12-13T13:00:00Z"))
+                .andExpect(jsonPath("$[0].doctor.id").value(1))
+                .andExpect(jsonPath("$[1].id").value(1));
+    }
+
     @Test
     public void getAllVisits_ThereAreNoVisits_ReturnsEmptyPageableContentDtoWithStatus200() throws Exception {
         PageableContentDto<VisitDTO> pageableContentDto = buildEmptyPageableContentDto();
@@ -128,6 +162,155 @@ public class VisitControllerTest {
                 .andExpect(jsonPath("$.content[1].patient.birthday").value("2012-12-12"));
     }
 
+    @Test
+    public void getAvailableSlots_ThereAreAvailableSlots_ReturnsCorrectPageableContentDtoWithStatus200() throws Exception {
+        AvailableSlotDTO availableSlotDTO = AvailableSlotDTO.builder()
+                .visitId(1L)
+                .startTime(getStartTime())
+                .endTime(getEndTime())
+                .doctorId(1L)
+                .doctorFirstName("firstName")
+                .doctorLastName("lastName")
+                .specialization("specialization")
+                .build();
+        PageableContentDto<AvailableSlotDTO> pageableContentDto = PageableContentDto.<AvailableSlotDTO>builder()
+                .totalEntries(1)
+                .totalNumberOfPages(1)
+                .pageNumber(0)
+                .content(List.of(availableSlotDTO))
+                .build();
+        Pageable pageable = PageRequest.of(0, 10);
+        when(visitService.getAvailableSlots(1L, "specialization", 2L, OffsetDateTime.ofInstant(Instant.parse("2012-12-13T00:00:00Z"), ZoneOffset.UTC), null, pageable))
+                .thenReturn(pageableContentDto);
+        mockMvc.perform(get("/visits/available")
+                        .param("doctorId", "1")
+                        .param("specialization", "specialization")
+                        .param("facilityId", "2")
+                        .param("from", "2012-12-13T00:00:00Z")
+                        .param("page", "0")
+                        .param("size", "10"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalEntries").value(1))
+                .andExpect(jsonPath("$.content[0].visitId").value(1))
+                .andExpect(jsonPath("$.content[0].startTime").value("2012-12-13T12:00:00Z"))
+                .andExpect(jsonPath("$.content[0].endTime").value("2012-12-13T13:00:00Z"))
+                .andExpect(jsonPath("$.content[0].doctorId").value(1))
+                .andExpect(jsonPath("$.content[0].doctorFirstName").value("firstName"))
+                .andExpect(jsonPath("$.content[0].doctorLastName").value("lastName"))
+                .andExpect(jsonPath("$.content[0].specialization").value("specialization"))
+                .andExpect(jsonPath("$.content[0].patient").doesNotExist());
+    }
+
+    @Test
+    public void getAllVisits_CursorIsPresent_ReturnsCursorContentDtoWithStatus200() throws Exception {
+        CursorContentDto<VisitDTO> cursorContentDto = CursorContentDto.<VisitDTO>builder()
+                .nextCursor("nextCursor")
+                .content(List.of(buildVisitDto()))
+                .build();
+        when(visitService.getAllVisits("cursor", 10)).thenReturn(cursorContentDto);
+        mockMvc.perform(get("/visits")
+                        .param("cursor", "cursor")
+                        .param("size", "10"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nextCursor").value("nextCursor"))
+                .andExpect(jsonPath("$.totalEntries").doesNotExist())
+                .andExpect(jsonPath("$.content[0].id").value(1));
+    }
+
+    @Test
+    public void getDoctorVisits_TotalIsEstimated_ReturnsSliceContentDtoWithStatus200() throws Exception {
+        SliceContentDto<VisitDTO> sliceContentDto = SliceContentDto.<VisitDTO>builder()
+                .pageNumber(1)
+                .hasNext(false)
+                .estimatedTotalEntries(20L)
+                .estimatedTotalNumberOfPages(2)
+                .content(List.of(buildVisitDto()))
+                .build();
+        Pageable pageable = PageRequest.of(1, 10);
+        when(visitService.getDoctorVisits(1L, SliceTotal.ESTIMATED, pageable)).thenReturn(sliceContentDto);
+        mockMvc.perform(get("/visits/doctorId/1")
+                        .param("total", "ESTIMATED")
+                        .param("page", "1")
+                        .param("size", "10"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.pageNumber").value(1))
+                .andExpect(jsonPath("$.hasNext").value(false))
+                .andExpect(jsonPath("$.estimatedTotalEntries").value(20))
+                .andExpect(jsonPath("$.estimatedTotalNumberOfPages").value(2))
+                .andExpect(jsonPath("$.content[0].id").value(1));
+    }
+
+    @Test
+    public void getAllVisits_TotalIsNotSupported_ReturnsStatus400() throws Exception {
+        mockMvc.perform(get("/visits")
+                        .param("total", "exact"))
+                .andDo(print())
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(visitService);
+    }
+
+    @Test
+    public void getAllVisits_TotalAndCursorAreCombined_ReturnsStatus400() throws Exception {
+        mockMvc.perform(get("/visits")
+                        .param("total", "none")
+                        .param("cursor", ""))
+                .andDo(print())
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Cursor and total pagination cannot be combined."));
+        verifyNoInteractions(visitService);
+    }
+
+    @Test
+    public void getDoctorVisits_TotalAndCursorAreCombined_ReturnsStatus400() throws Exception {
+        mockMvc.perform(get("/visits/doctorId/1")
+                        .param("total", "estimated")
+                        .param("cursor", ""))
+                .andDo(print())
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Cursor and total pagination cannot be combined."));
+        verifyNoInteractions(visitService);
+    }
+
+    @Test
+    public void getDoctorVisits_CursorIsEmpty_ReturnsCursorContentDtoWithDefaultSizeAndStatus200() throws Exception {
+        CursorContentDto<VisitDTO> cursorContentDto = CursorContentDto.<VisitDTO>builder()
+                .content(List.of(buildVisitDto()))
+                .build();
+        when(visitService.getDoctorVisits(1L, "", 20)).thenReturn(cursorContentDto);
+        mockMvc.perform(get("/visits/doctorId/1")
+                        .param("cursor", ""))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nextCursor").isEmpty())
+                .andExpect(jsonPath("$.content[0].id").value(1));
+    }
+
+    @Test
+    public void exportVisits_FormatIsCsv_StreamsCsvAttachmentWithStatus200() throws Exception {
+        OffsetDateTime from = OffsetDateTime.ofInstant(Instant.parse("2012-12-13T00:00:00Z"), ZoneOffset.UTC);
+        when(visitExportService.getExportFormat("csv")).thenReturn(VisitExportFormat.CSV);
+        doAnswer(invocation -> {
+            invocation.<OutputStream>getArgument(5).write("id\n1\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(visitExportService).exportVisits(eq(VisitExportFormat.CSV), eq(1L), eq(null), eq(from), eq(null), any());
+        MvcResult mvcResult = mockMvc.perform(get("/visits/export")
+                        .param("format", "csv")
+                        .param("doctorId", "1")
+                        .param("from", "2012-12-13T00:00:00Z"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "text/csv"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=visits.csv"))
+                .andExpect(content().string("id\n1\n"));
+        verify(visitExportService).validateExportFilters(from, null);
+    }
+
     @Test
     public void getDoctorVisits_ThereAreVisits_ReturnsCorrectPageableContentDtoWithStatus200() throws Exception {
         long doctorId = 1;
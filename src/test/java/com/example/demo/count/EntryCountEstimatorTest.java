@@ -0,0 +1,74 @@
+package com.example.demo.count;
+
+import com.example.demo.config.PaginationProperties;
+import com.example.demo.model.SliceTotal;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+
+import java.util.function.LongSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class EntryCountEstimatorTest {
+    private static final String ROW_ESTIMATE_QUERY = "select reltuples::bigint from pg_class where oid = to_regclass(?)";
+
+    private JdbcTemplate jdbcTemplate;
+    private LongSupplier cachedCount;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        cachedCount = mock(LongSupplier.class);
+        when(cachedCount.getAsLong()).thenReturn(42L);
+    }
+
+    @Test
+    public void estimate_TotalIsNone_DoesNotCount() {
+        //given
+        EntryCountEstimator entryCountEstimator = new EntryCountEstimator(jdbcTemplate, new PaginationProperties(true));
+        //when
+        Long result = entryCountEstimator.estimate(SliceTotal.NONE, "visits", cachedCount);
+        //then
+        assertNull(result);
+        verifyNoInteractions(jdbcTemplate, cachedCount);
+    }
+
+    @Test
+    public void estimate_TableStatisticsAreDisabled_ReturnsCachedCount() {
+        //given
+        EntryCountEstimator entryCountEstimator = new EntryCountEstimator(jdbcTemplate, new PaginationProperties(false));
+        //when
+        Long result = entryCountEstimator.estimate(SliceTotal.ESTIMATED, "visits", cachedCount);
+        //then
+        assertEquals(42L, result);
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    public void estimate_TableHasStatistics_ReturnsRowEstimateWithoutCounting() {
+        //given
+        EntryCountEstimator entryCountEstimator = new EntryCountEstimator(jdbcTemplate, new PaginationProperties(true));
+        when(jdbcTemplate.query(eq(ROW_ESTIMATE_QUERY), any(ResultSetExtractor.class), eq("visits"))).thenReturn(2_000_000L);
+        //when
+        Long result = entryCountEstimator.estimate(SliceTotal.ESTIMATED, "visits", cachedCount);
+        //then
+        assertEquals(2_000_000L, result);
+        verifyNoInteractions(cachedCount);
+    }
+
+    @Test
+    public void estimate_TableWasNeverAnalyzed_ReturnsCachedCount() {
+        //given
+        EntryCountEstimator entryCountEstimator = new EntryCountEstimator(jdbcTemplate, new PaginationProperties(true));
+        when(jdbcTemplate.query(eq(ROW_ESTIMATE_QUERY), any(ResultSetExtractor.class), eq("visits"))).thenReturn(-1L);
+        //when
+        Long result = entryCountEstimator.estimate(SliceTotal.ESTIMATED, "visits", cachedCount);
+        //then
+        assertEquals(42L, result);
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.demo.datasource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class ConcurrencyLimitingDataSourceTest {
+    private DataSource targetDataSource;
+    private MeterRegistry meterRegistry;
+    private ConcurrencyLimitingDataSource concurrencyLimitingDataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        targetDataSource = mock(DataSource.class);
+        when(targetDataSource.getConnection()).thenAnswer(invocation -> mock(Connection.class));
+        meterRegistry = new SimpleMeterRegistry();
+        concurrencyLimitingDataSource = new ConcurrencyLimitingDataSource(targetDataSource, "primary", 1, Duration.ofMillis(50), meterRegistry);
+    }
+
+    @Test
+    public void getConnection_AllPermitsAreTaken_ThrowsSQLTransientConnectionException() throws SQLException {
+        //given
+        concurrencyLimitingDataSource.getConnection();
+        //when
+        SQLTransientConnectionException exception = assertThrows(SQLTransientConnectionException.class, () -> concurrencyLimitingDataSource.getConnection());
+        //then
+        assertEquals("Connection gate timed out after 50 ms.", exception.getMessage());
+        verify(targetDataSource, times(1)).getConnection();
+    }
+
+    @Test
+    public void getConnection_PreviousConnectionWasClosed_ReturnsConnection() throws SQLException {
+        //given
+        Connection connection = concurrencyLimitingDataSource.getConnection();
+        connection.close();
+        connection.close();
+        //when
+        Connection result = concurrencyLimitingDataSource.getConnection();
+        //then
+        assertNotNull(result);
+        assertEquals(0, meterRegistry.get("datasource.gate.available").tag("pool", "primary").gauge().value());
+    }
+
+    @Test
+    public void getConnection_ConnectionIsClosedWhileWaiting_HandsPermitToWaitingThread() throws Exception {
+        //given
+        ConcurrencyLimitingDataSource dataSource = new ConcurrencyLimitingDataSource(targetDataSource, "primary", 1, Duration.ofSeconds(5), meterRegistry);
+        Connection connection = dataSource.getConnection();
+        CompletableFuture<Connection> waitingConnection = CompletableFuture.supplyAsync(() -> {
+            try {
+                return dataSource.getConnection();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        //when
+        connection.close();
+        //then
+        assertNotNull(waitingConnection.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void getConnection_TargetDataSourceFails_ReleasesPermit() throws SQLException {
+        //given
+        when(targetDataSource.getConnection()).thenThrow(new SQLException("Connection refused")).thenAnswer(invocation -> mock(Connection.class));
+        //when
+        assertThrows(SQLException.class, () -> concurrencyLimitingDataSource.getConnection());
+        Connection result = concurrencyLimitingDataSource.getConnection();
+        //then
+        assertNotNull(result);
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.demo.datasource;
+
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class ReadYourWritesPinTest {
+    private static final Instant NOW = Instant.parse("2012-12-12T12:00:00Z");
+
+    private ReadYourWritesPin readYourWritesPin;
+
+    @BeforeEach
+    void setUp() {
+        readYourWritesPin = new ReadYourWritesPin(Duration.ofSeconds(5), "secret", Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    public void restore_CookieIssuedByPin_PinsReadsToPrimary() {
+        //given
+        Cookie cookie = pinAndGetCookie(readYourWritesPin);
+        //when
+        readYourWritesPin.restore(requestWithCookie(cookie.getValue()));
+        //then
+        assertTrue(readYourWritesPin.isPinned());
+    }
+
+    @Test
+    public void restore_CookieIsUnsigned_DoesNotPin() {
+        //given
+        String value = Long.toString(NOW.plusSeconds(3).toEpochMilli());
+        //when
+        readYourWritesPin.restore(requestWithCookie(value));
+        //then
+        assertFalse(readYourWritesPin.isPinned());
+    }
+
+    @Test
+    public void restore_CookieIsSignedWithAnotherSecret_DoesNotPin() {
+        //given
+        Cookie cookie = pinAndGetCookie(new ReadYourWritesPin(Duration.ofSeconds(5), "other-secret", Clock.fixed(NOW, ZoneOffset.UTC)));
+        //when
+        readYourWritesPin.restore(requestWithCookie(cookie.getValue()));
+        //then
+        assertFalse(readYourWritesPin.isPinned());
+    }
+
+    @Test
+    public void restore_CookieExpiresFarInTheFuture_ClampsPinToWindow() {
+        //given
+        Cookie cookie = pinAndGetCookie(new ReadYourWritesPin(Duration.ofDays(365), "secret", Clock.fixed(NOW, ZoneOffset.UTC)));
+        Clock clock = mock(Clock.class);
+        when(clock.instant()).thenReturn(NOW, NOW.plusSeconds(4), NOW.plusSeconds(6));
+        ReadYourWritesPin pin = new ReadYourWritesPin(Duration.ofSeconds(5), "secret", clock);
+        //when
+        pin.restore(requestWithCookie(cookie.getValue()));
+        //then
+        assertTrue(pin.isPinned());
+        assertFalse(pin.isPinned());
+    }
+
+    @Test
+    public void restore_CookieHasExpired_DoesNotPin() {
+        //given
+        Cookie cookie = pinAndGetCookie(readYourWritesPin);
+        ReadYourWritesPin laterPin = new ReadYourWritesPin(Duration.ofSeconds(5), "secret", Clock.fixed(NOW.plusSeconds(10), ZoneOffset.UTC));
+        //when
+        laterPin.restore(requestWithCookie(cookie.getValue()));
+        //then
+        assertFalse(laterPin.isPinned());
+    }
+
+    private Cookie pinAndGetCookie(ReadYourWritesPin pin) {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest(), response));
+        pin.pin();
+        pin.clear();
+        return response.getCookie(ReadYourWritesPin.COOKIE_NAME);
+    }
+
+    private MockHttpServletRequest requestWithCookie(String value) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setCookies(new Cookie(ReadYourWritesPin.COOKIE_NAME, value));
+        return request;
+    }
+}
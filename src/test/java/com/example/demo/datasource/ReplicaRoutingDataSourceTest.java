@@ -0,0 +1,237 @@
+package com.example.demo.datasource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class ReplicaRoutingDataSourceTest {
+    private static final String REPLICATION_LAG_QUERY = "select replication_lag";
+
+    private DataSource primary;
+    private DataSource firstReplica;
+    private DataSource secondReplica;
+    private Connection primaryConnection;
+    private Connection firstReplicaConnection;
+    private Connection secondReplicaConnection;
+    private MeterRegistry meterRegistry;
+    private ReplicaRoutingDataSource replicaRoutingDataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        primary = mock(DataSource.class);
+        firstReplica = mock(DataSource.class);
+        secondReplica = mock(DataSource.class);
+        primaryConnection = mock(Connection.class);
+        firstReplicaConnection = mock(Connection.class);
+        secondReplicaConnection = mock(Connection.class);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(firstReplica.getConnection()).thenReturn(firstReplicaConnection);
+        when(secondReplica.getConnection()).thenReturn(secondReplicaConnection);
+        meterRegistry = new SimpleMeterRegistry();
+        Clock clock = Clock.fixed(Instant.parse("2012-12-12T12:00:00Z"), ZoneOffset.UTC);
+        replicaRoutingDataSource = new ReplicaRoutingDataSource(primary, List.of(firstReplica, secondReplica), Duration.ofSeconds(1), Duration.ofSeconds(1),
+                REPLICATION_LAG_QUERY, new ReadYourWritesPin(Duration.ofSeconds(5), "secret", clock), meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.clear();
+    }
+
+    @Test
+    public void getConnection_NoTransactionIsActive_ReturnsPrimaryConnection() throws SQLException {
+        //given
+        //when
+        Connection result = replicaRoutingDataSource.getConnection();
+        //then
+        assertSame(primaryConnection, result);
+        verifyNoInteractions(firstReplica, secondReplica);
+    }
+
+    @Test
+    public void getConnection_TransactionIsReadOnly_AlternatesBetweenReplicas() throws SQLException {
+        //given
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        //when
+        List<Connection> result = List.of(replicaRoutingDataSource.getConnection(), replicaRoutingDataSource.getConnection(), replicaRoutingDataSource.getConnection());
+        //then
+        assertEquals(List.of(firstReplicaConnection, secondReplicaConnection, firstReplicaConnection), result);
+        assertEquals(2, meterRegistry.get("datasource.routing.connections").tag("target", "replica-0").counter().count());
+        assertEquals(1, meterRegistry.get("datasource.routing.connections").tag("target", "replica-1").counter().count());
+        verifyNoInteractions(primary);
+    }
+
+    @Test
+    public void getConnection_ReplicaFailsToConnect_MarksReplicaDownAndUsesNextReplica() throws SQLException {
+        //given
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        when(firstReplica.getConnection()).thenThrow(new SQLException("Connection refused"));
+        //when
+        Connection first = replicaRoutingDataSource.getConnection();
+        Connection second = replicaRoutingDataSource.getConnection();
+        //then
+        assertSame(secondReplicaConnection, first);
+        assertSame(secondReplicaConnection, second);
+        verify(firstReplica, times(1)).getConnection();
+        assertEquals(1, meterRegistry.get("datasource.replicas.healthy").gauge().value());
+    }
+
+    @Test
+    public void getConnection_AllReplicasAreDown_ReturnsPrimaryConnection() throws SQLException {
+        //given
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        when(firstReplica.getConnection()).thenThrow(new SQLException("Connection refused"));
+        when(secondReplica.getConnection()).thenThrow(new SQLException("Connection refused"));
+        //when
+        Connection result = replicaRoutingDataSource.getConnection();
+        //then
+        assertSame(primaryConnection, result);
+        assertEquals(0, meterRegistry.get("datasource.replicas.healthy").gauge().value());
+    }
+
+    @Test
+    public void getConnection_ReplicaPoolTimesOut_KeepsReplicaHealthyAndUsesNextReplica() throws SQLException {
+        //given
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        when(firstReplica.getConnection()).thenThrow(new SQLTransientConnectionException("Connection is not available, request timed out"))
+                .thenReturn(firstReplicaConnection);
+        //when
+        List<Connection> result = List.of(replicaRoutingDataSource.getConnection(), replicaRoutingDataSource.getConnection(), replicaRoutingDataSource.getConnection());
+        //then
+        assertEquals(List.of(secondReplicaConnection, secondReplicaConnection, firstReplicaConnection), result);
+        assertEquals(2, meterRegistry.get("datasource.replicas.healthy").gauge().value());
+    }
+
+    @Test
+    public void getConnection_ReplicaPoolTimesOutOnConnectionError_MarksReplicaDown() throws SQLException {
+        //given
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        when(firstReplica.getConnection()).thenThrow(new SQLTransientConnectionException("Connection is not available, request timed out", "08001"));
+        //when
+        Connection result = replicaRoutingDataSource.getConnection();
+        //then
+        assertSame(secondReplicaConnection, result);
+        assertEquals(1, meterRegistry.get("datasource.replicas.healthy").gauge().value());
+    }
+
+    @Test
+    public void checkReplicaHealth_ReplicaLagsBehindPrimary_RoutesReadsToOtherReplica() throws SQLException {
+        //given
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        mockReplicationLag(firstReplicaConnection, 30.5);
+        mockReplicationLag(secondReplicaConnection, 0.2);
+        //when
+        replicaRoutingDataSource.checkReplicaHealth();
+        //then
+        assertEquals(1, meterRegistry.get("datasource.replicas.healthy").gauge().value());
+        assertEquals(List.of(secondReplicaConnection, secondReplicaConnection),
+                List.of(replicaRoutingDataSource.getConnection(), replicaRoutingDataSource.getConnection()));
+    }
+
+    @Test
+    public void checkReplicaHealth_ReplicationLagQueryFails_MarksReplicaDown() throws SQLException {
+        //given
+        when(firstReplicaConnection.isValid(1)).thenReturn(true);
+        Statement statement = mock(Statement.class);
+        when(firstReplicaConnection.createStatement()).thenReturn(statement);
+        when(statement.executeQuery(REPLICATION_LAG_QUERY)).thenThrow(new SQLException("function pg_last_xact_replay_timestamp() does not exist"));
+        mockReplicationLag(secondReplicaConnection, 0);
+        //when
+        replicaRoutingDataSource.checkReplicaHealth();
+        //then
+        assertEquals(1, meterRegistry.get("datasource.replicas.healthy").gauge().value());
+    }
+
+    @Test
+    public void checkReplicaHealth_ReplicaRecovered_RoutesReadsToReplicaAgain() throws SQLException {
+        //given
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        when(firstReplica.getConnection()).thenThrow(new SQLException("Connection refused")).thenReturn(firstReplicaConnection);
+        mockReplicationLag(firstReplicaConnection, 0);
+        mockReplicationLag(secondReplicaConnection, 0);
+        replicaRoutingDataSource.getConnection();
+        //when
+        replicaRoutingDataSource.checkReplicaHealth();
+        //then
+        assertEquals(2, meterRegistry.get("datasource.replicas.healthy").gauge().value());
+        assertEquals(List.of(secondReplicaConnection, firstReplicaConnection),
+                List.of(replicaRoutingDataSource.getConnection(), replicaRoutingDataSource.getConnection()));
+        verify(firstReplicaConnection).close();
+    }
+
+    @Test
+    public void getConnection_WriteTransactionCommitted_PinsReadsToPrimary() throws SQLException {
+        //given
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        replicaRoutingDataSource.getConnection();
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        //when
+        Connection result = replicaRoutingDataSource.getConnection();
+        //then
+        assertSame(primaryConnection, result);
+        verifyNoInteractions(firstReplica, secondReplica);
+    }
+
+    @Test
+    public void getConnection_PinnedReadTransactionCommitted_DoesNotExtendPin() throws SQLException {
+        //given
+        Clock clock = mock(Clock.class);
+        Instant now = Instant.parse("2012-12-12T12:00:00Z");
+        when(clock.instant()).thenReturn(now);
+        ReadYourWritesPin readYourWritesPin = new ReadYourWritesPin(Duration.ofSeconds(5), "secret", clock);
+        ReplicaRoutingDataSource dataSource = new ReplicaRoutingDataSource(primary, List.of(firstReplica), Duration.ofSeconds(1), Duration.ofSeconds(1),
+                REPLICATION_LAG_QUERY, readYourWritesPin, meterRegistry);
+        readYourWritesPin.pin();
+        when(clock.instant()).thenReturn(now.plusSeconds(4));
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        Connection pinnedRead = dataSource.getConnection();
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+        when(clock.instant()).thenReturn(now.plusSeconds(6));
+        //when
+        Connection result = dataSource.getConnection();
+        //then
+        assertSame(primaryConnection, pinnedRead);
+        assertSame(firstReplicaConnection, result);
+        readYourWritesPin.clear();
+    }
+
+    private void mockReplicationLag(Connection connection, double lagSeconds) throws SQLException {
+        Statement statement = mock(Statement.class);
+        ResultSet resultSet = mock(ResultSet.class);
+        when(connection.isValid(1)).thenReturn(true);
+        when(connection.createStatement()).thenReturn(statement);
+        when(statement.executeQuery(REPLICATION_LAG_QUERY)).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.getDouble(1)).thenReturn(lagSeconds);
+    }
+}
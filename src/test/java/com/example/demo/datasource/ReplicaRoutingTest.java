@@ -0,0 +1,111 @@
+package com.example.demo.datasource;
+
+import com.example.demo.command.doctor.UpsertDoctorCommand;
+import com.example.demo.repository.DoctorRepository;
+import com.example.demo.service.DoctorService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing;DB_CLOSE_DELAY=-1",
+        "medical-clinic.datasource-replicas.enabled=true",
+        "medical-clinic.datasource-replicas.replicas[0].url=jdbc:h2:mem:routing;DB_CLOSE_DELAY=-1",
+        "medical-clinic.datasource-replicas.read-your-writes-window=0s",
+        "medical-clinic.datasource-replicas.replication-lag-query="
+})
+public class ReplicaRoutingTest {
+    @Autowired
+    private DoctorService doctorService;
+    @Autowired
+    private DoctorRepository doctorRepository;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        doctorRepository.deleteAll();
+    }
+
+    @Test
+    void dataSource_ReplicasAreEnabled_GatesEachPoolSeparately() throws Exception {
+        //given
+        //when
+        //then
+        assertInstanceOf(LazyConnectionDataSourceProxy.class, dataSource);
+        assertTrue(dataSource.isWrapperFor(ReplicaRoutingDataSource.class));
+        assertEquals(10, availablePermits("primary"));
+        assertEquals(10, availablePermits("replica-0"));
+    }
+
+    @Test
+    void getDoctors_ReadOnlyTransaction_HoldsReplicaPermitOnly() {
+        //given
+        doctorService.createDoctor(new UpsertDoctorCommand("permits@clinic.com", "password", "firstName", "lastName", "specialization"));
+        double[] permits = new double[2];
+        //when
+        new TransactionTemplate(transactionManager, readOnlyDefinition()).executeWithoutResult(status -> {
+            doctorService.getDoctors(PageRequest.of(0, 10));
+            permits[0] = availablePermits("primary");
+            permits[1] = availablePermits("replica-0");
+        });
+        //then
+        assertEquals(10, permits[0]);
+        assertEquals(9, permits[1]);
+    }
+
+    @Test
+    void getDoctors_ReadOnlyTransaction_RunsOnReplica() {
+        //given
+        doctorService.createDoctor(new UpsertDoctorCommand("routing@clinic.com", "password", "firstName", "lastName", "specialization"));
+        double primaryConnections = connections("primary");
+        double replicaConnections = connections("replica-0");
+        //when
+        long result = doctorService.getDoctors(PageRequest.of(0, 10)).totalEntries();
+        //then
+        assertEquals(1, result);
+        assertEquals(primaryConnections, connections("primary"));
+        assertEquals(replicaConnections + 1, connections("replica-0"));
+    }
+
+    @Test
+    void createDoctor_WriteTransaction_RunsOnPrimary() {
+        //given
+        double primaryConnections = connections("primary");
+        double replicaConnections = connections("replica-0");
+        //when
+        doctorService.createDoctor(new UpsertDoctorCommand("primary@clinic.com", "password", "firstName", "lastName", "specialization"));
+        //then
+        assertTrue(connections("primary") > primaryConnections);
+        assertEquals(replicaConnections, connections("replica-0"));
+    }
+
+    private double availablePermits(String pool) {
+        return meterRegistry.get("datasource.gate.available").tag("pool", pool).gauge().value();
+    }
+
+    private static DefaultTransactionDefinition readOnlyDefinition() {
+        DefaultTransactionDefinition definition = new DefaultTransactionDefinition();
+        definition.setReadOnly(true);
+        return definition;
+    }
+
+    private double connections(String target) {
+        return meterRegistry.get("datasource.routing.connections").tag("target", target).counter().count();
+    }
+}
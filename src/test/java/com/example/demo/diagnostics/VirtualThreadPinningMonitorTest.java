@@ -0,0 +1,53 @@
+package com.example.demo.diagnostics;
+
+import com.example.demo.config.VirtualThreadProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class VirtualThreadPinningMonitorTest {
+    private MeterRegistry meterRegistry;
+    private VirtualThreadPinningMonitor virtualThreadPinningMonitor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        virtualThreadPinningMonitor = new VirtualThreadPinningMonitor(new VirtualThreadProperties(true, Duration.ofMillis(10)), meterRegistry);
+        virtualThreadPinningMonitor.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        virtualThreadPinningMonitor.stop();
+    }
+
+    @Test
+    public void start_VirtualThreadBlocksInsideSynchronizedBlock_RecordsPinnedEvent() throws Exception {
+        //given
+        Object monitor = new Object();
+        //when
+        Thread.ofVirtual().start(() -> {
+            synchronized (monitor) {
+                try {
+                    Thread.sleep(50);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }).join();
+        //then
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (meterRegistry.get("jvm.threads.virtual.pinned").timer().count() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(100);
+        }
+        assertEquals(1, meterRegistry.get("jvm.threads.virtual.pinned").timer().count());
+        assertTrue(virtualThreadPinningMonitor.isRunning());
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.demo.index;
+
+import com.example.demo.model.doctor.Doctor;
+import com.example.demo.model.visit.Visit;
+import com.example.demo.model.visit.VisitInterval;
+import com.example.demo.repository.VisitRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class DoctorVisitIndexTest {
+    private VisitRepository visitRepository;
+    private DoctorVisitIndex doctorVisitIndex;
+
+    @BeforeEach
+    void setUp() {
+        visitRepository = mock(VisitRepository.class);
+        Clock clock = Clock.fixed(Instant.parse("2012-12-12T12:00:00Z"), ZoneOffset.UTC);
+        doctorVisitIndex = new DoctorVisitIndex(visitRepository, clock);
+    }
+
+    @Test
+    public void overlaps_DoctorHasNoVisits_ReturnsFalse() {
+        //given
+        //when
+        boolean result = doctorVisitIndex.overlaps(1L, getOffsetDateTime("2012-12-13T12:00:00Z"), getOffsetDateTime("2012-12-13T13:00:00Z"));
+        //then
+        assertFalse(result);
+    }
+
+    @Test
+    public void overlaps_VisitOverlapsExistingVisit_ReturnsTrue() {
+        //given
+        doctorVisitIndex.add(buildVisit(1L, 1L, "2012-12-13T12:00:00Z", "2012-12-13T13:00:00Z"));
+        //when
+        boolean result = doctorVisitIndex.overlaps(1L, getOffsetDateTime("2012-12-13T12:30:00Z"), getOffsetDateTime("2012-12-13T13:30:00Z"));
+        //then
+        assertTrue(result);
+    }
+
+    @Test
+    public void overlaps_VisitTouchesExistingVisit_ReturnsFalse() {
+        //given
+        doctorVisitIndex.add(buildVisit(1L, 1L, "2012-12-13T12:00:00Z", "2012-12-13T13:00:00Z"));
+        //when
+        boolean result = doctorVisitIndex.overlaps(1L, getOffsetDateTime("2012-12-13T13:00:00Z"), getOffsetDateTime("2012-12-13T14:00:00Z"));
+        //then
+        assertFalse(result);
+    }
+
+    @Test
+    public void overlaps_VisitIsBetweenExistingVisits_ReturnsFalse() {
+        //given
+        doctorVisitIndex.add(buildVisit(1L, 1L, "2012-12-13T10:00:00Z", "2012-12-13T11:00:00Z"));
+        doctorVisitIndex.add(buildVisit(2L, 1L, "2012-12-13T14:00:00Z", "2012-12-13T15:00:00Z"));
+        //when
+        boolean result = doctorVisitIndex.overlaps(1L, getOffsetDateTime("2012-12-13T12:00:00Z"), getOffsetDateTime("2012-12-13T13:00:00Z"));
+        //then
+        assertFalse(result);
+    }
+
+    @Test
+    public void overlaps_OverlappingVisitBelongsToAnotherDoctor_ReturnsFalse() {
+        //given
+        doctorVisitIndex.add(buildVisit(1L, 2L, "2012-12-13T12:00:00Z", "2012-12-13T13:00:00Z"));
+        //when
+        boolean result = doctorVisitIndex.overlaps(1L, getOffsetDateTime("2012-12-13T12:00:00Z"), getOffsetDateTime("2012-12-13T13:00:00Z"));
+        //then
+        assertFalse(result);
+    }
+
+    @Test
+    public void remove_VisitWasIndexed_NoLongerReportsOverlap() {
+        //given
+        Visit visit = buildVisit(1L, 1L, "2012-12-13T12:00:00Z", "2012-12-13T13:00:00Z");
+        doctorVisitIndex.add(visit);
+        //when
+        doctorVisitIndex.remove(visit);
+        //then
+        assertFalse(doctorVisitIndex.overlaps(1L, visit.getStartTime(), visit.getEndTime()));
+    }
+
+    @Test
+    public void removeDoctor_DoctorHadVisits_NoLongerReportsOverlap() {
+        //given
+        doctorVisitIndex.add(buildVisit(1L, 1L, "2012-12-13T12:00:00Z", "2012-12-13T13:00:00Z"));
+        //when
+        doctorVisitIndex.removeDoctor(1L);
+        //then
+        assertFalse(doctorVisitIndex.overlaps(1L, getOffsetDateTime("2012-12-13T12:00:00Z"), getOffsetDateTime("2012-12-13T13:00:00Z")));
+    }
+
+    @Test
+    public void rebuild_RepositoryContainsUpcomingVisits_ReplacesIndexContent() {
+        //given
+        doctorVisitIndex.add(buildVisit(1L, 1L, "2012-12-13T08:00:00Z", "2012-12-13T09:00:00Z"));
+        VisitInterval upcomingVisit = new VisitInterval(2L, 1L, getOffsetDateTime("2012-12-13T12:00:00Z"), getOffsetDateTime("2012-12-13T13:00:00Z"));
+        when(visitRepository.findVisitIntervalsEndingAfter(getOffsetDateTime("2012-12-12T12:00:00Z"))).thenReturn(List.of(upcomingVisit));
+        //when
+        doctorVisitIndex.rebuild();
+        //then
+        assertTrue(doctorVisitIndex.overlaps(1L, getOffsetDateTime("2012-12-13T12:30:00Z"), getOffsetDateTime("2012-12-13T12:45:00Z")));
+        assertFalse(doctorVisitIndex.overlaps(1L, getOffsetDateTime("2012-12-13T08:00:00Z"), getOffsetDateTime("2012-12-13T09:00:00Z")));
+    }
+
+    @Test
+    public void rebuild_VisitIsAddedWhileRebuilding_KeepsAddedVisit() {
+        //given
+        VisitInterval upcomingVisit = new VisitInterval(2L, 1L, getOffsetDateTime("2012-12-13T12:00:00Z"), getOffsetDateTime("2012-12-13T13:00:00Z"));
+        when(visitRepository.findVisitIntervalsEndingAfter(getOffsetDateTime("2012-12-12T12:00:00Z"))).thenAnswer(invocation -> {
+            doctorVisitIndex.add(buildVisit(3L, 1L, "2012-12-13T15:00:00Z", "2012-12-13T16:00:00Z"));
+            return List.of(upcomingVisit);
+        });
+        //when
+        doctorVisitIndex.rebuild();
+        //then
+        assertTrue(doctorVisitIndex.overlaps(1L, getOffsetDateTime("2012-12-13T12:30:00Z"), getOffsetDateTime("2012-12-13T12:45:00Z")));
+        assertTrue(doctorVisitIndex.overlaps(1L, getOffsetDateTime("2012-12-13T15:30:00Z"), getOffsetDateTime("2012-12-13T15:45:00Z")));
+    }
+
+    private Visit buildVisit(Long id, Long doctorId, String startTime, String endTime) {
+        return Visit.builder()
+                .id(id)
+                .startTime(getOffsetDateTime(startTime))
+                .endTime(getOffsetDateTime(endTime))
+                .doctor(Doctor.builder().id(doctorId).build())
+                .build();
+    }
+
+    private OffsetDateTime getOffsetDateTime(String instant) {
+        return OffsetDateTime.ofInstant(Instant.parse(instant), ZoneOffset.UTC);
+    }
+}
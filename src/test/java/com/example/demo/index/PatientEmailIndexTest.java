@@ -0,0 +1,110 @@
+package com.example.demo.index;
+
+import com.example.demo.config.EmailIndexProperties;
+import com.example.demo.repository.PatientRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class PatientEmailIndexTest {
+    private PatientRepository patientRepository;
+    private MeterRegistry meterRegistry;
+    private PatientEmailIndex patientEmailIndex;
+    private Predicate<String> existsInDatabase;
+
+    @BeforeEach
+    void setUp() {
+        patientRepository = mock(PatientRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+        patientEmailIndex = new PatientEmailIndex(patientRepository, new EmailIndexProperties(true, 1000, 0.01), meterRegistry);
+        existsInDatabase = mock(Predicate.class);
+    }
+
+    @Test
+    public void exists_IndexWasNotRebuilt_QueriesDatabase() {
+        //given
+        when(existsInDatabase.test("email")).thenReturn(true);
+        //when
+        boolean result = patientEmailIndex.exists("email", existsInDatabase);
+        //then
+        assertTrue(result);
+        verify(existsInDatabase).test("email");
+    }
+
+    @Test
+    public void exists_EmailIsDefinitelyNew_SkipsDatabaseQuery() {
+        //given
+        when(patientRepository.count()).thenReturn(2L);
+        when(patientRepository.streamAllEmails()).thenReturn(Stream.of("email1", "email2"));
+        patientEmailIndex.rebuild();
+        //when
+        boolean result = patientEmailIndex.exists("new-email", existsInDatabase);
+        //then
+        assertFalse(result);
+        verifyNoInteractions(existsInDatabase);
+        assertEquals(1, meterRegistry.get("email.index.lookups").tag("index", "patients").tag("result", "skipped").counter().count());
+    }
+
+    @Test
+    public void exists_EmailWasWarmedFromDatabase_QueriesDatabase() {
+        //given
+        when(patientRepository.count()).thenReturn(2L);
+        when(patientRepository.streamAllEmails()).thenReturn(Stream.of("email1", "email2"));
+        when(existsInDatabase.test("email1")).thenReturn(true);
+        patientEmailIndex.rebuild();
+        //when
+        boolean result = patientEmailIndex.exists("email1", existsInDatabase);
+        //then
+        assertTrue(result);
+        assertEquals(1, meterRegistry.get("email.index.lookups").tag("index", "patients").tag("result", "confirmed").counter().count());
+    }
+
+    @Test
+    public void exists_EmailWasAddedAfterRebuild_QueriesDatabase() {
+        //given
+        when(patientRepository.count()).thenReturn(0L);
+        when(patientRepository.streamAllEmails()).thenReturn(Stream.empty());
+        patientEmailIndex.rebuild();
+        patientEmailIndex.add("email");
+        //when
+        boolean result = patientEmailIndex.exists("email", existsInDatabase);
+        //then
+        assertFalse(result);
+        verify(existsInDatabase).test("email");
+        assertEquals(1, meterRegistry.get("email.index.lookups").tag("index", "patients").tag("result", "false_positive").counter().count());
+        assertEquals(1, meterRegistry.get("email.index.false.positive.rate").tag("index", "patients").gauge().value());
+    }
+
+    @Test
+    public void exists_IndexIsDisabled_QueriesDatabase() {
+        //given
+        PatientEmailIndex disabledIndex = new PatientEmailIndex(patientRepository, new EmailIndexProperties(false, 1000, 0.01), new SimpleMeterRegistry());
+        disabledIndex.rebuild();
+        //when
+        disabledIndex.exists("email", existsInDatabase);
+        //then
+        verify(existsInDatabase).test("email");
+        verifyNoInteractions(patientRepository);
+    }
+
+    @Test
+    public void rebuild_ManyEmails_KeepsObservedFalsePositiveRateNearConfiguredRate() {
+        //given
+        when(patientRepository.count()).thenReturn(1000L);
+        when(patientRepository.streamAllEmails()).thenReturn(IntStream.range(0, 1000).mapToObj("existing%d@email.com"::formatted));
+        patientEmailIndex.rebuild();
+        //when
+        IntStream.range(0, 10_000).forEach(i -> patientEmailIndex.exists("new%d@email.com".formatted(i), email -> false));
+        //then
+        assertTrue(meterRegistry.get("email.index.false.positive.rate").tag("index", "patients").gauge().value() < 0.02);
+        assertTrue(meterRegistry.get("email.index.expected.false.positive.rate").tag("index", "patients").gauge().value() < 0.02);
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.demo.job;
+
+import com.example.demo.service.ScheduleTemplateService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+
+public class ScheduleTemplateMaterializationJobTest {
+    private ScheduleTemplateService scheduleTemplateService;
+    private ScheduleTemplateMaterializationJob scheduleTemplateMaterializationJob;
+
+    @BeforeEach
+    void setUp() {
+        scheduleTemplateService = mock(ScheduleTemplateService.class);
+        scheduleTemplateMaterializationJob = new ScheduleTemplateMaterializationJob(scheduleTemplateService);
+    }
+
+    @Test
+    public void materializeScheduleTemplates_TemplateFailsUnexpectedly_MaterializesRemainingTemplates() {
+        //given
+        when(scheduleTemplateService.getScheduleTemplateIds()).thenReturn(List.of(1L, 2L));
+        when(scheduleTemplateService.materializeScheduleTemplate(1L)).thenThrow(new DataIntegrityViolationException("conflicting key value violates exclusion constraint"));
+        //when
+        scheduleTemplateMaterializationJob.materializeScheduleTemplates();
+        //then
+        verify(scheduleTemplateService, times(1)).materializeScheduleTemplate(2L);
+    }
+}
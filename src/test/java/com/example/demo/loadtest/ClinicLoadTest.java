@@ -0,0 +1,179 @@
+package com.example.demo.loadtest;
+
+import com.example.demo.index.DoctorEmailIndex;
+import com.example.demo.index.DoctorVisitIndex;
+import com.example.demo.index.PatientEmailIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("load-test")
+@ActiveProfiles("loadtest")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class ClinicLoadTest {
+    private static final int PAGE_SIZE = 20;
+    private static final int BROWSED_PAGES = 50;
+    private static final int IMPORT_CLIENTS = 2;
+    private static final String BOOKING = "PATCH /visits/{id}/patientId/{patientId}";
+    private static final String IMPORT = "POST /patients/import";
+
+    @LocalServerPort
+    private int port;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private DoctorVisitIndex doctorVisitIndex;
+    @Autowired
+    private PatientEmailIndex patientEmailIndex;
+    @Autowired
+    private DoctorEmailIndex doctorEmailIndex;
+    @Value("${load-test.facilities}")
+    private int facilities;
+    @Value("${load-test.doctors}")
+    private int doctors;
+    @Value("${load-test.patients}")
+    private int patients;
+    @Value("${load-test.visits}")
+    private int visits;
+    @Value("${load-test.future-visit-ratio}")
+    private double futureVisitRatio;
+    @Value("${load-test.clients}")
+    private int clients;
+    @Value("${load-test.requests-per-client}")
+    private int requestsPerClient;
+    @Value("${load-test.import-requests}")
+    private int importRequests;
+    @Value("${load-test.import-rows}")
+    private int importRows;
+
+    private List<Long> freeVisitIds;
+
+    @BeforeEach
+    void setUp() {
+        long start = System.nanoTime();
+        freeVisitIds = new LoadTestDataSeeder(jdbcTemplate).seed(facilities, doctors, patients, visits, futureVisitRatio);
+        doctorVisitIndex.rebuild();
+        patientEmailIndex.rebuild();
+        doctorEmailIndex.rebuild();
+        System.out.printf("Seeded %d facilities, %d doctors, %d patients and %d visits in %d ms%n",
+                facilities, doctors, patients, visits, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @Test
+    void mixedWorkload_SeededClinic_ReportsLatencyAndThroughputPerEndpoint() throws Exception {
+        List<Long> bookableVisitIds = new ArrayList<>(freeVisitIds);
+        Collections.shuffle(bookableVisitIds);
+        int bookingClients = clients / 4;
+        List<Long> rushedVisitIds = bookableVisitIds.subList(0, Math.min(bookableVisitIds.size(), bookingClients * requestsPerClient));
+        try (HttpClient httpClient = HttpClient.newBuilder().executor(Executors.newVirtualThreadPerTaskExecutor()).build();
+             ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            run(executor, clients / 10, requestsPerClient / 2, this::listingRequest, httpClient, new LoadReport());
+
+            LoadReport report = new LoadReport();
+            long start = System.nanoTime();
+            List<Future<?>> futures = new ArrayList<>();
+            futures.addAll(submit(executor, bookingClients, requestsPerClient, () -> bookingRequest(rushedVisitIds), httpClient, report));
+            futures.addAll(submit(executor, clients - bookingClients, requestsPerClient, this::listingRequest, httpClient, report));
+            futures.addAll(submit(executor, IMPORT_CLIENTS, importRequests / IMPORT_CLIENTS, this::importRequest, httpClient, report));
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            long millis = (System.nanoTime() - start) / 1_000_000;
+
+            System.out.printf("Mixed workload, %d clients, %d ms%n", clients + IMPORT_CLIENTS, millis);
+            report.print(millis);
+            assertEquals(0, report.serverErrors());
+            assertEquals((long) bookingClients * requestsPerClient, report.count(BOOKING));
+            assertEquals((long) importRequests / IMPORT_CLIENTS * IMPORT_CLIENTS, report.count(IMPORT));
+        }
+    }
+
+    private void run(ExecutorService executor, int clientCount, int requests, Supplier<NamedRequest> requestFactory, HttpClient httpClient, LoadReport report) throws Exception {
+        for (Future<?> future : submit(executor, clientCount, requests, requestFactory, httpClient, report)) {
+            future.get();
+        }
+    }
+
+    private List<Future<?>> submit(ExecutorService executor, int clientCount, int requests, Supplier<NamedRequest> requestFactory, HttpClient httpClient, LoadReport report) {
+        return IntStream.range(0, clientCount)
+                .<Future<?>>mapToObj(client -> executor.submit(() -> {
+                    for (int i = 0; i < requests; i++) {
+                        NamedRequest namedRequest = requestFactory.get();
+                        long start = System.nanoTime();
+                        HttpResponse<Void> response = httpClient.send(namedRequest.request(), HttpResponse.BodyHandlers.discarding());
+                        report.record(namedRequest.endpoint(), System.nanoTime() - start, response.statusCode());
+                    }
+                    return null;
+                }))
+                .toList();
+    }
+
+    private NamedRequest bookingRequest(List<Long> rushedVisitIds) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long visitId = rushedVisitIds.get(random.nextInt(rushedVisitIds.size()));
+        long patientId = random.nextLong(patients) + 1;
+        return new NamedRequest(BOOKING, HttpRequest.newBuilder(uri("/visits/%d/patientId/%d".formatted(visitId, patientId)))
+                .method("PATCH", HttpRequest.BodyPublishers.noBody())
+                .build());
+    }
+
+    private NamedRequest listingRequest() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return switch (random.nextInt(6)) {
+            case 0 -> get("GET /visits", "/visits?page=%d&size=%d".formatted(random.nextInt(BROWSED_PAGES), PAGE_SIZE));
+            case 5 -> get("GET /visits?total=none", "/visits?total=none&page=%d&size=%d".formatted(random.nextInt(BROWSED_PAGES), PAGE_SIZE));
+            case 1 -> get("GET /doctors", "/doctors?page=%d&size=%d".formatted(random.nextInt(BROWSED_PAGES), PAGE_SIZE));
+            case 2 -> get("GET /doctors/{email}", "/doctors/doctor%d@load.com".formatted(random.nextInt(doctors) + 1));
+            case 3 -> get("GET /visits/doctorId/{doctorId}", "/visits/doctorId/%d?size=%d".formatted(random.nextInt(doctors) + 1, PAGE_SIZE));
+            default -> get("GET /visits/patientId/{patientId}", "/visits/patientId/%d?size=%d".formatted(random.nextInt(patients) + 1, PAGE_SIZE));
+        };
+    }
+
+    private NamedRequest importRequest() {
+        String boundary = "load-test-boundary";
+        String batch = Long.toString(System.nanoTime(), 36);
+        String csv = IntStream.range(0, importRows)
+                .mapToObj(i -> "imported%s-%d@load.com,password,import%s-%d,firstName,lastName,123456789,1990-01-01".formatted(batch, i, batch, i))
+                .collect(Collectors.joining("\n", "email,password,idCardNo,firstName,lastName,phoneNumber,birthday\n", "\n"));
+        String body = "--%s\r\nContent-Disposition: form-data; name=\"file\"; filename=\"patients.csv\"\r\nContent-Type: text/csv\r\n\r\n%s\r\n--%s--\r\n"
+                .formatted(boundary, csv, boundary);
+        return new NamedRequest(IMPORT, HttpRequest.newBuilder(uri("/patients/import"))
+                .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build());
+    }
+
+    private NamedRequest get(String endpoint, String path) {
+        return new NamedRequest(endpoint, HttpRequest.newBuilder(uri(path)).build());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:%d%s".formatted(port, path));
+    }
+
+    private record NamedRequest(String endpoint, HttpRequest request) {
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.demo.loadtest;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+class LoadReport {
+    private final Map<String, Queue<Sample>> samplesByEndpoint = new ConcurrentSkipListMap<>();
+
+    void record(String endpoint, long nanos, int status) {
+        samplesByEndpoint.computeIfAbsent(endpoint, key -> new ConcurrentLinkedQueue<>()).add(new Sample(nanos, status));
+    }
+
+    long count(String endpoint) {
+        return samplesByEndpoint.getOrDefault(endpoint, new ConcurrentLinkedQueue<>()).size();
+    }
+
+    long serverErrors() {
+        return samplesByEndpoint.values().stream()
+                .flatMap(Queue::stream)
+                .filter(sample -> sample.status() >= 500)
+                .count();
+    }
+
+    void print(long elapsedMillis) {
+        System.out.printf("%-40s %9s %9s %10s %10s %10s %9s%n", "endpoint", "requests", "req/s", "p50 ms", "p99 ms", "max ms", "rejected");
+        samplesByEndpoint.forEach((endpoint, samples) -> {
+            List<Long> latencies = samples.stream().map(Sample::nanos).sorted().toList();
+            long rejected = samples.stream().filter(sample -> sample.status() >= 400).count();
+            System.out.printf("%-40s %9d %9.1f %10.1f %10.1f %10.1f %9d%n",
+                    endpoint, latencies.size(), latencies.size() * 1000.0 / Math.max(elapsedMillis, 1),
+                    percentile(latencies, 0.50), percentile(latencies, 0.99), latencies.getLast() / 1_000_000.0, rejected);
+        });
+    }
+
+    private static double percentile(List<Long> sortedLatencies, double percentile) {
+        return sortedLatencies.get((int) Math.ceil(percentile * sortedLatencies.size()) - 1) / 1_000_000.0;
+    }
+
+    private record Sample(long nanos, int status) {
+    }
+}
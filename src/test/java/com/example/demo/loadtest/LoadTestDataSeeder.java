@@ -0,0 +1,114 @@
+package com.example.demo.loadtest;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+class LoadTestDataSeeder {
+    private static final int BATCH_SIZE = 10_000;
+    private static final int FACILITIES_PER_DOCTOR = 2;
+    private static final int ID_ALLOCATION_SIZE = 50;
+    private static final String INSERT_FACILITY = "INSERT INTO FACILITIES (id, name, city, zip_code, street, building_number) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_DOCTOR = "INSERT INTO DOCTORS (id, email, password, first_name, last_name, specialization) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_FACILITY_DOCTOR = "INSERT INTO FACILITIES_DOCTORS (doctor_id, facility_id) VALUES (?, ?)";
+    private static final String INSERT_PATIENT = "INSERT INTO PATIENTS (id, email, password, id_card_no, first_name, last_name, phone_number, birthday) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_VISIT = "INSERT INTO VISITS (id, start_time, end_time, patient_id, doctor_id) VALUES (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    LoadTestDataSeeder(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    List<Long> seed(int facilities, int doctors, int patients, int visits, double futureVisitRatio) {
+        seedFacilities(facilities);
+        seedDoctors(doctors, facilities);
+        seedPatients(patients);
+        List<Long> freeVisitIds = seedVisits(doctors, patients, visits, futureVisitRatio);
+        restartSequence("facilities_seq", facilities);
+        restartSequence("doctors_seq", doctors);
+        restartSequence("patients_seq", patients);
+        restartSequence("visits_seq", visits);
+        return freeVisitIds;
+    }
+
+    private void seedFacilities(int facilities) {
+        List<Object[]> rows = new ArrayList<>(BATCH_SIZE);
+        for (long id = 1; id <= facilities; id++) {
+            rows.add(new Object[]{id, "facility%d".formatted(id), "city%d".formatted(id % 50), "00-%03d".formatted(id % 1000), "street%d".formatted(id), "%d".formatted(id % 200 + 1)});
+            flushIfFull(INSERT_FACILITY, rows);
+        }
+        flush(INSERT_FACILITY, rows);
+    }
+
+    private void seedDoctors(int doctors, int facilities) {
+        List<Object[]> rows = new ArrayList<>(BATCH_SIZE);
+        for (long id = 1; id <= doctors; id++) {
+            rows.add(new Object[]{id, "doctor%d@load.com".formatted(id), "password", "firstName%d".formatted(id), "lastName%d".formatted(id), "specialization%d".formatted(id % 20)});
+            flushIfFull(INSERT_DOCTOR, rows);
+        }
+        flush(INSERT_DOCTOR, rows);
+        for (long id = 1; id <= doctors; id++) {
+            for (int i = 0; i < Math.min(FACILITIES_PER_DOCTOR, facilities); i++) {
+                rows.add(new Object[]{id, (id + (long) i * facilities / FACILITIES_PER_DOCTOR) % facilities + 1});
+                flushIfFull(INSERT_FACILITY_DOCTOR, rows);
+            }
+        }
+        flush(INSERT_FACILITY_DOCTOR, rows);
+    }
+
+    private void seedPatients(int patients) {
+        List<Object[]> rows = new ArrayList<>(BATCH_SIZE);
+        LocalDate firstBirthday = LocalDate.of(1950, 1, 1);
+        for (long id = 1; id <= patients; id++) {
+            rows.add(new Object[]{id, "patient%d@load.com".formatted(id), "password", "idCardNo%d".formatted(id), "firstName%d".formatted(id), "lastName%d".formatted(id), "%09d".formatted(id), firstBirthday.plusDays(id % 20_000)});
+            flushIfFull(INSERT_PATIENT, rows);
+        }
+        flush(INSERT_PATIENT, rows);
+    }
+
+    private List<Long> seedVisits(int doctors, int patients, int visits, double futureVisitRatio) {
+        List<Object[]> rows = new ArrayList<>(BATCH_SIZE);
+        List<Long> freeVisitIds = new ArrayList<>();
+        OffsetDateTime today = LocalDate.now(ZoneOffset.UTC).atStartOfDay().atOffset(ZoneOffset.UTC);
+        int visitsPerDoctor = visits / doctors;
+        int futureVisitsPerDoctor = (int) Math.round(visitsPerDoctor * futureVisitRatio);
+        int pastVisitsPerDoctor = visitsPerDoctor - futureVisitsPerDoctor;
+        long id = 1;
+        for (long doctorId = 1; doctorId <= doctors; doctorId++) {
+            for (int i = 0; i < visitsPerDoctor; i++, id++) {
+                boolean past = i < pastVisitsPerDoctor;
+                OffsetDateTime startTime = past ? today.minusHours(pastVisitsPerDoctor - i) : today.plusDays(1).plusHours(i - pastVisitsPerDoctor);
+                Long patientId = past || i % 2 == 0 ? id % patients + 1 : null;
+                if (patientId == null) {
+                    freeVisitIds.add(id);
+                }
+                rows.add(new Object[]{id, startTime, startTime.plusMinutes(30), patientId, doctorId});
+                flushIfFull(INSERT_VISIT, rows);
+            }
+        }
+        flush(INSERT_VISIT, rows);
+        return freeVisitIds;
+    }
+
+    private void restartSequence(String sequenceName, long seededRows) {
+        jdbcTemplate.execute("ALTER SEQUENCE %s RESTART WITH %d".formatted(sequenceName, seededRows + ID_ALLOCATION_SIZE));
+    }
+
+    private void flushIfFull(String sql, List<Object[]> rows) {
+        if (rows.size() == BATCH_SIZE) {
+            flush(sql, rows);
+        }
+    }
+
+    private void flush(String sql, List<Object[]> rows) {
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(sql, rows);
+            rows.clear();
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.demo.lock;
+
+import com.example.demo.config.VisitProperties;
+import com.example.demo.exception.visit.VisitLockTimeoutException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class AdvisoryDoctorVisitLockTest {
+    private static final String TRY_LOCK_SQL = "select pg_try_advisory_xact_lock(?)";
+
+    private JdbcTemplate jdbcTemplate;
+    private AdvisoryDoctorVisitLock advisoryDoctorVisitLock;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        advisoryDoctorVisitLock = createLock(Duration.ofSeconds(5));
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+    }
+
+    @Test
+    public void lock_NoTransactionIsActive_ThrowsIllegalStateException() {
+        //given
+        //when
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () -> advisoryDoctorVisitLock.lock(1L));
+        //then
+        assertEquals("Doctor visit lock can only be acquired inside a transaction.", exception.getMessage());
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    public void lock_SeveralDoctors_AcquiresTransactionLocksOnceInAscendingOrder() {
+        //given
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        when(jdbcTemplate.queryForObject(eq(TRY_LOCK_SQL), eq(Boolean.class), anyLong())).thenReturn(true);
+        //when
+        advisoryDoctorVisitLock.lock(List.of(3L, 1L, 3L, 2L));
+        //then
+        InOrder inOrder = inOrder(jdbcTemplate);
+        inOrder.verify(jdbcTemplate).queryForObject(TRY_LOCK_SQL, Boolean.class, 1L);
+        inOrder.verify(jdbcTemplate).queryForObject(TRY_LOCK_SQL, Boolean.class, 2L);
+        inOrder.verify(jdbcTemplate).queryForObject(TRY_LOCK_SQL, Boolean.class, 3L);
+        verifyNoMoreInteractions(jdbcTemplate);
+    }
+
+    @Test
+    public void lock_LockIsReleasedBeforeTimeout_RetriesUntilAcquired() {
+        //given
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        when(jdbcTemplate.queryForObject(TRY_LOCK_SQL, Boolean.class, 1L)).thenReturn(false, false, true);
+        //when
+        advisoryDoctorVisitLock.lock(1L);
+        //then
+        verify(jdbcTemplate, times(3)).queryForObject(TRY_LOCK_SQL, Boolean.class, 1L);
+    }
+
+    @Test
+    public void lock_LockIsHeldLongerThanTimeout_ThrowsVisitLockTimeoutException() {
+        //given
+        AdvisoryDoctorVisitLock shortTimeoutLock = createLock(Duration.ofMillis(50));
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        when(jdbcTemplate.queryForObject(TRY_LOCK_SQL, Boolean.class, 1L)).thenReturn(false);
+        //when
+        VisitLockTimeoutException exception = assertThrows(VisitLockTimeoutException.class, () -> shortTimeoutLock.lock(1L));
+        //then
+        assertEquals("The doctor's schedule is busy, please try again later.", exception.getMessage());
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, exception.getStatusCode());
+    }
+
+    private AdvisoryDoctorVisitLock createLock(Duration lockTimeout) {
+        return new AdvisoryDoctorVisitLock(jdbcTemplate, new VisitProperties(false, 64, lockTimeout, 2000), Clock.systemUTC());
+    }
+}
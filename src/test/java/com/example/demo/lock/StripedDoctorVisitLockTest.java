@@ -0,0 +1,179 @@
+package com.example.demo.lock;
+
+import com.example.demo.config.VisitProperties;
+import com.example.demo.exception.visit.VisitLockTimeoutException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StripedDoctorVisitLockTest {
+    private static final int THREADS = 16;
+    private static final int WRITES = 320;
+
+    private StripedDoctorVisitLock stripedDoctorVisitLock;
+
+    @BeforeEach
+    void setUp() {
+        stripedDoctorVisitLock = createLock(Duration.ofSeconds(5));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void lock_NoTransactionIsActive_ThrowsIllegalStateException() {
+        //given
+        //when
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () -> stripedDoctorVisitLock.lock(1L));
+        //then
+        assertEquals("Doctor visit lock can only be acquired inside a transaction.", exception.getMessage());
+    }
+
+    @Test
+    public void lock_TransactionCompletes_ReleasesLockForOtherThreads() throws Exception {
+        //given
+        TransactionSynchronizationManager.initSynchronization();
+        stripedDoctorVisitLock.lock(1L);
+        CountDownLatch acquired = new CountDownLatch(1);
+        Thread contender = Thread.ofPlatform().start(() -> runInTransaction(() -> {
+            stripedDoctorVisitLock.lock(1L);
+            acquired.countDown();
+        }));
+        //when
+        boolean acquiredWhileHeld = acquired.await(100, TimeUnit.MILLISECONDS);
+        completeTransaction();
+        boolean acquiredAfterCompletion = acquired.await(5, TimeUnit.SECONDS);
+        contender.join();
+        //then
+        assertFalse(acquiredWhileHeld);
+        assertTrue(acquiredAfterCompletion);
+    }
+
+    @Test
+    public void lock_SameDoctorIsLockedConcurrently_WritesNeverInterleave() throws Exception {
+        //given
+        AtomicInteger inside = new AtomicInteger();
+        AtomicInteger maxInside = new AtomicInteger();
+        //when
+        runWrites(1, () -> {
+            maxInside.accumulateAndGet(inside.incrementAndGet(), Math::max);
+            sleep(1);
+            inside.decrementAndGet();
+        });
+        //then
+        assertEquals(1, maxInside.get());
+    }
+
+    @Test
+    public void lock_DoctorsMapToDifferentStripes_BothLocksAreHeldAtOnce() throws Exception {
+        //given
+        TransactionSynchronizationManager.initSynchronization();
+        stripedDoctorVisitLock.lock(1L);
+        CountDownLatch acquired = new CountDownLatch(1);
+        Thread contender = Thread.ofPlatform().start(() -> runInTransaction(() -> {
+            stripedDoctorVisitLock.lock(2L);
+            acquired.countDown();
+        }));
+        //when
+        boolean acquiredWhileHeld = acquired.await(5, TimeUnit.SECONDS);
+        contender.join();
+        completeTransaction();
+        //then
+        assertTrue(acquiredWhileHeld);
+    }
+
+    @Test
+    public void lock_StripeIsHeldLongerThanTimeout_ThrowsVisitLockTimeoutException() throws Exception {
+        //given
+        StripedDoctorVisitLock shortTimeoutLock = createLock(Duration.ofMillis(50));
+        TransactionSynchronizationManager.initSynchronization();
+        shortTimeoutLock.lock(1L);
+        CompletableFuture<Throwable> contenderFailure = new CompletableFuture<>();
+        Thread contender = Thread.ofPlatform().start(() -> {
+            try {
+                runInTransaction(() -> shortTimeoutLock.lock(1L));
+                contenderFailure.complete(null);
+            } catch (Throwable e) {
+                contenderFailure.complete(e);
+            }
+        });
+        //when
+        Throwable result = contenderFailure.get(5, TimeUnit.SECONDS);
+        contender.join();
+        completeTransaction();
+        //then
+        VisitLockTimeoutException exception = assertInstanceOf(VisitLockTimeoutException.class, result);
+        assertEquals("The doctor's schedule is busy, please try again later.", exception.getMessage());
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, exception.getStatusCode());
+    }
+
+    private static StripedDoctorVisitLock createLock(Duration lockTimeout) {
+        return new StripedDoctorVisitLock(new VisitProperties(false, 64, lockTimeout, 2000), Clock.systemUTC());
+    }
+
+    private void runWrites(int doctors, Runnable write) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(THREADS)) {
+            for (int i = 0; i < WRITES; i++) {
+                long doctorId = i % doctors;
+                results.add(executor.submit(() -> {
+                    start.await();
+                    runInTransaction(() -> {
+                        stripedDoctorVisitLock.lock(doctorId);
+                        write.run();
+                    });
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> result : results) {
+                result.get(60, TimeUnit.SECONDS);
+            }
+        }
+    }
+
+    private static void runInTransaction(Runnable action) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            action.run();
+        } finally {
+            completeTransaction();
+        }
+    }
+
+    private static void completeTransaction() {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.demo.metrics;
+
+import com.example.demo.command.patient.UpsertPatientCommand;
+import com.example.demo.command.visit.InsertVisitCommand;
+import com.example.demo.model.doctor.Doctor;
+import com.example.demo.model.patient.PatientDTO;
+import com.example.demo.model.visit.VisitDTO;
+import com.example.demo.repository.DoctorRepository;
+import com.example.demo.repository.PatientRepository;
+import com.example.demo.repository.VisitRepository;
+import com.example.demo.service.DoctorService;
+import com.example.demo.service.PatientService;
+import com.example.demo.service.VisitService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "management.endpoints.web.exposure.include=prometheus"
+})
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+public class PrometheusEndpointTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private PatientService patientService;
+    @Autowired
+    private DoctorService doctorService;
+    @Autowired
+    private VisitService visitService;
+    @Autowired
+    private PatientRepository patientRepository;
+    @Autowired
+    private DoctorRepository doctorRepository;
+    @Autowired
+    private VisitRepository visitRepository;
+
+    @AfterEach
+    void tearDown() {
+        visitRepository.deleteAll();
+        patientRepository.deleteAll();
+        doctorRepository.deleteAll();
+    }
+
+    @Test
+    void prometheus_ServicesWereCalled_ExposesServiceRepositoryPoolAndHibernateMetrics() throws Exception {
+        //given
+        Doctor doctor = doctorRepository.save(Doctor.builder().email("metrics@doctor.com").build());
+        PatientDTO patient = patientService.createPatient(UpsertPatientCommand.builder()
+                .email("metrics@patient.com")
+                .password("password")
+                .idCardNo("idCardNo")
+                .firstName("firstName")
+                .lastName("lastName")
+                .phoneNumber("phoneNumber")
+                .birthday(LocalDate.of(2000, 1, 1))
+                .build());
+        OffsetDateTime startTime = OffsetDateTime.now(ZoneOffset.UTC).plusDays(1).truncatedTo(ChronoUnit.HOURS);
+        VisitDTO visit = visitService.createVisit(InsertVisitCommand.builder()
+                .doctorId(doctor.getId())
+                .startTime(startTime)
+                .endTime(startTime.plusMinutes(45))
+                .build());
+        visitService.registerPatientToVisit(visit.id(), patient.id());
+        doctorService.getDoctors(PageRequest.of(0, 10));
+        //when
+        String result = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        //then
+        assertTrue(result.contains("service_invocations_seconds_count{class=\"com.example.demo.service.PatientService\",exception=\"none\",method=\"createPatient\""));
+        assertTrue(result.contains("service_invocations_seconds_count{class=\"com.example.demo.service.DoctorService\",exception=\"none\",method=\"getDoctors\""));
+        assertTrue(result.contains("visit_creation_seconds_bucket{"));
+        assertTrue(result.contains("visit_registration_seconds_bucket{"));
+        assertTrue(result.contains("spring_data_repository_invocations_seconds_count{exception=\"None\",method=\"findSimpleDoctors\",repository=\"DoctorRepository\""));
+        assertTrue(result.contains("hikaricp_connections_active"));
+        assertTrue(result.contains("hibernate_statements_total"));
+    }
+}
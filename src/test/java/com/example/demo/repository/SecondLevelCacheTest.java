@@ -0,0 +1,123 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.doctor.Doctor;
+import com.example.demo.model.facility.Facility;
+import com.example.demo.model.visit.Visit;
+import com.example.demo.service.DoctorService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+public class SecondLevelCacheTest {
+    @Autowired
+    private DoctorRepository doctorRepository;
+    @Autowired
+    private FacilityRepository facilityRepository;
+    @Autowired
+    private VisitRepository visitRepository;
+    @Autowired
+    private DoctorService doctorService;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private CacheManager cacheManager;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    void tearDown() {
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+        visitRepository.deleteAll();
+        doctorRepository.deleteAll();
+        facilityRepository.deleteAll();
+        cacheManager.getCacheNames().forEach(cacheName -> cacheManager.getCache(cacheName).clear());
+    }
+
+    @Test
+    void findById_DoctorWasLoadedInEarlierTransaction_ServesDoctorAndFacilitiesFromCache() {
+        //given
+        Facility facility = facilityRepository.save(Facility.builder().name("facility").build());
+        Doctor doctor = doctorRepository.save(Doctor.builder().email("cached@doctor.com").facilities(Set.of(facility)).build());
+        transactionTemplate.executeWithoutResult(status -> doctorRepository.findById(doctor.getId()).orElseThrow().getFacilities().size());
+        statistics.clear();
+        //when
+        Integer facilities = transactionTemplate.execute(status -> doctorRepository.findById(doctor.getId()).orElseThrow().getFacilities().size());
+        //then
+        assertEquals(1, facilities);
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(3, statistics.getSecondLevelCacheHitCount());
+    }
+
+    @Test
+    void findById_FacilityWasLoadedInEarlierTransaction_ServesFacilityAndDoctorsFromCache() {
+        //given
+        Facility facility = facilityRepository.save(Facility.builder().name("facility").build());
+        doctorRepository.save(Doctor.builder().email("cached@doctor.com").facilities(Set.of(facility)).build());
+        transactionTemplate.executeWithoutResult(status -> facilityRepository.findById(facility.getId()).orElseThrow().getDoctors().size());
+        statistics.clear();
+        //when
+        Integer doctors = transactionTemplate.execute(status -> facilityRepository.findById(facility.getId()).orElseThrow().getDoctors().size());
+        //then
+        assertEquals(1, doctors);
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void deleteDoctor_DoctorWasCached_EvictsDoctorAndDetachesVisits() {
+        //given
+        Facility facility = facilityRepository.save(Facility.builder().name("facility").build());
+        Doctor doctor = doctorRepository.save(Doctor.builder().email("cached@doctor.com").facilities(Set.of(facility)).build());
+        OffsetDateTime startTime = OffsetDateTime.now(ZoneOffset.UTC).plusDays(1).truncatedTo(ChronoUnit.HOURS);
+        Visit visit = visitRepository.save(Visit.builder().startTime(startTime).endTime(startTime.plusHours(1)).doctor(doctor).build());
+        transactionTemplate.executeWithoutResult(status -> facilityRepository.findById(facility.getId()).orElseThrow().getDoctors().size());
+        assertTrue(entityManagerFactory.getCache().contains(Doctor.class, doctor.getId()));
+        //when
+        doctorService.deleteDoctor("cached@doctor.com");
+        //then
+        statistics.clear();
+        assertTrue(doctorRepository.findById(doctor.getId()).isEmpty());
+        assertEquals(0, statistics.getSecondLevelCacheHitCount());
+        assertNull(transactionTemplate.execute(status -> visitRepository.findById(visit.getId()).orElseThrow().getDoctor()));
+        Integer doctors = transactionTemplate.execute(status -> facilityRepository.findById(facility.getId()).orElseThrow().getDoctors().size());
+        assertEquals(0, doctors);
+    }
+
+    @Test
+    void updateFacilities_DoctorFacilitiesWereCached_EvictsCachedCollection() {
+        //given
+        Facility facility = facilityRepository.save(Facility.builder().name("facility").build());
+        Doctor doctor = doctorRepository.save(Doctor.builder().email("cached@doctor.com").build());
+        transactionTemplate.executeWithoutResult(status -> doctorRepository.findById(doctor.getId()).orElseThrow().getFacilities().size());
+        //when
+        doctorService.updateFacilities("cached@doctor.com", List.of(facility.getId()));
+        //then
+        Integer facilities = transactionTemplate.execute(status -> doctorRepository.findById(doctor.getId()).orElseThrow().getFacilities().size());
+        assertEquals(1, facilities);
+    }
+}
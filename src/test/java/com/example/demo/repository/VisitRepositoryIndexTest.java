@@ -0,0 +1,176 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.doctor.Doctor;
+import com.example.demo.model.patient.Patient;
+import com.example.demo.model.visit.Visit;
+import com.example.demo.model.visit.VisitCursor;
+import com.example.demo.model.visit.VisitRow;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.liquibase.enabled=true",
+        "spring.liquibase.change-log=classpath:/config/liquibase/liquibase_changelog.yaml",
+        "spring.jpa.hibernate.ddl-auto=none",
+        "spring.jpa.defer-datasource-initialization=false",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.example.demo.repository.VisitRepositoryIndexTest$RecordingStatementInspector"
+})
+public class VisitRepositoryIndexTest {
+    @Autowired
+    private VisitRepository visitRepository;
+    @Autowired
+    private DoctorRepository doctorRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        RecordingStatementInspector.STATEMENTS.clear();
+    }
+
+    @Test
+    public void migration_IndexesAreMigrated_IndexesHaveExpectedColumnOrder() {
+        //given
+        //when
+        List<String> doctorIndexColumns = getIndexColumns("IDX_VISITS_DOCTOR_ID_START_TIME_END_TIME");
+        List<String> patientIndexColumns = getIndexColumns("IDX_VISITS_PATIENT_ID_START_TIME");
+        //then
+        assertEquals(List.of("DOCTOR_ID", "START_TIME", "END_TIME"), doctorIndexColumns);
+        assertEquals(List.of("PATIENT_ID", "START_TIME"), patientIndexColumns);
+    }
+
+    @Test
+    public void existsOverlapping_IndexesAreMigrated_UsesDoctorStartTimeIndex() {
+        //given
+        OffsetDateTime startTime = getOffsetDateTime("2012-12-13T12:00:00Z");
+        OffsetDateTime endTime = getOffsetDateTime("2012-12-13T13:00:00Z");
+        //when
+        visitRepository.existsOverlapping(startTime, endTime, Doctor.builder().id(1L).build());
+        //then
+        assertTrue(explainLastSelect(endTime, startTime, 1L).contains("IDX_VISITS_DOCTOR_ID_START_TIME_END_TIME"));
+    }
+
+    @Test
+    public void findOverlappingDoctorVisitIntervals_IndexesAreMigrated_UsesDoctorStartTimeIndex() {
+        //given
+        OffsetDateTime startTime = getOffsetDateTime("2012-12-13T12:00:00Z");
+        OffsetDateTime endTime = getOffsetDateTime("2012-12-13T13:00:00Z");
+        //when
+        visitRepository.findOverlappingDoctorVisitIntervals(1L, startTime, endTime);
+        //then
+        assertTrue(explainLastSelect(1L, endTime, startTime).contains("IDX_VISITS_DOCTOR_ID_START_TIME_END_TIME"));
+    }
+
+    @Test
+    public void findVisitRowsByDoctorId_IndexesAreMigrated_DoesNotScanVisits() {
+        //given
+        //when
+        visitRepository.findVisitRowsByDoctorId(1L, PageRequest.of(0, 10));
+        //then
+        String plan = explainLastSelect(1L, 10);
+        assertFalse(plan.contains("VISITS.tableScan"));
+        assertFalse(plan.contains("DOCTORS.tableScan"));
+        assertFalse(plan.contains("PATIENTS.tableScan"));
+    }
+
+    @Test
+    public void findVisitRowsByPatientId_IndexesAreMigrated_DoesNotScanVisits() {
+        //given
+        //when
+        visitRepository.findVisitRowsByPatientId(1L, PageRequest.of(0, 10));
+        //then
+        String plan = explainLastSelect(1L, 10);
+        assertFalse(plan.contains("VISITS.tableScan"));
+        assertFalse(plan.contains("DOCTORS.tableScan"));
+        assertFalse(plan.contains("PATIENTS.tableScan"));
+    }
+
+    @Test
+    public void findVisitRowWindowByDoctor_CursorIsPresent_DoesNotScanVisits() {
+        //given
+        VisitCursor cursor = new VisitCursor(getOffsetDateTime("2012-12-13T12:00:00Z"), 1L);
+        //when
+        visitRepository.findVisitRowWindowByDoctor(Doctor.builder().id(1L).build(), cursor.toScrollPosition(), Limit.of(10), Sort.by("startTime", "id"));
+        //then
+        String plan = explainLastSelect(1L, cursor.startTime(), cursor.startTime(), 1L, 11);
+        assertFalse(plan.contains("VISITS.tableScan"));
+        assertFalse(plan.contains("DOCTORS.tableScan"));
+        assertFalse(plan.contains("PATIENTS.tableScan"));
+    }
+
+    @Test
+    public void findVisitRowWindowByPatient_CursorIsPresent_DoesNotScanVisits() {
+        //given
+        VisitCursor cursor = new VisitCursor(getOffsetDateTime("2012-12-13T12:00:00Z"), 1L);
+        //when
+        visitRepository.findVisitRowWindowByPatient(Patient.builder().id(1L).build(), cursor.toScrollPosition(), Limit.of(10), Sort.by("startTime", "id"));
+        //then
+        String plan = explainLastSelect(1L, cursor.startTime(), cursor.startTime(), 1L, 11);
+        assertFalse(plan.contains("VISITS.tableScan"));
+        assertFalse(plan.contains("DOCTORS.tableScan"));
+        assertFalse(plan.contains("PATIENTS.tableScan"));
+    }
+
+    @Test
+    public void findVisitRowWindowByDoctor_CursorIsPresent_ReturnsRowsAfterCursor() {
+        //given
+        Doctor doctor = doctorRepository.save(Doctor.builder().email("window@doctor.com").firstName("firstName").build());
+        List<Visit> visits = visitRepository.saveAll(List.of(
+                Visit.builder().startTime(getOffsetDateTime("2012-12-13T12:00:00Z")).endTime(getOffsetDateTime("2012-12-13T13:00:00Z")).doctor(doctor).build(),
+                Visit.builder().startTime(getOffsetDateTime("2012-12-13T13:00:00Z")).endTime(getOffsetDateTime("2012-12-13T14:00:00Z")).doctor(doctor).build(),
+                Visit.builder().startTime(getOffsetDateTime("2012-12-13T14:00:00Z")).endTime(getOffsetDateTime("2012-12-13T15:00:00Z")).doctor(doctor).build()));
+        VisitCursor cursor = new VisitCursor(visits.getFirst().getStartTime(), visits.getFirst().getId());
+        //when
+        Window<VisitRow> result = visitRepository.findVisitRowWindowByDoctor(doctor, cursor.toScrollPosition(), Limit.of(1), Sort.by("startTime", "id"));
+        //then
+        assertEquals(1, result.size());
+        assertTrue(result.hasNext());
+        assertEquals(visits.get(1).getId(), result.getContent().getFirst().id());
+        assertEquals("firstName", result.getContent().getFirst().doctorFirstName());
+        assertNull(result.getContent().getFirst().patientId());
+    }
+
+    private String explainLastSelect(Object... parameters) {
+        String select = RecordingStatementInspector.STATEMENTS.stream()
+                .filter(statement -> statement.startsWith("select"))
+                .reduce((first, second) -> second)
+                .orElseThrow();
+        return String.join("\n", jdbcTemplate.queryForList("explain " + select, String.class, parameters));
+    }
+
+    private List<String> getIndexColumns(String indexName) {
+        return jdbcTemplate.queryForList(
+                "select column_name from information_schema.index_columns where index_name = ? order by ordinal_position",
+                String.class, indexName);
+    }
+
+    private OffsetDateTime getOffsetDateTime(String instant) {
+        return OffsetDateTime.ofInstant(Instant.parse(instant), ZoneOffset.UTC);
+    }
+
+    public static class RecordingStatementInspector implements StatementInspector {
+        private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
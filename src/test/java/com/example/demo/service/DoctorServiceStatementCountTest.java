@@ -0,0 +1,95 @@
+package com.example.demo.service;
+
+import com.example.demo.model.PageableContentDto;
+import com.example.demo.model.SliceContentDto;
+import com.example.demo.model.SliceTotal;
+import com.example.demo.model.doctor.Doctor;
+import com.example.demo.model.doctor.DoctorDTO;
+import com.example.demo.model.facility.Facility;
+import com.example.demo.repository.DoctorRepository;
+import com.example.demo.repository.FacilityRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+public class DoctorServiceStatementCountTest {
+    @Autowired
+    private DoctorService doctorService;
+    @Autowired
+    private DoctorRepository doctorRepository;
+    @Autowired
+    private FacilityRepository facilityRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @AfterEach
+    void tearDown() {
+        doctorRepository.deleteAll();
+        facilityRepository.deleteAll();
+    }
+
+    @Test
+    void getDoctors_PageOfDoctorsWithFacilities_LoadsFacilitiesWithSingleQuery() {
+        //given
+        List<Facility> facilities = facilityRepository.saveAll(IntStream.range(0, 3)
+                .mapToObj(i -> Facility.builder().name("facility%d".formatted(i)).build())
+                .toList());
+        doctorRepository.saveAll(IntStream.range(0, 30)
+                .mapToObj(i -> Doctor.builder()
+                        .email("doctor%02d@statements.com".formatted(i))
+                        .facilities(Set.of(facilities.get(i % 3), facilities.get((i + 1) % 3)))
+                        .build())
+                .toList());
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        //when
+        PageableContentDto<DoctorDTO> result = doctorService.getDoctors(PageRequest.of(1, 10, Sort.by("email")));
+        //then
+        assertEquals(3, statistics.getPrepareStatementCount());
+        assertEquals(30, result.totalEntries());
+        assertEquals(3, result.totalNumberOfPages());
+        assertEquals(10, result.content().size());
+        assertEquals(IntStream.range(10, 20).mapToObj("doctor%02d@statements.com"::formatted).toList(),
+                result.content().stream().map(DoctorDTO::email).toList());
+        result.content().forEach(doctor -> assertEquals(2, doctor.facilities().size()));
+    }
+
+    @Test
+    void getDoctors_SliceWithEstimatedTotal_SkipsCountQueryOnceCountIsCached() {
+        //given
+        List<Facility> facilities = facilityRepository.saveAll(IntStream.range(0, 3)
+                .mapToObj(i -> Facility.builder().name("facility%d".formatted(i)).build())
+                .toList());
+        doctorRepository.saveAll(IntStream.range(0, 30)
+                .mapToObj(i -> Doctor.builder()
+                        .email("doctor%02d@statements.com".formatted(i))
+                        .facilities(Set.of(facilities.get(i % 3)))
+                        .build())
+                .toList());
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        doctorService.getDoctors(SliceTotal.ESTIMATED, PageRequest.of(0, 10, Sort.by("email")));
+        statistics.clear();
+        //when
+        SliceContentDto<DoctorDTO> result = doctorService.getDoctors(SliceTotal.ESTIMATED, PageRequest.of(2, 10, Sort.by("email")));
+        //then
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertFalse(result.hasNext());
+        assertEquals(30, result.estimatedTotalEntries());
+        assertEquals(3, result.estimatedTotalNumberOfPages());
+        assertEquals(IntStream.range(20, 30).mapToObj("doctor%02d@statements.com"::formatted).toList(),
+                result.content().stream().map(DoctorDTO::email).toList());
+    }
+}
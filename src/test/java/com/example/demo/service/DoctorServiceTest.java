@@ -2,20 +2,31 @@ package com.example.demo.service;
 
 import com.example.demo.argument_matcher.DoctorArgumentMatcher;
 import com.example.demo.argument_matcher.FacilityArgumentMatcher;
+import com.example.demo.cache.SecondLevelCacheEvictor;
 import com.example.demo.command.doctor.UpdateDoctorFacilitiesCommand;
 import com.example.demo.command.doctor.UpsertDoctorCommand;
+import com.example.demo.config.EmailIndexProperties;
+import com.example.demo.config.PaginationProperties;
+import com.example.demo.count.EntryCountEstimator;
 import com.example.demo.exception.doctor.DoctorAlreadyExistsException;
 import com.example.demo.exception.doctor.DoctorIllegalDataException;
 import com.example.demo.exception.doctor.DoctorNotFoundException;
 import com.example.demo.exception.facility.FacilityNotFoundException;
+import com.example.demo.index.DoctorEmailIndex;
+import com.example.demo.index.DoctorVisitIndex;
 import com.example.demo.mapper.DoctorMapper;
 import com.example.demo.model.PageableContentDto;
+import com.example.demo.model.SliceContentDto;
+import com.example.demo.model.SliceTotal;
 import com.example.demo.model.doctor.Doctor;
 import com.example.demo.model.doctor.DoctorDTO;
+import com.example.demo.model.doctor.DoctorFacilityRow;
+import com.example.demo.model.doctor.SimpleDoctorDTO;
 import com.example.demo.model.facility.Facility;
 import com.example.demo.repository.DoctorRepository;
 import com.example.demo.repository.FacilityRepository;
 import com.example.demo.repository.VisitRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
@@ -28,7 +39,9 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
 
 import java.time.Clock;
 import java.time.Instant;
@@ -55,7 +68,9 @@ public class DoctorServiceTest {
         VisitRepository visitRepository = mock(VisitRepository.class);
         DoctorMapper doctorMapper = Mappers.getMapper(DoctorMapper.class);
         Clock clock = Clock.fixed(Instant.parse("2012-12-12T12:00:00Z"), ZoneOffset.UTC);
-        doctorService = new DoctorService(doctorRepository, facilityRepository, doctorMapper, visitRepository, clock);
+        DoctorVisitIndex doctorVisitIndex = mock(DoctorVisitIndex.class);
+        doctorService = new DoctorService(doctorRepository, facilityRepository, doctorMapper, visitRepository, doctorVisitIndex, mock(SecondLevelCacheEvictor.class),
+                new DoctorEmailIndex(doctorRepository, new EmailIndexProperties(true, 100, 0.01), new SimpleMeterRegistry()), new EntryCountEstimator(mock(JdbcTemplate.class), new PaginationProperties(false)), clock);
     }
 
     @ParameterizedTest
@@ -89,7 +104,7 @@ public class DoctorServiceTest {
         UpsertDoctorCommand upsertDoctorCommand = buildUpsertDoctorCommand();
         Doctor doctor = buildDoctor();
         when(doctorRepository.existsByEmail(upsertDoctorCommand.email())).thenReturn(false);
-        when(doctorRepository.save(doctor)).thenReturn(doctor);
+        when(doctorRepository.saveAndFlush(doctor)).thenReturn(doctor);
         //when
         DoctorDTO result = doctorService.createDoctor(upsertDoctorCommand);
         //then
@@ -105,10 +120,11 @@ public class DoctorServiceTest {
     void getDoctors_ThereAreNoDoctors_ReturnsEmptyPageableContentDto() {
         //given
         Pageable pageable = PageRequest.of(0, 10);
-        when(doctorRepository.findAll(pageable)).thenReturn(Page.empty());
+        when(doctorRepository.findSimpleDoctors(pageable)).thenReturn(Page.empty());
         //when
         PageableContentDto<DoctorDTO> result = doctorService.getDoctors(pageable);
         //then
+        verify(doctorRepository, never()).findDoctorFacilityRows(any());
         assertEquals(0, result.pageNumber());
         assertEquals(0, result.totalEntries());
         assertEquals(1, result.totalNumberOfPages());
@@ -119,12 +135,12 @@ public class DoctorServiceTest {
     void getDoctors_ThereAreDoctors_ReturnsCorrectPageableContentDto() {
         //given
         Pageable pageable = PageRequest.of(0, 10);
-        Doctor doctor1 = buildDoctor();
-        Doctor doctor2 = buildDoctor();
-        doctor2.setId(2L);
-        List<Doctor> doctors = List.of(doctor1, doctor2);
-        Page<Doctor> doctorPage = new PageImpl<>(doctors, pageable, 2L);
-        when(doctorRepository.findAll(pageable)).thenReturn(doctorPage);
+        SimpleDoctorDTO doctor1 = new SimpleDoctorDTO(1L, "email", "firstName", "lastName", "specialization");
+        SimpleDoctorDTO doctor2 = new SimpleDoctorDTO(2L, "email", "firstName", "lastName", "specialization");
+        Page<SimpleDoctorDTO> doctorsPage = new PageImpl<>(List.of(doctor1, doctor2), pageable, 2L);
+        DoctorFacilityRow facilityRow = new DoctorFacilityRow(2L, 1L, "name", "city", "zipCode", "street", "buildingNumber");
+        when(doctorRepository.findSimpleDoctors(pageable)).thenReturn(doctorsPage);
+        when(doctorRepository.findDoctorFacilityRows(List.of(1L, 2L))).thenReturn(List.of(facilityRow));
         //when
         PageableContentDto<DoctorDTO> result = doctorService.getDoctors(pageable);
         //then
@@ -143,14 +159,55 @@ public class DoctorServiceTest {
         assertEquals("firstName", result.content().get(1).firstName());
         assertEquals("lastName", result.content().get(1).lastName());
         assertEquals("specialization", result.content().get(1).specialization());
-        assertEquals(0, result.content().get(1).facilities().size());
+        assertEquals(1, result.content().get(1).facilities().size());
+        assertEquals(1L, result.content().get(1).facilities().getFirst().id());
+        assertEquals("name", result.content().get(1).facilities().getFirst().name());
+        assertEquals("city", result.content().get(1).facilities().getFirst().city());
+    }
+
+    @Test
+    void getDoctors_TotalIsNone_ReturnsSliceWithoutCountingDoctors() {
+        //given
+        Pageable pageable = PageRequest.of(0, 1);
+        SimpleDoctorDTO doctor = new SimpleDoctorDTO(1L, "email", "firstName", "lastName", "specialization");
+        when(doctorRepository.findSimpleDoctorSlice(pageable)).thenReturn(new SliceImpl<>(List.of(doctor), pageable, true));
+        when(doctorRepository.findDoctorFacilityRows(List.of(1L))).thenReturn(List.of());
+        //when
+        SliceContentDto<DoctorDTO> result = doctorService.getDoctors(SliceTotal.NONE, pageable);
+        //then
+        verify(doctorRepository, never()).countDoctors();
+        assertEquals(0, result.pageNumber());
+        assertTrue(result.hasNext());
+        assertNull(result.estimatedTotalEntries());
+        assertNull(result.estimatedTotalNumberOfPages());
+        assertEquals(1, result.content().size());
+        assertEquals(1L, result.content().getFirst().id());
+        assertEquals(0, result.content().getFirst().facilities().size());
+    }
+
+    @Test
+    void getDoctors_TotalIsEstimated_ReturnsSliceWithEstimatedTotal() {
+        //given
+        Pageable pageable = PageRequest.of(1, 1);
+        SimpleDoctorDTO doctor = new SimpleDoctorDTO(2L, "email", "firstName", "lastName", "specialization");
+        when(doctorRepository.findSimpleDoctorSlice(pageable)).thenReturn(new SliceImpl<>(List.of(doctor), pageable, false));
+        when(doctorRepository.findDoctorFacilityRows(List.of(2L))).thenReturn(List.of());
+        when(doctorRepository.countDoctors()).thenReturn(2L);
+        //when
+        SliceContentDto<DoctorDTO> result = doctorService.getDoctors(SliceTotal.ESTIMATED, pageable);
+        //then
+        assertEquals(1, result.pageNumber());
+        assertFalse(result.hasNext());
+        assertEquals(2L, result.estimatedTotalEntries());
+        assertEquals(2, result.estimatedTotalNumberOfPages());
+        assertEquals(2L, result.content().getFirst().id());
     }
 
     @Test
     void getDoctorByEmail_DoctorWithEmailDoesNotExist_ThrowsDoctorNotFoundException() {
         //given
         String email = "email";
-        when(doctorRepository.findByEmail(email)).thenReturn(Optional.empty());
+        when(doctorRepository.findIdByEmail(email)).thenReturn(Optional.empty());
         //when
         DoctorNotFoundException exception = assertThrows(DoctorNotFoundException.class, () -> doctorService.getDoctorByEmail(email));
         //then
@@ -164,7 +221,8 @@ public class DoctorServiceTest {
         //given
         String email = "email";
         Doctor doctor = buildDoctor();
-        when(doctorRepository.findByEmail(email)).thenReturn(Optional.of(doctor));
+        when(doctorRepository.findIdByEmail(email)).thenReturn(Optional.of(1L));
+        when(doctorRepository.findById(1L)).thenReturn(Optional.of(doctor));
         //when
         DoctorDTO result = doctorService.getDoctorByEmail(email);
         //then
@@ -181,7 +239,7 @@ public class DoctorServiceTest {
         //given
         String email = "email";
         UpsertDoctorCommand upsertDoctorCommand = buildUpsertDoctorCommand();
-        when(doctorRepository.findByEmail(email)).thenReturn(Optional.empty());
+        when(doctorRepository.findIdByEmail(email)).thenReturn(Optional.empty());
         //when
         DoctorNotFoundException exception = assertThrows(DoctorNotFoundException.class, () -> doctorService.editDoctor(email, upsertDoctorCommand));
         //then
@@ -196,7 +254,8 @@ public class DoctorServiceTest {
         //given
         String email = "email";
         Doctor doctor = buildDoctor();
-        when(doctorRepository.findByEmail(email)).thenReturn(Optional.of(doctor));
+        when(doctorRepository.findIdByEmail(email)).thenReturn(Optional.of(1L));
+        when(doctorRepository.findById(1L)).thenReturn(Optional.of(doctor));
         //when
         DoctorIllegalDataException exception = assertThrows(DoctorIllegalDataException.class, () -> doctorService.editDoctor(email, upsertDoctorCommand));
         //then
@@ -212,7 +271,8 @@ public class DoctorServiceTest {
         Doctor doctor = buildDoctor();
         doctor.setEmail(email);
         UpsertDoctorCommand upsertDoctorCommand = buildUpsertDoctorCommand();
-        when(doctorRepository.findByEmail(email)).thenReturn(Optional.of(doctor));
+        when(doctorRepository.findIdByEmail(email)).thenReturn(Optional.of(1L));
+        when(doctorRepository.findById(1L)).thenReturn(Optional.of(doctor));
         when(doctorRepository.existsByEmail(upsertDoctorCommand.email())).thenReturn(true);
         //when
         DoctorAlreadyExistsException exception = assertThrows(DoctorAlreadyExistsException.class, () -> doctorService.editDoctor(email, upsertDoctorCommand));
@@ -236,7 +296,8 @@ public class DoctorServiceTest {
                 .specialization("initial specialization")
                 .facilities(new HashSet<>())
                 .build();
-        when(doctorRepository.findByEmail(email)).thenReturn(Optional.of(doctor));
+        when(doctorRepository.findIdByEmail(email)).thenReturn(Optional.of(1L));
+        when(doctorRepository.findById(1L)).thenReturn(Optional.of(doctor));
         when(doctorRepository.existsByEmail(upsertDoctorCommand.email())).thenReturn(false);
         //when
         DoctorDTO result = doctorService.editDoctor(email, upsertDoctorCommand);
@@ -254,7 +315,7 @@ public class DoctorServiceTest {
         //given
         String email = "email";
         List<Long> facilitiesIds = List.of();
-        when(doctorRepository.findByEmail(email)).thenReturn(Optional.empty());
+        when(doctorRepository.findIdByEmail(email)).thenReturn(Optional.empty());
         //when
         DoctorNotFoundException exception = assertThrows(DoctorNotFoundException.class, () -> doctorService.updateFacilities(email, facilitiesIds));
         //then
@@ -269,7 +330,8 @@ public class DoctorServiceTest {
         String email = "email";
         List<Long> facilitiesIds = List.of(1L, 2L);
         Doctor doctor = buildDoctor();
-        when(doctorRepository.findByEmail(email)).thenReturn(Optional.of(doctor));
+        when(doctorRepository.findIdByEmail(email)).thenReturn(Optional.of(1L));
+        when(doctorRepository.findById(1L)).thenReturn(Optional.of(doctor));
         when(facilityRepository.findFacilitiesByIds(facilitiesIds)).thenReturn(List.of());
         //when
         FacilityNotFoundException exception = assertThrows(FacilityNotFoundException.class, () -> doctorService.updateFacilities(email, facilitiesIds));
@@ -305,7 +367,8 @@ public class DoctorServiceTest {
                 .build();
         List<Facility> facilities = List.of(facility1, facility2);
         ArgumentCaptor<Doctor> doctorCaptor = ArgumentCaptor.captor();
-        when(doctorRepository.findByEmail(email)).thenReturn(Optional.of(doctor));
+        when(doctorRepository.findIdByEmail(email)).thenReturn(Optional.of(1L));
+        when(doctorRepository.findById(1L)).thenReturn(Optional.of(doctor));
         when(facilityRepository.findFacilitiesByIds(facilitiesIds)).thenReturn(facilities);
         //when
         doctorService.updateFacilities(email, facilitiesIds);
@@ -323,7 +386,7 @@ public class DoctorServiceTest {
     void deleteDoctor_DoctorWithEmailDoesNotExist_ThrowsDoctorNotFoundException() {
         //given
         String email = "email";
-        when(doctorRepository.findByEmail(email)).thenReturn(Optional.empty());
+        when(doctorRepository.findIdByEmail(email)).thenReturn(Optional.empty());
         //when
         DoctorNotFoundException exception = assertThrows(DoctorNotFoundException.class, () -> doctorService.deleteDoctor(email));
         //then
@@ -338,7 +401,8 @@ public class DoctorServiceTest {
         String email = "email";
         Doctor doctor = buildDoctor();
         Doctor expected = buildDoctor();
-        when(doctorRepository.findByEmail(email)).thenReturn(Optional.of(doctor));
+        when(doctorRepository.findIdByEmail(email)).thenReturn(Optional.of(1L));
+        when(doctorRepository.findById(1L)).thenReturn(Optional.of(doctor));
         //when
         doctorService.deleteDoctor(email);
         //then
@@ -0,0 +1,134 @@
+package com.example.demo.service;
+
+import com.example.demo.command.patient.UpsertPatientCommand;
+import com.example.demo.model.doctor.Doctor;
+import com.example.demo.model.facility.Facility;
+import com.example.demo.model.patient.Patient;
+import com.example.demo.model.patient.PatientDTO;
+import com.example.demo.repository.DoctorRepository;
+import com.example.demo.repository.FacilityRepository;
+import com.example.demo.repository.PatientRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.cache.cache-names=patients,patientIds,doctors,doctorIds",
+        "spring.cache.caffeine.spec=maximumSize=100,expireAfterWrite=10m,recordStats"
+})
+public class EmailLookupCacheTest {
+    @Autowired
+    private PatientService patientService;
+    @Autowired
+    private DoctorService doctorService;
+    @Autowired
+    private PatientRepository patientRepository;
+    @Autowired
+    private DoctorRepository doctorRepository;
+    @Autowired
+    private FacilityRepository facilityRepository;
+    @Autowired
+    private CacheManager cacheManager;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    void tearDown() {
+        patientRepository.deleteAll();
+        doctorRepository.deleteAll();
+        facilityRepository.deleteAll();
+        cacheManager.getCacheNames().forEach(cacheName -> cacheManager.getCache(cacheName).clear());
+    }
+
+    @Test
+    void getPatient_PatientWasRequestedBefore_DoesNotQueryDatabase() {
+        //given
+        patientRepository.save(buildPatient("cached@patient.com"));
+        patientService.getPatient("cached@patient.com");
+        statistics.clear();
+        //when
+        PatientDTO result = patientService.getPatient("cached@patient.com");
+        //then
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals("cached@patient.com", result.email());
+        assertTrue(meterRegistry.get("cache.gets").tag("cache", "patients").tag("result", "hit").functionCounter().count() >= 1);
+        assertTrue(meterRegistry.get("cache.gets").tag("cache", "patients").tag("result", "miss").functionCounter().count() >= 1);
+    }
+
+    @Test
+    void editPatient_PatientWasCached_NextLookupReturnsEditedPatient() {
+        //given
+        patientRepository.save(buildPatient("cached@patient.com"));
+        patientService.getPatient("cached@patient.com");
+        //when
+        patientService.editPatient("cached@patient.com", UpsertPatientCommand.builder()
+                .email("cached@patient.com")
+                .password("password")
+                .idCardNo("idCardNo")
+                .firstName("editedFirstName")
+                .lastName("lastName")
+                .phoneNumber("phoneNumber")
+                .birthday(LocalDate.of(2000, 1, 1))
+                .build());
+        //then
+        assertEquals("editedFirstName", patientService.getPatient("cached@patient.com").firstName());
+    }
+
+    @Test
+    void deletePatient_PatientWasCached_NextLookupThrowsPatientNotFoundException() {
+        //given
+        patientRepository.save(buildPatient("cached@patient.com"));
+        patientService.getPatient("cached@patient.com");
+        //when
+        patientService.deletePatient("cached@patient.com");
+        //then
+        assertThrows(RuntimeException.class, () -> patientService.getPatient("cached@patient.com"));
+        assertNull(cacheManager.getCache("patientIds").get("cached@patient.com"));
+    }
+
+    @Test
+    void updateFacilities_DoctorWasCached_NextLookupReturnsNewFacilities() {
+        //given
+        doctorRepository.save(Doctor.builder().email("cached@doctor.com").build());
+        Facility facility = facilityRepository.save(Facility.builder().name("facility").build());
+        assertTrue(doctorService.getDoctorByEmail("cached@doctor.com").facilities().isEmpty());
+        //when
+        doctorService.updateFacilities("cached@doctor.com", List.of(facility.getId()));
+        //then
+        assertEquals(1, doctorService.getDoctorByEmail("cached@doctor.com").facilities().size());
+    }
+
+    private Patient buildPatient(String email) {
+        return Patient.builder()
+                .email(email)
+                .password("password")
+                .idCardNo("idCardNo")
+                .firstName("firstName")
+                .lastName("lastName")
+                .phoneNumber("phoneNumber")
+                .birthday(LocalDate.of(2000, 1, 1))
+                .build();
+    }
+}
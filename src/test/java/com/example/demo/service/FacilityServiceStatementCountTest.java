@@ -0,0 +1,122 @@
+package com.example.demo.service;
+
+import com.example.demo.command.doctor.UpsertDoctorCommand;
+import com.example.demo.command.facility.InsertFacilityCommand;
+import com.example.demo.model.PageableContentDto;
+import com.example.demo.model.doctor.Doctor;
+import com.example.demo.model.facility.Facility;
+import com.example.demo.model.facility.FacilityDTO;
+import com.example.demo.model.facility.FacilitySummaryDTO;
+import com.example.demo.repository.DoctorRepository;
+import com.example.demo.repository.FacilityRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+public class FacilityServiceStatementCountTest {
+    @Autowired
+    private FacilityService facilityService;
+    @Autowired
+    private DoctorRepository doctorRepository;
+    @Autowired
+    private FacilityRepository facilityRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        List<Facility> facilities = facilityRepository.saveAll(IntStream.range(0, 20)
+                .mapToObj(i -> Facility.builder().name("facility%02d".formatted(i)).build())
+                .toList());
+        doctorRepository.saveAll(IntStream.range(0, 40)
+                .mapToObj(i -> Doctor.builder()
+                        .email("doctor%02d@statements.com".formatted(i))
+                        .facilities(Set.of(facilities.get(i % 20), facilities.get((i + 1) % 20)))
+                        .build())
+                .toList());
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        doctorRepository.deleteAll();
+        facilityRepository.deleteAll();
+    }
+
+    @Test
+    void getFacilities_PageOfFacilitiesWithDoctors_LoadsDoctorsWithSingleQuery() {
+        //given
+        //when
+        PageableContentDto<FacilityDTO> result = facilityService.getFacilities(PageRequest.of(0, 10, Sort.by("name")));
+        //then
+        assertEquals(3, statistics.getPrepareStatementCount());
+        assertEquals(20, result.totalEntries());
+        assertEquals(10, result.content().size());
+        assertEquals("facility00", result.content().getFirst().name());
+        result.content().forEach(facility -> assertEquals(4, facility.doctors().size()));
+    }
+
+    @Test
+    void getFacilitySummaries_PageOfFacilitiesWithDoctors_CountsDoctorsInPageQuery() {
+        //given
+        //when
+        PageableContentDto<FacilitySummaryDTO> result = facilityService.getFacilitySummaries(PageRequest.of(1, 10, Sort.by("name")));
+        //then
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(20, result.totalEntries());
+        assertEquals(10, result.content().size());
+        assertEquals("facility10", result.content().getFirst().name());
+        result.content().forEach(facility -> assertEquals(4, facility.doctorCount()));
+    }
+
+    @Test
+    void createFacilities_FacilitiesShareNewAndExistingDoctors_ResolvesNamesAndDoctorsWithSingleQueries() {
+        //given
+        List<InsertFacilityCommand> insertFacilityCommands = IntStream.range(0, 50)
+                .mapToObj(i -> InsertFacilityCommand.builder()
+                        .name("imported%02d".formatted(i))
+                        .city("city")
+                        .zipCode("zipCode")
+                        .street("street")
+                        .buildingNumber("buildingNumber")
+                        .doctors(List.of(buildUpsertDoctorCommand("doctor%02d@statements.com".formatted(i % 40)), buildUpsertDoctorCommand("new@statements.com")))
+                        .build())
+                .toList();
+        //when
+        List<FacilityDTO> result = facilityService.createFacilities(insertFacilityCommands);
+        //then
+        assertEquals(2, statistics.getQueryExecutionCount());
+        assertEquals(50, result.size());
+        assertEquals(70, facilityRepository.count());
+        assertEquals(41, doctorRepository.count());
+        assertEquals(50, doctorRepository.findAllWithFacilitiesByEmailIn(Set.of("new@statements.com")).getFirst().getFacilities().size());
+        assertEquals(4, doctorRepository.findAllWithFacilitiesByEmailIn(Set.of("doctor00@statements.com")).getFirst().getFacilities().size());
+    }
+
+    private UpsertDoctorCommand buildUpsertDoctorCommand(String email) {
+        return UpsertDoctorCommand.builder()
+                .email(email)
+                .password("password")
+                .firstName("firstName")
+                .lastName("lastName")
+                .specialization("specialization")
+                .build();
+    }
+}
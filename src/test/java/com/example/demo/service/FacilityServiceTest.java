@@ -4,16 +4,23 @@ import com.example.demo.argument_matcher.FacilityArgumentMatcher;
 import com.example.demo.command.doctor.UpsertDoctorCommand;
 import com.example.demo.command.facility.InsertFacilityCommand;
 import com.example.demo.command.facility.UpdateFacilityCommand;
+import com.example.demo.config.PaginationProperties;
+import com.example.demo.count.EntryCountEstimator;
 import com.example.demo.exception.doctor.DoctorIllegalDataException;
 import com.example.demo.exception.facility.FacilityAlreadyExistsException;
 import com.example.demo.exception.facility.FacilityIllegalDataException;
 import com.example.demo.exception.facility.FacilityNotFoundException;
+import com.example.demo.index.DoctorEmailIndex;
 import com.example.demo.mapper.DoctorMapper;
 import com.example.demo.mapper.FacilityMapper;
 import com.example.demo.model.PageableContentDto;
+import com.example.demo.model.SliceContentDto;
+import com.example.demo.model.SliceTotal;
 import com.example.demo.model.doctor.Doctor;
 import com.example.demo.model.facility.Facility;
 import com.example.demo.model.facility.FacilityDTO;
+import com.example.demo.model.facility.FacilityDoctorRow;
+import com.example.demo.model.facility.FacilitySummaryDTO;
 import com.example.demo.repository.DoctorRepository;
 import com.example.demo.repository.FacilityRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -23,11 +30,14 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.mapstruct.factory.Mappers;
+import org.mockito.ArgumentCaptor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
 
 import java.time.Clock;
 import java.time.Instant;
@@ -55,7 +65,7 @@ public class FacilityServiceTest {
         FacilityMapper facilityMapper = Mappers.getMapper(FacilityMapper.class);
         DoctorMapper doctorMapper = Mappers.getMapper(DoctorMapper.class);
         Clock clock = Clock.fixed(Instant.parse("2012-12-12T12:00:00Z"), ZoneOffset.UTC);
-        facilityService = new FacilityService(facilityRepository, doctorRepository, facilityMapper, doctorMapper, clock);
+        facilityService = new FacilityService(facilityRepository, doctorRepository, facilityMapper, doctorMapper, mock(DoctorEmailIndex.class), new EntryCountEstimator(mock(JdbcTemplate.class), new PaginationProperties(false)), clock);
     }
 
     @ParameterizedTest
@@ -123,6 +133,70 @@ public class FacilityServiceTest {
         assertEquals("specialization", result.doctors().getFirst().specialization());
     }
 
+    @Test
+    public void createFacilities_NamesAreDuplicatedInRequest_ThrowsFacilityIllegalDataException() {
+        List<InsertFacilityCommand> insertFacilityCommands = List.of(buildInsertFacilityCommand(), buildInsertFacilityCommand());
+
+        FacilityIllegalDataException exception = assertThrows(FacilityIllegalDataException.class, () -> facilityService.createFacilities(insertFacilityCommands));
+
+        assertEquals("Facility with name: name is duplicated in the request.", exception.getMessage());
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+        assertEquals(getDefaultErrorTimeString(), exception.getDate().toString());
+        verifyNoInteractions(facilityRepository, doctorRepository);
+    }
+
+    @Test
+    public void createFacilities_FacilityNameAlreadyExists_ThrowsFacilityAlreadyExistsException() {
+        List<InsertFacilityCommand> insertFacilityCommands = List.of(
+                buildInsertFacilityCommand("name1", "city", "zipCode", "street", "buildingNumber", List.of(buildUpsertDoctorCommand())),
+                buildInsertFacilityCommand("name2", "city", "zipCode", "street", "buildingNumber", List.of(buildUpsertDoctorCommand())));
+        when(facilityRepository.findExistingNames(Set.of("name1", "name2"))).thenReturn(List.of("name2"));
+
+        FacilityAlreadyExistsException exception = assertThrows(FacilityAlreadyExistsException.class, () -> facilityService.createFacilities(insertFacilityCommands));
+
+        assertEquals("Facility with name: name2 already exists.", exception.getMessage());
+        assertEquals(HttpStatus.CONFLICT, exception.getStatusCode());
+        assertEquals(getDefaultErrorTimeString(), exception.getDate().toString());
+        verify(facilityRepository, never()).saveAll(any());
+    }
+
+    @Test
+    public void createFacilities_DataIsCorrect_ResolvesDoctorsOnceAndSavesAllFacilities() {
+        UpsertDoctorCommand existingDoctorCommand = buildUpsertDoctorCommand("existing", "password", "firstName", "lastName", "specialization");
+        UpsertDoctorCommand sharedDoctorCommand = buildUpsertDoctorCommand("shared", "password", "firstName", "lastName", "specialization");
+        List<InsertFacilityCommand> insertFacilityCommands = List.of(
+                buildInsertFacilityCommand("name1", "city", "zipCode", "street", "buildingNumber", List.of(existingDoctorCommand, sharedDoctorCommand)),
+                buildInsertFacilityCommand("name2", "city", "zipCode", "street", "buildingNumber", List.of(sharedDoctorCommand)));
+        Doctor existingDoctor = buildDoctor();
+        existingDoctor.setId(1L);
+        existingDoctor.setEmail("existing");
+        existingDoctor.setFacilities(new HashSet<>());
+        when(facilityRepository.findExistingNames(Set.of("name1", "name2"))).thenReturn(List.of());
+        when(doctorRepository.findAllWithFacilitiesByEmailIn(Set.of("existing", "shared"))).thenReturn(List.of(existingDoctor));
+        when(facilityRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<FacilityDTO> result = facilityService.createFacilities(insertFacilityCommands);
+
+        ArgumentCaptor<List<Facility>> facilitiesCaptor = ArgumentCaptor.forClass(List.class);
+        verify(facilityRepository).saveAll(facilitiesCaptor.capture());
+        verify(facilityRepository, never()).existsByName(any());
+        verify(facilityRepository, never()).save(any());
+        List<Facility> savedFacilities = facilitiesCaptor.getValue();
+        Doctor firstFacilitySharedDoctor = savedFacilities.getFirst().getDoctors().stream()
+                .filter(doctor -> doctor.getEmail().equals("shared"))
+                .findFirst()
+                .orElseThrow();
+        assertSame(firstFacilitySharedDoctor, savedFacilities.get(1).getDoctors().iterator().next());
+        assertEquals(2, firstFacilitySharedDoctor.getFacilities().size());
+        assertTrue(savedFacilities.getFirst().getDoctors().contains(existingDoctor));
+        assertEquals(1, existingDoctor.getFacilities().size());
+        assertEquals(2, result.size());
+        assertEquals("name1", result.getFirst().name());
+        assertEquals(2, result.getFirst().doctors().size());
+        assertEquals("name2", result.get(1).name());
+        assertEquals(1, result.get(1).doctors().size());
+    }
+
     @Test
     public void getFacilities_ThereAreNoFacilities_ReturnsEmptyPageableContentDto() {
         Pageable pageable = PageRequest.of(0, 10);
@@ -134,6 +208,7 @@ public class FacilityServiceTest {
         assertEquals(0, result.totalEntries());
         assertEquals(1, result.totalNumberOfPages());
         assertTrue(result.content().isEmpty());
+        verify(facilityRepository, never()).findFacilityDoctorRows(any());
     }
 
     @Test
@@ -146,6 +221,7 @@ public class FacilityServiceTest {
         List<Facility> facilities = List.of(facility1, facility2);
         Page<Facility> facilityPage = new PageImpl<>(facilities, pageable, 2L);
         when(facilityRepository.findAll(pageable)).thenReturn(facilityPage);
+        when(facilityRepository.findFacilityDoctorRows(List.of(1L, 2L))).thenReturn(List.of());
 
         PageableContentDto<FacilityDTO> result = facilityService.getFacilities(pageable);
 
@@ -169,6 +245,72 @@ public class FacilityServiceTest {
         assertEquals(0, result.content().get(1).doctors().size());
     }
 
+    @Test
+    public void getFacilities_FacilitiesHaveDoctors_GroupsDoctorsByFacility() {
+        Pageable pageable = PageRequest.of(0, 10);
+        Facility facility1 = buildFacility();
+        Facility facility2 = buildFacility();
+        Facility facility3 = buildFacility();
+        facility1.setId(1L);
+        facility2.setId(2L);
+        facility3.setId(3L);
+        Page<Facility> facilityPage = new PageImpl<>(List.of(facility1, facility2, facility3), pageable, 3L);
+        when(facilityRepository.findAll(pageable)).thenReturn(facilityPage);
+        when(facilityRepository.findFacilityDoctorRows(List.of(1L, 2L, 3L))).thenReturn(List.of(
+                new FacilityDoctorRow(1L, 1L, "email1", "firstName1", "lastName1", "specialization1"),
+                new FacilityDoctorRow(1L, 2L, "email2", "firstName2", "lastName2", "specialization2"),
+                new FacilityDoctorRow(3L, 1L, "email1", "firstName1", "lastName1", "specialization1")));
+
+        PageableContentDto<FacilityDTO> result = facilityService.getFacilities(pageable);
+
+        verify(facilityRepository).findFacilityDoctorRows(List.of(1L, 2L, 3L));
+        assertEquals(3, result.content().size());
+        assertEquals(2, result.content().getFirst().doctors().size());
+        assertEquals(1L, result.content().getFirst().doctors().getFirst().id());
+        assertEquals("email1", result.content().getFirst().doctors().getFirst().email());
+        assertEquals("firstName1", result.content().getFirst().doctors().getFirst().firstName());
+        assertEquals("lastName1", result.content().getFirst().doctors().getFirst().lastName());
+        assertEquals("specialization1", result.content().getFirst().doctors().getFirst().specialization());
+        assertEquals(2L, result.content().getFirst().doctors().get(1).id());
+        assertTrue(result.content().get(1).doctors().isEmpty());
+        assertEquals(1, result.content().get(2).doctors().size());
+        assertEquals(1L, result.content().get(2).doctors().getFirst().id());
+    }
+
+    @Test
+    public void getFacilities_TotalIsNone_ReturnsSliceWithoutCountingFacilities() {
+        Pageable pageable = PageRequest.of(0, 1);
+        Facility facility = buildFacility();
+        facility.setId(1L);
+        when(facilityRepository.findFacilitySlice(pageable)).thenReturn(new SliceImpl<>(List.of(facility), pageable, true));
+        when(facilityRepository.findFacilityDoctorRows(List.of(1L))).thenReturn(List.of(
+                new FacilityDoctorRow(1L, 1L, "email1", "firstName1", "lastName1", "specialization1")));
+
+        SliceContentDto<FacilityDTO> result = facilityService.getFacilities(SliceTotal.NONE, pageable);
+
+        verify(facilityRepository, never()).countFacilities();
+        assertEquals(0, result.pageNumber());
+        assertTrue(result.hasNext());
+        assertNull(result.estimatedTotalEntries());
+        assertNull(result.estimatedTotalNumberOfPages());
+        assertEquals(1, result.content().size());
+        assertEquals(1L, result.content().getFirst().doctors().getFirst().id());
+    }
+
+    @Test
+    public void getFacilitySummaries_ThereAreFacilities_ReturnsCorrectPageableContentDto() {
+        Pageable pageable = PageRequest.of(0, 10);
+        FacilitySummaryDTO facilitySummary = new FacilitySummaryDTO(1L, "name", "city", "zipCode", "street", "buildingNumber", 250L);
+        when(facilityRepository.findFacilitySummaries(pageable)).thenReturn(new PageImpl<>(List.of(facilitySummary), pageable, 1L));
+
+        PageableContentDto<FacilitySummaryDTO> result = facilityService.getFacilitySummaries(pageable);
+
+        assertEquals(0, result.pageNumber());
+        assertEquals(1, result.totalEntries());
+        assertEquals(1, result.totalNumberOfPages());
+        assertEquals(List.of(facilitySummary), result.content());
+    }
+
     @Test
     public void getFacilityById_FacilityDoesNotExist_ThrowsFacilityNotFoundException() {
         long facilityId = 1;
@@ -0,0 +1,227 @@
+package com.example.demo.service;
+
+import com.example.demo.config.PatientImportProperties;
+import com.example.demo.exception.patient.PatientIllegalDataException;
+import com.example.demo.exception.patient.PatientImportTooLargeException;
+import com.example.demo.index.PatientEmailIndex;
+import com.example.demo.mapper.PatientMapper;
+import com.example.demo.model.patient.Patient;
+import com.example.demo.model.patient.PatientImportReportDTO;
+import com.example.demo.repository.PatientRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.mapstruct.factory.Mappers;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class PatientImportServiceTest {
+    private static final String HEADER = "email,password,idCardNo,firstName,lastName,phoneNumber,birthday\n";
+
+    private PatientRepository patientRepository;
+    private EntityManager entityManager;
+    private PatientImportService patientImportService;
+
+    @BeforeEach
+    void setUp() {
+        patientRepository = mock(PatientRepository.class);
+        entityManager = mock(EntityManager.class);
+        PatientMapper patientMapper = Mappers.getMapper(PatientMapper.class);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+        Clock clock = Clock.fixed(Instant.parse("2012-12-12T12:00:00Z"), ZoneOffset.UTC);
+        patientImportService = new PatientImportService(patientRepository, patientMapper, createProperties(2, 1000, 8192), mock(PatientEmailIndex.class), transactionTemplate, entityManager, clock);
+    }
+
+    @Test
+    public void importPatients_FileIsEmpty_ThrowsPatientIllegalDataException() {
+        //given
+        //when
+        PatientIllegalDataException exception = assertThrows(PatientIllegalDataException.class, () -> patientImportService.importPatients(toInputStream("")));
+        //then
+        assertEquals("The import file is empty.", exception.getMessage());
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+        assertEquals(getDefaultErrorTimeString(), exception.getDate().toString());
+    }
+
+    @Test
+    public void importPatients_HeaderIsMissingColumn_ThrowsPatientIllegalDataException() {
+        //given
+        InputStream inputStream = toInputStream("email,password,idCardNo,firstName,lastName,birthday\n");
+        //when
+        PatientIllegalDataException exception = assertThrows(PatientIllegalDataException.class, () -> patientImportService.importPatients(inputStream));
+        //then
+        assertEquals("The import file is missing column: phoneNumber.", exception.getMessage());
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+        assertEquals(getDefaultErrorTimeString(), exception.getDate().toString());
+        verifyNoInteractions(patientRepository);
+    }
+
+    @Test
+    public void importPatients_RowsAreValid_SavesPatientsInChunks() throws Exception {
+        //given
+        InputStream inputStream = toInputStream(HEADER
+                + "email1,password,idCardNo1,firstName,lastName,phoneNumber,2000-01-01\r\n"
+                + "email2,password,idCardNo2,\"Anne, Marie\",\"O\"\"Neil\",phoneNumber,2000-01-02\r\n"
+                + "email3,password,idCardNo3,firstName,lastName,phoneNumber,2000-01-03\r\n");
+        when(patientRepository.findExistingEmails(anyCollection())).thenReturn(List.of());
+        //when
+        PatientImportReportDTO result = patientImportService.importPatients(inputStream);
+        //then
+        ArgumentCaptor<Collection<String>> emailsCaptor = ArgumentCaptor.forClass(Collection.class);
+        ArgumentCaptor<List<Patient>> patientsCaptor = ArgumentCaptor.forClass(List.class);
+        verify(patientRepository, times(2)).findExistingEmails(emailsCaptor.capture());
+        verify(patientRepository, times(2)).saveAll(patientsCaptor.capture());
+        verify(entityManager, times(2)).clear();
+        assertEquals(List.of(Set.of("email1", "email2"), Set.of("email3")), emailsCaptor.getAllValues().stream().map(Set::copyOf).toList());
+        Patient secondPatient = patientsCaptor.getAllValues().getFirst().get(1);
+        assertEquals("email2", secondPatient.getEmail());
+        assertEquals("Anne, Marie", secondPatient.getFirstName());
+        assertEquals("O\"Neil", secondPatient.getLastName());
+        assertEquals(LocalDate.of(2000, 1, 2), secondPatient.getBirthday());
+        assertEquals(3, result.importedRows());
+        assertEquals(0, result.rejectedRows());
+        assertFalse(result.errorsTruncated());
+        assertTrue(result.errors().isEmpty());
+    }
+
+    @Test
+    public void importPatients_RowsAreInvalid_ReportsRowErrors() throws Exception {
+        //given
+        InputStream inputStream = toInputStream(HEADER
+                + "email1,password,idCardNo1,firstName,lastName,phoneNumber,2000-01-01\n"
+                + "email1,password,idCardNo2,firstName,lastName,phoneNumber,2000-01-02\n"
+                + "email2,password,idCardNo3,firstName,lastName,phoneNumber,2000-01-03\n"
+                + "email3,password,idCardNo4,,lastName,phoneNumber,2000-01-04\n"
+                + "email4,password,idCardNo5,firstName,lastName,phoneNumber,01.05.2000\n");
+        when(patientRepository.findExistingEmails(anyCollection())).thenReturn(List.of("email2"));
+        //when
+        PatientImportReportDTO result = patientImportService.importPatients(inputStream);
+        //then
+        ArgumentCaptor<List<Patient>> patientsCaptor = ArgumentCaptor.forClass(List.class);
+        verify(patientRepository, times(2)).saveAll(patientsCaptor.capture());
+        assertEquals(List.of("email1"), patientsCaptor.getAllValues().getFirst().stream().map(Patient::getEmail).toList());
+        assertTrue(patientsCaptor.getAllValues().get(1).isEmpty());
+        assertEquals(1, result.importedRows());
+        assertEquals(4, result.rejectedRows());
+        assertFalse(result.errorsTruncated());
+        assertEquals(2, result.errors().getFirst().row());
+        assertEquals("email1", result.errors().getFirst().email());
+        assertEquals("Patient with email: email1 is duplicated in the import.", result.errors().getFirst().message());
+        assertEquals(4, result.errors().get(1).row());
+        assertEquals("There cannot be null fields in patient data.", result.errors().get(1).message());
+        assertEquals(5, result.errors().get(2).row());
+        assertEquals("Birthday: 01.05.2000 is not a valid date.", result.errors().get(2).message());
+        assertEquals(3, result.errors().get(3).row());
+        assertEquals("Patient with email: email2 already exists.", result.errors().get(3).message());
+    }
+
+    @Test
+    public void importPatients_ErrorsExceedLimit_TruncatesReportedErrors() throws Exception {
+        //given
+        PatientImportService limitedImportService = new PatientImportService(patientRepository, Mappers.getMapper(PatientMapper.class),
+                createProperties(2, 1, 8192), mock(PatientEmailIndex.class), new TransactionTemplate(mock(PlatformTransactionManager.class)), entityManager,
+                Clock.fixed(Instant.parse("2012-12-12T12:00:00Z"), ZoneOffset.UTC));
+        InputStream inputStream = toInputStream(HEADER
+                + "email1,password,idCardNo1,,lastName,phoneNumber,2000-01-01\n"
+                + "email2,password,idCardNo2,,lastName,phoneNumber,2000-01-02\n");
+        //when
+        PatientImportReportDTO result = limitedImportService.importPatients(inputStream);
+        //then
+        assertEquals(0, result.importedRows());
+        assertEquals(2, result.rejectedRows());
+        assertTrue(result.errorsTruncated());
+        assertEquals(1, result.errors().size());
+        verify(patientRepository, never()).saveAll(any());
+    }
+
+    @Test
+    public void importPatients_EmailIsRegisteredConcurrently_RetriesChunkRowByRowAndReportsConflict() throws Exception {
+        //given
+        InputStream inputStream = toInputStream(HEADER
+                + "email1,password,idCardNo1,firstName,lastName,phoneNumber,2000-01-01\n"
+                + "email2,password,idCardNo2,firstName,lastName,phoneNumber,2000-01-02\n");
+        when(patientRepository.findExistingEmails(anyCollection())).thenReturn(List.of());
+        doThrow(new DataIntegrityViolationException("duplicate key value violates unique constraint"))
+                .doNothing()
+                .doThrow(new DataIntegrityViolationException("duplicate key value violates unique constraint"))
+                .when(patientRepository).flush();
+        //when
+        PatientImportReportDTO result = patientImportService.importPatients(inputStream);
+        //then
+        verify(patientRepository, times(3)).saveAll(anyList());
+        assertEquals(1, result.importedRows());
+        assertEquals(1, result.rejectedRows());
+        assertEquals(2, result.errors().getFirst().row());
+        assertEquals("Patient with email: email2 already exists.", result.errors().getFirst().message());
+    }
+
+    @Test
+    public void importPatients_QuotedFieldIsNeverClosed_RejectsRowAndContinuesWithNextLine() throws Exception {
+        //given
+        PatientImportService limitedImportService = new PatientImportService(patientRepository, Mappers.getMapper(PatientMapper.class),
+                createProperties(2, 1000, 100), mock(PatientEmailIndex.class), new TransactionTemplate(mock(PlatformTransactionManager.class)), entityManager,
+                Clock.fixed(Instant.parse("2012-12-12T12:00:00Z"), ZoneOffset.UTC));
+        InputStream inputStream = toInputStream(HEADER
+                + "email1,password,idCardNo1,firstName,lastName,phoneNumber,2000-01-01\n"
+                + "email2,password,\"idCardNo2" + "x".repeat(1000) + "\n"
+                + "email3,password,idCardNo3,firstName,lastName,phoneNumber,2000-01-03\n");
+        when(patientRepository.findExistingEmails(anyCollection())).thenReturn(List.of());
+        //when
+        PatientImportReportDTO result = limitedImportService.importPatients(inputStream);
+        //then
+        assertEquals(2, result.importedRows());
+        assertEquals(1, result.rejectedRows());
+        assertEquals(2, result.errors().getFirst().row());
+        assertNull(result.errors().getFirst().email());
+        assertEquals("The row exceeds the maximum length of 100 characters.", result.errors().getFirst().message());
+    }
+
+    @Test
+    public void importPatients_FileExceedsMaximumSize_ThrowsPatientImportTooLargeException() {
+        //given
+        PatientImportService limitedImportService = new PatientImportService(patientRepository, Mappers.getMapper(PatientMapper.class),
+                new PatientImportProperties(2, 1000, 8192, DataSize.ofBytes(200)), mock(PatientEmailIndex.class),
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), entityManager, Clock.fixed(Instant.parse("2012-12-12T12:00:00Z"), ZoneOffset.UTC));
+        InputStream inputStream = toInputStream(HEADER
+                + "email1,password,idCardNo1,firstName,lastName,phoneNumber,2000-01-01\n".repeat(5));
+        when(patientRepository.findExistingEmails(anyCollection())).thenReturn(List.of());
+        //when
+        PatientImportTooLargeException exception = assertThrows(PatientImportTooLargeException.class, () -> limitedImportService.importPatients(inputStream));
+        //then
+        assertEquals("The import file exceeds the maximum size of 200 bytes.", exception.getMessage());
+        assertEquals(HttpStatus.PAYLOAD_TOO_LARGE, exception.getStatusCode());
+        assertEquals(getDefaultErrorTimeString(), exception.getDate().toString());
+    }
+
+    private static PatientImportProperties createProperties(int chunkSize, int maxReportedErrors, int maxRecordLength) {
+        return new PatientImportProperties(chunkSize, maxReportedErrors, maxRecordLength, DataSize.ofGigabytes(1));
+    }
+
+    private InputStream toInputStream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String getDefaultErrorTimeString() {
+        return "2012-12-12T12:00Z";
+    }
+}
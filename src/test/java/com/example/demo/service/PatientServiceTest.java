@@ -1,15 +1,22 @@
 package com.example.demo.service;
 
 import com.example.demo.command.patient.UpsertPatientCommand;
+import com.example.demo.config.EmailIndexProperties;
+import com.example.demo.config.PaginationProperties;
+import com.example.demo.count.EntryCountEstimator;
 import com.example.demo.exception.patient.PatientAlreadyExistsException;
 import com.example.demo.exception.patient.PatientIllegalDataException;
 import com.example.demo.exception.patient.PatientNotFoundException;
+import com.example.demo.index.PatientEmailIndex;
 import com.example.demo.mapper.PatientMapper;
 import com.example.demo.model.PageableContentDto;
+import com.example.demo.model.SliceContentDto;
+import com.example.demo.model.SliceTotal;
 import com.example.demo.model.patient.Patient;
 import com.example.demo.model.patient.PatientDTO;
 import com.example.demo.repository.PatientRepository;
 import com.example.demo.repository.VisitRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
@@ -17,12 +24,16 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.mapstruct.factory.Mappers;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
 
+import java.sql.SQLException;
 import java.time.Clock;
 import java.time.Instant;
 import java.time.LocalDate;
@@ -45,7 +56,8 @@ public class PatientServiceTest {
         VisitRepository visitRepository = mock(VisitRepository.class);
         PatientMapper patientMapper = Mappers.getMapper(PatientMapper.class);
         Clock clock = Clock.fixed(Instant.parse("2012-12-12T12:00:00Z"), ZoneOffset.UTC);
-        patientService = new PatientService(patientRepository, patientMapper, visitRepository, clock);
+        patientService = new PatientService(patientRepository, patientMapper, visitRepository,
+                new PatientEmailIndex(patientRepository, new EmailIndexProperties(true, 100, 0.01), new SimpleMeterRegistry()), new EntryCountEstimator(mock(JdbcTemplate.class), new PaginationProperties(false)), clock);
     }
 
     @ParameterizedTest
@@ -60,6 +72,20 @@ public class PatientServiceTest {
         assertEquals("2012-12-12T12:00Z", exception.getDate().toString());
     }
 
+    @Test
+    void createPatient_EmailIsTakenConcurrently_ThrowsPatientAlreadyExistsException() {
+        //given
+        UpsertPatientCommand upsertPatientCommand = buildUpsertPatientCommand();
+        when(patientRepository.existsByEmail(upsertPatientCommand.email())).thenReturn(false);
+        when(patientRepository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("duplicate", new SQLException("duplicate", "23505")));
+        //when
+        PatientAlreadyExistsException exception = assertThrows(PatientAlreadyExistsException.class, () -> patientService.createPatient(upsertPatientCommand));
+        //then
+        assertEquals("Patient with email: %s already exists.".formatted(upsertPatientCommand.email()), exception.getMessage());
+        assertEquals(HttpStatus.CONFLICT, exception.getStatusCode());
+        assertEquals("2012-12-12T12:00Z", exception.getDate().toString());
+    }
+
     @Test
     void createPatient_PatientWithEmailAlreadyExists_ThrowsPatientAlreadyExistsException() {
         //given
@@ -88,7 +114,7 @@ public class PatientServiceTest {
                 .birthday(LocalDate.of(2012, 12, 12))
                 .build();
         when(patientRepository.existsByEmail(upsertPatientCommand.email())).thenReturn(false);
-        when(patientRepository.save(patient)).thenReturn(patient);
+        when(patientRepository.saveAndFlush(patient)).thenReturn(patient);
         //when
         PatientDTO result = patientService.createPatient(upsertPatientCommand);
         //then
@@ -105,7 +131,7 @@ public class PatientServiceTest {
     void getAllPatients_ThereAreNoPatients_ReturnsEmptyPageableContentDto() {
         //given
         Pageable pageable = PageRequest.of(0, 10);
-        when(patientRepository.findAll(pageable)).thenReturn(Page.empty());
+        when(patientRepository.findPatientDTOs(pageable)).thenReturn(Page.empty());
         //when
         PageableContentDto<PatientDTO> result = patientService.getAllPatients(pageable);
         //then
@@ -119,11 +145,11 @@ public class PatientServiceTest {
     void getAllPatients_ThereArePatients_ReturnsCorrectPageableContentDto() {
         //given
         Pageable pageable = PageRequest.of(0, 10);
-        Patient patient1 = buildPatient();
-        Patient patient2 = buildPatient(2L);
-        List<Patient> patients = List.of(patient1, patient2);
-        Page<Patient> patientPage = new PageImpl<>(patients, pageable, 2);
-        when(patientRepository.findAll(pageable)).thenReturn(patientPage);
+        PatientDTO patient1 = buildPatientDto(1L);
+        PatientDTO patient2 = buildPatientDto(2L);
+        List<PatientDTO> patients = List.of(patient1, patient2);
+        Page<PatientDTO> patientPage = new PageImpl<>(patients, pageable, 2);
+        when(patientRepository.findPatientDTOs(pageable)).thenReturn(patientPage);
         //when
         PageableContentDto<PatientDTO> result = patientService.getAllPatients(pageable);
         //then
@@ -146,11 +172,28 @@ public class PatientServiceTest {
         assertEquals(LocalDate.of(2012, 12, 12), result.content().get(1).birthday());
     }
 
+    @Test
+    void getAllPatients_TotalIsEstimatedAndBelowSeenEntries_ReturnsSliceWithSeenEntriesAsTotal() {
+        //given
+        Pageable pageable = PageRequest.of(1, 2);
+        List<PatientDTO> patients = List.of(buildPatientDto(3L), buildPatientDto(4L));
+        when(patientRepository.findPatientDTOSlice(pageable)).thenReturn(new SliceImpl<>(patients, pageable, true));
+        when(patientRepository.countPatients()).thenReturn(3L);
+        //when
+        SliceContentDto<PatientDTO> result = patientService.getAllPatients(SliceTotal.ESTIMATED, pageable);
+        //then
+        assertEquals(1, result.pageNumber());
+        assertTrue(result.hasNext());
+        assertEquals(5L, result.estimatedTotalEntries());
+        assertEquals(3, result.estimatedTotalNumberOfPages());
+        assertEquals(patients, result.content());
+    }
+
     @Test
     void getPatient_PatientDoesNotExist_ThrowsPatientNotFoundException() {
         //given
         String email = "email";
-        when(patientRepository.findByEmail(email)).thenReturn(Optional.empty());
+        when(patientRepository.findIdByEmail(email)).thenReturn(Optional.empty());
         //when
         PatientNotFoundException exception = assertThrows(PatientNotFoundException.class, () -> patientService.getPatient(email));
         //then
@@ -173,7 +216,8 @@ public class PatientServiceTest {
                 .phoneNumber("phoneNumber")
                 .birthday(LocalDate.of(2012, 12, 12))
                 .build();
-        when(patientRepository.findByEmail(email)).thenReturn(Optional.of(currentPatient));
+        when(patientRepository.findIdByEmail(email)).thenReturn(Optional.of(1L));
+        when(patientRepository.findById(1L)).thenReturn(Optional.of(currentPatient));
         //when
         PatientDTO result = patientService.getPatient(email);
         //then
@@ -192,7 +236,8 @@ public class PatientServiceTest {
         //given
         String email = "email";
         Patient currentPatient = buildPatient();
-        when(patientRepository.findByEmail(email)).thenReturn(Optional.of(currentPatient));
+        when(patientRepository.findIdByEmail(email)).thenReturn(Optional.of(1L));
+        when(patientRepository.findById(1L)).thenReturn(Optional.of(currentPatient));
         //when
         PatientIllegalDataException exception = assertThrows(PatientIllegalDataException.class, () -> patientService.editPatient(email, upsertPatientCommand));
         //then
@@ -208,7 +253,8 @@ public class PatientServiceTest {
         UpsertPatientCommand upsertPatientCommand = buildUpsertPatientCommand();
         Patient currentPatient = buildPatient();
         currentPatient.setEmail(email);
-        when(patientRepository.findByEmail(email)).thenReturn(Optional.of(currentPatient));
+        when(patientRepository.findIdByEmail(email)).thenReturn(Optional.of(1L));
+        when(patientRepository.findById(1L)).thenReturn(Optional.of(currentPatient));
         when(patientRepository.existsByEmail(upsertPatientCommand.email())).thenReturn(true);
         //when
         PatientAlreadyExistsException exception = assertThrows(PatientAlreadyExistsException.class, () -> patientService.editPatient(email, upsertPatientCommand));
@@ -224,7 +270,8 @@ public class PatientServiceTest {
         String email = "initial email";
         UpsertPatientCommand upsertPatientCommand = getUpsertPatientCommand("email", "password", "new idCardNo", "firstName", "lastName", "phoneNumber", LocalDate.of(2012, 12, 12));
         Patient currentPatient = buildPatient();
-        when(patientRepository.findByEmail(email)).thenReturn(Optional.of(currentPatient));
+        when(patientRepository.findIdByEmail(email)).thenReturn(Optional.of(1L));
+        when(patientRepository.findById(1L)).thenReturn(Optional.of(currentPatient));
         when(patientRepository.existsByEmail(upsertPatientCommand.email())).thenReturn(false);
         //when
         PatientIllegalDataException exception = assertThrows(PatientIllegalDataException.class, () -> patientService.editPatient(email, upsertPatientCommand));
@@ -257,7 +304,8 @@ public class PatientServiceTest {
                 .phoneNumber("new phoneNumber")
                 .birthday(LocalDate.of(2012, 11, 11))
                 .build();
-        when(patientRepository.findByEmail(email)).thenReturn(Optional.of(currentPatient));
+        when(patientRepository.findIdByEmail(email)).thenReturn(Optional.of(1L));
+        when(patientRepository.findById(1L)).thenReturn(Optional.of(currentPatient));
         when(patientRepository.existsByEmail(upsertPatientCommand.email())).thenReturn(false);
         //when
         PatientDTO result = patientService.editPatient(email, upsertPatientCommand);
@@ -289,7 +337,7 @@ public class PatientServiceTest {
         //given
         String email = "email";
         String password = "password";
-        when(patientRepository.findByEmail(email)).thenReturn(Optional.empty());
+        when(patientRepository.findIdByEmail(email)).thenReturn(Optional.empty());
         //when
         PatientNotFoundException exception = assertThrows(PatientNotFoundException.class, () -> patientService.editPatientPassword(email, password));
         //then
@@ -304,7 +352,8 @@ public class PatientServiceTest {
         String email = "email";
         String password = "different password";
         Patient currentPatient = buildPatient();
-        when(patientRepository.findByEmail(email)).thenReturn(Optional.of(currentPatient));
+        when(patientRepository.findIdByEmail(email)).thenReturn(Optional.of(1L));
+        when(patientRepository.findById(1L)).thenReturn(Optional.of(currentPatient));
         //when
         patientService.editPatientPassword(email, password);
         //then
@@ -315,7 +364,7 @@ public class PatientServiceTest {
     void deletePatient_PatientWithEmailDoesNotExist_ThrowsPatientNotFoundException() {
         //given
         String email = "email";
-        when(patientRepository.findByEmail(email)).thenReturn(Optional.empty());
+        when(patientRepository.findIdByEmail(email)).thenReturn(Optional.empty());
         //when
         PatientNotFoundException exception = assertThrows(PatientNotFoundException.class, () -> patientService.deletePatient(email));
         //then
@@ -329,7 +378,8 @@ public class PatientServiceTest {
         //given
         String email = "email";
         Patient currentPatient = buildPatient();
-        when(patientRepository.findByEmail(email)).thenReturn(Optional.of(currentPatient));
+        when(patientRepository.findIdByEmail(email)).thenReturn(Optional.of(1L));
+        when(patientRepository.findById(1L)).thenReturn(Optional.of(currentPatient));
         //when
         patientService.deletePatient(email);
         //then
@@ -355,6 +405,18 @@ public class PatientServiceTest {
         return patient;
     }
 
+    private PatientDTO buildPatientDto(Long id) {
+        return PatientDTO.builder()
+                .id(id)
+                .email("email")
+                .idCardNo("idCardNo")
+                .firstName("firstName")
+                .lastName("lastName")
+                .phoneNumber("phoneNumber")
+                .birthday(LocalDate.of(2012, 12, 12))
+                .build();
+    }
+
     private UpsertPatientCommand buildUpsertPatientCommand() {
         return UpsertPatientCommand.builder()
                 .email("email")
@@ -0,0 +1,128 @@
+package com.example.demo.service;
+
+import com.example.demo.command.schedule.InsertScheduleTemplateCommand;
+import com.example.demo.command.visit.InsertVisitCommand;
+import com.example.demo.exception.visit.VisitIllegalDataException;
+import com.example.demo.model.doctor.Doctor;
+import com.example.demo.model.facility.Facility;
+import com.example.demo.model.schedule.ScheduleMaterializationDTO;
+import com.example.demo.model.visit.Visit;
+import com.example.demo.repository.DoctorRepository;
+import com.example.demo.repository.FacilityRepository;
+import com.example.demo.repository.ScheduleTemplateRepository;
+import com.example.demo.repository.VisitRepository;
+import org.h2.tools.TriggerAdapter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:overlap;DB_CLOSE_DELAY=-1",
+        "medical-clinic.visit.database-overlap-constraint=true",
+        "medical-clinic.schedule.horizon-days=1"
+})
+public class ScheduleTemplateOverlapConstraintTest {
+    @Autowired
+    private ScheduleTemplateService scheduleTemplateService;
+    @Autowired
+    private VisitService visitService;
+    @Autowired
+    private ScheduleTemplateRepository scheduleTemplateRepository;
+    @Autowired
+    private VisitRepository visitRepository;
+    @Autowired
+    private DoctorRepository doctorRepository;
+    @Autowired
+    private FacilityRepository facilityRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("CREATE TRIGGER IF NOT EXISTS visits_doctor_time_range_excl BEFORE INSERT ON VISITS FOR EACH ROW CALL '%s'"
+                .formatted(TimeRangeExclusionTrigger.class.getName()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduleTemplateRepository.deleteAll();
+        visitRepository.deleteAll();
+        doctorRepository.deleteAll();
+        facilityRepository.deleteAll();
+    }
+
+    @Test
+    public void materializeScheduleTemplate_SeveralSlotsPerDay_SavesBackToBackSlots() {
+        //given
+        Doctor doctor = createDoctorWorkingIn(facilityRepository.save(Facility.builder().name("Overlap").build()));
+        Long scheduleTemplateId = scheduleTemplateService.createScheduleTemplate(InsertScheduleTemplateCommand.builder()
+                .doctorId(doctor.getId())
+                .facilityId(doctor.getFacilities().iterator().next().getId())
+                .daysOfWeek(EnumSet.allOf(DayOfWeek.class))
+                .startTime(LocalTime.of(8, 0))
+                .endTime(LocalTime.of(12, 0))
+                .slotLengthMinutes(30)
+                .timeZone("UTC")
+                .build()).id();
+        //when
+        ScheduleMaterializationDTO result = scheduleTemplateService.materializeScheduleTemplate(scheduleTemplateId);
+        //then
+        assertTrue(result.createdVisits() >= 8);
+        assertEquals(16, result.createdVisits() + result.skippedSlots());
+        assertEquals(result.createdVisits(), visitRepository.count());
+    }
+
+    @Test
+    public void createVisit_ConstraintRejectsOverlappingVisit_ThrowsVisitIllegalDataException() {
+        //given
+        Doctor doctor = createDoctorWorkingIn(facilityRepository.save(Facility.builder().name("Overlap").build()));
+        OffsetDateTime startTime = OffsetDateTime.now(ZoneOffset.UTC).plusDays(1).truncatedTo(ChronoUnit.HOURS);
+        visitRepository.save(Visit.builder().startTime(startTime).endTime(startTime.plusHours(1)).doctor(doctor).build());
+        //when
+        VisitIllegalDataException exception = assertThrows(VisitIllegalDataException.class,
+                () -> visitService.createVisit(new InsertVisitCommand(startTime.plusMinutes(30), startTime.plusMinutes(90), doctor.getId())));
+        //then
+        assertEquals("There is a visit already scheduled at that time.", exception.getMessage());
+        assertEquals(1, visitRepository.count());
+    }
+
+    private Doctor createDoctorWorkingIn(Facility facility) {
+        return doctorRepository.save(Doctor.builder().email("overlap@doctor.com").facilities(new HashSet<>(Set.of(facility))).build());
+    }
+
+    public static class TimeRangeExclusionTrigger extends TriggerAdapter {
+        @Override
+        public void fire(Connection connection, ResultSet oldRow, ResultSet newRow) throws SQLException {
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "select count(*) from VISITS where doctor_id = ? and start_time < ? and end_time > ?")) {
+                statement.setObject(1, newRow.getObject("DOCTOR_ID"));
+                statement.setObject(2, newRow.getObject("END_TIME"));
+                statement.setObject(3, newRow.getObject("START_TIME"));
+                try (ResultSet overlapping = statement.executeQuery()) {
+                    overlapping.next();
+                    if (overlapping.getLong(1) > 0) {
+                        throw new SQLException("conflicting key value violates exclusion constraint", "23P01");
+                    }
+                }
+            }
+        }
+    }
+}
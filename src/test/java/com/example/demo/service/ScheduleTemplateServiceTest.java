@@ -0,0 +1,370 @@
+package com.example.demo.service;
+
+import com.example.demo.command.schedule.InsertScheduleTemplateCommand;
+import com.example.demo.config.ScheduleProperties;
+import com.example.demo.exception.doctor.DoctorFacilityContractViolationException;
+import com.example.demo.exception.doctor.DoctorNotFoundException;
+import com.example.demo.exception.schedule.ScheduleTemplateIllegalDataException;
+import com.example.demo.exception.schedule.ScheduleTemplateNotFoundException;
+import com.example.demo.index.DoctorVisitIndex;
+import com.example.demo.lock.DoctorVisitLock;
+import com.example.demo.mapper.ScheduleTemplateMapper;
+import com.example.demo.model.doctor.Doctor;
+import com.example.demo.model.facility.Facility;
+import com.example.demo.model.schedule.ScheduleMaterializationDTO;
+import com.example.demo.model.schedule.ScheduleTemplate;
+import com.example.demo.model.schedule.ScheduleTemplateDTO;
+import com.example.demo.model.visit.Visit;
+import com.example.demo.model.visit.VisitInterval;
+import com.example.demo.repository.DoctorRepository;
+import com.example.demo.repository.FacilityRepository;
+import com.example.demo.repository.ScheduleTemplateRepository;
+import com.example.demo.repository.VisitRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.mapstruct.factory.Mappers;
+import org.springframework.http.HttpStatus;
+
+import java.time.Clock;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class ScheduleTemplateServiceTest {
+    private ScheduleTemplateRepository scheduleTemplateRepository;
+    private DoctorRepository doctorRepository;
+    private FacilityRepository facilityRepository;
+    private VisitRepository visitRepository;
+    private DoctorVisitLock doctorVisitLock;
+    private ScheduleTemplateService scheduleTemplateService;
+
+    @BeforeEach
+    void setUp() {
+        scheduleTemplateRepository = mock(ScheduleTemplateRepository.class);
+        doctorRepository = mock(DoctorRepository.class);
+        facilityRepository = mock(FacilityRepository.class);
+        visitRepository = mock(VisitRepository.class);
+        doctorVisitLock = mock(DoctorVisitLock.class);
+        ScheduleTemplateMapper scheduleTemplateMapper = Mappers.getMapper(ScheduleTemplateMapper.class);
+        Clock clock = Clock.fixed(Instant.parse("2012-12-12T12:00:00Z"), ZoneOffset.UTC);
+        DoctorVisitIndex doctorVisitIndex = new DoctorVisitIndex(visitRepository, clock);
+        ScheduleProperties scheduleProperties = new ScheduleProperties(2, 2);
+        scheduleTemplateService = new ScheduleTemplateService(scheduleTemplateRepository, doctorRepository, facilityRepository, visitRepository,
+                scheduleTemplateMapper, doctorVisitIndex, doctorVisitLock, scheduleProperties, clock);
+    }
+
+    @ParameterizedTest
+    @MethodSource("provideInsertScheduleTemplateCommandsWithNulls")
+    public void createScheduleTemplate_DataHasNullValues_ThrowsScheduleTemplateIllegalDataException(InsertScheduleTemplateCommand insertScheduleTemplateCommand) {
+        //given
+        //when
+        ScheduleTemplateIllegalDataException exception = assertThrows(ScheduleTemplateIllegalDataException.class,
+                () -> scheduleTemplateService.createScheduleTemplate(insertScheduleTemplateCommand));
+        //then
+        assertEquals("There cannot be null fields in schedule template.", exception.getMessage());
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+        assertEquals(getDefaultTimeString(), exception.getDate().toString());
+    }
+
+    @Test
+    public void createScheduleTemplate_StartTimeIsNotQuarterHour_ThrowsScheduleTemplateIllegalDataException() {
+        //given
+        InsertScheduleTemplateCommand insertScheduleTemplateCommand = buildInsertScheduleTemplateCommand(LocalTime.of(8, 10), LocalTime.of(14, 0), 15);
+        //when
+        ScheduleTemplateIllegalDataException exception = assertThrows(ScheduleTemplateIllegalDataException.class,
+                () -> scheduleTemplateService.createScheduleTemplate(insertScheduleTemplateCommand));
+        //then
+        assertEquals("The schedule time must be set to a full quarter-hour increment e.g. 13:15.", exception.getMessage());
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+    }
+
+    @Test
+    public void createScheduleTemplate_SlotLengthIsNotMultipleOf15_ThrowsScheduleTemplateIllegalDataException() {
+        //given
+        InsertScheduleTemplateCommand insertScheduleTemplateCommand = buildInsertScheduleTemplateCommand(LocalTime.of(8, 0), LocalTime.of(14, 0), 20);
+        //when
+        ScheduleTemplateIllegalDataException exception = assertThrows(ScheduleTemplateIllegalDataException.class,
+                () -> scheduleTemplateService.createScheduleTemplate(insertScheduleTemplateCommand));
+        //then
+        assertEquals("The slot length must be a multiple of 15 minutes that fits between start and end time.", exception.getMessage());
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+    }
+
+    @Test
+    public void createScheduleTemplate_EndTimeIsBeforeStartTime_ThrowsScheduleTemplateIllegalDataException() {
+        //given
+        InsertScheduleTemplateCommand insertScheduleTemplateCommand = buildInsertScheduleTemplateCommand(LocalTime.of(14, 0), LocalTime.of(8, 0), 15);
+        //when
+        ScheduleTemplateIllegalDataException exception = assertThrows(ScheduleTemplateIllegalDataException.class,
+                () -> scheduleTemplateService.createScheduleTemplate(insertScheduleTemplateCommand));
+        //then
+        assertEquals("The schedule end time has to be later than start time on the same day.", exception.getMessage());
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+    }
+
+    @Test
+    public void createScheduleTemplate_ScheduleCrossesMidnight_ThrowsScheduleTemplateIllegalDataException() {
+        //given
+        InsertScheduleTemplateCommand insertScheduleTemplateCommand = buildInsertScheduleTemplateCommand(LocalTime.of(22, 0), LocalTime.MIDNIGHT, 60);
+        //when
+        ScheduleTemplateIllegalDataException exception = assertThrows(ScheduleTemplateIllegalDataException.class,
+                () -> scheduleTemplateService.createScheduleTemplate(insertScheduleTemplateCommand));
+        //then
+        assertEquals("The schedule end time has to be later than start time on the same day.", exception.getMessage());
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+    }
+
+    @Test
+    public void createScheduleTemplate_DoctorDoesNotExist_ThrowsDoctorNotFoundException() {
+        //given
+        InsertScheduleTemplateCommand insertScheduleTemplateCommand = buildInsertScheduleTemplateCommand(LocalTime.of(8, 0), LocalTime.of(14, 0), 15);
+        when(doctorRepository.findById(1L)).thenReturn(Optional.empty());
+        //when
+        DoctorNotFoundException exception = assertThrows(DoctorNotFoundException.class,
+                () -> scheduleTemplateService.createScheduleTemplate(insertScheduleTemplateCommand));
+        //then
+        assertEquals("Doctor with id: 1 does not exist.", exception.getMessage());
+        assertEquals(HttpStatus.NOT_FOUND, exception.getStatusCode());
+    }
+
+    @Test
+    public void createScheduleTemplate_DoctorDoesNotWorkInFacility_ThrowsDoctorFacilityContractViolationException() {
+        //given
+        InsertScheduleTemplateCommand insertScheduleTemplateCommand = buildInsertScheduleTemplateCommand(LocalTime.of(8, 0), LocalTime.of(14, 0), 15);
+        Doctor doctor = buildDoctor();
+        doctor.setFacilities(new HashSet<>());
+        when(doctorRepository.findById(1L)).thenReturn(Optional.of(doctor));
+        when(facilityRepository.findById(1L)).thenReturn(Optional.of(buildFacility()));
+        //when
+        DoctorFacilityContractViolationException exception = assertThrows(DoctorFacilityContractViolationException.class,
+                () -> scheduleTemplateService.createScheduleTemplate(insertScheduleTemplateCommand));
+        //then
+        assertEquals("Doctor with id: 1 does not work in facility with id: 1.", exception.getMessage());
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+    }
+
+    @Test
+    public void createScheduleTemplate_DataIsCorrect_SavesScheduleTemplate() {
+        //given
+        InsertScheduleTemplateCommand insertScheduleTemplateCommand = buildInsertScheduleTemplateCommand(LocalTime.of(8, 0), LocalTime.of(14, 0), 15);
+        Doctor doctor = buildDoctor();
+        when(doctorRepository.findById(1L)).thenReturn(Optional.of(doctor));
+        when(facilityRepository.findById(1L)).thenReturn(Optional.of(buildFacility()));
+        when(scheduleTemplateRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        //when
+        ScheduleTemplateDTO result = scheduleTemplateService.createScheduleTemplate(insertScheduleTemplateCommand);
+        //then
+        assertEquals(1L, result.doctor().id());
+        assertEquals(1L, result.facility().id());
+        assertEquals(Set.of(DayOfWeek.MONDAY, DayOfWeek.WEDNESDAY, DayOfWeek.THURSDAY), result.daysOfWeek());
+        assertEquals(LocalTime.of(8, 0), result.startTime());
+        assertEquals(LocalTime.of(14, 0), result.endTime());
+        assertEquals(15, result.slotLengthMinutes());
+        assertEquals("UTC", result.timeZone());
+        assertNull(result.materializedUntil());
+    }
+
+    @Test
+    public void getScheduleTemplateById_ScheduleTemplateDoesNotExist_ThrowsScheduleTemplateNotFoundException() {
+        //given
+        when(scheduleTemplateRepository.findById(1L)).thenReturn(Optional.empty());
+        //when
+        ScheduleTemplateNotFoundException exception = assertThrows(ScheduleTemplateNotFoundException.class,
+                () -> scheduleTemplateService.getScheduleTemplateById(1L));
+        //then
+        assertEquals("Schedule template with id: 1 does not exist.", exception.getMessage());
+        assertEquals(HttpStatus.NOT_FOUND, exception.getStatusCode());
+        assertEquals(getDefaultTimeString(), exception.getDate().toString());
+    }
+
+    @Test
+    public void materializeScheduleTemplate_NoExistingVisits_CreatesFutureSlotsInBatches() {
+        //given
+        ScheduleTemplate scheduleTemplate = buildScheduleTemplate();
+        List<List<Visit>> savedBatches = new ArrayList<>();
+        when(scheduleTemplateRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(scheduleTemplate));
+        when(visitRepository.findOverlappingDoctorVisitIntervals(eq(1L), any(), any())).thenReturn(List.of());
+        when(visitRepository.saveAllAndFlush(anyList())).thenAnswer(invocation -> {
+            List<Visit> batch = new ArrayList<>(invocation.getArgument(0));
+            savedBatches.add(batch);
+            return batch;
+        });
+        //when
+        ScheduleMaterializationDTO result = scheduleTemplateService.materializeScheduleTemplate(1L);
+        //then
+        assertEquals(4, result.createdVisits());
+        assertEquals(2, result.skippedSlots());
+        assertEquals(LocalDate.of(2012, 12, 14), result.materializedUntil());
+        assertEquals(LocalDate.of(2012, 12, 14), scheduleTemplate.getMaterializedUntil());
+        assertEquals(2, savedBatches.size());
+        assertEquals(getOffsetDateTime("2012-12-13T08:00:00Z"), savedBatches.getFirst().getFirst().getStartTime());
+        assertEquals(getOffsetDateTime("2012-12-13T09:00:00Z"), savedBatches.getFirst().getFirst().getEndTime());
+        assertEquals(getOffsetDateTime("2012-12-14T09:00:00Z"), savedBatches.get(1).get(1).getStartTime());
+        verify(visitRepository, times(1)).findOverlappingDoctorVisitIntervals(eq(1L), any(), any());
+        verify(visitRepository, never()).existsOverlapping(any(), any(), any());
+    }
+
+    @Test
+    public void materializeScheduleTemplate_SlotsOverlapExistingVisit_SkipsThoseSlots() {
+        //given
+        ScheduleTemplate scheduleTemplate = buildScheduleTemplate();
+        VisitInterval existingVisit = new VisitInterval(5L, 1L, getOffsetDateTime("2012-12-13T08:30:00Z"), getOffsetDateTime("2012-12-13T09:30:00Z"));
+        when(scheduleTemplateRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(scheduleTemplate));
+        when(visitRepository.findOverlappingDoctorVisitIntervals(eq(1L), any(), any())).thenReturn(List.of(existingVisit));
+        when(visitRepository.saveAllAndFlush(anyList())).thenAnswer(invocation -> new ArrayList<>(invocation.getArgument(0)));
+        //when
+        ScheduleMaterializationDTO result = scheduleTemplateService.materializeScheduleTemplate(1L);
+        //then
+        assertEquals(2, result.createdVisits());
+        assertEquals(4, result.skippedSlots());
+    }
+
+    @Test
+    public void materializeScheduleTemplate_ScheduleEndsWithinSlotOfMidnight_StopsAtEndTime() {
+        //given
+        ScheduleTemplate scheduleTemplate = buildScheduleTemplate();
+        scheduleTemplate.setStartTime(LocalTime.of(22, 0));
+        scheduleTemplate.setEndTime(LocalTime.of(23, 45));
+        scheduleTemplate.setSlotLengthMinutes(15);
+        List<Visit> savedVisits = new ArrayList<>();
+        when(scheduleTemplateRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(scheduleTemplate));
+        when(visitRepository.findOverlappingDoctorVisitIntervals(eq(1L), any(), any())).thenReturn(List.of());
+        when(visitRepository.saveAllAndFlush(anyList())).thenAnswer(invocation -> {
+            List<Visit> batch = new ArrayList<>(invocation.getArgument(0));
+            savedVisits.addAll(batch);
+            return batch;
+        });
+        //when
+        ScheduleMaterializationDTO result = scheduleTemplateService.materializeScheduleTemplate(1L);
+        //then
+        assertEquals(21, result.createdVisits());
+        assertEquals(0, result.skippedSlots());
+        assertEquals(getOffsetDateTime("2012-12-12T23:30:00Z"), savedVisits.get(6).getStartTime());
+        assertTrue(savedVisits.stream().allMatch(visit -> visit.getEndTime().isAfter(visit.getStartTime())));
+        assertTrue(savedVisits.stream().allMatch(visit -> !visit.getEndTime().toLocalTime().isAfter(LocalTime.of(23, 45))));
+    }
+
+    @Test
+    public void materializeScheduleTemplate_HorizonIsAlreadyMaterialized_DoesNotQueryVisits() {
+        //given
+        ScheduleTemplate scheduleTemplate = buildScheduleTemplate();
+        scheduleTemplate.setMaterializedUntil(LocalDate.of(2012, 12, 14));
+        when(scheduleTemplateRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(scheduleTemplate));
+        //when
+        ScheduleMaterializationDTO result = scheduleTemplateService.materializeScheduleTemplate(1L);
+        //then
+        assertEquals(0, result.createdVisits());
+        assertEquals(0, result.skippedSlots());
+        verifyNoInteractions(visitRepository);
+    }
+
+    @Test
+    public void materializeScheduleTemplate_ScheduleTemplateDoesNotExist_ThrowsScheduleTemplateNotFoundException() {
+        //given
+        when(scheduleTemplateRepository.findByIdForUpdate(1L)).thenReturn(Optional.empty());
+        //when
+        ScheduleTemplateNotFoundException exception = assertThrows(ScheduleTemplateNotFoundException.class,
+                () -> scheduleTemplateService.materializeScheduleTemplate(1L));
+        //then
+        assertEquals("Schedule template with id: 1 does not exist.", exception.getMessage());
+        assertEquals(HttpStatus.NOT_FOUND, exception.getStatusCode());
+    }
+
+    @Test
+    public void deleteScheduleTemplate_ScheduleTemplateExists_DeletesScheduleTemplate() {
+        //given
+        ScheduleTemplate scheduleTemplate = buildScheduleTemplate();
+        when(scheduleTemplateRepository.findById(1L)).thenReturn(Optional.of(scheduleTemplate));
+        //when
+        scheduleTemplateService.deleteScheduleTemplate(1L);
+        //then
+        verify(scheduleTemplateRepository, times(1)).delete(scheduleTemplate);
+    }
+
+    private ScheduleTemplate buildScheduleTemplate() {
+        return ScheduleTemplate.builder()
+                .id(1L)
+                .doctor(buildDoctor())
+                .facility(buildFacility())
+                .daysOfWeek(Set.of(DayOfWeek.WEDNESDAY, DayOfWeek.THURSDAY, DayOfWeek.FRIDAY))
+                .startTime(LocalTime.of(8, 0))
+                .endTime(LocalTime.of(10, 0))
+                .slotLengthMinutes(60)
+                .timeZone("UTC")
+                .build();
+    }
+
+    private InsertScheduleTemplateCommand buildInsertScheduleTemplateCommand(LocalTime startTime, LocalTime endTime, Integer slotLengthMinutes) {
+        return InsertScheduleTemplateCommand.builder()
+                .doctorId(1L)
+                .facilityId(1L)
+                .daysOfWeek(Set.of(DayOfWeek.MONDAY, DayOfWeek.WEDNESDAY, DayOfWeek.THURSDAY))
+                .startTime(startTime)
+                .endTime(endTime)
+                .slotLengthMinutes(slotLengthMinutes)
+                .timeZone("UTC")
+                .build();
+    }
+
+    private Doctor buildDoctor() {
+        Doctor doctor = Doctor.builder()
+                .id(1L)
+                .email("email")
+                .password("password")
+                .firstName("firstName")
+                .lastName("lastName")
+                .specialization("specialization")
+                .build();
+        doctor.addFacility(buildFacility());
+        return doctor;
+    }
+
+    private Facility buildFacility() {
+        return Facility.builder()
+                .id(1L)
+                .name("name")
+                .city("city")
+                .zipCode("zipCode")
+                .street("street")
+                .buildingNumber("buildingNumber")
+                .build();
+    }
+
+    private OffsetDateTime getOffsetDateTime(String instant) {
+        return OffsetDateTime.ofInstant(Instant.parse(instant), ZoneOffset.UTC);
+    }
+
+    private String getDefaultTimeString() {
+        return "2012-12-12T12:00Z";
+    }
+
+    private Stream<Arguments> provideInsertScheduleTemplateCommandsWithNulls() {
+        InsertScheduleTemplateCommand command = buildInsertScheduleTemplateCommand(LocalTime.of(8, 0), LocalTime.of(14, 0), 15);
+        return Stream.of(
+                Arguments.of(new InsertScheduleTemplateCommand(null, command.facilityId(), command.daysOfWeek(), command.startTime(), command.endTime(), command.slotLengthMinutes(), command.timeZone())),
+                Arguments.of(new InsertScheduleTemplateCommand(command.doctorId(), null, command.daysOfWeek(), command.startTime(), command.endTime(), command.slotLengthMinutes(), command.timeZone())),
+                Arguments.of(new InsertScheduleTemplateCommand(command.doctorId(), command.facilityId(), null, command.startTime(), command.endTime(), command.slotLengthMinutes(), command.timeZone())),
+                Arguments.of(new InsertScheduleTemplateCommand(command.doctorId(), command.facilityId(), command.daysOfWeek(), null, command.endTime(), command.slotLengthMinutes(), command.timeZone())),
+                Arguments.of(new InsertScheduleTemplateCommand(command.doctorId(), command.facilityId(), command.daysOfWeek(), command.startTime(), null, command.slotLengthMinutes(), command.timeZone())),
+                Arguments.of(new InsertScheduleTemplateCommand(command.doctorId(), command.facilityId(), command.daysOfWeek(), command.startTime(), command.endTime(), null, command.timeZone())),
+                Arguments.of(new InsertScheduleTemplateCommand(command.doctorId(), command.facilityId(), command.daysOfWeek(), command.startTime(), command.endTime(), command.slotLengthMinutes(), null))
+        );
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.demo.service;
+
+import com.example.demo.exception.visit.VisitIllegalDataException;
+import com.example.demo.model.visit.VisitExportFormat;
+import com.example.demo.model.visit.VisitExportRow;
+import com.example.demo.repository.VisitRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.http.HttpStatus;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class VisitExportServiceTest {
+    private VisitRepository visitRepository;
+    private VisitExportService visitExportService;
+
+    @BeforeEach
+    void setUp() {
+        visitRepository = mock(VisitRepository.class);
+        ObjectMapper objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        Clock clock = Clock.fixed(Instant.parse("2012-12-12T12:00:00Z"), ZoneOffset.UTC);
+        visitExportService = new VisitExportService(visitRepository, objectMapper, clock);
+    }
+
+    @Test
+    public void getExportFormat_FormatIsSupported_ReturnsFormatIgnoringCase() {
+        //given
+        //when
+        VisitExportFormat result = visitExportService.getExportFormat("CSV");
+        //then
+        assertEquals(VisitExportFormat.CSV, result);
+    }
+
+    @Test
+    public void getExportFormat_FormatIsNotSupported_ThrowsVisitIllegalDataException() {
+        //given
+        //when
+        VisitIllegalDataException exception = assertThrows(VisitIllegalDataException.class, () -> visitExportService.getExportFormat("xml"));
+        //then
+        assertEquals("Export format: xml is not supported.", exception.getMessage());
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+        assertEquals(getDefaultTimeString(), exception.getDate().toString());
+    }
+
+    @Test
+    public void validateExportFilters_ToIsBeforeFrom_ThrowsVisitIllegalDataException() {
+        //given
+        OffsetDateTime from = getOffsetDateTime("2012-12-14T12:00:00Z");
+        OffsetDateTime to = getOffsetDateTime("2012-12-13T12:00:00Z");
+        //when
+        VisitIllegalDataException exception = assertThrows(VisitIllegalDataException.class, () -> visitExportService.validateExportFilters(from, to));
+        //then
+        assertEquals("The search end date cannot be earlier than start date.", exception.getMessage());
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+    }
+
+    @Test
+    public void exportVisits_FormatIsNdjson_WritesOneJsonObjectPerLineAndClosesStream() throws Exception {
+        //given
+        AtomicBoolean closed = new AtomicBoolean();
+        when(visitRepository.streamVisitExportRows(1L, null, null, null))
+                .thenReturn(Stream.of(buildVisitExportRow(1L), buildVisitExportRow(2L)).onClose(() -> closed.set(true)));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        //when
+        visitExportService.exportVisits(VisitExportFormat.NDJSON, 1L, null, null, null, outputStream);
+        //then
+        String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("{\"id\":1,\"startTime\":\"2012-12-13T12:00:00Z\",\"endTime\":\"2012-12-13T13:00:00Z\",\"doctorId\":1,"
+                + "\"doctorFirstName\":\"firstName\",\"doctorLastName\":\"lastName\",\"doctorSpecialization\":\"specialization\","
+                + "\"patientId\":null,\"patientFirstName\":null,\"patientLastName\":null}", lines[0]);
+        assertTrue(lines[1].startsWith("{\"id\":2,"));
+        assertTrue(closed.get());
+    }
+
+    @Test
+    public void exportVisits_FormatIsCsv_WritesHeaderAndEscapedRows() throws Exception {
+        //given
+        VisitExportRow row = new VisitExportRow(1L, getOffsetDateTime("2012-12-13T12:00:00Z"), getOffsetDateTime("2012-12-13T13:00:00Z"),
+                1L, "Anna, Maria", "O\"Neil", "specialization", null, null, null);
+        OffsetDateTime from = getOffsetDateTime("2012-12-13T00:00:00Z");
+        when(visitRepository.streamVisitExportRows(null, null, from, null)).thenReturn(Stream.of(row));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        //when
+        visitExportService.exportVisits(VisitExportFormat.CSV, null, null, from, null, outputStream);
+        //then
+        assertEquals("""
+                id,startTime,endTime,doctorId,doctorFirstName,doctorLastName,doctorSpecialization,patientId,patientFirstName,patientLastName
+                1,2012-12-13T12:00Z,2012-12-13T13:00Z,1,"Anna, Maria","O""Neil",specialization,,,
+                """, outputStream.toString(StandardCharsets.UTF_8));
+    }
+
+    private VisitExportRow buildVisitExportRow(Long id) {
+        return new VisitExportRow(id, getOffsetDateTime("2012-12-13T12:00:00Z"), getOffsetDateTime("2012-12-13T13:00:00Z"),
+                1L, "firstName", "lastName", "specialization", null, null, null);
+    }
+
+    private OffsetDateTime getOffsetDateTime(String instant) {
+        return OffsetDateTime.ofInstant(Instant.parse(instant), ZoneOffset.UTC);
+    }
+
+    private String getDefaultTimeString() {
+        return "2012-12-12T12:00Z";
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.demo.service;
+
+import com.example.demo.exception.visit.VisitNotAvailableException;
+import com.example.demo.model.doctor.Doctor;
+import com.example.demo.model.patient.Patient;
+import com.example.demo.model.visit.Visit;
+import com.example.demo.repository.DoctorRepository;
+import com.example.demo.repository.PatientRepository;
+import com.example.demo.repository.VisitRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+public class VisitRegistrationConcurrencyTest {
+    private static final int PATIENTS = 300;
+
+    @Autowired
+    private VisitService visitService;
+    @Autowired
+    private VisitRepository visitRepository;
+    @Autowired
+    private DoctorRepository doctorRepository;
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @AfterEach
+    void tearDown() {
+        visitRepository.deleteAll();
+        patientRepository.deleteAll();
+        doctorRepository.deleteAll();
+    }
+
+    @Test
+    public void registerPatientToVisit_ManyPatientsClaimSameVisitConcurrently_OnlyOneRegistrationSucceeds() throws Exception {
+        //given
+        Doctor doctor = doctorRepository.save(Doctor.builder().email("concurrency@doctor.com").build());
+        OffsetDateTime startTime = OffsetDateTime.now(ZoneOffset.UTC).plusDays(1).truncatedTo(ChronoUnit.HOURS);
+        Visit visit = visitRepository.save(Visit.builder()
+                .startTime(startTime)
+                .endTime(startTime.plusHours(1))
+                .doctor(doctor)
+                .build());
+        List<Patient> patients = patientRepository.saveAll(IntStream.range(0, PATIENTS)
+                .mapToObj(i -> Patient.builder().email("patient%d@concurrency.com".formatted(i)).build())
+                .toList());
+        AtomicInteger registered = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> results = new ArrayList<>();
+        //when
+        try (ExecutorService executor = Executors.newFixedThreadPool(32)) {
+            for (Patient patient : patients) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        visitService.registerPatientToVisit(visit.getId(), patient.getId());
+                        registered.incrementAndGet();
+                    } catch (VisitNotAvailableException e) {
+                        rejected.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> result : results) {
+                result.get(30, TimeUnit.SECONDS);
+            }
+        }
+        //then
+        assertEquals(1, registered.get());
+        assertEquals(PATIENTS - 1, rejected.get());
+        assertNotNull(visitRepository.findById(visit.getId()).orElseThrow().getPatient());
+    }
+}
@@ -2,19 +2,31 @@ package com.example.demo.service;
 
 import com.example.demo.argument_matcher.VisitArgumentMatcher;
 import com.example.demo.command.visit.InsertVisitCommand;
+import com.example.demo.config.PaginationProperties;
+import com.example.demo.config.VisitProperties;
+import com.example.demo.count.EntryCountEstimator;
 import com.example.demo.exception.doctor.DoctorNotFoundException;
 import com.example.demo.exception.patient.PatientNotFoundException;
 import com.example.demo.exception.visit.VisitIllegalDataException;
 import com.example.demo.exception.visit.VisitNotAvailableException;
 import com.example.demo.exception.visit.VisitNotFoundException;
+import com.example.demo.index.DoctorVisitIndex;
+import com.example.demo.lock.DoctorVisitLock;
 import com.example.demo.mapper.VisitMapper;
+import com.example.demo.model.CursorContentDto;
 import com.example.demo.model.PageableContentDto;
+import com.example.demo.model.SliceContentDto;
+import com.example.demo.model.SliceTotal;
 import com.example.demo.model.doctor.Doctor;
 import com.example.demo.model.doctor.SimpleDoctorDTO;
 import com.example.demo.model.patient.Patient;
 import com.example.demo.model.patient.PatientDTO;
+import com.example.demo.model.visit.AvailableSlotDTO;
 import com.example.demo.model.visit.Visit;
+import com.example.demo.model.visit.VisitCursor;
 import com.example.demo.model.visit.VisitDTO;
+import com.example.demo.model.visit.VisitInterval;
+import com.example.demo.model.visit.VisitRow;
 import com.example.demo.repository.DoctorRepository;
 import com.example.demo.repository.PatientRepository;
 import com.example.demo.repository.VisitRepository;
@@ -26,13 +38,23 @@ import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.mapstruct.factory.Mappers;
 import org.mockito.ArgumentMatcher;
+import org.mockito.InOrder;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
 
+import java.sql.SQLException;
 import java.time.Clock;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.OffsetDateTime;
@@ -40,6 +62,7 @@ import java.time.ZoneOffset;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -50,7 +73,10 @@ public class VisitServiceTest {
     private VisitRepository visitRepository;
     private DoctorRepository doctorRepository;
     private PatientRepository patientRepository;
+    private DoctorVisitIndex doctorVisitIndex;
+    private DoctorVisitLock doctorVisitLock;
     private VisitService visitService;
+    private VisitService constraintVisitService;
 
     @BeforeEach
     void setUp() {
@@ -59,7 +85,10 @@ public class VisitServiceTest {
         patientRepository = mock(PatientRepository.class);
         VisitMapper visitMapper = Mappers.getMapper(VisitMapper.class);
         Clock clock = Clock.fixed(Instant.parse("2012-12-12T12:00:00Z"), ZoneOffset.UTC);
-        visitService = new VisitService(visitRepository, visitMapper, doctorRepository, patientRepository, clock);
+        doctorVisitIndex = new DoctorVisitIndex(visitRepository, clock);
+        doctorVisitLock = mock(DoctorVisitLock.class);
+        visitService = new VisitService(visitRepository, visitMapper, doctorRepository, patientRepository, doctorVisitIndex, doctorVisitLock, new VisitProperties(false, 64, Duration.ofSeconds(5), 2000), new EntryCountEstimator(mock(JdbcTemplate.class), new PaginationProperties(false)), clock);
+        constraintVisitService = new VisitService(visitRepository, visitMapper, doctorRepository, patientRepository, doctorVisitIndex, doctorVisitLock, new VisitProperties(true, 64, Duration.ofSeconds(5), 2000), new EntryCountEstimator(mock(JdbcTemplate.class), new PaginationProperties(false)), clock);
     }
 
     @ParameterizedTest
@@ -163,7 +192,7 @@ public class VisitServiceTest {
         InsertVisitCommand insertVisitCommand = getInsertVisitCommand(getOffsetDateTime(Instant.parse("2012-12-13T12:00:00Z")), getOffsetDateTime(Instant.parse("2012-12-13T13:00:00Z")), 1L);
         Doctor doctor = buildDoctor();
         when(doctorRepository.findById(insertVisitCommand.doctorId())).thenReturn(Optional.of(doctor));
-        when(visitRepository.existsBetweenDatesInclusive(insertVisitCommand.startTime(), insertVisitCommand.endTime(), doctor)).thenReturn(true);
+        when(visitRepository.existsOverlapping(insertVisitCommand.startTime(), insertVisitCommand.endTime(), doctor)).thenReturn(true);
         //when
         VisitIllegalDataException exception = assertThrows(VisitIllegalDataException.class, () -> visitService.createVisit(insertVisitCommand));
         //then
@@ -172,6 +201,25 @@ public class VisitServiceTest {
         assertEquals(getDefaultTimeString(), exception.getDate().toString());
     }
 
+    @Test
+    public void createVisit_IndexContainsOverlappingVisit_ThrowsVisitIllegalDataExceptionWithoutQuery() {
+        //given
+        InsertVisitCommand insertVisitCommand = getInsertVisitCommand(getOffsetDateTime(Instant.parse("2012-12-13T12:00:00Z")), getOffsetDateTime(Instant.parse("2012-12-13T13:00:00Z")), 1L);
+        Doctor doctor = buildDoctor();
+        Visit existingVisit = buildVisit();
+        existingVisit.setStartTime(getOffsetDateTime(Instant.parse("2012-12-13T12:30:00Z")));
+        existingVisit.setEndTime(getOffsetDateTime(Instant.parse("2012-12-13T13:30:00Z")));
+        doctorVisitIndex.add(existingVisit);
+        when(doctorRepository.findById(insertVisitCommand.doctorId())).thenReturn(Optional.of(doctor));
+        //when
+        VisitIllegalDataException exception = assertThrows(VisitIllegalDataException.class, () -> visitService.createVisit(insertVisitCommand));
+        //then
+        assertEquals("There is a visit already scheduled at that time.", exception.getMessage());
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+        assertEquals(getDefaultTimeString(), exception.getDate().toString());
+        verify(visitRepository, never()).existsOverlapping(any(), any(), any());
+    }
+
     @Test
     public void createVisit_DataIsCorrect_SavesVisit() {
         //given
@@ -187,7 +235,7 @@ public class VisitServiceTest {
                 .build();
         ArgumentMatcher<Visit> visitMatcher = new VisitArgumentMatcher(expectedSavedVisit);
         when(doctorRepository.findById(insertVisitCommand.doctorId())).thenReturn(Optional.of(doctor));
-        when(visitRepository.existsBetweenDatesInclusive(insertVisitCommand.startTime(), insertVisitCommand.endTime(), doctor)).thenReturn(false);
+        when(visitRepository.existsOverlapping(insertVisitCommand.startTime(), insertVisitCommand.endTime(), doctor)).thenReturn(false);
         when(visitRepository.save(argThat(visitMatcher))).thenReturn(expectedSavedVisit);
         //when
         VisitDTO result = visitService.createVisit(insertVisitCommand);
@@ -199,12 +247,312 @@ public class VisitServiceTest {
         assertEquals(expectedDoctor, result.doctor());
     }
 
+    @Test
+    public void createVisit_DataIsCorrect_LocksDoctorBeforeOverlapCheck() {
+        //given
+        InsertVisitCommand insertVisitCommand = getInsertVisitCommand(getOffsetDateTime(Instant.parse("2012-12-13T12:00:00Z")), getOffsetDateTime(Instant.parse("2012-12-13T13:00:00Z")), 1L);
+        Doctor doctor = buildDoctor();
+        when(doctorRepository.findById(insertVisitCommand.doctorId())).thenReturn(Optional.of(doctor));
+        when(visitRepository.save(any())).thenReturn(buildVisit());
+        //when
+        visitService.createVisit(insertVisitCommand);
+        //then
+        InOrder inOrder = inOrder(doctorVisitLock, visitRepository);
+        inOrder.verify(doctorVisitLock).lock(1L);
+        inOrder.verify(visitRepository).existsOverlapping(insertVisitCommand.startTime(), insertVisitCommand.endTime(), doctor);
+        inOrder.verify(visitRepository).save(any());
+    }
+
+    @Test
+    public void createVisit_DataIsCorrect_AddsVisitToIndex() {
+        //given
+        InsertVisitCommand insertVisitCommand = getInsertVisitCommand(getOffsetDateTime(Instant.parse("2012-12-13T12:00:00Z")), getOffsetDateTime(Instant.parse("2012-12-13T13:00:00Z")), 1L);
+        Doctor doctor = buildDoctor();
+        Visit savedVisit = buildVisit();
+        when(doctorRepository.findById(insertVisitCommand.doctorId())).thenReturn(Optional.of(doctor));
+        when(visitRepository.save(any())).thenReturn(savedVisit);
+        //when
+        visitService.createVisit(insertVisitCommand);
+        //then
+        assertTrue(doctorVisitIndex.overlaps(doctor.getId(), insertVisitCommand.startTime(), insertVisitCommand.endTime()));
+    }
+
+
+    @Test
+    public void createVisit_DatabaseConstraintIsEnabled_SavesVisitWithoutOverlapQuery() {
+        //given
+        InsertVisitCommand insertVisitCommand = getInsertVisitCommand(getOffsetDateTime(Instant.parse("2012-12-13T12:00:00Z")), getOffsetDateTime(Instant.parse("2012-12-13T13:00:00Z")), 1L);
+        Doctor doctor = buildDoctor();
+        when(doctorRepository.findById(insertVisitCommand.doctorId())).thenReturn(Optional.of(doctor));
+        when(visitRepository.saveAndFlush(any())).thenReturn(buildVisit());
+        //when
+        VisitDTO result = constraintVisitService.createVisit(insertVisitCommand);
+        //then
+        assertEquals(1L, result.id());
+        verify(visitRepository, never()).existsOverlapping(any(), any(), any());
+        verify(visitRepository, never()).save(any());
+    }
+
+    @Test
+    public void createVisit_DatabaseConstraintIsViolated_ThrowsVisitIllegalDataException() {
+        //given
+        InsertVisitCommand insertVisitCommand = getInsertVisitCommand(getOffsetDateTime(Instant.parse("2012-12-13T12:00:00Z")), getOffsetDateTime(Instant.parse("2012-12-13T13:00:00Z")), 1L);
+        when(doctorRepository.findById(insertVisitCommand.doctorId())).thenReturn(Optional.of(buildDoctor()));
+        when(visitRepository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("exclusion",
+                new SQLException("conflicting key value violates exclusion constraint", "23P01")));
+        //when
+        VisitIllegalDataException exception = assertThrows(VisitIllegalDataException.class, () -> constraintVisitService.createVisit(insertVisitCommand));
+        //then
+        assertEquals("There is a visit already scheduled at that time.", exception.getMessage());
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+        assertEquals(getDefaultTimeString(), exception.getDate().toString());
+    }
+
+    @Test
+    public void createVisit_OtherDatabaseConstraintIsViolated_RethrowsDataIntegrityViolationException() {
+        //given
+        InsertVisitCommand insertVisitCommand = getInsertVisitCommand(getOffsetDateTime(Instant.parse("2012-12-13T12:00:00Z")), getOffsetDateTime(Instant.parse("2012-12-13T13:00:00Z")), 1L);
+        DataIntegrityViolationException violation = new DataIntegrityViolationException("foreign key",
+                new SQLException("insert or update violates foreign key constraint", "23503"));
+        when(doctorRepository.findById(insertVisitCommand.doctorId())).thenReturn(Optional.of(buildDoctor()));
+        when(visitRepository.saveAndFlush(any())).thenThrow(violation);
+        //when
+        DataIntegrityViolationException exception = assertThrows(DataIntegrityViolationException.class, () -> constraintVisitService.createVisit(insertVisitCommand));
+        //then
+        assertSame(violation, exception);
+    }
+
+    @Test
+    public void createVisits_DatabaseConstraintIsEnabled_SavesVisitsWithoutRangeQuery() {
+        //given
+        List<InsertVisitCommand> insertVisitCommands = List.of(
+                getInsertVisitCommand(getOffsetDateTime(Instant.parse("2012-12-13T12:00:00Z")), getOffsetDateTime(Instant.parse("2012-12-13T13:00:00Z")), 1L)
+        );
+        when(doctorRepository.findAllById(Set.of(1L))).thenReturn(List.of(buildDoctor()));
+        when(visitRepository.saveAllAndFlush(anyList())).thenReturn(List.of(buildVisit()));
+        //when
+        List<VisitDTO> result = constraintVisitService.createVisits(insertVisitCommands);
+        //then
+        assertEquals(1, result.size());
+        verify(visitRepository, never()).findOverlappingDoctorVisitIntervals(any(), any(), any());
+        verify(visitRepository, never()).saveAll(any());
+    }
+
+    @Test
+    public void createVisits_VisitDataHasNullValues_ThrowsVisitIllegalDataException() {
+        //given
+        List<InsertVisitCommand> insertVisitCommands = List.of(
+                getInsertVisitCommand(getOffsetDateTime(Instant.parse("2012-12-13T12:00:00Z")), getOffsetDateTime(Instant.parse("2012-12-13T13:00:00Z")), 1L),
+                getInsertVisitCommand(null, getOffsetDateTime(Instant.parse("2012-12-13T13:00:00Z")), 1L)
+        );
+        //when
+        VisitIllegalDataException exception = assertThrows(VisitIllegalDataException.class, () -> visitService.createVisits(insertVisitCommands));
+        //then
+        assertEquals("There cannot be nulls in visit data.", exception.getMessage());
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+        assertEquals(getDefaultTimeString(), exception.getDate().toString());
+        verifyNoInteractions(doctorRepository);
+    }
+
+    @Test
+    public void createVisits_DoctorWithIdDoesNotExist_ThrowsDoctorNotFoundException() {
+        //given
+        List<InsertVisitCommand> insertVisitCommands = List.of(
+                getInsertVisitCommand(getOffsetDateTime(Instant.parse("2012-12-13T12:00:00Z")), getOffsetDateTime(Instant.parse("2012-12-13T13:00:00Z")), 1L),
+                getInsertVisitCommand(getOffsetDateTime(Instant.parse("2012-12-13T12:00:00Z")), getOffsetDateTime(Instant.parse("2012-12-13T13:00:00Z")), 2L)
+        );
+        when(doctorRepository.findAllById(Set.of(1L, 2L))).thenReturn(List.of(buildDoctor()));
+        //when
+        DoctorNotFoundException exception = assertThrows(DoctorNotFoundException.class, () -> visitService.createVisits(insertVisitCommands));
+        //then
+        assertEquals("List of doctors ids contained invalid values.", exception.getMessage());
+        assertEquals(HttpStatus.NOT_FOUND, exception.getStatusCode());
+        assertEquals(getDefaultTimeString(), exception.getDate().toString());
+    }
+
+    @Test
+    public void createVisits_VisitsInRequestOverlap_ThrowsVisitIllegalDataException() {
+        //given
+        List<InsertVisitCommand> insertVisitCommands = List.of(
+                getInsertVisitCommand(getOffsetDateTime(Instant.parse("2012-12-13T12:00:00Z")), getOffsetDateTime(Instant.parse("2012-12-13T13:00:00Z")), 1L),
+                getInsertVisitCommand(getOffsetDateTime(Instant.parse("2012-12-13T12:30:00Z")), getOffsetDateTime(Instant.parse("2012-12-13T13:30:00Z")), 1L)
+        );
+        when(doctorRepository.findAllById(Set.of(1L))).thenReturn(List.of(buildDoctor()));
+        //when
+        VisitIllegalDataException exception = assertThrows(VisitIllegalDataException.class, () -> visitService.createVisits(insertVisitCommands));
+        //then
+        assertEquals("Visits in the request overlap each other.", exception.getMessage());
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+        assertEquals(getDefaultTimeString(), exception.getDate().toString());
+    }
+
+    @Test
+    public void createVisits_VisitIsAlreadyScheduledAtThatTime_ThrowsVisitIllegalDataException() {
+        //given
+        List<InsertVisitCommand> insertVisitCommands = List.of(
+                getInsertVisitCommand(getOffsetDateTime(Instant.parse("2012-12-13T12:00:00Z")), getOffsetDateTime(Instant.parse("2012-12-13T13:00:00Z")), 1L),
+                getInsertVisitCommand(getOffsetDateTime(Instant.parse("2012-12-13T15:00:00Z")), getOffsetDateTime(Instant.parse("2012-12-13T16:00:00Z")), 1L)
+        );
+        VisitInterval existingVisit = new VisitInterval(5L, 1L, getOffsetDateTime(Instant.parse("2012-12-13T13:30:00Z")), getOffsetDateTime(Instant.parse("2012-12-13T15:30:00Z")));
+        when(doctorRepository.findAllById(Set.of(1L))).thenReturn(List.of(buildDoctor()));
+        when(visitRepository.findOverlappingDoctorVisitIntervals(1L, getOffsetDateTime(Instant.parse("2012-12-13T12:00:00Z")), getOffsetDateTime(Instant.parse("2012-12-13T16:00:00Z"))))
+                .thenReturn(List.of(existingVisit));
+        //when
+        VisitIllegalDataException exception = assertThrows(VisitIllegalDataException.class, () -> visitService.createVisits(insertVisitCommands));
+        //then
+        assertEquals("There is a visit already scheduled at that time.", exception.getMessage());
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+        assertEquals(getDefaultTimeString(), exception.getDate().toString());
+        verify(visitRepository, never()).saveAll(any());
+    }
+
+    @Test
+    public void createVisits_DataIsCorrect_SavesVisitsInSingleCall() {
+        //given
+        List<InsertVisitCommand> insertVisitCommands = List.of(
+                getInsertVisitCommand(getOffsetDateTime(Instant.parse("2012-12-13T12:00:00Z")), getOffsetDateTime(Instant.parse("2012-12-13T13:00:00Z")), 1L),
+                getInsertVisitCommand(getOffsetDateTime(Instant.parse("2012-12-13T14:00:00Z")), getOffsetDateTime(Instant.parse("2012-12-13T15:00:00Z")), 1L)
+        );
+        Doctor doctor = buildDoctor();
+        when(doctorRepository.findAllById(Set.of(1L))).thenReturn(List.of(doctor));
+        when(visitRepository.findOverlappingDoctorVisitIntervals(eq(1L), any(), any())).thenReturn(List.of());
+        when(visitRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        //when
+        List<VisitDTO> result = visitService.createVisits(insertVisitCommands);
+        //then
+        assertEquals(2, result.size());
+        assertEquals(getOffsetDateTime(Instant.parse("2012-12-13T12:00:00Z")), result.getFirst().startTime());
+        assertEquals(getOffsetDateTime(Instant.parse("2012-12-13T14:00:00Z")), result.get(1).startTime());
+        assertEquals(buildSimpleDoctor(), result.getFirst().doctor());
+        verify(doctorRepository, never()).findById(any());
+        verify(visitRepository, times(1)).findOverlappingDoctorVisitIntervals(eq(1L), any(), any());
+        verify(visitRepository, times(1)).saveAll(anyList());
+    }
+
+    @Test
+    public void getAllVisits_CursorIsEmptyAndThereAreMoreVisits_ReturnsFirstVisitsWithNextCursor() {
+        //given
+        VisitRow visit1 = buildVisitRow(1L, null);
+        VisitRow visit2 = buildVisitRow(2L, buildPatient());
+        when(visitRepository.findVisitRowWindowBy(ScrollPosition.keyset(), Limit.of(2), Sort.by("startTime", "id")))
+                .thenReturn(Window.from(List.of(visit1, visit2), ScrollPosition::offset, true));
+        //when
+        CursorContentDto<VisitDTO> result = visitService.getAllVisits("", 2);
+        //then
+        assertEquals(2, result.content().size());
+        assertEquals(1L, result.content().getFirst().id());
+        assertEquals(2L, result.content().get(1).id());
+        assertEquals(new VisitCursor(visit2.startTime(), 2L), VisitCursor.decode(result.nextCursor()));
+    }
+
+    @Test
+    public void getDoctorVisits_CursorPointsToLastVisits_ReturnsVisitsWithoutNextCursor() {
+        //given
+        VisitCursor cursor = new VisitCursor(getOffsetDateTime(Instant.parse("2012-12-13T12:00:00Z")), 1L);
+        VisitRow visit = buildVisitRow(2L, null);
+        Doctor doctor = buildDoctor();
+        when(doctorRepository.getReferenceById(1L)).thenReturn(doctor);
+        when(visitRepository.findVisitRowWindowByDoctor(doctor, cursor.toScrollPosition(), Limit.of(2), Sort.by("startTime", "id")))
+                .thenReturn(Window.from(List.of(visit), ScrollPosition::offset, false));
+        //when
+        CursorContentDto<VisitDTO> result = visitService.getDoctorVisits(1L, cursor.encode(), 2);
+        //then
+        assertEquals(1, result.content().size());
+        assertEquals(2L, result.content().getFirst().id());
+        assertNull(result.nextCursor());
+    }
+
+    @Test
+    public void getPatientVisits_CursorIsNotValid_ThrowsVisitIllegalDataException() {
+        //given
+        //when
+        VisitIllegalDataException exception = assertThrows(VisitIllegalDataException.class,
+                () -> visitService.getPatientVisits(1L, "not-a-cursor", 2));
+        //then
+        assertEquals("Cursor: not-a-cursor is not valid.", exception.getMessage());
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+        assertEquals(getDefaultTimeString(), exception.getDate().toString());
+        verifyNoInteractions(visitRepository);
+    }
+
+    @Test
+    public void getPatientVisits_SizeIsNotPositive_ThrowsVisitIllegalDataException() {
+        //given
+        //when
+        VisitIllegalDataException exception = assertThrows(VisitIllegalDataException.class,
+                () -> visitService.getPatientVisits(1L, "", 0));
+        //then
+        assertEquals("The page size has to be greater than zero.", exception.getMessage());
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+        verifyNoInteractions(visitRepository);
+    }
+
+    @Test
+    public void getAllVisits_SizeExceedsMaximum_ThrowsVisitIllegalDataException() {
+        //given
+        //when
+        VisitIllegalDataException exception = assertThrows(VisitIllegalDataException.class,
+                () -> visitService.getAllVisits("", Integer.MAX_VALUE));
+        //then
+        assertEquals("The page size cannot be greater than 2000.", exception.getMessage());
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+        verifyNoInteractions(visitRepository);
+    }
+
+    @Test
+    public void getAvailableSlots_FromIsInThePast_SearchesFromCurrentTime() {
+        //given
+        Pageable pageable = PageRequest.of(0, 10);
+        AvailableSlotDTO availableSlot = buildAvailableSlotDto();
+        when(visitRepository.findAvailableSlots(1L, "specialization", 1L, getOffsetDateTime(Instant.parse("2012-12-12T12:00:00Z")), null, pageable))
+                .thenReturn(new PageImpl<>(List.of(availableSlot), pageable, 1));
+        //when
+        PageableContentDto<AvailableSlotDTO> result = visitService.getAvailableSlots(1L, "specialization", 1L,
+                getOffsetDateTime(Instant.parse("2012-12-11T12:00:00Z")), null, pageable);
+        //then
+        assertEquals(1, result.totalEntries());
+        assertEquals(1, result.totalNumberOfPages());
+        assertEquals(0, result.pageNumber());
+        assertEquals(List.of(availableSlot), result.content());
+    }
+
+    @Test
+    public void getAvailableSlots_RequestIsSorted_SearchesWithoutClientSort() {
+        //given
+        Pageable pageable = PageRequest.of(1, 5, Sort.by("endTime"));
+        OffsetDateTime from = getOffsetDateTime(Instant.parse("2012-12-13T12:00:00Z"));
+        OffsetDateTime to = getOffsetDateTime(Instant.parse("2012-12-14T12:00:00Z"));
+        when(visitRepository.findAvailableSlots(null, null, null, from, to, PageRequest.of(1, 5))).thenReturn(Page.empty());
+        //when
+        PageableContentDto<AvailableSlotDTO> result = visitService.getAvailableSlots(null, null, null, from, to, pageable);
+        //then
+        assertEquals(0, result.totalEntries());
+        assertEquals(1, result.pageNumber());
+        assertEquals(0, result.content().size());
+        verify(visitRepository).findAvailableSlots(null, null, null, from, to, PageRequest.of(1, 5));
+    }
+
+    @Test
+    public void getAvailableSlots_ToIsBeforeFrom_ThrowsVisitIllegalDataException() {
+        //given
+        Pageable pageable = PageRequest.of(0, 10);
+        OffsetDateTime from = getOffsetDateTime(Instant.parse("2012-12-14T12:00:00Z"));
+        OffsetDateTime to = getOffsetDateTime(Instant.parse("2012-12-13T12:00:00Z"));
+        //when
+        VisitIllegalDataException exception = assertThrows(VisitIllegalDataException.class,
+                () -> visitService.getAvailableSlots(null, null, null, from, to, pageable));
+        //then
+        assertEquals("The search end date cannot be earlier than start date.", exception.getMessage());
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+        assertEquals(getDefaultTimeString(), exception.getDate().toString());
+        verifyNoInteractions(visitRepository);
+    }
 
     @Test
     public void getAllVisits_ThereAreNoVisits_ReturnsEmptyPageableContentDto() {
         //given
         Pageable pageable = PageRequest.of(0, 10);
-        when(visitRepository.findAll(pageable)).thenReturn(Page.empty());
+        when(visitRepository.findVisitRows(pageable)).thenReturn(Page.empty());
         //when
         PageableContentDto<VisitDTO> result = visitService.getAllVisits(pageable);
         //then
@@ -218,13 +566,12 @@ public class VisitServiceTest {
     public void getAllVisits_ThereAreVisits_ReturnsCorrectPageableContentDto() {
         //given
         Pageable pageable = PageRequest.of(0, 10);
-        Visit visit1 = buildVisit();
-        Visit visit2 = buildVisit();
-        visit2.setId(2L);
-        Page<Visit> page = new PageImpl<>(List.of(visit1, visit2), pageable, 2);
+        VisitRow visit1 = buildVisitRow(1L, null);
+        VisitRow visit2 = buildVisitRow(2L, buildPatient());
+        Page<VisitRow> page = new PageImpl<>(List.of(visit1, visit2), pageable, 2);
         SimpleDoctorDTO expectedDoctor = buildSimpleDoctor();
         PatientDTO expectedPatient = buildPatientDto();
-        when(visitRepository.findAll(pageable)).thenReturn(page);
+        when(visitRepository.findVisitRows(pageable)).thenReturn(page);
         //when
         PageableContentDto<VisitDTO> result = visitService.getAllVisits(pageable);
         //then
@@ -241,7 +588,7 @@ public class VisitServiceTest {
         assertEquals(getOffsetDateTime(Instant.parse("2012-12-13T12:00:00Z")), result.content().get(1).startTime());
         assertEquals(getOffsetDateTime(Instant.parse("2012-12-13T13:00:00Z")), result.content().get(1).endTime());
         assertEquals(expectedDoctor, result.content().get(1).doctor());
-        assertNull(result.content().get(1).patient());
+        assertEquals(expectedPatient, result.content().get(1).patient());
     }
 
     @Test
@@ -249,7 +596,7 @@ public class VisitServiceTest {
         //given
         Long doctorId = 1L;
         Pageable pageable = PageRequest.of(0, 10);
-        when(visitRepository.findAllByDoctorId(doctorId, pageable)).thenReturn(Page.empty());
+        when(visitRepository.findVisitRowsByDoctorId(doctorId, pageable)).thenReturn(Page.empty());
         //when
         PageableContentDto<VisitDTO> result = visitService.getDoctorVisits(doctorId, pageable);
         //then
@@ -264,13 +611,12 @@ public class VisitServiceTest {
         //given
         Pageable pageable = PageRequest.of(0, 10);
         long doctorId = 1;
-        Visit visit1 = buildVisit();
-        Visit visit2 = buildVisit();
-        visit2.setId(2L);
-        Page<Visit> page = new PageImpl<>(List.of(visit1, visit2), pageable, 2);
+        VisitRow visit1 = buildVisitRow(1L, null);
+        VisitRow visit2 = buildVisitRow(2L, buildPatient());
+        Page<VisitRow> page = new PageImpl<>(List.of(visit1, visit2), pageable, 2);
         SimpleDoctorDTO expectedDoctor = buildSimpleDoctor();
         PatientDTO expectedPatient = buildPatientDto();
-        when(visitRepository.findAllByDoctorId(doctorId, pageable)).thenReturn(page);
+        when(visitRepository.findVisitRowsByDoctorId(doctorId, pageable)).thenReturn(page);
         //when
         PageableContentDto<VisitDTO> result = visitService.getDoctorVisits(doctorId, pageable);
         //then
@@ -287,7 +633,40 @@ public class VisitServiceTest {
         assertEquals(getOffsetDateTime(Instant.parse("2012-12-13T12:00:00Z")), result.content().get(1).startTime());
         assertEquals(getOffsetDateTime(Instant.parse("2012-12-13T13:00:00Z")), result.content().get(1).endTime());
         assertEquals(expectedDoctor, result.content().get(1).doctor());
-        assertNull(result.content().get(1).patient());
+        assertEquals(expectedPatient, result.content().get(1).patient());
+    }
+
+    @Test
+    public void getDoctorVisits_TotalIsNone_ReturnsSliceWithoutCountingVisits() {
+        //given
+        Pageable pageable = PageRequest.of(0, 1);
+        long doctorId = 1;
+        when(visitRepository.findVisitRowSliceByDoctorId(doctorId, pageable)).thenReturn(new SliceImpl<>(List.of(buildVisitRow(1L, null)), pageable, true));
+        //when
+        SliceContentDto<VisitDTO> result = visitService.getDoctorVisits(doctorId, SliceTotal.NONE, pageable);
+        //then
+        verify(visitRepository, never()).countVisitsByDoctorId(any());
+        assertEquals(0, result.pageNumber());
+        assertTrue(result.hasNext());
+        assertNull(result.estimatedTotalEntries());
+        assertNull(result.estimatedTotalNumberOfPages());
+        assertEquals(1, result.content().size());
+        assertEquals(buildSimpleDoctor(), result.content().getFirst().doctor());
+    }
+
+    @Test
+    public void getDoctorVisits_TotalIsEstimated_ReturnsSliceWithCachedDoctorVisitCount() {
+        //given
+        Pageable pageable = PageRequest.of(0, 1);
+        long doctorId = 1;
+        when(visitRepository.findVisitRowSliceByDoctorId(doctorId, pageable)).thenReturn(new SliceImpl<>(List.of(buildVisitRow(1L, null)), pageable, true));
+        when(visitRepository.countVisitsByDoctorId(doctorId)).thenReturn(40L);
+        //when
+        SliceContentDto<VisitDTO> result = visitService.getDoctorVisits(doctorId, SliceTotal.ESTIMATED, pageable);
+        //then
+        assertEquals(40L, result.estimatedTotalEntries());
+        assertEquals(40, result.estimatedTotalNumberOfPages());
+        verify(visitRepository, never()).countVisits();
     }
 
     @Test
@@ -295,7 +674,7 @@ public class VisitServiceTest {
         //given
         Long patientId = 1L;
         Pageable pageable = PageRequest.of(0, 10);
-        when(visitRepository.findAllByPatientId(patientId, pageable)).thenReturn(Page.empty());
+        when(visitRepository.findVisitRowsByPatientId(patientId, pageable)).thenReturn(Page.empty());
         //when
         PageableContentDto<VisitDTO> result = visitService.getPatientVisits(patientId, pageable);
         //then
@@ -310,13 +689,12 @@ public class VisitServiceTest {
         //given
         Pageable pageable = PageRequest.of(0, 10);
         long patientId = 1;
-        Visit visit1 = buildVisit();
-        Visit visit2 = buildVisit();
-        visit2.setId(2L);
-        Page<Visit> page = new PageImpl<>(List.of(visit1, visit2), pageable, 2);
+        VisitRow visit1 = buildVisitRow(1L, null);
+        VisitRow visit2 = buildVisitRow(2L, buildPatient());
+        Page<VisitRow> page = new PageImpl<>(List.of(visit1, visit2), pageable, 2);
         SimpleDoctorDTO expectedDoctor = buildSimpleDoctor();
         PatientDTO expectedPatient = buildPatientDto();
-        when(visitRepository.findAllByPatientId(patientId, pageable)).thenReturn(page);
+        when(visitRepository.findVisitRowsByPatientId(patientId, pageable)).thenReturn(page);
         //when
         PageableContentDto<VisitDTO> result = visitService.getPatientVisits(patientId, pageable);
         //then
@@ -333,7 +711,7 @@ public class VisitServiceTest {
         assertEquals(getOffsetDateTime(Instant.parse("2012-12-13T12:00:00Z")), result.content().get(1).startTime());
         assertEquals(getOffsetDateTime(Instant.parse("2012-12-13T13:00:00Z")), result.content().get(1).endTime());
         assertEquals(expectedDoctor, result.content().get(1).doctor());
-        assertNull(result.content().get(1).patient());
+        assertEquals(expectedPatient, result.content().get(1).patient());
     }
 
     @Test
@@ -341,6 +719,9 @@ public class VisitServiceTest {
         //given
         long visitId = 1;
         long patientId = 1;
+        Patient patient = buildPatient();
+        when(patientRepository.findById(patientId)).thenReturn(Optional.of(patient));
+        when(visitRepository.registerPatientIfAvailable(visitId, patient, getOffsetDateTime(Instant.parse("2012-12-12T12:00:00Z")))).thenReturn(0);
         when(visitRepository.findById(visitId)).thenReturn(Optional.empty());
         //when
         VisitNotFoundException exception = assertThrows(VisitNotFoundException.class, () -> visitService.registerPatientToVisit(visitId, patientId));
@@ -355,8 +736,6 @@ public class VisitServiceTest {
         //given
         long visitId = 1;
         long patientId = 1;
-        Visit visit = buildVisit();
-        when(visitRepository.findById(visitId)).thenReturn(Optional.of(visit));
         when(patientRepository.findById(patientId)).thenReturn(Optional.empty());
         //when
         PatientNotFoundException exception = assertThrows(PatientNotFoundException.class, () -> visitService.registerPatientToVisit(visitId, patientId));
@@ -364,6 +743,7 @@ public class VisitServiceTest {
         assertEquals("Patient with id: %d does not exist.".formatted(patientId), exception.getMessage());
         assertEquals(HttpStatus.NOT_FOUND, exception.getStatusCode());
         assertEquals(getDefaultTimeString(), exception.getDate().toString());
+        verifyNoInteractions(visitRepository);
     }
 
     @Test
@@ -375,8 +755,9 @@ public class VisitServiceTest {
         Patient patient = buildPatient();
         visit.setStartTime(visit.getStartTime().minusMonths(3));
         visit.setEndTime(visit.getEndTime().minusMonths(3));
-        when(visitRepository.findById(visitId)).thenReturn(Optional.of(visit));
         when(patientRepository.findById(patientId)).thenReturn(Optional.of(patient));
+        when(visitRepository.registerPatientIfAvailable(visitId, patient, getOffsetDateTime(Instant.parse("2012-12-12T12:00:00Z")))).thenReturn(0);
+        when(visitRepository.findById(visitId)).thenReturn(Optional.of(visit));
         //when
         VisitNotAvailableException exception = assertThrows(VisitNotAvailableException.class, () -> visitService.registerPatientToVisit(visitId, patientId));
         //then
@@ -395,8 +776,9 @@ public class VisitServiceTest {
         Patient anotherPatient = buildPatient();
         anotherPatient.setId(2L);
         visit.setPatient(anotherPatient);
-        when(visitRepository.findById(visitId)).thenReturn(Optional.of(visit));
         when(patientRepository.findById(patientId)).thenReturn(Optional.of(patient));
+        when(visitRepository.registerPatientIfAvailable(visitId, patient, getOffsetDateTime(Instant.parse("2012-12-12T12:00:00Z")))).thenReturn(0);
+        when(visitRepository.findById(visitId)).thenReturn(Optional.of(visit));
         //when
         VisitNotAvailableException exception = assertThrows(VisitNotAvailableException.class, () -> visitService.registerPatientToVisit(visitId, patientId));
         //then
@@ -406,20 +788,19 @@ public class VisitServiceTest {
     }
 
     @Test
-    public void registerPatientToVisit_VisitIsAvailable_AssignsPatientToVisit() {
+    public void registerPatientToVisit_VisitIsAvailable_ClaimsVisitWithoutLoadingIt() {
         //given
         long visitId = 1;
         long patientId = 1;
-        Visit visit = buildVisit();
         Patient patient = buildPatient();
-        Visit expectedVisit = buildVisit();
-        expectedVisit.setPatient(patient);
-        when(visitRepository.findById(visitId)).thenReturn(Optional.of(visit));
         when(patientRepository.findById(patientId)).thenReturn(Optional.of(patient));
+        when(visitRepository.registerPatientIfAvailable(visitId, patient, getOffsetDateTime(Instant.parse("2012-12-12T12:00:00Z")))).thenReturn(1);
         //when
         visitService.registerPatientToVisit(visitId, patientId);
         //then
-        verify(visitRepository, times(1)).save(argThat(new VisitArgumentMatcher(expectedVisit)));
+        verify(visitRepository, times(1)).registerPatientIfAvailable(visitId, patient, getOffsetDateTime(Instant.parse("2012-12-12T12:00:00Z")));
+        verify(visitRepository, never()).findById(any());
+        verify(visitRepository, never()).save(any());
     }
 
     @Test
@@ -440,11 +821,13 @@ public class VisitServiceTest {
         //given
         long visitId = 1;
         Visit visit = buildVisit();
+        doctorVisitIndex.add(visit);
         when(visitRepository.findById(visitId)).thenReturn(Optional.of(visit));
         //when
         visitService.deleteVisit(visitId);
         //then
         verify(visitRepository, times(1)).delete(argThat(new VisitArgumentMatcher(visit)));
+        assertFalse(doctorVisitIndex.overlaps(visit.getDoctor().getId(), visit.getStartTime(), visit.getEndTime()));
     }
 
     private OffsetDateTime getOffsetDateTime(Instant instant) {
@@ -469,6 +852,19 @@ public class VisitServiceTest {
                 .build();
     }
 
+    private VisitRow buildVisitRow(Long id, Patient patient) {
+        Doctor doctor = buildDoctor();
+        return new VisitRow(id, getOffsetDateTime(Instant.parse("2012-12-13T12:00:00Z")), getOffsetDateTime(Instant.parse("2012-12-13T13:00:00Z")),
+                doctor.getId(), doctor.getEmail(), doctor.getFirstName(), doctor.getLastName(), doctor.getSpecialization(),
+                patient == null ? null : patient.getId(),
+                patient == null ? null : patient.getEmail(),
+                patient == null ? null : patient.getIdCardNo(),
+                patient == null ? null : patient.getFirstName(),
+                patient == null ? null : patient.getLastName(),
+                patient == null ? null : patient.getPhoneNumber(),
+                patient == null ? null : patient.getBirthday());
+    }
+
     private InsertVisitCommand getInsertVisitCommand(OffsetDateTime startTime, OffsetDateTime endTime, Long doctorId) {
         return InsertVisitCommand.builder()
                 .startTime(startTime)
@@ -477,6 +873,18 @@ public class VisitServiceTest {
                 .build();
     }
 
+    private AvailableSlotDTO buildAvailableSlotDto() {
+        return AvailableSlotDTO.builder()
+                .visitId(1L)
+                .startTime(getOffsetDateTime(Instant.parse("2012-12-13T12:00:00Z")))
+                .endTime(getOffsetDateTime(Instant.parse("2012-12-13T13:00:00Z")))
+                .doctorId(1L)
+                .doctorFirstName("firstName")
+                .doctorLastName("lastName")
+                .specialization("specialization")
+                .build();
+    }
+
     private Doctor buildDoctor() {
         return Doctor.builder()
                 .id(1L)